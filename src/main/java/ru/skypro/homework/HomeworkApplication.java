@@ -2,15 +2,18 @@ package ru.skypro.homework;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Главный класс приложения.
  *
  * <p>Запускает Spring Boot контекст, инициирует автоматическую конфигурацию
  * и сканирование компонентов проекта Homework API.</p>
+ * <p>Включает выполнение фоновых задач по расписанию (очередь удаления файлов).</p>
  */
 
 @SpringBootApplication
+@EnableScheduling
 public class HomeworkApplication {
     public static void main(String[] args) {
         SpringApplication.run(HomeworkApplication.class, args);
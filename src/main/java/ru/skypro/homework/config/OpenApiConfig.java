@@ -11,7 +11,7 @@ import org.springframework.context.annotation.Configuration;
  * Конфигурация OpenAPI (Swagger) для документирования API.
  *
  * <p>Настраивает спецификацию Swagger UI, добавляя поддержку
- * схемы авторизации {@code Basic Auth}. Это позволяет тестировать
+ * схем авторизации {@code Basic Auth} и {@code Bearer} (токен из {@code /login}). Это позволяет тестировать
  * защищенные эндпоинты в браузере, используя кнопку <b>Authorize</b>.</p>
  *
  * <p>Настройка необходима для корректной передачи заголовков авторизации
@@ -27,14 +27,21 @@ public class OpenApiConfig {
     @Bean
     public OpenAPI customizeOpenAPI() {
         final String securitySchemeName = "basicAuth";
+        final String tokenSchemeName = "bearerAuth";
         return new OpenAPI()
                 .addSecurityItem(new SecurityRequirement()
                         .addList(securitySchemeName))
+                .addSecurityItem(new SecurityRequirement()
+                        .addList(tokenSchemeName))
                 .components(new Components()
                         .addSecuritySchemes(securitySchemeName, new SecurityScheme()
                                 .name(securitySchemeName)
                                 .type(SecurityScheme.Type.HTTP)
-                                .scheme("basic")));
+                                .scheme("basic"))
+                        .addSecuritySchemes(tokenSchemeName, new SecurityScheme()
+                                .name(tokenSchemeName)
+                                .type(SecurityScheme.Type.HTTP)
+                                .scheme("bearer")));
     }
 
 
@@ -8,9 +8,13 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import ru.skypro.homework.security.TokenAuthenticationFilter;
+import ru.skypro.homework.security.TokenProvider;
+import ru.skypro.homework.security.TokenRevocationList;
 
 import java.util.Arrays;
 import java.util.List;
@@ -21,7 +25,8 @@ import static org.springframework.security.config.Customizer.withDefaults;
  * Конфигурация безопасности веб-приложения.
  *
  * <p>Класс отвечает за настройку прав доступа, фильтрацию HTTP-запросов
- * и политику (CORS). В текущей конфигурации используется аутентификация {@code Basic Auth}.</p>
+ * и политику (CORS). Поддерживаются аутентификация {@code Basic Auth} и подписанные
+ * токены доступа ({@code Bearer}), выдаваемые при входе в систему.</p>
  *
  * <p><b>Основные настройки:</b></p>
  * <ul>
@@ -36,7 +41,7 @@ import static org.springframework.security.config.Customizer.withDefaults;
  * гибкости настройки CORS и прав доступа для различных окружений.</p>
  *
  * @see ru.skypro.homework.config.OpenApiConfig
- * @see ru.skypro.homework.config.WebConfig
+ * @see ru.skypro.homework.controller.ImagesController
  */
 
 @Configuration
@@ -62,7 +67,9 @@ public class WebSecurityConfig {
     private String corsMapping;
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           TokenProvider tokenProvider,
+                                           TokenRevocationList revocationList) throws Exception {
         http
                 .csrf().disable()
                 .cors(withDefaults())
@@ -70,6 +77,8 @@ public class WebSecurityConfig {
                         .mvcMatchers(authWhitelist).permitAll()
                         .mvcMatchers(protectedEndpoints).authenticated()
                 )
+                .addFilterBefore(new TokenAuthenticationFilter(tokenProvider, revocationList),
+                        BasicAuthenticationFilter.class)
                 .httpBasic(withDefaults());
         return http.build();
     }
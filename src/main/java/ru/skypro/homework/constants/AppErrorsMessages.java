@@ -19,6 +19,7 @@ public final class AppErrorsMessages {
     public static final String ONLY_ADMIN_ACCESS = "Only Admin access";
     public static final String INVALID_PASSWORD = "Invalid password";
     public static final String AUTH_DATA_NOT_FOUND = "Auth data not found";
+    public static final String INVALID_TOKEN = "Invalid or expired token";
 
 
     /**
@@ -29,6 +30,7 @@ public final class AppErrorsMessages {
     public static final String AD_NOT_FOUND = "Ad not found";
     public static final String COMMENT_NOT_FOUND = "Comment not found";
     public static final String INVALID_RELATION = "Invalid relation ad->comment";
+    public static final String JOB_NOT_FOUND = "Job not found";
 
 
     /**
@@ -39,6 +41,28 @@ public final class AppErrorsMessages {
     public static final String UNSUPPORTED_FILE_TYPE = "Unsupported file type";
     public static final String FILE_TOO_BIG = "File too big";
     public static final String FILE_NOT_FOUND = "File not found";
+    public static final String INVALID_IMAGE = "Malformed image header";
+    public static final String IMAGE_TOO_LARGE = "Image dimensions too large";
+
+
+    /**
+     * Ошибки параметров запроса.
+     */
+
+    public static final String INVALID_CURSOR = "Invalid cursor";
+    public static final String INVALID_SEARCH_QUERY = "Invalid search query";
+    public static final String INVALID_PRICE_RANGE = "Invalid price range";
+    public static final String INVALID_SORT = "Invalid sort";
+    public static final String INVALID_BULK_FORMAT = "Invalid bulk format";
+
+
+    /**
+     * Ошибки записей массовой загрузки.
+     */
+
+    public static final String MALFORMED_RECORD = "Malformed record";
+    public static final String RECORD_TOO_LONG = "Record too long";
+    public static final String UNTERMINATED_QUOTE = "Unterminated quoted field";
 
 
     private AppErrorsMessages() {
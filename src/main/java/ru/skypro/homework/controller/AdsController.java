@@ -9,18 +9,35 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import ru.skypro.homework.constants.AppErrorsMessages;
 import ru.skypro.homework.dto.ads.Ad;
 import ru.skypro.homework.dto.ads.Ads;
 import ru.skypro.homework.dto.ads.CreateOrUpdateAd;
 import ru.skypro.homework.dto.ads.ExtendedAd;
+import ru.skypro.homework.dto.ads.Suggestions;
+import ru.skypro.homework.dto.images.ImageInfo;
+import ru.skypro.homework.dto.images.ImageUpdateResponse;
+import ru.skypro.homework.exceptions.NotFoundException;
+import ru.skypro.homework.service.AdSearchService;
 import ru.skypro.homework.service.AdService;
+import ru.skypro.homework.service.AdSuggestService;
+import ru.skypro.homework.service.ImageDeliveryService;
+import ru.skypro.homework.utils.AdFilter;
+import ru.skypro.homework.utils.ImageUploadPolicy;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * Контроллер для работы с объявлениями пользователей.
@@ -32,6 +49,8 @@ import javax.validation.Valid;
  * </ul>
  *
  * @see ru.skypro.homework.service.AdService
+ * @see ru.skypro.homework.service.AdSearchService
+ * @see ru.skypro.homework.service.AdSuggestService
  */
 
 @Slf4j
@@ -41,11 +60,21 @@ import javax.validation.Valid;
 public class AdsController {
 
     private final AdService adService;
+    private final AdSearchService adSearchService;
+    private final AdSuggestService adSuggestService;
+    private final ImageDeliveryService imageDeliveryService;
+    private final ImageUploadPolicy uploadPolicy;
+
+    @Value("${app.images.base-url}")
+    private String baseUrl;
+
+    @Value("${app.images.update-response}")
+    private ImageUpdateResponse updateResponse;
 
 
     @GetMapping("/ads")
     @Operation(
-            summary = "Получение всех объявлений",
+            summary = "Получение объявлений (постранично, с фильтром по цене и автору)",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -57,8 +86,88 @@ public class AdsController {
                     )
             }
     )
-    public Ads getAllAds(Authentication authentication) {
-        return adService.getAds(authentication);
+    public Ads getAllAds(
+            @RequestParam(required = false)
+            @Parameter(description = "минимальная цена")
+            Integer minPrice,
+            @RequestParam(required = false)
+            @Parameter(description = "максимальная цена")
+            Integer maxPrice,
+            @RequestParam(required = false)
+            @Parameter(description = "идентификатор автора")
+            Long authorId,
+            @RequestParam(required = false)
+            @Parameter(description = "порядок: newest (по умолчанию), price_asc, price_desc")
+            String sort,
+            @RequestParam(required = false)
+            @Parameter(description = "курсор следующей страницы из предыдущего ответа")
+            String cursor,
+            @RequestParam(required = false)
+            @Parameter(description = "размер страницы")
+            Integer size,
+            @Parameter(hidden = true) Authentication authentication) {
+        return adService.getAds(AdFilter.of(minPrice, maxPrice, authorId, sort), cursor, size, authentication);
+    }
+
+    @GetMapping("/ads/search")
+    @Operation(
+            summary = "Поиск объявлений по заголовку и описанию (постранично, по релевантности)",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "OK",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = Ads.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Bad Request", content = @Content())
+            }
+    )
+    public Ads searchAds(
+            @RequestParam
+            @Parameter(description = "строка поиска")
+            String q,
+            @RequestParam(required = false)
+            @Parameter(description = "минимальная цена")
+            Integer minPrice,
+            @RequestParam(required = false)
+            @Parameter(description = "максимальная цена")
+            Integer maxPrice,
+            @RequestParam(required = false)
+            @Parameter(description = "курсор следующей страницы из предыдущего ответа")
+            String cursor,
+            @RequestParam(required = false)
+            @Parameter(description = "размер страницы")
+            Integer size,
+            @Parameter(hidden = true) Authentication authentication) {
+        return adSearchService.search(q, minPrice, maxPrice, cursor, size, authentication);
+    }
+
+    @GetMapping("/ads/suggest")
+    @Operation(
+            summary = "Подсказки для строки поиска объявлений",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "OK",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = Suggestions.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Bad Request", content = @Content())
+            }
+    )
+    public Suggestions suggestAds(
+            @RequestParam
+            @Parameter(description = "введенная строка; последнее слово дополняется")
+            String prefix,
+            @RequestParam(required = false)
+            @Parameter(description = "число подсказок")
+            Integer limit,
+            @Parameter(hidden = true) Authentication authentication) {
+        return adSuggestService.suggest(prefix, limit, authentication);
     }
 
     @PostMapping(value = "/ads", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -161,29 +270,99 @@ public class AdsController {
     }
 
 
+    /**
+     * Обновление картинки объявления.
+     * <p>Формат ответа задается параметром {@code app.images.update-response}:</p>
+     * <ul>
+     *     <li>{@code metadata} - ссылка, размер, хэш и ссылки на уменьшенные копии ({@link ImageInfo});</li>
+     *     <li>{@code redirect} - 303 на ссылку сохраненной картинки;</li>
+     *     <li>{@code bytes} - совместимость: содержимое сохраненного файла
+     *     (передается потоком с диска, без буферизации в памяти); 404, если файл не найден.</li>
+     * </ul>
+     */
     @PatchMapping(value = "/ads/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
-            produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
     @Operation(
             summary = "Обновление картинки объявления",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
                             description = "OK",
-                            content = @Content(
-                                    mediaType = MediaType.APPLICATION_OCTET_STREAM_VALUE,
-                                    array = @ArraySchema(schema = @Schema(type = "string", format = "byte"))
-                            )
+                            content = {
+                                    @Content(
+                                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                            schema = @Schema(implementation = ImageInfo.class)),
+                                    @Content(
+                                            mediaType = MediaType.APPLICATION_OCTET_STREAM_VALUE,
+                                            array = @ArraySchema(schema = @Schema(type = "string", format = "byte")))
+                            }
                     ),
+                    @ApiResponse(responseCode = "303", description = "See Other", content = @Content()),
                     @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content()),
                     @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content()),
                     @ApiResponse(responseCode = "404", description = "Not Found", content = @Content()),
             }
     )
-    public byte[] updateImage(@PathVariable("id") Integer id,
-                              @RequestPart(value = "image") MultipartFile image,
-                              Authentication authentication
+    public ResponseEntity<?> updateImage(@PathVariable("id") Integer id,
+                                         @RequestPart(value = "image") MultipartFile image,
+                                         Authentication authentication
     ) {
-        return adService.updateAdImage(image, Long.valueOf(id), authentication);
+        return imageResponse(adService.updateAdImage(image, Long.valueOf(id), authentication));
+    }
+
+    /**
+     * Потоковое обновление картинки объявления: тело запроса - само изображение, без multipart.
+     * <p>Тело не буферизуется контейнером и записывается сразу в каталог хранения;
+     * размер проверяется по {@code Content-Length} до чтения и во время чтения.
+     * Формат ответа - как у {@link #updateImage}.</p>
+     */
+    @PutMapping(value = "/ads/{id}/image", consumes = {"image/jpeg", "image/png", "image/webp"},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @Operation(
+            summary = "Потоковое обновление картинки объявления",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "OK",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ImageInfo.class))
+                    ),
+                    @ApiResponse(responseCode = "303", description = "See Other", content = @Content()),
+                    @ApiResponse(responseCode = "400", description = "Bad Request", content = @Content()),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content()),
+                    @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content()),
+                    @ApiResponse(responseCode = "404", description = "Not Found", content = @Content()),
+            }
+    )
+    public ResponseEntity<?> uploadImage(@PathVariable("id") Integer id,
+                                         HttpServletRequest request,
+                                         Authentication authentication
+    ) throws IOException {
+        uploadPolicy.checkDeclaredSize(request.getContentLengthLong());
+        try (InputStream content = request.getInputStream()) {
+            return imageResponse(adService.uploadAdImage(content, Long.valueOf(id), authentication));
+        }
+    }
+
+    private ResponseEntity<?> imageResponse(ImageInfo info) {
+        switch (updateResponse) {
+            case REDIRECT:
+                return ResponseEntity.status(HttpStatus.SEE_OTHER)
+                        .header(HttpHeaders.LOCATION, info.getUrl())
+                        .build();
+            case BYTES:
+                return imageDeliveryService.findImage(info.getUrl().substring(baseUrl.length()))
+                        .<ResponseEntity<?>>map(stored -> ResponseEntity.ok()
+                                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                                .contentLength(stored.getSize())
+                                .body(new FileSystemResource(stored.getFile())))
+                        .orElseThrow(() -> new NotFoundException(AppErrorsMessages.FILE_NOT_FOUND));
+            default:
+                return ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(info);
+        }
     }
 
 
@@ -2,6 +2,7 @@ package ru.skypro.homework.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -12,7 +13,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import ru.skypro.homework.dto.Login;
+import ru.skypro.homework.dto.RefreshToken;
 import ru.skypro.homework.dto.Register;
+import ru.skypro.homework.dto.Token;
 import ru.skypro.homework.service.AuthService;
 
 import javax.validation.Valid;
@@ -22,7 +25,8 @@ import javax.validation.Valid;
  * <p>Обеспечивает:</p>
  * <ul>
  *     <li> регистрацию нового пользователя </li>
- *     <li> авторизацию зарегистрированного пользователя </li>
+ *     <li> авторизацию зарегистрированного пользователя с выдачей токенов </li>
+ *     <li> обновление токенов по токену обновления </li>
  * </ul>
  *
  * @see ru.skypro.homework.service.AuthService
@@ -38,13 +42,28 @@ public class AuthController {
     @Tag(name = "Авторизация")
     @Operation(summary = "Авторизация пользователя",
             responses = {
-                    @ApiResponse(responseCode = "200", description = "OK", content = @Content()),
+                    @ApiResponse(responseCode = "200", description = "OK",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = Token.class))),
                     @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content()),
             })
     @PostMapping("/login")
-    public void login(@Valid @RequestBody Login login) {
-        authService.login(login.getUsername(), login.getPassword());
+    public Token login(@Valid @RequestBody Login login) {
+        Token token = authService.login(login.getUsername(), login.getPassword());
         log.info("Successful login user {}", login.getUsername());
+        return token;
+    }
+
+    @Tag(name = "Авторизация")
+    @Operation(summary = "Обновление токенов",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "OK",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = Token.class))),
+                    @ApiResponse(responseCode = "400", description = "Bad Request", content = @Content()),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content()),
+            })
+    @PostMapping("/refresh")
+    public Token refresh(@Valid @RequestBody RefreshToken refreshToken) {
+        return authService.refresh(refreshToken.getRefreshToken());
     }
 
     @Tag(name = "Регистрация")
@@ -1,6 +1,7 @@
 package ru.skypro.homework.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -39,7 +40,7 @@ public class CommentsController {
 
     @GetMapping("/ads/{id}/comments")
     @Operation(
-            summary = "Получение комментариев объявления",
+            summary = "Получение комментариев объявления (постранично, от новых к старым)",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -53,8 +54,16 @@ public class CommentsController {
                     @ApiResponse(responseCode = "404", description = "Not Found", content = @Content())
             }
     )
-    public Comments getComments(@PathVariable Integer id, Authentication authentication) {
-        return commentService.getAllCommentsAd(Long.valueOf(id), authentication);
+    public Comments getComments(
+            @PathVariable Integer id,
+            @RequestParam(required = false)
+            @Parameter(description = "курсор следующей страницы из предыдущего ответа")
+            String cursor,
+            @RequestParam(required = false)
+            @Parameter(description = "размер страницы")
+            Integer size,
+            @Parameter(hidden = true) Authentication authentication) {
+        return commentService.getAllCommentsAd(Long.valueOf(id), cursor, size, authentication);
     }
 
     @PostMapping("/ads/{id}/comments")
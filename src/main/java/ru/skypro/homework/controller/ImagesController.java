@@ -0,0 +1,150 @@
+package ru.skypro.homework.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.util.UrlPathHelper;
+import ru.skypro.homework.constants.AppErrorsMessages;
+import ru.skypro.homework.dto.images.StoredImage;
+import ru.skypro.homework.exceptions.NotFoundException;
+import ru.skypro.homework.service.ImageDeliveryService;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Контроллер отдачи загруженных изображений ({@code app.images.resource-handler}).
+ *
+ * <ul>
+ *     <li>Условные запросы: {@code If-None-Match}/{@code If-Modified-Since} - ответ 304 без тела.
+ *     ETag строгий, вычисляется по содержимому файла.</li>
+ *     <li>Запросы части файла: один диапазон {@code Range: bytes=...} - ответ 206,
+ *     недопустимый диапазон - 416. При нескольких диапазонах отдается весь файл.</li>
+ *     <li>Файлы контентно-адресуемого хранилища отдаются с
+ *     {@code Cache-Control: immutable} на год, остальные - на {@code app.images.cache-period}.</li>
+ *     <li>Тело передается без копирования в память приложения: через sendfile контейнера
+ *     Tomcat, если он поддерживается, иначе через {@link FileChannel#transferTo}.</li>
+ * </ul>
+ *
+ * <p>При развертывании в Docker-контейнере необходимо обеспечить соответствие
+ * пути в {@code app.upload.main-dir} смонтированному тому (volume).</p>
+ *
+ * @see ru.skypro.homework.service.ImageDeliveryService
+ */
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Изображения")
+public class ImagesController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    private final ImageDeliveryService imageDeliveryService;
+
+    @Value("${app.images.base-url}")
+    private String baseUrl;
+
+    @Value("${app.images.cache-period}")
+    private long cachePeriod;
+
+    @GetMapping("${app.images.resource-handler}")
+    @Operation(
+            summary = "Получение изображения",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = "image/*")),
+                    @ApiResponse(responseCode = "206", description = "Partial Content", content = @Content(mediaType = "image/*")),
+                    @ApiResponse(responseCode = "304", description = "Not Modified", content = @Content()),
+                    @ApiResponse(responseCode = "404", description = "Not found", content = @Content()),
+                    @ApiResponse(responseCode = "416", description = "Range Not Satisfiable", content = @Content())
+            }
+    )
+    public void getImage(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        String imagePath = path.startsWith(baseUrl) ? path.substring(baseUrl.length()) : path;
+        StoredImage image = imageDeliveryService.findImage(imagePath)
+                .orElseThrow(() -> new NotFoundException(AppErrorsMessages.FILE_NOT_FOUND));
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, image.isImmutable()
+                ? IMMUTABLE_CACHE_CONTROL
+                : CacheControl.maxAge(cachePeriod, TimeUnit.SECONDS).getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(image.getEtag(), image.getLastModified())) {
+            return;
+        }
+
+        long size = image.getSize();
+        long start = 0;
+        long end = size - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(image.getEtag()))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+                log.debug("Invalid range {}", rangeHeader);
+            }
+            if (ranges.size() == 1) {
+                start = ranges.get(0).getRangeStart(size);
+                end = ranges.get(0).getRangeEnd(size);
+                if (start >= size || end < start) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentType(image.getContentType());
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length <= 0) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, image.getFile().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(image.getFile(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, out);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+}
@@ -1,18 +1,38 @@
 package ru.skypro.homework.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.skypro.homework.dto.ads.Ads;
+import ru.skypro.homework.dto.bulk.BulkFormat;
+import ru.skypro.homework.dto.comments.Comments;
+import ru.skypro.homework.dto.jobs.Job;
 import ru.skypro.homework.dto.metric.BusinessMetric;
+import ru.skypro.homework.dto.metric.CacheMetric;
+import ru.skypro.homework.dto.metric.FileCleanupMetric;
+import ru.skypro.homework.dto.metric.ImageUploadMetric;
+import ru.skypro.homework.dto.metric.OrphanImageMetric;
+import ru.skypro.homework.service.BulkTransferService;
+import ru.skypro.homework.service.ExportService;
+import ru.skypro.homework.service.JobService;
 import ru.skypro.homework.service.ManagementService;
 
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+
 @Slf4j
 @RestController
 @RequiredArgsConstructor
@@ -20,6 +40,9 @@ import ru.skypro.homework.service.ManagementService;
 public class ManagementController {
 
     private final ManagementService managementService;
+    private final ExportService exportService;
+    private final BulkTransferService bulkTransferService;
+    private final JobService jobService;
 
     @GetMapping("/management/metric")
     @Operation(
@@ -38,36 +61,282 @@ public class ManagementController {
         return managementService.getBusinessMetric(authentication);
     }
 
+    @GetMapping("/management/metric/caches")
+    @Operation(
+            summary = "Вывод метрики кэшей приложения",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "OK",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = CacheMetric.class)))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content()),
+                    @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content())
+            })
+    public List<CacheMetric> getCacheMetrics(Authentication authentication) {
+        return managementService.getCacheMetrics(authentication);
+    }
+
+    @GetMapping("/management/metric/uploads")
+    @Operation(
+            summary = "Вывод метрики загрузок изображений",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "OK",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = ImageUploadMetric.class)))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content()),
+                    @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content())
+            })
+    public List<ImageUploadMetric> getUploadMetrics(Authentication authentication) {
+        return managementService.getUploadMetrics(authentication);
+    }
+
+    @GetMapping("/management/metric/file-cleanup")
+    @Operation(
+            summary = "Вывод метрики очереди удаления файлов",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "OK",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = FileCleanupMetric.class))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content()),
+                    @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content())
+            })
+    public FileCleanupMetric getFileCleanupMetric(Authentication authentication) {
+        return managementService.getFileCleanupMetric(authentication);
+    }
+
+    @GetMapping("/management/metric/orphan-images")
+    @Operation(
+            summary = "Вывод метрики сборщика файлов без ссылок",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "OK",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = OrphanImageMetric.class))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content()),
+                    @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content())
+            })
+    public OrphanImageMetric getOrphanImageMetric(Authentication authentication) {
+        return managementService.getOrphanImageMetric(authentication);
+    }
+
+    @GetMapping("/management/export/ads")
+    @Operation(
+            summary = "Выгрузка всех объявлений",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "OK",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = Ads.class))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content()),
+                    @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content())
+            })
+    public ResponseEntity<StreamingResponseBody> exportAds(Authentication authentication) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(exportService.exportAds(authentication));
+    }
+
+    @GetMapping("/management/export/ads/{id}/comments")
+    @Operation(
+            summary = "Выгрузка всех комментариев объявления",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "OK",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = Comments.class))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content()),
+                    @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content()),
+                    @ApiResponse(responseCode = "404", description = "Not Found", content = @Content())
+            })
+    public ResponseEntity<StreamingResponseBody> exportComments(@PathVariable Integer id,
+                                                                Authentication authentication) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(exportService.exportComments(Long.valueOf(id), authentication));
+    }
+
+    @GetMapping("/management/bulk/ads")
+    @Operation(
+            summary = "Выгрузка объявлений для переноса (ndjson, csv)",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "OK", content = {
+                            @Content(mediaType = "application/x-ndjson"),
+                            @Content(mediaType = "text/csv")}),
+                    @ApiResponse(responseCode = "400", description = "Bad Request", content = @Content()),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content()),
+                    @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content())
+            })
+    public ResponseEntity<StreamingResponseBody> bulkExportAds(
+            @RequestParam(defaultValue = "ndjson") String format, Authentication authentication) {
+        BulkFormat bulkFormat = BulkFormat.of(format);
+        return bulkResponse("ads", bulkFormat, bulkTransferService.exportAds(bulkFormat, authentication));
+    }
+
+    @GetMapping("/management/bulk/users")
+    @Operation(
+            summary = "Выгрузка пользователей для переноса (ndjson, csv)",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "OK", content = {
+                            @Content(mediaType = "application/x-ndjson"),
+                            @Content(mediaType = "text/csv")}),
+                    @ApiResponse(responseCode = "400", description = "Bad Request", content = @Content()),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content()),
+                    @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content())
+            })
+    public ResponseEntity<StreamingResponseBody> bulkExportUsers(
+            @RequestParam(defaultValue = "ndjson") String format, Authentication authentication) {
+        BulkFormat bulkFormat = BulkFormat.of(format);
+        return bulkResponse("users", bulkFormat, bulkTransferService.exportUsers(bulkFormat, authentication));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> bulkResponse(String name, BulkFormat format,
+                                                                      StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + "." + format.getExtension()).build().toString())
+                .body(body);
+    }
+
+    @PostMapping("/management/bulk/ads")
+    @Operation(
+            summary = "Загрузка объявлений (ndjson, csv)",
+            description = "Тело запроса сохраняется, загрузка выполняется фоновой задачей; состояние задачи - "
+                    + "по ссылке из заголовка Location",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "202",
+                            description = "Accepted",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = Job.class))),
+                    @ApiResponse(responseCode = "400", description = "Bad Request", content = @Content()),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content()),
+                    @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content())
+            })
+    public ResponseEntity<Job> bulkImportAds(@RequestParam(defaultValue = "ndjson") String format,
+                                             InputStream body, Authentication authentication) {
+        return accepted(bulkTransferService.importAds(body, BulkFormat.of(format), authentication));
+    }
+
+    @PostMapping("/management/bulk/users")
+    @Operation(
+            summary = "Загрузка пользователей (ndjson, csv)",
+            description = "Тело запроса сохраняется, загрузка выполняется фоновой задачей; состояние задачи - "
+                    + "по ссылке из заголовка Location",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "202",
+                            description = "Accepted",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = Job.class))),
+                    @ApiResponse(responseCode = "400", description = "Bad Request", content = @Content()),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content()),
+                    @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content())
+            })
+    public ResponseEntity<Job> bulkImportUsers(@RequestParam(defaultValue = "ndjson") String format,
+                                               InputStream body, Authentication authentication) {
+        return accepted(bulkTransferService.importUsers(body, BulkFormat.of(format), authentication));
+    }
+
+
+    @GetMapping("/management/jobs")
+    @Operation(
+            summary = "Последние фоновые задачи",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "OK",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = Job.class)))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content()),
+                    @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content())
+            })
+    public List<Job> getJobs(Authentication authentication) {
+        return jobService.getJobs(authentication);
+    }
+
+    @GetMapping("/management/jobs/{id}")
+    @Operation(
+            summary = "Состояние фоновой задачи",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "OK",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = Job.class))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content()),
+                    @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content()),
+                    @ApiResponse(responseCode = "404", description = "Not Found", content = @Content())
+            })
+    public Job getJob(@PathVariable Long id, Authentication authentication) {
+        return jobService.getJob(id, authentication);
+    }
+
 
     @DeleteMapping("/management/soft_delete_user/{id}")
-    @ResponseStatus(HttpStatus.NO_CONTENT)
     @Operation(
             summary = "Удаление пользователя с возможностью восстановления",
+            description = "Вход пользователя запрещается сразу, объявления удаляются фоновой задачей; "
+                    + "состояние задачи - по ссылке из заголовка Location",
             responses = {
-                    @ApiResponse(responseCode = "204", description = "No Content", content = @Content()),
+                    @ApiResponse(
+                            responseCode = "202",
+                            description = "Accepted",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = Job.class))),
                     @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content()),
                     @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content()),
                     @ApiResponse(responseCode = "404", description = "Not Found", content = @Content()),
             }
     )
-    public void softRemoveUser(@PathVariable Integer id, Authentication authentication) {
-        managementService.softDeleteUser(Long.valueOf(id), authentication);
+    public ResponseEntity<Job> softRemoveUser(@PathVariable Integer id, Authentication authentication) {
+        return accepted(managementService.softDeleteUser(Long.valueOf(id), authentication));
     }
 
     @DeleteMapping("/management/hard_delete_user/{id}")
-    @ResponseStatus(HttpStatus.NO_CONTENT)
     @Operation(
             summary = "Полное удаление пользователя",
+            description = "Вход пользователя запрещается сразу, данные удаляются фоновой задачей; "
+                    + "состояние задачи - по ссылке из заголовка Location",
             responses = {
-                    @ApiResponse(responseCode = "204", description = "No Content", content = @Content()),
+                    @ApiResponse(
+                            responseCode = "202",
+                            description = "Accepted",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = Job.class))),
                     @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content()),
                     @ApiResponse(responseCode = "403", description = "Forbidden", content = @Content()),
                     @ApiResponse(responseCode = "404", description = "Not Found", content = @Content()),
             }
     )
-    public void hardRemoveUser(@PathVariable Integer id, Authentication authentication) {
-        managementService.hardDeleteUser(Long.valueOf(id), authentication);
+    public ResponseEntity<Job> hardRemoveUser(@PathVariable Integer id, Authentication authentication) {
+        return accepted(managementService.hardDeleteUser(Long.valueOf(id), authentication));
     }
 
-}
+    private ResponseEntity<Job> accepted(Job job) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/management/jobs/" + job.getId()))
+                .body(job);
+    }
 
+}
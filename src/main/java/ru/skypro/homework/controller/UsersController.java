@@ -15,8 +15,12 @@ import ru.skypro.homework.dto.users.NewPassword;
 import ru.skypro.homework.dto.users.UpdateUser;
 import ru.skypro.homework.dto.users.User;
 import ru.skypro.homework.service.UserService;
+import ru.skypro.homework.utils.ImageUploadPolicy;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * Контроллер для работы с информацией о пользователе.
@@ -37,6 +41,7 @@ import javax.validation.Valid;
 public class UsersController {
 
     private final UserService userService;
+    private final ImageUploadPolicy uploadPolicy;
 
     @PostMapping("/users/set_password")
     @Operation(
@@ -97,4 +102,25 @@ public class UsersController {
         userService.updateAuthUserImage(image, authentication);
     }
 
+    /**
+     * Потоковое обновление аватара: тело запроса - само изображение, без multipart.
+     * <p>Тело не буферизуется контейнером и записывается сразу в каталог хранения;
+     * размер проверяется по {@code Content-Length} до чтения и во время чтения.</p>
+     */
+    @PutMapping(value = "/users/me/image", consumes = {"image/jpeg", "image/png", "image/webp"})
+    @Operation(
+            summary = "Потоковое обновление аватара авторизованного пользователя",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "OK", content = @Content()),
+                    @ApiResponse(responseCode = "400", description = "Bad Request", content = @Content()),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content())
+            }
+    )
+    public void uploadUserImage(HttpServletRequest request, Authentication authentication) throws IOException {
+        uploadPolicy.checkDeclaredSize(request.getContentLengthLong());
+        try (InputStream content = request.getInputStream()) {
+            userService.uploadAuthUserImage(content, authentication);
+        }
+    }
+
 }
@@ -0,0 +1,22 @@
+package ru.skypro.homework.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+
+/**
+ * Запрос на обновление токенов.
+ *
+ * <p>Передается в теле запроса при обновлении пары токенов.</p>
+ * {@link ru.skypro.homework.controller.AuthController}
+ */
+
+@Data
+@Schema(description = "RefreshToken")
+public class RefreshToken {
+
+    @Schema(description = "токен обновления")
+    @NotBlank
+    private String refreshToken;
+}
@@ -0,0 +1,35 @@
+package ru.skypro.homework.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Токены, выдаваемые при входе в систему и при обновлении.
+ *
+ * <p>Токен доступа передается в заголовке {@code Authorization: Bearer ...}
+ * вместо логина и пароля. Токен обновления используется для получения новой пары токенов.</p>
+ * {@link ru.skypro.homework.controller.AuthController}
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Token")
+public class Token {
+
+    @Schema(description = "токен доступа")
+    private String accessToken;
+
+    @Schema(description = "токен обновления")
+    private String refreshToken;
+
+    @Schema(description = "тип токена", example = "Bearer")
+    private String tokenType;
+
+    @Schema(description = "время жизни токена доступа, секунды")
+    private Long expiresIn;
+}
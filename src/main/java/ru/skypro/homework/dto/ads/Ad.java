@@ -3,6 +3,8 @@ package ru.skypro.homework.dto.ads;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 
+import java.util.Map;
+
 /**
  * Краткая форма объявления.
  * <p> Маппинг:
@@ -19,6 +21,9 @@ public class Ad {
     @Schema(description = "ссылка на картинку объявления")
     private String image;
 
+    @Schema(description = "ссылки на уменьшенные копии картинки объявления (thumb, card, full)")
+    private Map<String, String> imageVariants;
+
     @Schema(description = "id объявления")
     private Integer pk;
 
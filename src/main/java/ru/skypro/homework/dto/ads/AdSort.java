@@ -0,0 +1,17 @@
+package ru.skypro.homework.dto.ads;
+
+/**
+ * Порядок выдачи списка объявлений ({@code GET /ads?sort=}).
+ *
+ * <p>Ключ сортировки всегда заканчивается {@code id}, поэтому порядок однозначен
+ * и пригоден для постраничной выдачи по курсору.</p>
+ */
+
+public enum AdSort {
+    /** От новых к старым: {@code id desc}. */
+    NEWEST,
+    /** От дешевых к дорогим: {@code price asc, id asc}. */
+    PRICE_ASC,
+    /** От дорогих к дешевым: {@code price desc, id desc}. */
+    PRICE_DESC
+}
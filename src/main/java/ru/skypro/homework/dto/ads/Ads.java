@@ -15,10 +15,13 @@ import java.util.List;
 @Data
 public class Ads {
 
-    @Schema(description = "общее количество объявлений")
+    @Schema(description = "общее количество объявлений (в поиске - только для первой страницы, при запросе с курсором - null)")
     private Integer count;
 
     @Schema(description = "")
     private List<Ad> results;
 
+    @Schema(description = "курсор следующей страницы (null - страница последняя)")
+    private String next;
+
 }
@@ -3,6 +3,8 @@ package ru.skypro.homework.dto.ads;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 
+import java.util.Map;
+
 /**
  * Развернутая форма объявления.
  * <p> Маппинг:
@@ -31,6 +33,9 @@ public class ExtendedAd {
     @Schema(description = "ссылка на картинку объявления")
     private String image;
 
+    @Schema(description = "ссылки на уменьшенные копии картинки объявления (thumb, card, full)")
+    private Map<String, String> imageVariants;
+
     @Schema(description = "телефон автора объявления")
     private String phone;
 
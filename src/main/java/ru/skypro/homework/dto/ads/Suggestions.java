@@ -0,0 +1,26 @@
+package ru.skypro.homework.dto.ads;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Подсказки для строки поиска объявлений ({@code GET /ads/suggest}).
+ */
+
+@Schema(description = "Suggestions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Suggestions {
+
+    @Schema(description = "количество подсказок")
+    private Integer count;
+
+    @Schema(description = "подсказки по убыванию числа объявлений")
+    private List<String> results;
+
+}
@@ -0,0 +1,50 @@
+package ru.skypro.homework.dto.bulk;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+/**
+ * Запись объявления для массовой выгрузки и загрузки.
+ *
+ * <p>Автор задается логином (email), а не id: идентификаторы различаются между окружениями.
+ * При загрузке {@code id} не используется, объявление создается без изображения.
+ * Ограничения полей - как у {@link ru.skypro.homework.dto.ads.CreateOrUpdateAd}.</p>
+ * <p> Маппинг:
+ * {@link ru.skypro.homework.mappers.BulkRecordMapper} </p>
+ */
+
+@Schema(description = "AdRecord")
+@JsonPropertyOrder({"id", "author", "title", "description", "price"})
+@Data
+public class AdRecord {
+
+    @Schema(description = "id объявления в исходном окружении")
+    private Long id;
+
+    @Schema(description = "логин автора объявления")
+    @NotBlank
+    private String author;
+
+    @Schema(description = "заголовок объявления", minLength = 4, maxLength = 32)
+    @NotNull
+    @Size(min = 4, max = 32)
+    private String title;
+
+    @Schema(description = "описание объявления", minLength = 8, maxLength = 64)
+    @NotNull
+    @Size(min = 8, max = 64)
+    private String description;
+
+    @Schema(description = "цена объявления", minimum = "0", maximum = "1000000")
+    @NotNull
+    @Min(0)
+    @Max(1000000)
+    private Integer price;
+}
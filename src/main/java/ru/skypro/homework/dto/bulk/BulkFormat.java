@@ -0,0 +1,46 @@
+package ru.skypro.homework.dto.bulk;
+
+import ru.skypro.homework.constants.AppErrorsMessages;
+import ru.skypro.homework.exceptions.BadRequestException;
+
+import java.util.Locale;
+
+/**
+ * Форматы массовой выгрузки и загрузки записей ({@code /management/bulk/**}).
+ *
+ * <p>{@link #NDJSON} - по одному JSON-объекту на строку; {@link #CSV} - RFC 4180,
+ * первая строка - заголовок с именами полей записи.</p>
+ */
+
+public enum BulkFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String extension;
+
+    BulkFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Формат по параметру запроса без учета регистра.
+     * @throws BadRequestException если формат не поддерживается.
+     */
+    public static BulkFormat of(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new BadRequestException(AppErrorsMessages.INVALID_BULK_FORMAT);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ru.skypro.homework.dto.bulk;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import ru.skypro.homework.dto.Role;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+
+/**
+ * Запись пользователя для массовой выгрузки и загрузки.
+ *
+ * <p>Пароль переносится хэшем BCrypt, чтобы пользователь мог войти в новом окружении
+ * с прежним паролем; открытый пароль не принимается. Выгружаются только действующие
+ * пользователи. При загрузке {@code id} не используется, роль по умолчанию - {@code USER}.
+ * Ограничения полей - как у {@link ru.skypro.homework.dto.Register}.</p>
+ * <p> Маппинг:
+ * {@link ru.skypro.homework.mappers.BulkRecordMapper} </p>
+ */
+
+@Schema(description = "UserRecord")
+@JsonPropertyOrder({"id", "email", "firstName", "lastName", "phone", "role", "passwordHash"})
+@Data
+public class UserRecord {
+
+    @Schema(description = "id пользователя в исходном окружении")
+    private Long id;
+
+    @Schema(description = "логин пользователя", minLength = 4, maxLength = 32)
+    @NotNull
+    @Size(min = 4, max = 32)
+    private String email;
+
+    @Schema(description = "имя пользователя", minLength = 2, maxLength = 16)
+    @Size(min = 2, max = 16)
+    private String firstName;
+
+    @Schema(description = "фамилия пользователя", minLength = 2, maxLength = 16)
+    @Size(min = 2, max = 16)
+    private String lastName;
+
+    @Schema(description = "телефон пользователя", pattern = "\\+7\\s?\\(?\\d{3}\\)?\\s?\\d{3}-?\\d{2}-?\\d{2}")
+    @NotNull
+    @Pattern(regexp = "\\+7\\s?\\(?\\d{3}\\)?\\s?\\d{3}-?\\d{2}-?\\d{2}")
+    private String phone;
+
+    @Schema(description = "роль пользователя")
+    private Role role;
+
+    @Schema(description = "хэш пароля BCrypt")
+    @NotNull
+    @Pattern(regexp = "\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}")
+    private String passwordHash;
+}
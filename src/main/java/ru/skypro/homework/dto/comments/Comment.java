@@ -3,6 +3,8 @@ package ru.skypro.homework.dto.comments;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 
+import java.util.Map;
+
 /**
  * Форма комментария к объявлению .
  * <p> Маппинг:
@@ -20,6 +22,9 @@ public class Comment {
     @Schema(description = "ссылка на аватар автора комментария")
     private String authorImage;
 
+    @Schema(description = "ссылки на уменьшенные копии аватара автора комментария (thumb, card, full)")
+    private Map<String, String> authorImageVariants;
+
     @Schema(description = "имя создателя комментария")
     private String authorFirstName;
 
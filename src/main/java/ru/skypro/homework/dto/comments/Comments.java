@@ -15,9 +15,12 @@ import java.util.List;
 @Data
 public class Comments {
 
-    @Schema(description = "общее количество комментариев")
+    @Schema(description = "общее количество комментариев (только для первой страницы, при запросе с курсором - null)")
     private Integer count;
 
     @Schema(description = "")
     private List<Comment> results;
+
+    @Schema(description = "курсор следующей страницы (null - страница последняя)")
+    private String next;
 }
@@ -0,0 +1,71 @@
+package ru.skypro.homework.dto.images;
+
+import java.util.Optional;
+
+/**
+ * Форматы изображений, распознаваемые по сигнатуре (magic bytes) в начале файла.
+ *
+ * <p>Тип файла определяется по содержимому, а не по заголовку {@code Content-Type}
+ * клиента; от формата зависит расширение сохраняемого файла.</p>
+ */
+
+public enum ImageFormat {
+    JPEG("jpeg", "image/jpeg"),
+    PNG("png", "image/png"),
+    WEBP("webp", "image/webp");
+
+    /** Число байт, достаточное для распознавания любого из форматов. */
+    public static final int SIGNATURE_LENGTH = 12;
+
+    private static final byte[] JPEG_SIGNATURE = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] RIFF_SIGNATURE = {'R', 'I', 'F', 'F'};
+    private static final byte[] WEBP_SIGNATURE = {'W', 'E', 'B', 'P'};
+
+    private final String extension;
+    private final String mediaType;
+
+    ImageFormat(String extension, String mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Распознавание формата по первым байтам файла.
+     * @param header начало файла.
+     * @param length число прочитанных байт.
+     * @return формат или пустой результат, если сигнатура не распознана.
+     */
+    public static Optional<ImageFormat> detect(byte[] header, int length) {
+        if (startsWith(header, length, 0, JPEG_SIGNATURE)) {
+            return Optional.of(JPEG);
+        }
+        if (startsWith(header, length, 0, PNG_SIGNATURE)) {
+            return Optional.of(PNG);
+        }
+        if (startsWith(header, length, 0, RIFF_SIGNATURE) && startsWith(header, length, 8, WEBP_SIGNATURE)) {
+            return Optional.of(WEBP);
+        }
+        return Optional.empty();
+    }
+
+    private static boolean startsWith(byte[] header, int length, int offset, byte[] signature) {
+        if (length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if (header[offset + i] != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
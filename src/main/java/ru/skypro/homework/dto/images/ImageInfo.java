@@ -0,0 +1,38 @@
+package ru.skypro.homework.dto.images;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Сведения о сохраненном изображении.
+ * <p> Маппинг:
+ * {@link ru.skypro.homework.mappers.AdMapper} </p>
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "ImageInfo")
+public class ImageInfo {
+
+    @Schema(description = "ссылка на картинку")
+    private String url;
+
+    @Schema(description = "размер файла, байты")
+    private Long size;
+
+    @Schema(description = "SHA-256 содержимого (hex)")
+    private String hash;
+
+    @Schema(description = "MIME-тип картинки", example = "image/png")
+    private String contentType;
+
+    @Schema(description = "ссылки на уменьшенные копии картинки (thumb, card, full)")
+    private Map<String, String> variants;
+}
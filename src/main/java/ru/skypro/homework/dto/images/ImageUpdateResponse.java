@@ -0,0 +1,16 @@
+package ru.skypro.homework.dto.images;
+
+/**
+ * Формат ответа на обновление картинки объявления ({@code app.images.update-response}).
+ *
+ * <p>Значение параметра проверяется при запуске: неизвестный формат не дает создать контроллер.</p>
+ */
+
+public enum ImageUpdateResponse {
+    /** Ссылка, размер, хэш и ссылки на уменьшенные копии ({@link ImageInfo}). */
+    METADATA,
+    /** 303 на ссылку сохраненной картинки. */
+    REDIRECT,
+    /** Совместимость: содержимое сохраненного файла; 404, если файл не найден. */
+    BYTES
+}
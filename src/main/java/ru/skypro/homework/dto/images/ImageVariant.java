@@ -0,0 +1,78 @@
+package ru.skypro.homework.dto.images;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Уменьшенные копии (варианты) загруженных изображений.
+ *
+ * <p>Вариант хранится рядом с оригиналом, к имени файла добавляется суффикс:
+ * {@code ads_images/1_uuid.png -> ads_images/1_uuid_thumb.png}.
+ * Размер варианта - длина большей стороны в пикселях, пропорции сохраняются.</p>
+ */
+
+public enum ImageVariant {
+    THUMB("thumb", 200),
+    CARD("card", 480),
+    FULL("full", 1280);
+
+    private static final Pattern VARIANT_PATH = Pattern.compile("^(.+)_(thumb|card|full)(\\.[^./]+)?$");
+
+    private final String suffix;
+    private final int maxSide;
+
+    ImageVariant(String suffix, int maxSide) {
+        this.suffix = suffix;
+        this.maxSide = maxSide;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    public int getMaxSide() {
+        return maxSide;
+    }
+
+    /**
+     * Путь к варианту изображения.
+     * @param imagePath относительный путь к оригиналу.
+     */
+    public String pathOf(String imagePath) {
+        int dot = imagePath.lastIndexOf('.');
+        if (dot <= imagePath.lastIndexOf('/')) {
+            return imagePath + "_" + suffix;
+        }
+        return imagePath.substring(0, dot) + "_" + suffix + imagePath.substring(dot);
+    }
+
+    /**
+     * Путь к оригиналу по пути варианта.
+     * @param path относительный путь к файлу.
+     * @return путь к оригиналу или пустой результат, если путь не является вариантом.
+     */
+    public static Optional<String> originalOf(String path) {
+        Matcher matcher = VARIANT_PATH.matcher(path);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(matcher.group(1) + (matcher.group(3) == null ? "" : matcher.group(3)));
+    }
+
+    /**
+     * Ссылки на все варианты изображения.
+     * @param baseUrl префикс ссылок ({@code app.images.base-url}).
+     * @param imagePath относительный путь к оригиналу.
+     * @return ссылки по названию варианта ({@code thumb, card, full}).
+     */
+    public static Map<String, String> urlsOf(String baseUrl, String imagePath) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (ImageVariant variant : values()) {
+            urls.put(variant.suffix, baseUrl + variant.pathOf(imagePath));
+        }
+        return urls;
+    }
+}
@@ -0,0 +1,35 @@
+package ru.skypro.homework.dto.images;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+/**
+ * Файл изображения, найденный для отдачи клиенту.
+ * <p> Формирование:
+ * {@link ru.skypro.homework.service.ImageDeliveryService} </p>
+ */
+
+@Getter
+@Builder
+public class StoredImage {
+
+    /** Файл на диске. */
+    private final Path file;
+
+    /** Размер файла, байты. */
+    private final long size;
+
+    /** Время последнего изменения, мс (epoch). */
+    private final long lastModified;
+
+    /** Строгий ETag (в кавычках), производный от хэша содержимого. */
+    private final String etag;
+
+    /** MIME-тип по расширению файла. */
+    private final String contentType;
+
+    /** Содержимое по этой ссылке никогда не меняется (контентно-адресуемое имя). */
+    private final boolean immutable;
+}
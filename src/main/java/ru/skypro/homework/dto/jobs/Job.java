@@ -0,0 +1,60 @@
+package ru.skypro.homework.dto.jobs;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Состояние фоновой задачи.
+ * <p> Маппинг:
+ * {@link ru.skypro.homework.mappers.JobMapper} </p>
+ */
+
+@Schema(description = "Фоновая задача администрирования")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class Job {
+
+    @Schema(description = "id задачи")
+    private Long id;
+
+    @Schema(description = "Вид задачи")
+    private JobType type;
+
+    @Schema(description = "id объекта задачи (пользователя; для загрузок - администратора)")
+    private Long targetId;
+
+    @Schema(description = "Этап: PENDING (запрос еще не зафиксирован), QUEUED, RUNNING, COMPLETED, FAILED")
+    private JobState state;
+
+    @Schema(description = "Количество обработанных записей")
+    private Long processed;
+
+    @Schema(description = "Количество отклоненных записей (загрузки); причины первых из них - в error")
+    private Long failed;
+
+    @Schema(description = "Количество попыток выполнения")
+    private Integer attempts;
+
+    @Schema(description = "Логин администратора, создавшего задачу")
+    private String createdBy;
+
+    @Schema(description = "Время создания задачи")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Время последнего изменения состояния")
+    private LocalDateTime updatedAt;
+
+    @Schema(description = "Время завершения задачи")
+    private LocalDateTime finishedAt;
+
+    @Schema(description = "Причина последней ошибки; для загрузок - номера строк и причины отклоненных записей")
+    private String error;
+
+}
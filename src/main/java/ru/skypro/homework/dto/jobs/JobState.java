@@ -0,0 +1,23 @@
+package ru.skypro.homework.dto.jobs;
+
+/**
+ * Этапы фоновой задачи.
+ */
+
+public enum JobState {
+    /** Записана, запрос, создавший задачу, еще не зафиксирован; обработчикам недоступна. */
+    PENDING,
+    /** Ожидает обработчика (в том числе повторной попытки после ошибки). */
+    QUEUED,
+    /** Выполняется; при остановке обработчика задача продолжается после истечения аренды. */
+    RUNNING,
+    /** Выполнена. */
+    COMPLETED,
+    /** Не выполнена за {@code app.jobs.max-attempts} попыток. */
+    FAILED;
+
+    /** {@code true}, если задача еще не завершена. */
+    public boolean isActive() {
+        return this == PENDING || this == QUEUED || this == RUNNING;
+    }
+}
@@ -0,0 +1,27 @@
+package ru.skypro.homework.dto.jobs;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Виды фоновых задач администрирования.
+ *
+ * <p>{@code targetId} задачи - идентификатор пользователя; для загрузок -
+ * администратора, начавшего загрузку.</p>
+ */
+
+@Getter
+@RequiredArgsConstructor
+public enum JobType {
+    /** Мягкое удаление пользователя: объявления удаляются, профиль анонимизируется. */
+    SOFT_DELETE_USER(true),
+    /** Полное удаление пользователя и всех связанных данных. */
+    HARD_DELETE_USER(true),
+    /** Загрузка объявлений из файла ({@code POST /management/bulk/ads}). */
+    IMPORT_ADS(false),
+    /** Загрузка пользователей из файла ({@code POST /management/bulk/users}). */
+    IMPORT_USERS(false);
+
+    /** {@code true} - не более одной незавершенной задачи этого вида на {@code targetId}. */
+    private final boolean exclusive;
+}
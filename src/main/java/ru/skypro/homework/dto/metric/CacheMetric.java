@@ -0,0 +1,34 @@
+package ru.skypro.homework.dto.metric;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Метрика кэша")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class CacheMetric {
+
+    @Schema(description = "Название кэша")
+    private String name;
+
+    @Schema(description = "Текущее количество записей (оценка)")
+    private Long size;
+
+    @Schema(description = "Количество попаданий")
+    private Long hitCount;
+
+    @Schema(description = "Количество промахов")
+    private Long missCount;
+
+    @Schema(description = "Доля попаданий (0..1)")
+    private Double hitRate;
+
+    @Schema(description = "Количество вытеснений по размеру или времени жизни")
+    private Long evictionCount;
+
+}
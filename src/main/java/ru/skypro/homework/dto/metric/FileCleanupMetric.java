@@ -0,0 +1,25 @@
+package ru.skypro.homework.dto.metric;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Метрика очереди удаления файлов изображений")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class FileCleanupMetric {
+
+    @Schema(description = "Количество файлов, ожидающих удаления (глубина очереди)")
+    private Long pending;
+
+    @Schema(description = "Количество файлов, которые не удалось удалить за все попытки")
+    private Long failed;
+
+    @Schema(description = "Количество удаленных файлов с момента запуска экземпляра")
+    private Long deleted;
+
+}
@@ -0,0 +1,28 @@
+package ru.skypro.homework.dto.metric;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Метрика загрузок изображений по формату")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class ImageUploadMetric {
+
+    @Schema(description = "Формат по сигнатуре файла (unknown - не распознан)")
+    private String format;
+
+    @Schema(description = "Количество принятых изображений")
+    private Long accepted;
+
+    @Schema(description = "Количество отклоненных изображений")
+    private Long rejected;
+
+    @Schema(description = "Суммарный размер принятых изображений, байты")
+    private Long acceptedBytes;
+
+}
@@ -0,0 +1,31 @@
+package ru.skypro.homework.dto.metric;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Метрика сборщика файлов изображений без ссылок в БД")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class OrphanImageMetric {
+
+    @Schema(description = "Количество запусков с момента старта экземпляра")
+    private Long runs;
+
+    @Schema(description = "Количество проверенных файлов")
+    private Long scanned;
+
+    @Schema(description = "Количество файлов, перенесенных в карантин")
+    private Long quarantined;
+
+    @Schema(description = "Освобожденный объем, байты")
+    private Long reclaimedBytes;
+
+    @Schema(description = "Путь, после которого продолжится обход (пусто - с начала)")
+    private String checkpoint;
+
+}
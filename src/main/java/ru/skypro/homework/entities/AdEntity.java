@@ -12,14 +12,17 @@ import javax.validation.constraints.PositiveOrZero;
  *
  * <p>Связана с пользователем (автором) через {@code user_id}.
  * Реализовано каскадное удаление на уровне БД при удалении владельца.</p>
- *  <p>Для ускорения поиска объявлений по пользователю настроен
- *  индекс в таблице.</p>
+ *  <p>Для выборки объявлений пользователя и фильтра по цене с постраничной выдачей
+ *  настроены составные индексы {@code (user_id, id)} и {@code (price, id)}.</p>
+ * <p>Идентификатор выдается последовательностью {@code ads_seq} блоками по 50 (pooled-lo),
+ * поэтому вставки объединяются в пакеты JDBC.</p>
  *
  */
 
 @Entity
 @Table(name = "ads", indexes = {
-        @Index(name = "idx_ads_user_id", columnList = "user_id")
+        @Index(name = "idx_ads_user_id_id", columnList = "user_id, id"),
+        @Index(name = "idx_ads_price_id", columnList = "price, id")
 })
 @Getter
 @Setter
@@ -29,7 +32,8 @@ import javax.validation.constraints.PositiveOrZero;
 public class AdEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ads_seq")
+    @SequenceGenerator(name = "ads_seq", sequenceName = "ads_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,6 +1,8 @@
 package ru.skypro.homework.entities;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.skypro.homework.dto.Role;
 
 import javax.persistence.*;
@@ -10,10 +12,12 @@ import javax.persistence.*;
  * <p>Связана с с сущностью пользователя {@link UserEntity} через общий  Primary Key {@code id}.</p>
  * Связь реализована через {@link MapsId}, что гарантирует совпадение идентификаторов
  * профиля и данных авторизации.</p>
+ * <p>Записи хранятся в кэше второго уровня (регион {@code auth-data}).</p>
  */
 
 @Entity
 @Table(name = "auth_data")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "auth-data")
 @Getter
 @Setter
 @NoArgsConstructor
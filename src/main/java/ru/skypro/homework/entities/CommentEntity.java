@@ -9,19 +9,23 @@ import javax.persistence.*;
 /**
  * Сущность комментария для хранения в БД.
  *
- * <p>Связана с пользователем (автором) через {@code user_id}.</p>
+ * <p>Связана с пользователем (автором) через {@code user_id}.
+ * При удалении пользователя его комментарии каскадно удаляются на уровне БД.</p>
  *
  * <p>Связана с объявлением через {@code ad_id}.
  * При удалении объявления, все связанные с ним комментарии
  * каскадно удаляются на уровне БД.</p>
  *
  *  <p>Для ускорения поиска комментариев по пользователю или объявлению
- *  настроены соответствующие индексы в таблице.</p>
+ *  настроены соответствующие индексы в таблице. Индекс по объявлению составной
+ *  {@code (ad_id, created_time, id)} - он же обслуживает постраничную выдачу.</p>
+ * <p>Идентификатор выдается последовательностью {@code comments_seq} блоками по 50 (pooled-lo),
+ * поэтому вставки объединяются в пакеты JDBC.</p>
  */
 
 @Entity
 @Table(name = "comments", indexes = {
-        @Index(name = "idx_comments_ad_id", columnList = "ad_id"),
+        @Index(name = "idx_comments_ad_created_id", columnList = "ad_id, created_time, id"),
         @Index(name = "idx_comments_user_id", columnList = "user_id")
 })
 @Getter
@@ -32,7 +36,8 @@ import javax.persistence.*;
 public class CommentEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -42,6 +47,7 @@ public class CommentEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private UserEntity user;
 
     @Column(name = "created_time", nullable = false)
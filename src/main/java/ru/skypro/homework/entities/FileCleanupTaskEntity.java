@@ -0,0 +1,44 @@
+package ru.skypro.homework.entities;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Задача удаления файла изображения (очередь {@code file_cleanup_queue}).
+ *
+ * <p>Записывается в той же транзакции, что и изменение объявления или пользователя,
+ * поэтому при откате транзакции файл не удаляется. Файл удаляется фоновым
+ * обработчиком после фиксации; при ошибке попытка повторяется не раньше
+ * {@code nextAttemptAt}.</p>
+ */
+
+@Entity
+@Table(name = "file_cleanup_queue", indexes = {
+        @Index(name = "idx_file_cleanup_next_attempt", columnList = "next_attempt_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FileCleanupTaskEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "file_cleanup_queue_seq")
+    @SequenceGenerator(name = "file_cleanup_queue_seq", sequenceName = "file_cleanup_queue_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "path", nullable = false)
+    private String path;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,41 @@
+package ru.skypro.homework.entities;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Сущность файла изображения в контентно-адресуемом хранилище.
+ *
+ * <p>Идентификатор - SHA-256 содержимого файла (hex). Одинаковые изображения,
+ * загруженные в разные объявления и аватары, хранятся в одном экземпляре;
+ * {@code refCount} - число ссылок на файл. Файл удаляется с диска,
+ * когда удаляется последняя ссылка.</p>
+ */
+
+@Entity
+@Table(name = "image_blobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImageBlobEntity {
+
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash;
+
+    @Column(name = "path", nullable = false)
+    private String path;
+
+    @Column(name = "size", nullable = false)
+    private long size;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
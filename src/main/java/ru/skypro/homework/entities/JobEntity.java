@@ -0,0 +1,87 @@
+package ru.skypro.homework.entities;
+
+import lombok.*;
+import ru.skypro.homework.dto.jobs.JobState;
+import ru.skypro.homework.dto.jobs.JobType;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Фоновая задача администрирования (таблица {@code management_jobs}).
+ *
+ * <p>Записывается в транзакции запроса, выполняется обработчиком после ее фиксации
+ * порциями, каждая порция - в отдельной короткой транзакции вместе с обновлением
+ * {@code processed}. Задача захватывается до {@code leaseUntil}; аренда продлевается
+ * после каждой порции, поэтому задачу остановленного обработчика (в том числе после
+ * перезапуска приложения) продолжает другой обработчик.</p>
+ *
+ * <p>{@code activeType} повторяет {@code type} исключающих видов задач
+ * ({@link JobType#isExclusive()}), пока задача не завершена, и очищается при завершении:
+ * уникальность пары ({@code target_id}, {@code active_type}) допускает не более одной
+ * незавершенной задачи каждого такого вида на пользователя.</p>
+ *
+ * <p>{@code failed} - число записей, отклоненных обработчиком (для загрузок), причины
+ * первых из них дописываются в {@code error}.</p>
+ */
+
+@Entity
+@Table(name = "management_jobs", indexes = {
+        @Index(name = "idx_management_jobs_state_lease", columnList = "state, lease_until"),
+        @Index(name = "idx_management_jobs_target_id", columnList = "target_id")
+}, uniqueConstraints = @UniqueConstraint(name = "uq_management_jobs_active_target",
+        columnNames = {"target_id", "active_type"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "management_jobs_seq")
+    @SequenceGenerator(name = "management_jobs_seq", sequenceName = "management_jobs_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "type", nullable = false, length = 32)
+    @Enumerated(EnumType.STRING)
+    private JobType type;
+
+    @Column(name = "target_id", nullable = false)
+    private Long targetId;
+
+    @Column(name = "active_type", length = 32)
+    @Enumerated(EnumType.STRING)
+    private JobType activeType;
+
+    @Column(name = "state", nullable = false, length = 16)
+    @Enumerated(EnumType.STRING)
+    private JobState state;
+
+    @Column(name = "processed", nullable = false)
+    private long processed;
+
+    @Column(name = "failed", nullable = false)
+    private long failed;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "lease_until", nullable = false)
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "created_by", nullable = false, length = 64)
+    private String createdBy;
+
+    @Column(name = "error")
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
@@ -1,6 +1,10 @@
 package ru.skypro.homework.entities;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -9,10 +13,16 @@ import java.time.LocalDateTime;
  * Сущность пользователя для хранения в БД.
  * <p>Связана с с сущностью авторизации {@link AuthEntity} через общий  Primary Key {@code id}.</p>
  * <p>Поле {@code DeletedAt} используется в механизме "мягкого удаления" (Soft Delete).</p>
+ * <p>Логин - изменяемый естественный ключ (при мягком удалении логин анонимизируется).
+ * Записи и соответствие логина идентификатору хранятся в кэше второго уровня
+ * (регионы {@code users} и {@code users-natural-id}).</p>
+ * <p>Идентификатор выдается последовательностью {@code users_seq} блоками по 50 (pooled-lo).</p>
  */
 
 @Entity
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-natural-id")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,9 +30,11 @@ import java.time.LocalDateTime;
 @Builder
 public class UserEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
+    @NaturalId(mutable = true)
     @Column(name = "user_name", unique = true, nullable = false, length = 64)
     private String userName;
 
@@ -0,0 +1,167 @@
+package ru.skypro.homework.events;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.skypro.homework.entities.AuthEntity;
+import ru.skypro.homework.entities.UserEntity;
+import ru.skypro.homework.security.CredentialsCache;
+import ru.skypro.homework.security.TokenRevocationList;
+import ru.skypro.homework.service.AdSuggestService;
+import ru.skypro.homework.utils.AdDetailsCache;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.util.UUID;
+
+/**
+ * Сброс локальных кэшей по событиям {@link EntityChangedEvent} на всех экземплярах приложения.
+ *
+ * <ul>
+ *     <li>Событие своего экземпляра применяется сразу при публикации
+ *     (кэши дополнительно сбрасывают записи после фиксации транзакции).</li>
+ *     <li>После фиксации транзакции событие рассылается через {@link InvalidationTransport}
+ *     с идентификатором экземпляра ({@code app.cache.invalidation.node-id},
+ *     по умолчанию случайный).</li>
+ *     <li>Полученные события других экземпляров применяются в потоке канала;
+ *     собственные сообщения пропускаются.</li>
+ * </ul>
+ *
+ * <p>Сбрасываются: {@link AdDetailsCache}, {@link CredentialsCache},
+ * {@link TokenRevocationList} (с моментом отзыва из события). Записи пользователя
+ * в кэше второго уровня Hibernate сбрасываются по событиям других экземпляров
+ * и после фиксации удаления пользователя; локальные изменения кэш второго уровня
+ * отслеживает сам (стратегия read-write).
+ * События комментариев рассылаются, но локальных кэшей комментариев пока нет.</p>
+ *
+ * <p>Индекс подсказок {@link AdSuggestService} перечитывает измененные объявления
+ * из БД, поэтому получает события только после фиксации транзакции
+ * (свои) и из канала (других экземпляров).</p>
+ */
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationListener {
+
+    private final InvalidationTransport transport;
+    private final ObjectMapper objectMapper;
+    private final AdDetailsCache adDetailsCache;
+    private final CredentialsCache credentialsCache;
+    private final TokenRevocationList revocationList;
+    private final AdSuggestService adSuggestService;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${app.cache.invalidation.node-id:}")
+    private String nodeId;
+
+    @PostConstruct
+    private void init() {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = UUID.randomUUID().toString();
+        }
+        transport.subscribe(this::receive);
+        log.info("Cache invalidation node id {}", nodeId);
+    }
+
+    /** Идентификатор экземпляра приложения в сообщениях канала. */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @EventListener
+    public void onLocalChange(EntityChangedEvent event) {
+        apply(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommittedChange(EntityChangedEvent event) {
+        if (event.getType() == EntityChangedEvent.Type.USER_DELETED) {
+            evictSecondLevel(event);
+        }
+        adSuggestService.onEntityChanged(event);
+        try {
+            transport.send(objectMapper.writeValueAsString(new Message(nodeId, event)));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize {}", event, e);
+        }
+    }
+
+    private void receive(String payload) {
+        Message message;
+        try {
+            message = objectMapper.readValue(payload, Message.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Malformed cache invalidation message: {}", payload);
+            return;
+        }
+        if (nodeId.equals(message.getNode())) {
+            return;
+        }
+        log.debug("Remote invalidation from {}: {}", message.getNode(), message.getEvent());
+        apply(message.getEvent());
+        evictSecondLevel(message.getEvent());
+        adSuggestService.onEntityChanged(message.getEvent());
+    }
+
+    private void evictSecondLevel(EntityChangedEvent event) {
+        switch (event.getType()) {
+            case USER_PROFILE_CHANGED:
+            case USER_CREDENTIALS_CHANGED:
+            case USER_DELETED:
+                Cache cache = entityManagerFactory.getCache();
+                cache.evict(UserEntity.class, event.getId());
+                cache.evict(AuthEntity.class, event.getId());
+                entityManagerFactory.unwrap(SessionFactory.class).getCache().evictNaturalIdData(UserEntity.class);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void apply(EntityChangedEvent event) {
+        switch (event.getType()) {
+            case AD_CHANGED:
+                adDetailsCache.evict(event.getId());
+                break;
+            case USER_PROFILE_CHANGED:
+                adDetailsCache.evictByAuthor(event.getUserName());
+                break;
+            case USER_CREDENTIALS_CHANGED:
+                credentialsCache.evictUser(event.getUserName());
+                revocationList.revoke(event.getId(), event.getOccurredAt());
+                break;
+            case USER_DELETED:
+                adDetailsCache.evictByAuthor(event.getUserName());
+                credentialsCache.evictUser(event.getUserName());
+                revocationList.revoke(event.getId(), event.getOccurredAt());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /** Сообщение канала: событие и экземпляр-отправитель. */
+    @Getter
+    static final class Message {
+        private final String node;
+        private final EntityChangedEvent event;
+
+        @JsonCreator
+        Message(@JsonProperty("node") String node, @JsonProperty("event") EntityChangedEvent event) {
+            this.node = node;
+            this.event = event;
+        }
+    }
+}
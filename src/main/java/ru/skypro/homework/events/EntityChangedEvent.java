@@ -0,0 +1,70 @@
+package ru.skypro.homework.events;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Событие изменения сущности, влияющего на локальные кэши.
+ *
+ * <p>Публикуется сервисами при изменении объявлений, комментариев и пользователей.
+ * {@link CacheInvalidationListener} сбрасывает записи локальных кэшей сразу,
+ * а после фиксации транзакции рассылает событие остальным экземплярам приложения
+ * через {@link InvalidationTransport}.</p>
+ */
+
+@Getter
+@ToString
+public class EntityChangedEvent {
+
+    /** Вид изменения. */
+    public enum Type {
+        /** Объявление изменено или удалено; {@code id} - идентификатор объявления. */
+        AD_CHANGED,
+        /** Комментарий добавлен, изменен или удален; {@code id} - идентификатор объявления. */
+        COMMENT_CHANGED,
+        /** Изменен профиль пользователя (имя, телефон). */
+        USER_PROFILE_CHANGED,
+        /** Изменен пароль: токены и проверенные учетные данные недействительны. */
+        USER_CREDENTIALS_CHANGED,
+        /** Пользователь удален. */
+        USER_DELETED,
+        /** Объявления загружены массово (порция загрузки зафиксирована); {@code id} не используется. */
+        ADS_IMPORTED
+    }
+
+    private final Type type;
+    private final Long id;
+    /** Логин пользователя (для событий пользователя). */
+    private final String userName;
+    /** Момент изменения, мс. */
+    private final long occurredAt;
+
+    @JsonCreator
+    public EntityChangedEvent(@JsonProperty("type") Type type,
+                              @JsonProperty("id") Long id,
+                              @JsonProperty("userName") String userName,
+                              @JsonProperty("occurredAt") long occurredAt) {
+        this.type = type;
+        this.id = id;
+        this.userName = userName;
+        this.occurredAt = occurredAt;
+    }
+
+    public static EntityChangedEvent ad(Long adId) {
+        return new EntityChangedEvent(Type.AD_CHANGED, adId, null, System.currentTimeMillis());
+    }
+
+    public static EntityChangedEvent adsImported() {
+        return new EntityChangedEvent(Type.ADS_IMPORTED, null, null, System.currentTimeMillis());
+    }
+
+    public static EntityChangedEvent comment(Long adId) {
+        return new EntityChangedEvent(Type.COMMENT_CHANGED, adId, null, System.currentTimeMillis());
+    }
+
+    public static EntityChangedEvent user(Type type, Long userId, String userName) {
+        return new EntityChangedEvent(type, userId, userName, System.currentTimeMillis());
+    }
+}
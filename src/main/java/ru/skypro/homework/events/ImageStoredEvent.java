@@ -0,0 +1,19 @@
+package ru.skypro.homework.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Событие сохранения нового изображения в хранилище.
+ *
+ * <p>Публикуется {@link ru.skypro.homework.service.ImageService} после записи файла на диск.
+ * Используется для построения уменьшенных копий изображения после фиксации транзакции.</p>
+ */
+
+@Getter
+@AllArgsConstructor
+public class ImageStoredEvent {
+
+    /** Относительный путь к файлу (от {@code app.upload.main-dir}). */
+    private final String imagePath;
+}
@@ -0,0 +1,27 @@
+package ru.skypro.homework.events;
+
+import java.util.function.Consumer;
+
+/**
+ * Канал рассылки событий сброса кэшей между экземплярами приложения.
+ *
+ * <p>Реализация выбирается параметром {@code app.cache.invalidation.transport}:
+ * {@code local} - внутри процесса ({@link LocalInvalidationTransport}),
+ * {@code postgres} - {@code LISTEN/NOTIFY} ({@link PostgresInvalidationTransport}).
+ * Сообщение доставляется всем подписчикам, включая отправителя.</p>
+ */
+
+public interface InvalidationTransport {
+
+    /**
+     * Рассылка сообщения.
+     * @param payload сериализованное событие.
+     */
+    void send(String payload);
+
+    /**
+     * Подписка на сообщения.
+     * @param receiver обработчик; вызывается в потоке канала.
+     */
+    void subscribe(Consumer<String> receiver);
+}
@@ -0,0 +1,40 @@
+package ru.skypro.homework.events;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Канал сброса кэшей внутри процесса.
+ *
+ * <p>Используется при запуске одного экземпляра и в тестах: сообщение синхронно
+ * передается подписчикам того же процесса.</p>
+ */
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation.transport", havingValue = "local", matchIfMissing = true)
+public class LocalInvalidationTransport implements InvalidationTransport {
+
+    private final List<Consumer<String>> receivers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void send(String payload) {
+        for (Consumer<String> receiver : receivers) {
+            try {
+                receiver.accept(payload);
+            } catch (RuntimeException e) {
+                log.error("Invalidation receiver failed", e);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<String> receiver) {
+        receivers.add(receiver);
+    }
+}
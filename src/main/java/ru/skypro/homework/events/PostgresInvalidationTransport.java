@@ -0,0 +1,138 @@
+package ru.skypro.homework.events;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Канал сброса кэшей через {@code LISTEN/NOTIFY} PostgreSQL.
+ *
+ * <p>Отправка - {@code pg_notify} на отдельном соединении пула в режиме автофиксации
+ * (вызывается после фиксации транзакции, соединение транзакции уже не используется).
+ * Прием - выделенное соединение вне пула, которое слушает канал
+ * {@code app.cache.invalidation.channel} и опрашивается фоновым потоком
+ * с интервалом {@code app.cache.invalidation.poll-interval} мс.
+ * При потере соединения поток переподключается; события за время разрыва теряются,
+ * записи кэшей в этом случае устаревают не дольше своего времени жизни.</p>
+ */
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation.transport", havingValue = "postgres")
+public class PostgresInvalidationTransport implements InvalidationTransport {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("^[a-z_][a-z0-9_]*$");
+
+    private final DataSource dataSource;
+    private final DataSourceProperties dataSourceProperties;
+    private final List<Consumer<String>> receivers = new CopyOnWriteArrayList<>();
+
+    @Value("${app.cache.invalidation.channel}")
+    private String channel;
+    @Value("${app.cache.invalidation.poll-interval}")
+    private int pollInterval;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public PostgresInvalidationTransport(DataSource dataSource, DataSourceProperties dataSourceProperties) {
+        this.dataSource = dataSource;
+        this.dataSourceProperties = dataSourceProperties;
+    }
+
+    @PostConstruct
+    private void start() {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalStateException("Invalid invalidation channel name: " + channel);
+        }
+        running = true;
+        listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    private void stop() throws InterruptedException {
+        running = false;
+        listener.interrupt();
+        listener.join(pollInterval * 2L);
+    }
+
+    @Override
+    public void send(String payload) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select pg_notify(?, ?)")) {
+            connection.setAutoCommit(true);
+            statement.setString(1, channel);
+            statement.setString(2, payload);
+            statement.execute();
+        } catch (SQLException e) {
+            log.error("Failed to publish cache invalidation", e);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<String> receiver) {
+        receivers.add(receiver);
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("Listening for cache invalidations on channel {}", channel);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollInterval);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        deliver(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.error("Cache invalidation listener connection lost, reconnecting", e);
+                try {
+                    Thread.sleep(pollInterval);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void deliver(String payload) {
+        for (Consumer<String> receiver : receivers) {
+            try {
+                receiver.accept(payload);
+            } catch (RuntimeException e) {
+                log.error("Invalidation receiver failed", e);
+            }
+        }
+    }
+}
@@ -6,9 +6,13 @@ import ru.skypro.homework.dto.ads.Ad;
 import ru.skypro.homework.dto.ads.Ads;
 import ru.skypro.homework.dto.ads.CreateOrUpdateAd;
 import ru.skypro.homework.dto.ads.ExtendedAd;
+import ru.skypro.homework.dto.images.ImageInfo;
+import ru.skypro.homework.dto.images.ImageVariant;
+import ru.skypro.homework.dto.images.StoredImage;
 import ru.skypro.homework.entities.AdEntity;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Маппер для преобразования сущностей объявлений AdEntity и DTO.
@@ -16,6 +20,7 @@ import java.util.List;
  * Класс нормализует пути к изображениям, добавляя префикс из конфигурации
  * {@code app.images.base-url}, чтобы фронтенд, запущенный в Docker, мог корректно
  * отображать ресурсы по абсолютным путям.
+ * Помимо оригинала возвращает ссылки на уменьшенные копии ({@link ImageVariant}).
  */
 
 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
@@ -33,6 +38,7 @@ public abstract class AdMapper {
 
     @Mapping(target = "author", source = "user.id")
     @Mapping(target = "image", source = "adImage", qualifiedByName = "adImageToPath")
+    @Mapping(target = "imageVariants", source = "adImage", qualifiedByName = "adImageToVariants")
     @Mapping(target = "pk", source = "id")
     public abstract Ad toAdDto(AdEntity adEntity);
 
@@ -42,6 +48,12 @@ public abstract class AdMapper {
         return baseUrl + adImage;
     }
 
+    @Named("adImageToVariants")
+    protected Map<String, String> mapImageVariants(String adImage) {
+        if (adImage == null) return null;
+        return ImageVariant.urlsOf(baseUrl, adImage);
+    }
+
     protected abstract List<Ad> toAdList(List<AdEntity> adEntityList);
 
     public Ads toAds(List<AdEntity> adEntityList) {
@@ -51,6 +63,20 @@ public abstract class AdMapper {
         return ads;
     }
 
+    /**
+     * Маппинг страницы объявлений.
+     * @param adEntityList объявления текущей страницы.
+     * @param total общее (оценочное) количество объявлений или {@code null}, если не вычислялось.
+     * @param next курсор следующей страницы или {@code null}.
+     */
+    public Ads toAdsPage(List<AdEntity> adEntityList, Long total, String next) {
+        Ads ads = new Ads();
+        ads.setCount(total == null ? null : (int) Math.min(total, Integer.MAX_VALUE));
+        ads.setResults(toAdList(adEntityList));
+        ads.setNext(next);
+        return ads;
+    }
+
     /**
      * Маппинг в развернутое DTO объявления.
      * Использует префикс из конфига для формирования полного пути к изображению.
@@ -62,9 +88,27 @@ public abstract class AdMapper {
     @Mapping(target = "description", source = "description")
     @Mapping(target = "email", source = "user.userName")
     @Mapping(target = "image", source = "adImage", qualifiedByName = "adImageToPath")
+    @Mapping(target = "imageVariants", source = "adImage", qualifiedByName = "adImageToVariants")
     @Mapping(target = "phone", source = "user.phone")
     public abstract ExtendedAd toExtendedAd(AdEntity adEntity);
 
+    /**
+     * Маппинг сведений о сохраненном изображении объявления.
+     * @param imagePath относительный путь к изображению.
+     * @param storedImage файл изображения или {@code null}, если он не найден.
+     */
+    public ImageInfo toImageInfo(String imagePath, StoredImage storedImage) {
+        ImageInfo info = new ImageInfo();
+        info.setUrl(mapImage(imagePath));
+        info.setVariants(mapImageVariants(imagePath));
+        if (storedImage != null) {
+            info.setSize(storedImage.getSize());
+            info.setHash(storedImage.getEtag().replace("\"", ""));
+            info.setContentType(storedImage.getContentType());
+        }
+        return info;
+    }
+
     public abstract void updateAdEntity(CreateOrUpdateAd dto, @MappingTarget AdEntity entity);
 
 }
@@ -0,0 +1,40 @@
+package ru.skypro.homework.mappers;
+
+import org.mapstruct.*;
+import ru.skypro.homework.dto.bulk.AdRecord;
+import ru.skypro.homework.dto.bulk.UserRecord;
+import ru.skypro.homework.entities.AdEntity;
+import ru.skypro.homework.entities.AuthEntity;
+import ru.skypro.homework.entities.UserEntity;
+
+/**
+ * Маппер записей массовой выгрузки и загрузки.
+ * <p>
+ * Пути изображений не переносятся: файлы не входят в выгрузку.
+ */
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public abstract class BulkRecordMapper {
+
+    @Mapping(target = "author", source = "user.userName")
+    public abstract AdRecord toAdRecord(AdEntity adEntity);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "adImage", ignore = true)
+    public abstract AdEntity toAdEntity(AdRecord adRecord);
+
+    @Mapping(target = "id", source = "user.id")
+    @Mapping(target = "email", source = "user.userName")
+    @Mapping(target = "firstName", source = "user.firstName")
+    @Mapping(target = "lastName", source = "user.lastName")
+    @Mapping(target = "phone", source = "user.phone")
+    @Mapping(target = "passwordHash", source = "password")
+    public abstract UserRecord toUserRecord(AuthEntity authEntity);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "userName", source = "email")
+    @Mapping(target = "deletedAt", ignore = true)
+    @Mapping(target = "userImage", ignore = true)
+    public abstract UserEntity toUserEntity(UserRecord userRecord);
+}
@@ -5,10 +5,12 @@ import org.springframework.beans.factory.annotation.Value;
 import ru.skypro.homework.dto.comments.Comment;
 import ru.skypro.homework.dto.comments.Comments;
 import ru.skypro.homework.dto.comments.CreateOrUpdateComment;
+import ru.skypro.homework.dto.images.ImageVariant;
 import ru.skypro.homework.entities.CommentEntity;
 import ru.skypro.homework.entities.UserEntity;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Маппер для преобразования сущностей комментариев CommentEntity и DTO.
@@ -28,13 +30,14 @@ public abstract class CommentMapper {
      * Использует префикс из конфига для формирования полного пути к изображению.
      * Отслеживает удаленных (soft-delete) пользователей
      * <ul>
-     *     <li>запрещает показ аватара (возвращает {@code null})</li>
+     *     <li>запрещает показ аватара и его уменьшенных копий (возвращает {@code null})</li>
      *     <li>подменяет имя автора на {@code "Deleted user"}</li>
      * </ul>
      */
 
     @Mapping(target = "author", source = "user.id")
     @Mapping(target = "authorImage", source = "user", qualifiedByName = "mapAvatar")
+    @Mapping(target = "authorImageVariants", source = "user", qualifiedByName = "mapAvatarVariants")
     @Mapping(target = "authorFirstName", source = "user", qualifiedByName = "mapName")
     @Mapping(target = "pk", source = "id")
     public abstract Comment toCommentDto(CommentEntity comment);
@@ -55,6 +58,14 @@ public abstract class CommentMapper {
         return baseUrl + user.getUserImage();
     }
 
+    @Named("mapAvatarVariants")
+    protected Map<String, String> mapAvatarVariants(UserEntity user) {
+        if (user.getDeletedAt() != null || user.getUserImage() == null) {
+            return null;
+        }
+        return ImageVariant.urlsOf(baseUrl, user.getUserImage());
+    }
+
 
     protected abstract List<Comment> toCommentList(List<CommentEntity> commentEntities);
 
@@ -65,6 +76,19 @@ public abstract class CommentMapper {
         return comments;
     }
 
+    /**
+     * Маппинг страницы комментариев.
+     * @param commentEntities комментарии текущей страницы.
+     * @param total общее количество комментариев объявления или {@code null}, если не вычислялось.
+     * @param next курсор следующей страницы или {@code null}.
+     */
+    public Comments toCommentsPage(List<CommentEntity> commentEntities, Long total, String next) {
+        Comments comments = toComments(commentEntities);
+        comments.setCount(total == null ? null : (int) Math.min(total, Integer.MAX_VALUE));
+        comments.setNext(next);
+        return comments;
+    }
+
     public abstract void updateCommentEntity(CreateOrUpdateComment dto, @MappingTarget CommentEntity entity);
 
     @Mapping(target = "id", ignore = true)
@@ -0,0 +1,20 @@
+package ru.skypro.homework.mappers;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+import ru.skypro.homework.dto.jobs.Job;
+import ru.skypro.homework.entities.JobEntity;
+
+import java.util.List;
+
+/**
+ * Маппер фоновых задач JobEntity в DTO.
+ */
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public abstract class JobMapper {
+
+    public abstract Job toJob(JobEntity jobEntity);
+
+    public abstract List<Job> toJobs(List<JobEntity> jobEntities);
+}
@@ -0,0 +1,88 @@
+package ru.skypro.homework.repository;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Полнотекстовый поиск объявлений средствами PostgreSQL.
+ *
+ * <p>Использует генерируемую колонку {@code ads.search_vector} (tsvector заголовка
+ * и описания) с индексом GIN, см. changeset {@code v010}. Колонка не отображается
+ * в сущность {@link ru.skypro.homework.entities.AdEntity}, поэтому запросы
+ * выполняются через JDBC. Строка запроса разбирается {@code websearch_to_tsquery}:
+ * поддерживаются фразы в кавычках, {@code or} и исключение слов через {@code -}.</p>
+ *
+ * <p>Выдача упорядочена по {@code (rank, id)} по убыванию; следующая страница
+ * начинается после пары последней записи предыдущей (keyset pagination).</p>
+ */
+
+@Repository
+@RequiredArgsConstructor
+public class AdFullTextRepository {
+
+    private static final String MATCHES =
+            "FROM ads a, websearch_to_tsquery(CAST(:config AS regconfig), :query) q " +
+            "WHERE a.search_vector @@ q AND a.price BETWEEN :minPrice AND :maxPrice";
+
+    private static final String SEARCH =
+            "SELECT r.id, r.rank FROM (SELECT a.id, ts_rank(a.search_vector, q) AS rank " + MATCHES + ") r ";
+
+    private static final String ORDER_AND_LIMIT = "ORDER BY r.rank DESC, r.id DESC LIMIT :limit";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Идентификаторы найденных объявлений с рангом, по убыванию релевантности.
+     * @param config конфигурация текстового поиска (например, {@code russian}).
+     * @param query строка поиска.
+     * @param minPrice нижняя граница цены.
+     * @param maxPrice верхняя граница цены.
+     * @param after последняя запись предыдущей страницы ({@code null} - первая страница).
+     * @param limit максимальное число записей.
+     */
+    public List<RankedId> search(String config, String query, int minPrice, int maxPrice,
+                                 RankedId after, int limit) {
+        MapSqlParameterSource params = params(config, query, minPrice, maxPrice).addValue("limit", limit);
+        String sql = SEARCH + ORDER_AND_LIMIT;
+        if (after != null) {
+            sql = SEARCH + "WHERE (r.rank, r.id) < (CAST(:rank AS real), :id) " + ORDER_AND_LIMIT;
+            params.addValue("rank", after.getRank()).addValue("id", after.getId());
+        }
+        return jdbcTemplate.query(sql, params,
+                (rs, rowNum) -> new RankedId(rs.getLong("id"), rs.getFloat("rank")));
+    }
+
+    /**
+     * Общее число найденных объявлений.
+     * @param config конфигурация текстового поиска.
+     * @param query строка поиска.
+     * @param minPrice нижняя граница цены.
+     * @param maxPrice верхняя граница цены.
+     */
+    public long count(String config, String query, int minPrice, int maxPrice) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) " + MATCHES,
+                params(config, query, minPrice, maxPrice), Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private static MapSqlParameterSource params(String config, String query, int minPrice, int maxPrice) {
+        return new MapSqlParameterSource()
+                .addValue("config", config)
+                .addValue("query", query)
+                .addValue("minPrice", minPrice)
+                .addValue("maxPrice", maxPrice);
+    }
+
+    /** Идентификатор объявления и его ранг в выдаче. */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class RankedId {
+        private final long id;
+        private final float rank;
+    }
+}
@@ -0,0 +1,14 @@
+package ru.skypro.homework.repository;
+
+/**
+ * Проекция идентификатора и изображения объявления для удаления порциями
+ * ({@link AdsRepository#findChunkByUserId}) и замены изображения
+ * ({@link AdsRepository#findImageById}) без загрузки сущности.
+ */
+
+public interface AdImageView {
+
+    Long getId();
+
+    String getImage();
+}
@@ -0,0 +1,90 @@
+package ru.skypro.homework.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.skypro.homework.dto.ads.AdSort;
+import ru.skypro.homework.entities.AdEntity;
+import ru.skypro.homework.utils.AdFilter;
+
+import javax.persistence.criteria.Predicate;
+
+/**
+ * Условия выборки объявлений (JPA Specifications) для фильтрации списка.
+ *
+ * <p>Условия рассчитаны на составные индексы {@code (price, id)} и {@code (user_id, id)}:
+ * диапазон цены и автор отбираются по первой колонке индекса, а порядок и продолжение
+ * со следующей страницы (keyset) - по всему ключу без сортировки в памяти.</p>
+ */
+
+public final class AdSpecifications {
+
+    /**
+     * Условие фильтра: диапазон цены и автор.
+     * @param filter параметры фильтрации.
+     */
+    public static Specification<AdEntity> matching(AdFilter filter) {
+        return (root, query, cb) -> {
+            Predicate predicate = cb.conjunction();
+            if (filter.getMinPrice() != null) {
+                predicate = cb.and(predicate, cb.greaterThanOrEqualTo(root.get("price"), filter.getMinPrice()));
+            }
+            if (filter.getMaxPrice() != null) {
+                predicate = cb.and(predicate, cb.lessThanOrEqualTo(root.get("price"), filter.getMaxPrice()));
+            }
+            if (filter.getAuthorId() != null) {
+                predicate = cb.and(predicate, cb.equal(root.get("user").get("id"), filter.getAuthorId()));
+            }
+            return predicate;
+        };
+    }
+
+    /**
+     * Условие продолжения выдачи после последней записи предыдущей страницы.
+     * <p>Для сортировки по цене условие {@code (price, id) > (p, i)} записано как
+     * {@code price >= p and (price > p or id > i)}: первая часть задает начало
+     * диапазона индекса.</p>
+     * @param sort порядок выдачи.
+     * @param keys ключ последней записи: {@code (id)} или {@code (price, id)}.
+     */
+    public static Specification<AdEntity> after(AdSort sort, long[] keys) {
+        return (root, query, cb) -> {
+            switch (sort) {
+                case PRICE_ASC:
+                    return cb.and(cb.greaterThanOrEqualTo(root.get("price"), (int) keys[0]),
+                            cb.or(cb.greaterThan(root.get("price"), (int) keys[0]),
+                                    cb.greaterThan(root.get("id"), keys[1])));
+                case PRICE_DESC:
+                    return cb.and(cb.lessThanOrEqualTo(root.get("price"), (int) keys[0]),
+                            cb.or(cb.lessThan(root.get("price"), (int) keys[0]),
+                                    cb.lessThan(root.get("id"), keys[1])));
+                default:
+                    return cb.lessThan(root.get("id"), keys[0]);
+            }
+        };
+    }
+
+    /** Число значений ключа в курсоре для порядка выдачи. */
+    public static int keyLength(AdSort sort) {
+        return sort == AdSort.NEWEST ? 1 : 2;
+    }
+
+    /** Ключ записи для курсора следующей страницы. */
+    public static long[] keyOf(AdSort sort, AdEntity ad) {
+        return sort == AdSort.NEWEST ? new long[]{ad.getId()} : new long[]{ad.getPrice(), ad.getId()};
+    }
+
+    /** Сортировка по ключу выдачи. */
+    public static Sort orderOf(AdSort sort) {
+        switch (sort) {
+            case PRICE_ASC:
+                return Sort.by(Sort.Order.asc("price"), Sort.Order.asc("id"));
+            case PRICE_DESC:
+                return Sort.by(Sort.Order.desc("price"), Sort.Order.desc("id"));
+            default:
+                return Sort.by(Sort.Order.desc("id"));
+        }
+    }
+
+    private AdSpecifications() {
+    }
+}
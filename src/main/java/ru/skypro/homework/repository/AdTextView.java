@@ -0,0 +1,17 @@
+package ru.skypro.homework.repository;
+
+/**
+ * Проекция текста объявления для индекса подсказок
+ * ({@link ru.skypro.homework.service.AdSuggestService}) без загрузки сущности.
+ */
+
+public interface AdTextView {
+
+    Long getId();
+
+    Long getUserId();
+
+    String getTitle();
+
+    String getDescription();
+}
@@ -1,25 +1,120 @@
 package ru.skypro.homework.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import ru.skypro.homework.entities.AdEntity;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 /**
  * Репозиторий для работы с объявлениями в БД.
  *
  * <p>Кроме стандартных операций, поддерживает поиск объявлений по идентификатору
  * автора и по имени пользователя с проверкой на отсутствие метки удаления (Soft Delete).</p>
+ * <p>Постраничная выдача реализована методом поиска по ключу (keyset pagination):
+ * следующая страница начинается после ключа сортировки последней записи предыдущей,
+ * поэтому стоимость запроса не зависит от номера страницы. Фильтры списка
+ * задаются условиями {@link AdSpecifications}, страница выбирается
+ * {@link AdsRepositoryCustom#findFirst}.</p>
+ * <p>Методы {@code ...WithUser...} загружают автора объявления тем же запросом
+ * ({@code join fetch}) для DTO, в которых выводятся его данные.</p>
+ * <p>Объявления пользователя удаляются одним запросом ({@code delete ... where user_id}),
+ * комментарии к ним - каскадно на уровне БД. Пути изображений перед удалением
+ * выбираются отдельной проекцией, без загрузки сущностей. Для фоновых задач объявления
+ * удаляются порциями: {@link #findChunkByUserId} выбирает идентификаторы и изображения
+ * порции, {@link #deleteAllByIdIn} удаляет ее.</p>
+ * <p>Методы {@code ...ByPattern} - поиск по подстроке заголовка и описания
+ * ({@code like}) для H2 и СУБД без полнотекстового поиска, см.
+ * {@link ru.skypro.homework.service.AdSearchService}.</p>
+ * <p>{@link #streamAll()} - курсорная выборка для выгрузки: строки читаются с драйвера
+ * порциями по {@link #STREAM_FETCH_SIZE}, сущности не отслеживаются на изменения.
+ * Поток закрывается вызывающим и читается внутри транзакции. {@link #streamAllWithUser()} -
+ * то же с автором, без записи авторов в кэш второго уровня.</p>
  */
 
-public interface AdsRepository extends JpaRepository<AdEntity, Long> {
+public interface AdsRepository extends JpaRepository<AdEntity, Long>, JpaSpecificationExecutor<AdEntity>,
+        AdsRepositoryCustom {
+
+    String STREAM_FETCH_SIZE = "500";
 
     boolean existsById(Long id);
 
     List<AdEntity> findAllByUser_Id(Long userId);
 
+    @Query("select a from AdEntity a join fetch a.user where a.id = :id")
+    Optional<AdEntity> findWithUserById(@Param("id") Long id);
+
     List<AdEntity> findByUser_UserNameAndUserDeletedAtIsNull(String userName);
 
-    void deleteByUser_Id(Long id);
+    @Query("select a.adImage from AdEntity a where a.adImage in :paths")
+    List<String> findReferencedImages(@Param("paths") Collection<String> paths);
+
+    @Query("select a.id as id, a.adImage as image from AdEntity a where a.user.id = :userId order by a.id")
+    List<AdImageView> findChunkByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from AdEntity a where a.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+
+    @Query("select a from AdEntity a where a.id < :beforeId and a.price between :minPrice and :maxPrice " +
+            "and (lower(a.title) like :pattern escape '\\' or lower(a.description) like :pattern escape '\\') " +
+            "order by a.id desc")
+    List<AdEntity> searchByPattern(@Param("pattern") String pattern, @Param("minPrice") int minPrice,
+                                   @Param("maxPrice") int maxPrice, @Param("beforeId") Long beforeId,
+                                   Pageable pageable);
+
+    @Query("select count(a) from AdEntity a where a.price between :minPrice and :maxPrice " +
+            "and (lower(a.title) like :pattern escape '\\' or lower(a.description) like :pattern escape '\\')")
+    long countByPattern(@Param("pattern") String pattern, @Param("minPrice") int minPrice,
+                        @Param("maxPrice") int maxPrice);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select a from AdEntity a order by a.id")
+    Stream<AdEntity> streamAll();
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")})
+    @Query("select a from AdEntity a join fetch a.user order by a.id")
+    Stream<AdEntity> streamAllWithUser();
+
+    @Query("select a.id as id, a.user.id as userId, a.title as title, a.description as description " +
+            "from AdEntity a where a.id > :afterId order by a.id")
+    List<AdTextView> findTextAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select a.id as id, a.user.id as userId, a.title as title, a.description as description " +
+            "from AdEntity a where a.id = :id")
+    Optional<AdTextView> findTextById(@Param("id") Long id);
+
+    @Query("select a.id as id, a.adImage as image from AdEntity a where a.id = :id")
+    Optional<AdImageView> findImageById(@Param("id") Long id);
+
+    /** Замена изображения, только если текущее изображение равно {@code previous} (сравнение с обменом). */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update AdEntity a set a.adImage = :adImage where a.id = :id " +
+            "and (a.adImage = :previous or (a.adImage is null and :previous is null))")
+    int replaceAdImage(@Param("id") Long id, @Param("previous") String previous, @Param("adImage") String adImage);
+
+    @Query("select a from AdEntity a where a.id > :afterId and a.adImage is not null " +
+            "and a.adImage not like concat(:prefix, '%') order by a.id")
+    List<AdEntity> findImagesOutsidePrefix(@Param("afterId") Long afterId, @Param("prefix") String prefix,
+                                           Pageable pageable);
 
 }
@@ -0,0 +1,23 @@
+package ru.skypro.homework.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.skypro.homework.entities.AdEntity;
+
+import java.util.List;
+
+/**
+ * Дополнительные запросы {@link AdsRepository}, построенные через JPA Criteria API.
+ */
+
+public interface AdsRepositoryCustom {
+
+    /**
+     * Первые записи выборки в заданном порядке, без подсчета общего количества
+     * (в отличие от {@code findAll(Specification, Pageable)}).
+     * @param specification условие выборки.
+     * @param sort порядок.
+     * @param limit максимальное число записей.
+     */
+    List<AdEntity> findFirst(Specification<AdEntity> specification, Sort sort, int limit);
+}
@@ -1,17 +1,42 @@
 package ru.skypro.homework.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.skypro.homework.entities.AuthEntity;
 
+import javax.persistence.QueryHint;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 /**
  * Репозиторий для работы с учетными данными пользователей.
  *
  * <p>Используется для поиска данных авторизации по уникальному
  * имени пользователя (username) при входе в систему.</p>
+ * <p>{@link #streamActiveWithUser()} - курсорная выборка учетных данных действующих
+ * пользователей вместе с профилем для массовой выгрузки, в обход кэша второго уровня.</p>
  */
 
-public interface AuthRepository extends JpaRepository<AuthEntity, Long> {
-    Optional<AuthEntity> findByUser_UserName(String userName);
+public interface AuthRepository extends JpaRepository<AuthEntity, Long>, UserNaturalIdRepository {
+
+    /**
+     * Учетные данные по логину пользователя.
+     * <p>Вместо запроса с соединением таблиц используется поиск пользователя
+     * по естественному ключу и загрузка учетных данных по первичному ключу,
+     * оба - через кэш второго уровня.</p>
+     */
+    default Optional<AuthEntity> findByUser_UserName(String userName) {
+        return findAuthByUserName(userName);
+    }
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = AdsRepository.STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")})
+    @Query("select a from AuthEntity a join fetch a.user u where u.deletedAt is null order by u.id")
+    Stream<AuthEntity> streamActiveWithUser();
 }
@@ -1,18 +1,64 @@
 package ru.skypro.homework.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.skypro.homework.entities.CommentEntity;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 /**
  * Репозиторий для работы с комментариями к объявлениям.
  *
  * <p>Обеспечивает выборку всех комментариев, привязанных к конкретному объявлению
  * по его идентификатору.</p>
+ * <p>Автор комментария загружается тем же запросом ({@code join fetch}):
+ * маппер читает его имя и аватар для каждого комментария.</p>
+ * <p>Постраничная выдача - по ключу {@code (created_time, id)} от новых к старым,
+ * запрос обслуживается составным индексом {@code (ad_id, created_time, id)}.</p>
+ * <p>{@link #streamWithUserByAdId} - курсорная выборка всех комментариев объявления
+ * для выгрузки, в том же порядке; авторы не помещаются в кэш второго уровня. Читается внутри транзакции, поток закрывается вызывающим.</p>
+ * <p>{@link #findIdsByUserId} и {@link #deleteAllByIdIn} - удаление комментариев пользователя
+ * порциями фоновой задачей полного удаления пользователя.</p>
  */
 
 public interface CommentRepository extends JpaRepository<CommentEntity, Long> {
-    List<CommentEntity> findByAd_Id(Long adId);
+    @Query("select c from CommentEntity c join fetch c.user where c.ad.id = :adId " +
+            "order by c.createdAt desc, c.id desc")
+    List<CommentEntity> findPageWithUserByAdId(@Param("adId") Long adId, Pageable pageable);
+
+    @Query("select c from CommentEntity c join fetch c.user where c.ad.id = :adId " +
+            "and (c.createdAt < :createdAt or (c.createdAt = :createdAt and c.id < :id)) " +
+            "order by c.createdAt desc, c.id desc")
+    List<CommentEntity> findPageWithUserByAdIdAfter(@Param("adId") Long adId,
+                                                    @Param("createdAt") Long createdAt,
+                                                    @Param("id") Long id,
+                                                    Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = AdsRepository.STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")})
+    @Query("select c from CommentEntity c join fetch c.user where c.ad.id = :adId " +
+            "order by c.createdAt desc, c.id desc")
+    Stream<CommentEntity> streamWithUserByAdId(@Param("adId") Long adId);
+
+    long countByAd_Id(Long adId);
+
+    @Query("select c.id from CommentEntity c where c.user.id = :userId order by c.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from CommentEntity c where c.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
 
 }
@@ -0,0 +1,47 @@
+package ru.skypro.homework.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.skypro.homework.entities.FileCleanupTaskEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Репозиторий очереди удаления файлов.
+ *
+ * <p>Задача захватывается одним запросом {@code UPDATE} с проверкой числа попыток:
+ * из нескольких обработчиков (в том числе на разных экземплярах приложения)
+ * задачу получает только тот, чей запрос изменил строку. Захват откладывает
+ * следующую попытку на время аренды, поэтому задача, обработчик которой
+ * остановился, будет повторена.</p>
+ */
+
+public interface FileCleanupQueueRepository extends JpaRepository<FileCleanupTaskEntity, Long> {
+
+    @Query("select t from FileCleanupTaskEntity t where t.nextAttemptAt <= :now and t.attempts < :maxAttempts " +
+            "order by t.nextAttemptAt")
+    List<FileCleanupTaskEntity> findDue(@Param("now") LocalDateTime now, @Param("maxAttempts") int maxAttempts,
+                                        Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update FileCleanupTaskEntity t set t.attempts = t.attempts + 1, t.nextAttemptAt = :leaseUntil " +
+            "where t.id = :id and t.attempts = :attempts")
+    int claim(@Param("id") Long id, @Param("attempts") int attempts, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update FileCleanupTaskEntity t set t.nextAttemptAt = :nextAttemptAt where t.id = :id")
+    int reschedule(@Param("id") Long id, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from FileCleanupTaskEntity t where t.id = :id")
+    int complete(@Param("id") Long id);
+
+    long countByAttemptsLessThan(int maxAttempts);
+
+    long countByAttemptsGreaterThanEqual(int maxAttempts);
+
+}
@@ -0,0 +1,37 @@
+package ru.skypro.homework.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.skypro.homework.entities.ImageBlobEntity;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Репозиторий для учета ссылок на файлы контентно-адресуемого хранилища.
+ *
+ * <p>Изменение счетчика ссылок выполняется одним запросом {@code UPDATE},
+ * без предварительного чтения записи, поэтому параллельные загрузки
+ * одного и того же изображения не теряют ссылки.</p>
+ */
+
+public interface ImageBlobRepository extends JpaRepository<ImageBlobEntity, String> {
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update ImageBlobEntity b set b.refCount = b.refCount + 1 where b.hash = :hash")
+    int incrementRefCount(@Param("hash") String hash);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update ImageBlobEntity b set b.refCount = b.refCount - 1 where b.hash = :hash and b.refCount > 0")
+    int decrementRefCount(@Param("hash") String hash);
+
+    @Query("select b.path from ImageBlobEntity b where b.path in :paths")
+    List<String> findReferencedPaths(@Param("paths") Collection<String> paths);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from ImageBlobEntity b where b.hash = :hash and b.refCount = 0")
+    int deleteUnreferenced(@Param("hash") String hash);
+
+}
@@ -0,0 +1,85 @@
+package ru.skypro.homework.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.skypro.homework.dto.jobs.JobState;
+import ru.skypro.homework.dto.jobs.JobType;
+import ru.skypro.homework.entities.JobEntity;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Репозиторий фоновых задач администрирования.
+ *
+ * <p>Задача захватывается одним запросом {@code UPDATE} с проверкой номера попытки,
+ * как задачи очереди удаления файлов ({@link FileCleanupQueueRepository}):
+ * из нескольких обработчиков задачу получает только тот, чей запрос изменил строку.
+ * Захват и каждая порция продлевают аренду ({@code lease_until}); задача, аренда
+ * которой истекла, снова доступна для захвата. Изменения выполняющейся задачи
+ * проверяют номер попытки: обработчик, потерявший аренду, не перезаписывает
+ * состояние задачи, захваченной заново. Завершение задачи очищает {@code active_type},
+ * освобождая место для новой задачи того же вида.</p>
+ */
+
+public interface JobRepository extends JpaRepository<JobEntity, Long> {
+
+    @Query("select j from JobEntity j where j.state in :states and j.leaseUntil <= :now order by j.leaseUntil")
+    List<JobEntity> findDue(@Param("states") Collection<JobState> states, @Param("now") LocalDateTime now,
+                            Pageable pageable);
+
+    Optional<JobEntity> findFirstByTargetIdAndTypeAndStateIn(Long targetId, JobType type,
+                                                             Collection<JobState> states);
+
+    List<JobEntity> findAllByOrderByIdDesc(Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update JobEntity j set j.state = :state, j.attempts = j.attempts + 1, j.leaseUntil = :leaseUntil, " +
+            "j.updatedAt = :now where j.id = :id and j.attempts = :attempts and j.state in :states")
+    int claim(@Param("id") Long id, @Param("attempts") int attempts, @Param("states") Collection<JobState> states,
+              @Param("state") JobState state, @Param("leaseUntil") LocalDateTime leaseUntil,
+              @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update JobEntity j set j.processed = j.processed + :processed, j.leaseUntil = :leaseUntil, " +
+            "j.updatedAt = :now where j.id = :id and j.attempts = :attempts")
+    int progress(@Param("id") Long id, @Param("attempts") int attempts, @Param("processed") long processed,
+                 @Param("leaseUntil") LocalDateTime leaseUntil, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update JobEntity j set j.state = :state, j.activeType = :activeType, j.error = :error, " +
+            "j.leaseUntil = :leaseUntil, j.updatedAt = :now, j.finishedAt = :finishedAt " +
+            "where j.id = :id and j.attempts = :attempts")
+    int changeState(@Param("id") Long id, @Param("attempts") int attempts,
+                    @Param("state") JobState state, @Param("activeType") JobType activeType,
+                    @Param("error") String error, @Param("leaseUntil") LocalDateTime leaseUntil,
+                    @Param("now") LocalDateTime now, @Param("finishedAt") LocalDateTime finishedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update JobEntity j set j.state = :state, j.activeType = null, j.leaseUntil = :now, " +
+            "j.updatedAt = :now, j.finishedAt = :now where j.id = :id and j.attempts = :attempts")
+    int complete(@Param("id") Long id, @Param("attempts") int attempts, @Param("state") JobState state,
+                 @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update JobEntity j set j.state = :state, j.leaseUntil = :now, j.updatedAt = :now " +
+            "where j.id = :id and j.state = :pending")
+    int activate(@Param("id") Long id, @Param("pending") JobState pending, @Param("state") JobState state,
+                 @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update JobEntity j set j.state = :state, j.activeType = null, j.error = :error, j.updatedAt = :now, " +
+            "j.finishedAt = :now where j.state = :pending and j.leaseUntil <= :now")
+    int expirePending(@Param("pending") JobState pending, @Param("state") JobState state,
+                      @Param("error") String error, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from JobEntity j where j.state in :states and j.finishedAt < :before")
+    int deleteFinishedBefore(@Param("states") Collection<JobState> states, @Param("before") LocalDateTime before);
+
+}
@@ -0,0 +1,59 @@
+package ru.skypro.homework.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.regex.Pattern;
+
+/**
+ * Репозиторий статистики таблиц.
+ *
+ * <p>Возвращает оценку количества строк без полного сканирования таблицы.
+ * Для PostgreSQL используется статистика планировщика {@code pg_class.reltuples}.
+ * Для небольших таблиц, еще не прошедших {@code ANALYZE}, и для прочих СУБД (H2 в тестах)
+ * выполняется точный {@code COUNT(*)}.</p>
+ */
+
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class TableStatsRepository {
+
+    private static final Pattern TABLE_NAME = Pattern.compile("[a-z_]+");
+    private static final long EXACT_COUNT_THRESHOLD = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    /**
+     * Оценка количества строк таблицы.
+     * @param table имя таблицы.
+     */
+    public long estimateRowCount(String table) {
+        if (!TABLE_NAME.matcher(table).matches()) {
+            throw new IllegalArgumentException("Invalid table name " + table);
+        }
+        if (isPostgres()) {
+            Long estimate = jdbcTemplate.queryForObject(
+                    "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)", Long.class, table);
+            if (estimate != null && estimate >= EXACT_COUNT_THRESHOLD) {
+                return estimate;
+            }
+        }
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) c ->
+                    c.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equalsIgnoreCase(product);
+            log.info("Row count estimation uses {} statistics", postgres ? "planner" : "exact");
+        }
+        return postgres;
+    }
+}
@@ -0,0 +1,13 @@
+package ru.skypro.homework.repository;
+
+/**
+ * Проекция идентификатора и аватара пользователя для замены аватара
+ * ({@link UserRepository#findImageById}) без загрузки сущности.
+ */
+
+public interface UserImageView {
+
+    Long getId();
+
+    String getImage();
+}
@@ -0,0 +1,26 @@
+package ru.skypro.homework.repository;
+
+import ru.skypro.homework.entities.AuthEntity;
+import ru.skypro.homework.entities.UserEntity;
+
+import java.util.Optional;
+
+/**
+ * Поиск пользователя и его учетных данных по логину через естественный ключ.
+ *
+ * <p>Логин ({@code user_name}) - естественный ключ {@link UserEntity}. Поиск идет через
+ * {@code Session#bySimpleNaturalId}: соответствие логина идентификатору и сама запись
+ * берутся из кэша второго уровня Hibernate, в БД запрос уходит только при промахе.</p>
+ */
+
+public interface UserNaturalIdRepository {
+
+    Optional<UserEntity> findByUserName(String userName);
+
+    /**
+     * Учетные данные пользователя по логину.
+     * <p>Запись {@link AuthEntity} имеет тот же идентификатор, что и пользователь,
+     * и загружается по первичному ключу (также через кэш второго уровня).</p>
+     */
+    Optional<AuthEntity> findAuthByUserName(String userName);
+}
@@ -0,0 +1,36 @@
+package ru.skypro.homework.repository;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+import ru.skypro.homework.entities.AuthEntity;
+import ru.skypro.homework.entities.UserEntity;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Optional;
+
+/**
+ * Реализация поиска по естественному ключу {@link UserNaturalIdRepository}.
+ * <p>API естественных ключей доступно только у открытой сессии Hibernate,
+ * поэтому методы выполняются в транзакции (или присоединяются к текущей).</p>
+ */
+
+@Transactional(readOnly = true)
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<UserEntity> findByUserName(String userName) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(UserEntity.class)
+                .loadOptional(userName);
+    }
+
+    @Override
+    public Optional<AuthEntity> findAuthByUserName(String userName) {
+        return findByUserName(userName)
+                .map(user -> entityManager.find(AuthEntity.class, user.getId()));
+    }
+}
@@ -1,21 +1,27 @@
 package ru.skypro.homework.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import ru.skypro.homework.entities.UserEntity;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Репозиторий для управления профилями пользователей в БД.
  *
  * <p>Обеспечивает поиск и проверку существования пользователей по уникальному имени
- * (логину).</p>
+ * (логину); поиск по логину - через естественный ключ и кэш второго уровня
+ * ({@link UserNaturalIdRepository}).</p>
  * <p>Подсчитывает количество существовующих и удаленных (soft-delete) пользователей.</p>
  */
 
-public interface UserRepository extends JpaRepository<UserEntity, Long> {
-
-    Optional<UserEntity> findByUserName(String userName);
+public interface UserRepository extends JpaRepository<UserEntity, Long>, UserNaturalIdRepository {
 
     boolean existsByUserName(String UserName);
 
@@ -23,4 +29,29 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
 
     long countByDeletedAtIsNotNull();
 
+    @Query("select u.id as id, u.userImage as image from UserEntity u where u.id = :id")
+    Optional<UserImageView> findImageById(@Param("id") Long id);
+
+    /** Замена аватара, только если текущий аватар равен {@code previous} (сравнение с обменом). */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update UserEntity u set u.userImage = :userImage where u.id = :id " +
+            "and (u.userImage = :previous or (u.userImage is null and :previous is null))")
+    int replaceUserImage(@Param("id") Long id, @Param("previous") String previous,
+                         @Param("userImage") String userImage);
+
+    @Query("select u.userName from UserEntity u where u.userName in :userNames")
+    List<String> findExistingUserNames(@Param("userNames") Collection<String> userNames);
+
+    @Query("select u from UserEntity u where u.userName in :userNames and u.deletedAt is null")
+    List<UserEntity> findActiveByUserNameIn(@Param("userNames") Collection<String> userNames);
+
+    @Query("select u.userImage from UserEntity u where u.userImage in :paths")
+    List<String> findReferencedImages(@Param("paths") Collection<String> paths);
+
+    @Query("select u from UserEntity u where u.id > :afterId and u.userImage is not null " +
+            "and u.userImage not like concat(:prefix, '%') order by u.id")
+    List<UserEntity> findImagesOutsidePrefix(@Param("afterId") Long afterId, @Param("prefix") String prefix,
+                                             Pageable pageable);
+
 }
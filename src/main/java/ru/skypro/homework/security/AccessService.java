@@ -16,8 +16,9 @@ public interface AccessService {
 
     /**Проверка права на редактирование контента.
      * <p>Нужны права автора контента или правав админстратора </p>
-     * <p>{@link ru.skypro.homework.dto.Role#ADMIN}<p/> */
-    void checkEdit(Authentication authentication, String username);
+     * <p>{@link ru.skypro.homework.dto.Role#ADMIN}<p/>
+     * @param ownerId идентификатор автора контента. */
+    void checkEdit(Authentication authentication, Long ownerId);
 
     /** Проверка наличия у пользователя прав администратора
      * <p> {@link ru.skypro.homework.dto.Role#ADMIN}<p/>
@@ -16,6 +16,7 @@ import ru.skypro.homework.exceptions.UnauthorizedException;
  * <p>Методы выбрасывают {@link UnauthorizedException} для неавторизованных пользователей
  * и {@link ForbiddenException} при нарушении прав доступа.
  * <p>Анонимные токены считаются неавторизованными.</p>
+ * <p>Авторство проверяется по идентификатору пользователя ({@link CurrentUser}).</p>
  */
 
 @Slf4j
@@ -23,6 +24,8 @@ import ru.skypro.homework.exceptions.UnauthorizedException;
 @Service
 public class AccessServiceImpl implements AccessService {
 
+    private final CurrentUser currentUser;
+
     public void checkAuth(Authentication authentication) {
         if (authentication == null ||
                 !authentication.isAuthenticated() ||
@@ -32,9 +35,12 @@ public class AccessServiceImpl implements AccessService {
         }
     }
 
-    public void checkEdit(Authentication authentication, String username) {
+    public void checkEdit(Authentication authentication, Long ownerId) {
         checkAuth(authentication);
-        if (!(authentication.getName().equals(username) || isAdmin(authentication))) {
+        if (isAdmin(authentication)) {
+            return;
+        }
+        if (!currentUser.findId(authentication).map(ownerId::equals).orElse(false)) {
             throw new ForbiddenException(AppErrorsMessages.ACCESS_DENIED);
         }
     }
@@ -0,0 +1,75 @@
+package ru.skypro.homework.security;
+
+import lombok.Getter;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import ru.skypro.homework.dto.Role;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Аутентифицированный пользователь в контексте безопасности.
+ *
+ * <p>Кроме логина содержит идентификатор и роль пользователя.
+ * Создается {@link MyUserDetailsService} при входе по логину и паролю и
+ * {@link TokenAuthenticationFilter} по данным токена, поэтому сервисы получают
+ * идентификатор текущего пользователя без повторного поиска по логину
+ * ({@link CurrentUser}). Для удаленного пользователя объект не создается: вход
+ * отклоняется {@link MyUserDetailsService}.</p>
+ *
+ * <p>Пароль удаляется после аутентификации ({@link CredentialsContainer}).</p>
+ */
+
+@Getter
+public class AppUserPrincipal implements UserDetails, CredentialsContainer {
+
+    private final Long id;
+    private final String username;
+    private String password;
+    private final Role role;
+
+    public AppUserPrincipal(Long id, String username, String password, Role role) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.role = role;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role.getRole()));
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        password = null;
+    }
+
+    @Override
+    public String toString() {
+        return "AppUserPrincipal(id=" + id + ", username=" + username + ", role=" + role + ")";
+    }
+}
@@ -0,0 +1,67 @@
+package ru.skypro.homework.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Провайдер аутентификации по логину и паролю с кэшем проверенных учетных данных.
+ *
+ * <p>Оборачивает стандартный {@link DaoAuthenticationProvider}. Повторные запросы
+ * с теми же учетными данными обслуживаются из {@link CredentialsCache} без обращения к БД
+ * и без вычисления BCrypt. Неуспешные попытки не кэшируются.</p>
+ *
+ * <p>Регистрация бина заменяет провайдер, который Spring Security создает по умолчанию
+ * из {@link UserDetailsService} и {@link PasswordEncoder}.</p>
+ */
+
+@Slf4j
+@Component
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final DaoAuthenticationProvider delegate;
+    private final CredentialsCache credentialsCache;
+
+    public CachingAuthenticationProvider(UserDetailsService userDetailsService,
+                                         PasswordEncoder passwordEncoder,
+                                         CredentialsCache credentialsCache) {
+        this.delegate = new DaoAuthenticationProvider();
+        this.delegate.setUserDetailsService(userDetailsService);
+        this.delegate.setPasswordEncoder(passwordEncoder);
+        this.credentialsCache = credentialsCache;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication.getCredentials() instanceof String)) {
+            return delegate.authenticate(authentication);
+        }
+        String username = authentication.getName();
+        String password = (String) authentication.getCredentials();
+
+        Optional<CredentialsCache.VerifiedCredentials> cached = credentialsCache.lookup(username, password);
+        if (cached.isPresent()) {
+            UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                    cached.get().getPrincipal(), null, cached.get().getAuthorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+
+        Authentication result = delegate.authenticate(authentication);
+        credentialsCache.put(username, password, result);
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+}
@@ -0,0 +1,155 @@
+package ru.skypro.homework.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.skypro.homework.dto.metric.CacheMetric;
+
+import javax.annotation.PostConstruct;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Кэш успешно проверенных учетных данных (Basic Auth).
+ *
+ * <p>Позволяет не выполнять проверку BCrypt и загрузку пользователя из БД
+ * на каждый запрос. Ключ записи - HMAC-SHA256 от пары логин/пароль на случайном
+ * ключе, который генерируется при запуске и не покидает память процесса.
+ * Пароль в открытом виде не хранится.</p>
+ *
+ * <p>Кэш ограничен по размеру ({@code app.security.auth-cache.max-size}) и времени
+ * жизни записи ({@code app.security.auth-cache.ttl}). Записи пользователя сбрасываются
+ * при смене пароля и удалении учетной записи.</p>
+ */
+
+@Slf4j
+@Component
+public class CredentialsCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    @Value("${app.security.auth-cache.max-size}")
+    private long maxSize;
+
+    @Value("${app.security.auth-cache.ttl}")
+    private long ttlSeconds;
+
+    private SecretKeySpec hashKey;
+    private Cache<String, VerifiedCredentials> cache;
+
+    @PostConstruct
+    private void init() {
+        byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        hashKey = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        log.info("Credentials cache initialized: max-size {}, ttl {}s", maxSize, ttlSeconds);
+    }
+
+    /**
+     * Поиск ранее проверенных учетных данных.
+     * @return данные аутентифицированного пользователя, если пара логин/пароль уже проверялась.
+     */
+    public Optional<VerifiedCredentials> lookup(String username, String password) {
+        return Optional.ofNullable(cache.getIfPresent(key(username, password)));
+    }
+
+    /** Сохранение результата успешной проверки учетных данных. */
+    public void put(String username, String password, Authentication authentication) {
+        cache.put(key(username, password),
+                new VerifiedCredentials(username, authentication.getPrincipal(), authentication.getAuthorities()));
+    }
+
+    /**
+     * Сброс всех записей пользователя.
+     * <p>Выполняется сразу и повторно после фиксации текущей транзакции, чтобы параллельный
+     * запрос со старым паролем не вернул запись в кэш до коммита изменений.</p>
+     * @param username логин пользователя.
+     */
+    public void evictUser(String username) {
+        removeEntries(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeEntries(username);
+                }
+            });
+        }
+    }
+
+    /** Статистика попаданий и промахов кэша. */
+    public CacheMetric getMetric() {
+        CacheStats stats = cache.stats();
+        return CacheMetric.builder()
+                .name("credentials")
+                .size(cache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .build();
+    }
+
+    private void removeEntries(String username) {
+        if (cache.asMap().values().removeIf(v -> v.getUsername().equals(username))) {
+            log.debug("Credentials cache evicted for user {}", username);
+        }
+    }
+
+    private String key(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hashKey);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC is not available", e);
+        }
+    }
+
+    /** Результат проверки учетных данных без пароля. */
+    public static final class VerifiedCredentials {
+        private final String username;
+        private final Object principal;
+        private final Collection<? extends GrantedAuthority> authorities;
+
+        private VerifiedCredentials(String username, Object principal,
+                                    Collection<? extends GrantedAuthority> authorities) {
+            this.username = username;
+            this.principal = principal;
+            this.authorities = authorities;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public Object getPrincipal() {
+            return principal;
+        }
+
+        public Collection<? extends GrantedAuthority> getAuthorities() {
+            return authorities;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ru.skypro.homework.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import ru.skypro.homework.constants.AppErrorsMessages;
+import ru.skypro.homework.entities.UserEntity;
+import ru.skypro.homework.exceptions.NotFoundException;
+import ru.skypro.homework.repository.UserRepository;
+
+import java.util.Optional;
+
+/**
+ * Текущий пользователь запроса.
+ *
+ * <p>Идентификатор берется из {@link AppUserPrincipal} без обращения к БД.
+ * Для аутентификаций с другим типом субъекта (например, созданных в тестах)
+ * пользователь ищется по логину.</p>
+ */
+
+@Component
+@RequiredArgsConstructor
+public class CurrentUser {
+
+    private final UserRepository userRepository;
+
+    /**
+     * Идентификатор текущего пользователя.
+     * @param authentication данные пользователя из контекста безопасности.
+     * @throws NotFoundException если пользователь с логином из контекста не найден.
+     */
+    public Long getId(Authentication authentication) {
+        return findId(authentication)
+                .orElseThrow(() -> new NotFoundException(AppErrorsMessages.USER_NOT_FOUND));
+    }
+
+    /**
+     * Идентификатор текущего пользователя, если пользователь существует.
+     * @param authentication данные пользователя из контекста безопасности.
+     */
+    public Optional<Long> findId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof AppUserPrincipal) {
+            return Optional.of(((AppUserPrincipal) authentication.getPrincipal()).getId());
+        }
+        return userRepository.findByUserName(authentication.getName()).map(UserEntity::getId);
+    }
+
+    /**
+     * Ссылка на сущность текущего пользователя без загрузки из БД.
+     * <p>Подходит для установки связей (автор объявления, комментария); данные
+     * загружаются при первом обращении к полям, кроме {@code id}.</p>
+     * @param authentication данные пользователя из контекста безопасности.
+     */
+    public UserEntity getReference(Authentication authentication) {
+        return userRepository.getReferenceById(getId(authentication));
+    }
+}
@@ -2,7 +2,6 @@ package ru.skypro.homework.security;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
@@ -41,10 +40,7 @@ public class MyUserDetailsService implements UserDetailsService {
             throw new UnauthorizedException(AppErrorsMessages.INVALID_CREDENTIALS);
         }
 
-        return User.builder()
-                .username(authEntity.getUser().getUserName())
-                .password(authEntity.getPassword())
-                .roles(authEntity.getRole().name())
-                .build();
+        return new AppUserPrincipal(authEntity.getUser().getId(), authEntity.getUser().getUserName(),
+                authEntity.getPassword(), authEntity.getRole());
     }
 }
@@ -0,0 +1,60 @@
+package ru.skypro.homework.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Фильтр аутентификации по токену доступа ({@code Authorization: Bearer ...}).
+ *
+ * <p>Проверяет подпись и срок действия токена через {@link TokenProvider}
+ * и отсутствие отзыва через {@link TokenRevocationList}. БД и кодировщик паролей
+ * не используются. Недействительный токен не прерывает цепочку: запрос
+ * остается неаутентифицированным и отклоняется правилами доступа.</p>
+ */
+
+@Slf4j
+@RequiredArgsConstructor
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TokenProvider tokenProvider;
+    private final TokenRevocationList revocationList;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            Optional<TokenClaims> claims = tokenProvider
+                    .verify(header.substring(BEARER_PREFIX.length()).trim(), TokenClaims.Type.ACCESS)
+                    .filter(c -> !revocationList.isRevoked(c));
+            if (claims.isPresent()) {
+                AppUserPrincipal principal = new AppUserPrincipal(claims.get().getUserId(),
+                        claims.get().getUsername(), null, claims.get().getRole());
+                UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated(
+                        principal, null, principal.getAuthorities());
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(authentication);
+                SecurityContextHolder.setContext(context);
+            } else {
+                log.debug("Rejected bearer token for {}", request.getRequestURI());
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
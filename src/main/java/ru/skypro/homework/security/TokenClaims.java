@@ -0,0 +1,33 @@
+package ru.skypro.homework.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.skypro.homework.dto.Role;
+
+/**
+ * Содержимое подписанного токена.
+ *
+ * <p>Достаточно для аутентификации запроса без обращения к БД:
+ * идентификатор и логин пользователя, роль и время жизни токена.</p>
+ */
+
+@Getter
+@AllArgsConstructor
+public class TokenClaims {
+
+    /** Назначение токена. */
+    public enum Type {
+        ACCESS, REFRESH
+    }
+
+    private final Type type;
+    private final Long userId;
+    private final String username;
+    private final Role role;
+    /** Время выпуска, мс (epoch). */
+    private final long issuedAt;
+    /** Время окончания действия, мс (epoch). */
+    private final long expiresAt;
+    /** Отпечаток хэша пароля на момент выпуска (только токен обновления), иначе пустая строка. */
+    private final String credentials;
+}
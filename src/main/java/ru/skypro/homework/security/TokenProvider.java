@@ -0,0 +1,169 @@
+package ru.skypro.homework.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.skypro.homework.dto.Role;
+
+import javax.annotation.PostConstruct;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Выпуск и проверка подписанных токенов доступа.
+ *
+ * <p>Формат токена: {@code base64url(payload).base64url(HMAC-SHA256(payload))}.
+ * Полезная нагрузка содержит назначение токена, идентификатор, логин и роль пользователя,
+ * время выпуска и окончания действия. Проверка выполняется локально,
+ * без обращения к БД и к {@link org.springframework.security.crypto.password.PasswordEncoder}.</p>
+ *
+ * <p>Токен обновления дополнительно содержит отпечаток учетных данных - HMAC хэша пароля
+ * на момент выпуска. При обновлении он сверяется с текущим хэшем из БД
+ * ({@link #matchesCredentials}): после смены пароля токены обновления недействительны
+ * на всех экземплярах, даже если событие отзыва до экземпляра не дошло.</p>
+ *
+ * <p>Ключ подписи задается параметром {@code app.security.token.secret} (Base64).
+ * Если ключ не задан, он генерируется при запуске: токены перестают действовать
+ * после перезапуска и не принимаются другими экземплярами приложения.</p>
+ */
+
+@Slf4j
+@Component
+public class TokenProvider {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String SEPARATOR = ":";
+    private static final String CREDENTIALS_PREFIX = "credentials" + SEPARATOR;
+    private static final int FINGERPRINT_LENGTH = 16;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    @Value("${app.security.token.secret}")
+    private String secret;
+
+    @Value("${app.security.token.access-ttl}")
+    private long accessTtlSeconds;
+
+    @Value("${app.security.token.refresh-ttl}")
+    private long refreshTtlSeconds;
+
+    private SecretKeySpec signingKey;
+
+    @PostConstruct
+    private void init() {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            log.warn("app.security.token.secret is not set, tokens are valid until restart of this instance only");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = Base64.getDecoder().decode(secret);
+        }
+        signingKey = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+    }
+
+    /** Время жизни токена доступа, секунды. */
+    public long getAccessTtlSeconds() {
+        return accessTtlSeconds;
+    }
+
+    /** Выпуск токена доступа. */
+    public String issueAccessToken(Long userId, String username, Role role) {
+        return issue(TokenClaims.Type.ACCESS, userId, username, role, "", accessTtlSeconds);
+    }
+
+    /**
+     * Выпуск токена обновления.
+     * @param passwordHash текущий хэш пароля; его отпечаток записывается в токен.
+     */
+    public String issueRefreshToken(Long userId, String username, Role role, String passwordHash) {
+        return issue(TokenClaims.Type.REFRESH, userId, username, role, fingerprint(passwordHash), refreshTtlSeconds);
+    }
+
+    /**
+     * Сверка отпечатка учетных данных токена с текущим хэшем пароля.
+     * @param claims содержимое проверенного токена обновления.
+     * @param passwordHash текущий хэш пароля из БД.
+     * @return {@code false}, если пароль сменился после выпуска токена.
+     */
+    public boolean matchesCredentials(TokenClaims claims, String passwordHash) {
+        return MessageDigest.isEqual(claims.getCredentials().getBytes(StandardCharsets.US_ASCII),
+                fingerprint(passwordHash).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Проверка подписи, назначения и срока действия токена.
+     * @param token токен из запроса.
+     * @param expectedType ожидаемое назначение токена.
+     * @return содержимое токена или пустой результат, если токен недействителен.
+     */
+    public Optional<TokenClaims> verify(String token, TokenClaims.Type expectedType) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return Optional.empty();
+        }
+        try {
+            String payload = token.substring(0, dot);
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, sign(payload))) {
+                return Optional.empty();
+            }
+            String[] parts = new String(DECODER.decode(payload), StandardCharsets.UTF_8).split(SEPARATOR);
+            if (parts.length != 7) {
+                return Optional.empty();
+            }
+            TokenClaims claims = new TokenClaims(
+                    TokenClaims.Type.valueOf(parts[0]),
+                    Long.parseLong(parts[1]),
+                    new String(DECODER.decode(parts[6]), StandardCharsets.UTF_8),
+                    Role.valueOf(parts[2]),
+                    Long.parseLong(parts[3]),
+                    Long.parseLong(parts[4]),
+                    parts[5]);
+            if (claims.getType() != expectedType || claims.getExpiresAt() <= System.currentTimeMillis()) {
+                return Optional.empty();
+            }
+            return Optional.of(claims);
+        } catch (IllegalArgumentException e) {
+            log.debug("Malformed token: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private String issue(TokenClaims.Type type, Long userId, String username, Role role, String credentials,
+                         long ttlSeconds) {
+        long now = System.currentTimeMillis();
+        String raw = String.join(SEPARATOR,
+                type.name(),
+                String.valueOf(userId),
+                role.name(),
+                String.valueOf(now),
+                String.valueOf(now + ttlSeconds * 1000),
+                credentials,
+                ENCODER.encodeToString(username.getBytes(StandardCharsets.UTF_8)));
+        String payload = ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        return payload + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    /** Отпечаток хэша пароля: усеченный HMAC, по которому хэш не восстанавливается. */
+    private String fingerprint(String passwordHash) {
+        return ENCODER.encodeToString(Arrays.copyOf(sign(CREDENTIALS_PREFIX + passwordHash), FINGERPRINT_LENGTH));
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC is not available", e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ru.skypro.homework.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+
+/**
+ * Список отзыва токенов (deny-list) по идентификатору пользователя.
+ *
+ * <p>Хранит момент отзыва: токены пользователя, выпущенные не позднее этого момента,
+ * считаются недействительными. Запись живет не дольше срока действия токена обновления,
+ * после чего все отозванные токены истекают сами.</p>
+ *
+ * <p>Заполняется при смене пароля и при удалении пользователя, в том числе
+ * по событиям других экземпляров приложения.</p>
+ */
+
+@Slf4j
+@Component
+public class TokenRevocationList {
+
+    @Value("${app.security.token.refresh-ttl}")
+    private long refreshTtlSeconds;
+
+    private Cache<Long, Long> revokedAt;
+
+    @PostConstruct
+    private void init() {
+        revokedAt = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(refreshTtlSeconds))
+                .build();
+    }
+
+    /**
+     * Отзыв всех ранее выпущенных токенов пользователя.
+     * @param userId идентификатор пользователя.
+     */
+    public void revoke(Long userId) {
+        revoke(userId, System.currentTimeMillis());
+    }
+
+    /**
+     * Отзыв токенов пользователя, выпущенных не позднее указанного момента.
+     * <p>Используется при получении события отзыва от другого экземпляра приложения:
+     * токены, выпущенные после смены пароля, остаются действительными.</p>
+     * @param userId идентификатор пользователя.
+     * @param at момент отзыва, мс.
+     */
+    public void revoke(Long userId, long at) {
+        revokedAt.asMap().merge(userId, at, Math::max);
+        log.info("Tokens revoked for user id {}", userId);
+    }
+
+    /** Проверка, отозван ли токен. */
+    public boolean isRevoked(TokenClaims claims) {
+        Long revoked = revokedAt.getIfPresent(claims.getUserId());
+        return revoked != null && claims.getIssuedAt() <= revoked;
+    }
+}
@@ -0,0 +1,27 @@
+package ru.skypro.homework.service;
+
+import org.springframework.security.core.Authentication;
+import ru.skypro.homework.dto.ads.Ads;
+
+/**
+ * Сервис поиска объявлений по заголовку и описанию.
+ *
+ * <p>Реализация выбирается параметром {@code app.ads.search.engine}:
+ * полнотекстовый поиск PostgreSQL с ранжированием или поиск по подстроке
+ * (H2 в тестах). Формат курсора зависит от реализации.</p>
+ */
+
+public interface AdSearchService {
+
+    /**
+     * Поиск объявлений (постранично, по убыванию релевантности).
+     * @param query строка поиска.
+     * @param minPrice нижняя граница цены ({@code null} - без ограничения).
+     * @param maxPrice верхняя граница цены ({@code null} - без ограничения).
+     * @param cursor курсор, полученный с предыдущей страницей ({@code null} - первая страница).
+     * @param size запрошенный размер страницы ({@code null} - размер по умолчанию).
+     * @param authentication данные пользователя из контекста безопасности.
+     */
+    Ads search(String query, Integer minPrice, Integer maxPrice, String cursor, Integer size,
+               Authentication authentication);
+}
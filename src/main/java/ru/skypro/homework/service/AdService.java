@@ -6,6 +6,10 @@ import ru.skypro.homework.dto.ads.Ad;
 import ru.skypro.homework.dto.ads.Ads;
 import ru.skypro.homework.dto.ads.CreateOrUpdateAd;
 import ru.skypro.homework.dto.ads.ExtendedAd;
+import ru.skypro.homework.dto.images.ImageInfo;
+import ru.skypro.homework.utils.AdFilter;
+
+import java.io.InputStream;
 
 /**
  * Сервис для управления объявлениями.
@@ -17,8 +21,14 @@ import ru.skypro.homework.dto.ads.ExtendedAd;
 
 public interface AdService {
 
-    /** Получение списка всех объявлений в системе. */
-    Ads getAds(Authentication authentication);
+    /**
+     * Получение страницы объявлений в системе (по умолчанию от новых к старым).
+     * @param filter фильтры (цена, автор) и порядок выдачи.
+     * @param cursor курсор, полученный с предыдущей страницей ({@code null} - первая страница).
+     * @param size запрошенный размер страницы ({@code null} - размер по умолчанию).
+     * @param authentication данные пользователя из контекста безопасности.
+     */
+    Ads getAds(AdFilter filter, String cursor, Integer size, Authentication authentication);
 
     /**
      * Создание нового объявления.
@@ -52,13 +62,26 @@ public interface AdService {
     Ads getAllAdsAuthUser(Authentication authentication);
 
     /** Обновление основного изображения объявления.
-     * @return бинарные данные обновленного изображения.
+     * @return ссылка и метаданные сохраненного изображения.
+     */
+    ImageInfo updateAdImage(MultipartFile file, Long id, Authentication authentication);
+
+    /** Обновление основного изображения объявления из потока (тело запроса без multipart).
+     * @return ссылка и метаданные сохраненного изображения.
      */
-    byte[] updateAdImage(MultipartFile file, Long id, Authentication authentication);
+    ImageInfo uploadAdImage(InputStream content, Long id, Authentication authentication);
 
     /**
-     * Служебный метод удаления всех объявлений пользователя.
+     * Служебный метод удаления всех объявлений пользователя порциями.
      * @param userId идентификатор пользователя.
      */
     void deleteAllByUserId(Long userId);
+
+    /**
+     * Служебный метод удаления очередной порции объявлений пользователя (фоновые задачи).
+     * @param userId идентификатор пользователя.
+     * @param limit наибольшее число объявлений в порции.
+     * @return число удаленных объявлений; 0 - объявлений не осталось.
+     */
+    int deleteAdsChunkByUserId(Long userId, int limit);
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package ru.skypro.homework.service;
+
+import org.springframework.security.core.Authentication;
+import ru.skypro.homework.dto.ads.Suggestions;
+import ru.skypro.homework.events.EntityChangedEvent;
+
+/**
+ * Сервис подсказок для строки поиска объявлений (автодополнение).
+ *
+ * <p>Подсказки строятся по индексу слов заголовков и описаний в памяти
+ * экземпляра, без обращения к БД.</p>
+ */
+
+public interface AdSuggestService {
+
+    /**
+     * Подсказки для введенной строки.
+     * @param prefix введенная строка; последнее слово дополняется.
+     * @param limit запрошенное число подсказок ({@code null} - максимальное).
+     * @param authentication данные пользователя из контекста безопасности.
+     */
+    Suggestions suggest(String prefix, Integer limit, Authentication authentication);
+
+    /**
+     * Применение изменения объявлений к индексу (после фиксации транзакции
+     * или по событию другого экземпляра).
+     * @param event событие изменения сущности.
+     */
+    void onEntityChanged(EntityChangedEvent event);
+
+    /**
+     * Построение индекса заново по таблице {@code ads} в текущем потоке.
+     * @return {@code false}, если индекс отключен или построение уже выполняется;
+     * в последнем случае выполняющееся построение будет повторено.
+     */
+    boolean rebuild();
+
+    /**
+     * Построение индекса заново в фоновом потоке. Запросы, пришедшие во время
+     * построения, объединяются в одно повторное построение.
+     */
+    void requestRebuild();
+}
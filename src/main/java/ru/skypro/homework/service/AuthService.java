@@ -1,6 +1,7 @@
 package ru.skypro.homework.service;
 
 import ru.skypro.homework.dto.Register;
+import ru.skypro.homework.dto.Token;
 
 /**
  * Сервис аутентификации и регистрации пользователей.
@@ -12,13 +13,23 @@ import ru.skypro.homework.dto.Register;
 public interface AuthService {
 
     /**
-     * Проверка учетных данных пользователя.
+     * Проверка учетных данных пользователя и выпуск токенов.
      *
      * @param userName логин пользователя.
      * @param password пароль пользователя.
+     * @return токен доступа и токен обновления.
      * @throws ru.skypro.homework.exceptions.UnauthorizedException если логин или пароль неверны.
      */
-    void login(String userName, String password);
+    Token login(String userName, String password);
+
+    /**
+     * Выпуск новой пары токенов по токену обновления.
+     *
+     * @param refreshToken действующий токен обновления.
+     * @return новый токен доступа и токен обновления.
+     * @throws ru.skypro.homework.exceptions.UnauthorizedException если токен недействителен или отозван.
+     */
+    Token refresh(String refreshToken);
 
     /**
      * Регистрация нового пользователя в системе.
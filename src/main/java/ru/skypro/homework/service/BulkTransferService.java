@@ -0,0 +1,55 @@
+package ru.skypro.homework.service;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.skypro.homework.dto.bulk.BulkFormat;
+import ru.skypro.homework.dto.jobs.Job;
+
+import java.io.InputStream;
+
+/**
+ * Сервис массового переноса объявлений и пользователей между окружениями
+ * и из внешних источников в форматах {@link BulkFormat}.
+ *
+ * <p>Выгрузка пишется в ответ по мере чтения курсором. Загрузка сохраняет тело запроса
+ * в файл и ставит фоновую задачу ({@link JobService}): запрос сразу получает задачу,
+ * ее состояние и прогресс доступны любому экземпляру, а после перезапуска задача
+ * продолжается. Файл читается по одной записи, записи сохраняются порциями, каждая
+ * порция - в отдельной транзакции. Некорректные записи отклоняются с указанием строки,
+ * остальные загружаются. Все операции доступны только администратору.</p>
+ */
+
+public interface BulkTransferService {
+
+    /**
+     * Выгрузка всех объявлений в порядке id.
+     * @param format формат выгрузки.
+     * @param authentication данные пользователя из контекста безопасности.
+     */
+    StreamingResponseBody exportAds(BulkFormat format, Authentication authentication);
+
+    /**
+     * Выгрузка действующих пользователей в порядке id.
+     * @param format формат выгрузки.
+     * @param authentication данные пользователя из контекста безопасности.
+     */
+    StreamingResponseBody exportUsers(BulkFormat format, Authentication authentication);
+
+    /**
+     * Постановка загрузки объявлений в очередь; автор должен существовать в текущем окружении.
+     * @param body тело запроса.
+     * @param format формат загрузки.
+     * @param authentication данные пользователя из контекста безопасности.
+     * @return задача загрузки ({@link ru.skypro.homework.dto.jobs.JobType#IMPORT_ADS}).
+     */
+    Job importAds(InputStream body, BulkFormat format, Authentication authentication);
+
+    /**
+     * Постановка загрузки пользователей в очередь; существующие логины отклоняются.
+     * @param body тело запроса.
+     * @param format формат загрузки.
+     * @param authentication данные пользователя из контекста безопасности.
+     * @return задача загрузки ({@link ru.skypro.homework.dto.jobs.JobType#IMPORT_USERS}).
+     */
+    Job importUsers(InputStream body, BulkFormat format, Authentication authentication);
+}
@@ -15,11 +15,13 @@ import ru.skypro.homework.dto.comments.CreateOrUpdateComment;
 public interface CommentService {
 
     /**
-     * Получение списка всех комментариев конкретного объявления.
+     * Получение страницы комментариев конкретного объявления (от новых к старым).
      * @param adId идентификатор объявления.
+     * @param cursor курсор, полученный с предыдущей страницей ({@code null} - первая страница).
+     * @param size запрошенный размер страницы ({@code null} - размер по умолчанию).
      * @param authentication данные пользователя из контекста безопасности.
      */
-    Comments getAllCommentsAd(Long adId, Authentication authentication);
+    Comments getAllCommentsAd(Long adId, String cursor, Integer size, Authentication authentication);
 
     /**
      * Добавление комментария к объявлению.
@@ -0,0 +1,31 @@
+package ru.skypro.homework.service;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Сервис выгрузки больших списков для администрирования и экспорта.
+ *
+ * <p>В отличие от постраничной выдачи, список возвращается целиком одним ответом,
+ * но без материализации в памяти: строки читаются курсором и пишутся в ответ по мере
+ * чтения, поэтому расход памяти не зависит от числа записей.
+ * Права проверяются до начала записи ответа.</p>
+ */
+
+public interface ExportService {
+
+    /**
+     * Выгрузка всех объявлений в порядке id.
+     * <p>Формат элемента - краткая форма объявления ({@code Ad}).</p>
+     * @param authentication данные пользователя из контекста безопасности.
+     */
+    StreamingResponseBody exportAds(Authentication authentication);
+
+    /**
+     * Выгрузка всех комментариев объявления от новых к старым.
+     * <p>Формат элемента - {@code Comment}.</p>
+     * @param adId идентификатор объявления.
+     * @param authentication данные пользователя из контекста безопасности.
+     */
+    StreamingResponseBody exportComments(Long adId, Authentication authentication);
+}
@@ -0,0 +1,45 @@
+package ru.skypro.homework.service;
+
+import ru.skypro.homework.dto.metric.FileCleanupMetric;
+
+import java.util.Collection;
+
+/**
+ * Сервис отложенного удаления файлов изображений.
+ *
+ * <p>Пути ставятся в очередь в транзакции вызывающего метода и удаляются
+ * фоновыми обработчиками после ее фиксации (transactional outbox).
+ * Неудачные удаления повторяются с увеличивающейся задержкой.</p>
+ */
+
+public interface FileCleanupService {
+
+    /**
+     * Постановка файла в очередь на удаление.
+     * <p>Пустые пути игнорируются.</p>
+     * @param imagePath относительный путь к файлу.
+     */
+    void enqueue(String imagePath);
+
+    /**
+     * Постановка нескольких файлов в очередь на удаление.
+     * @param imagePaths относительные пути к файлам.
+     */
+    void enqueueAll(Collection<String> imagePaths);
+
+    /**
+     * Передача обработчикам задач, срок попытки которых наступил.
+     * <p>Вызывается по расписанию.</p>
+     */
+    void processDue();
+
+    /**
+     * Обработка задачи в текущем потоке.
+     * @param taskId идентификатор задачи.
+     * @return {@code true}, если файл удален и задача снята с очереди.
+     */
+    boolean process(Long taskId);
+
+    /** Глубина очереди и число неудачных удалений. */
+    FileCleanupMetric getMetric();
+}
@@ -0,0 +1,23 @@
+package ru.skypro.homework.service;
+
+import ru.skypro.homework.dto.images.StoredImage;
+
+import java.util.Optional;
+
+/**
+ * Сервис поиска изображений для отдачи клиенту.
+ *
+ * <p>Сопоставляет ссылку {@code /images/...} с файлом на диске
+ * и вычисляет метаданные для условных запросов и кэширования.</p>
+ */
+
+public interface ImageDeliveryService {
+
+    /**
+     * Поиск файла изображения.
+     * <p>Если запрошена уменьшенная копия, которая еще не построена, возвращается оригинал.</p>
+     * @param imagePath относительный путь из ссылки.
+     * @return файл и его метаданные или пустой результат, если файла нет.
+     */
+    Optional<StoredImage> findImage(String imagePath);
+}
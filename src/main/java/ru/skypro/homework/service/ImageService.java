@@ -2,11 +2,15 @@ package ru.skypro.homework.service;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+
 /**
  * Сервис для работы с изображениями.
  *
  * <p>Обеспечивает сохранение файлов на диск и удаление файлов с диска.
  * Используется для управления аватарами пользователей и фотографиями объявлений.</p>
+ * <p>Тип изображения определяется по содержимому; поток читается однократно
+ * и записывается сразу в каталог хранения.</p>
  */
 
 public interface ImageService {
@@ -32,4 +36,20 @@ public interface ImageService {
      * @return путь к сохраненному файлу
      */
     String saveAvatarImage(MultipartFile file, Long userId);
+
+    /**
+     * Сохранение изображения объявления из потока (тело запроса без multipart).
+     * @param content содержимое изображения
+     * @param userId идентификатор автора для формирования пути
+     * @return путь к сохраненному файлу
+     */
+    String storeAdImage(InputStream content, Long userId);
+
+    /**
+     * Сохранение аватара пользователя из потока (тело запроса без multipart).
+     * @param content содержимое изображения
+     * @param userId идентификатор пользователя для формирования имени файла
+     * @return путь к сохраненному файлу
+     */
+    String storeAvatarImage(InputStream content, Long userId);
 }
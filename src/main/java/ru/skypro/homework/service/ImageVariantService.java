@@ -0,0 +1,24 @@
+package ru.skypro.homework.service;
+
+/**
+ * Сервис построения уменьшенных копий изображений.
+ *
+ * <p>Для каждого загруженного изображения строит варианты
+ * {@link ru.skypro.homework.dto.images.ImageVariant} фиксированного размера,
+ * чтобы списки объявлений и комментариев не загружали оригиналы.</p>
+ */
+
+public interface ImageVariantService {
+
+    /**
+     * Постановка изображения в очередь на построение вариантов.
+     * @param imagePath относительный путь к оригиналу.
+     */
+    void submit(String imagePath);
+
+    /**
+     * Построение вариантов изображения в текущем потоке.
+     * @param imagePath относительный путь к оригиналу.
+     */
+    void generate(String imagePath);
+}
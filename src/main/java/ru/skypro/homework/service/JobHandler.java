@@ -0,0 +1,41 @@
+package ru.skypro.homework.service;
+
+import ru.skypro.homework.dto.jobs.JobType;
+import ru.skypro.homework.entities.JobEntity;
+
+/**
+ * Обработчик фоновых задач одного вида ({@link JobType}).
+ *
+ * <p>{@link JobService} вызывает обработчик в отдельной транзакции на каждую порцию,
+ * пока порция не окажется пустой, затем вызывает {@link #complete} в последней
+ * транзакции задачи. Порции должны быть повторяемыми: после сбоя задача
+ * продолжается с первой незафиксированной порции ({@code processed} задачи).</p>
+ */
+
+public interface JobHandler {
+
+    /** Вид обрабатываемых задач. */
+    JobType getType();
+
+    /**
+     * Обработка очередной порции.
+     * @param job задача; {@code processed} - число записей, обработанных зафиксированными порциями.
+     * @param chunkSize наибольшее число записей в порции.
+     * @return число обработанных записей; 0 - записей не осталось.
+     */
+    int processChunk(JobEntity job, int chunkSize);
+
+    /**
+     * Завершение задачи после обработки всех порций.
+     * @param job задача.
+     */
+    void complete(JobEntity job);
+
+    /**
+     * Освобождение ресурсов задачи, завершенной с ошибкой после последней попытки.
+     * <p>Вызывается вне транзакции.</p>
+     * @param job задача.
+     */
+    default void failed(JobEntity job) {
+    }
+}
@@ -0,0 +1,65 @@
+package ru.skypro.homework.service;
+
+import org.springframework.security.core.Authentication;
+import ru.skypro.homework.dto.jobs.Job;
+import ru.skypro.homework.dto.jobs.JobType;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Сервис фоновых задач администрирования.
+ *
+ * <p>Задача записывается в таблицу в транзакции вызывающего метода и передается
+ * ограниченному пулу обработчиков после ее фиксации. Задача выполняется порциями
+ * ({@link JobHandler}), каждая порция - в отдельной короткой транзакции; прогресс
+ * сохраняется вместе с порцией. Задачи, не попавшие в пул, повторные попытки и задачи
+ * остановленных экземпляров (после истечения аренды) выбираются по расписанию
+ * и при запуске приложения.</p>
+ */
+
+public interface JobService {
+
+    /**
+     * Постановка задачи в очередь.
+     * @param type вид задачи.
+     * @param targetId идентификатор объекта задачи.
+     * @param createdBy логин администратора.
+     * @return созданная задача.
+     */
+    Job submit(JobType type, Long targetId, String createdBy);
+
+    /**
+     * Незавершенная задача вида {@code type} для объекта.
+     * @param type вид задачи.
+     * @param targetId идентификатор объекта задачи.
+     */
+    Optional<Job> findActive(JobType type, Long targetId);
+
+    /**
+     * Последние задачи, от новых к старым.
+     * @param authentication данные пользователя из контекста безопасности.
+     */
+    List<Job> getJobs(Authentication authentication);
+
+    /**
+     * Состояние задачи.
+     * @param id идентификатор задачи.
+     * @param authentication данные пользователя из контекста безопасности.
+     */
+    Job getJob(Long id, Authentication authentication);
+
+    /**
+     * Передача обработчикам ожидающих задач и задач с истекшей арендой,
+     * удаление старых завершенных задач.
+     * <p>Вызывается по расписанию и при запуске приложения.</p>
+     */
+    void processDue();
+
+    /**
+     * Выполнение задачи в текущем потоке.
+     * @param jobId идентификатор задачи.
+     * @return {@code true}, если задача выполнена полностью.
+     */
+    boolean process(Long jobId);
+}
@@ -1,7 +1,14 @@
 package ru.skypro.homework.service;
 
 import org.springframework.security.core.Authentication;
+import ru.skypro.homework.dto.jobs.Job;
 import ru.skypro.homework.dto.metric.BusinessMetric;
+import ru.skypro.homework.dto.metric.CacheMetric;
+import ru.skypro.homework.dto.metric.FileCleanupMetric;
+import ru.skypro.homework.dto.metric.ImageUploadMetric;
+import ru.skypro.homework.dto.metric.OrphanImageMetric;
+
+import java.util.List;
 
 public interface ManagementService {
 
@@ -13,29 +20,61 @@ public interface ManagementService {
 
     BusinessMetric getBusinessMetric(Authentication authentication);
 
+    /**
+     * Служебный метод.
+     * <p>Статистика попаданий, промахов и вытеснений локальных кэшей приложения.</p>
+     * @param authentication данные пользователя из контекста безопасности.
+     */
+    List<CacheMetric> getCacheMetrics(Authentication authentication);
+
+    /**
+     * Служебный метод.
+     * <p>Число принятых и отклоненных загрузок изображений по формату.</p>
+     * @param authentication данные пользователя из контекста безопасности.
+     */
+    List<ImageUploadMetric> getUploadMetrics(Authentication authentication);
+
+    /**
+     * Служебный метод.
+     * <p>Глубина очереди удаления файлов изображений и число неудачных удалений.</p>
+     * @param authentication данные пользователя из контекста безопасности.
+     */
+    FileCleanupMetric getFileCleanupMetric(Authentication authentication);
+
+    /**
+     * Служебный метод.
+     * <p>Итоги сборщика файлов изображений без ссылок в БД: проверено файлов,
+     * перенесено в карантин, освобождено байт.</p>
+     * @param authentication данные пользователя из контекста безопасности.
+     */
+    OrphanImageMetric getOrphanImageMetric(Authentication authentication);
+
 
     /**
      * Служебный метод (soft-delete).
      * <p>Мягкое удаление пользователя:</p>
      * <ul>
-     * <li>Изменение учетных данных в БД (анонимизация)</li>
-     * <li>Удаление объявлений из БД.</li>
+     * <li>Изменение учетных данных в БД (анонимизация), вход запрещается сразу.</li>
+     * <li>Удаление объявлений из БД фоновой задачей.</li>
      * <li>Удаление медиа-контента с диска.</li>
      * </ul>
      * @param id идентификатор пользователя.
      * @param authentication данные пользователя из контекста безопасности.
+     * @return фоновая задача удаления (незавершенная задача, если она уже есть).
      */
-    void softDeleteUser(Long id, Authentication authentication);
+    Job softDeleteUser(Long id, Authentication authentication);
 
     /**
      * Служебный метод (hard-delete).
      * Жесткое удаление пользователя:
      * <ul>
-     * <li>Полное удаление пользователя и всех связанных данных из БД.</li>
+     * <li>Удаление учетных данных, вход запрещается сразу.</li>
+     * <li>Полное удаление пользователя и всех связанных данных из БД фоновой задачей.</li>
      * <li>Удаление медиа-контента с диска.</li>
      * </ul>
      * @param id идентификатор пользователя
      * @param authentication данные пользователя из контекста безопасности.
+     * @return фоновая задача удаления (незавершенная задача, если она уже есть).
      */
-    void hardDeleteUser(Long id, Authentication authentication);
+    Job hardDeleteUser(Long id, Authentication authentication);
 }
@@ -6,6 +6,8 @@ import ru.skypro.homework.dto.users.NewPassword;
 import ru.skypro.homework.dto.users.UpdateUser;
 import ru.skypro.homework.dto.users.User;
 
+import java.io.InputStream;
+
 /**
  * Сервис для управления профилями пользователей.
  *
@@ -39,4 +41,11 @@ public interface UserService {
      */
     void updateAuthUserImage(MultipartFile file, Authentication authentication);
 
+    /**
+     * Обновление аватара текущего пользователя из потока (тело запроса без multipart).
+     * @param content содержимое изображения.
+     * @param authentication данные пользователя из контекста безопасности.
+     */
+    void uploadAuthUserImage(InputStream content, Authentication authentication);
+
 }
@@ -1,30 +1,47 @@
 package ru.skypro.homework.service.impl;
 
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import ru.skypro.homework.constants.AppErrorsMessages;
 import ru.skypro.homework.dto.ads.Ad;
+import ru.skypro.homework.dto.ads.AdSort;
 import ru.skypro.homework.dto.ads.Ads;
 import ru.skypro.homework.dto.ads.CreateOrUpdateAd;
 import ru.skypro.homework.dto.ads.ExtendedAd;
+import ru.skypro.homework.dto.images.ImageInfo;
 import ru.skypro.homework.entities.AdEntity;
 import ru.skypro.homework.entities.UserEntity;
+import ru.skypro.homework.events.EntityChangedEvent;
 import ru.skypro.homework.exceptions.NotFoundException;
 import ru.skypro.homework.mappers.AdMapper;
+import ru.skypro.homework.repository.AdImageView;
+import ru.skypro.homework.repository.AdSpecifications;
 import ru.skypro.homework.repository.AdsRepository;
+import ru.skypro.homework.repository.TableStatsRepository;
 import ru.skypro.homework.repository.UserRepository;
 import ru.skypro.homework.security.AccessService;
+import ru.skypro.homework.security.CurrentUser;
 import ru.skypro.homework.service.AdService;
+import ru.skypro.homework.service.FileCleanupService;
+import ru.skypro.homework.service.ImageDeliveryService;
 import ru.skypro.homework.service.ImageService;
+import ru.skypro.homework.utils.AdDetailsCache;
+import ru.skypro.homework.utils.AdFilter;
+import ru.skypro.homework.utils.CursorCodec;
+import ru.skypro.homework.utils.PageLimits;
 
-import java.io.IOException;
-import java.io.UncheckedIOException;
+import java.io.InputStream;
 import java.util.List;
-import java.util.Set;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -34,7 +51,7 @@ import java.util.stream.Collectors;
  * и сервисом контроля доступа. Все методы защищены проверкой полномочий.</p>
  */
 
-@AllArgsConstructor
+@RequiredArgsConstructor
 @Slf4j
 @Service
 public class AdServiceImpl implements AdService {
@@ -43,15 +60,49 @@ public class AdServiceImpl implements AdService {
     private final AdsRepository adsRepository;
     private final AdMapper mapper;
     private final AccessService accessService;
+    private final FileCleanupService fileCleanupService;
+    private final CurrentUser currentUser;
     private final ImageService imageService;
+    private final TableStatsRepository tableStatsRepository;
+    private final PageLimits pageLimits;
+    private final ImageDeliveryService imageDeliveryService;
+    private final AdDetailsCache adDetailsCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
-    /**{@inheritDoc}*/
+    @Value("${app.jobs.chunk-size}")
+    private int chunkSize;
+
+    /**
+     * {@inheritDoc}
+     * <p>Выборка идет по ключу сортировки (keyset pagination): запрашивается на одну запись
+     * больше размера страницы, чтобы определить наличие следующей страницы без подсчета.
+     * Общее количество без фильтров берется из статистики таблицы, с фильтрами -
+     * отдельным запросом {@code count} по тем же условиям.</p>
+     */
     @Override
     @Transactional(readOnly = true)
-    public Ads getAds(Authentication authentication) {
+    public Ads getAds(AdFilter filter, String cursor, Integer size, Authentication authentication) {
         log.debug("invoked ad service getAllAds");
         accessService.checkAuth(authentication);
-        return mapper.toAds(adsRepository.findAll());
+
+        AdSort sort = filter.getSort();
+        Specification<AdEntity> matching = AdSpecifications.matching(filter);
+        Specification<AdEntity> page = cursor == null
+                ? matching
+                : matching.and(AdSpecifications.after(sort, CursorCodec.decode(cursor, AdSpecifications.keyLength(sort))));
+        int limit = pageLimits.resolve(size);
+        List<AdEntity> ads = adsRepository.findFirst(page, AdSpecifications.orderOf(sort), limit + 1);
+
+        String next = null;
+        if (ads.size() > limit) {
+            ads = ads.subList(0, limit);
+            next = CursorCodec.encode(AdSpecifications.keyOf(sort, ads.get(limit - 1)));
+        }
+        long total = filter.isUnrestricted()
+                ? tableStatsRepository.estimateRowCount("ads")
+                : adsRepository.count(matching);
+        return mapper.toAdsPage(ads, total, next);
     }
 
     /**
@@ -65,8 +116,7 @@ public class AdServiceImpl implements AdService {
 
         accessService.checkAuth(authentication);
 
-        UserEntity userEntity = userRepository.findByUserName(authentication.getName())
-                .orElseThrow(() -> new NotFoundException(AppErrorsMessages.USER_NOT_FOUND));
+        UserEntity userEntity = currentUser.getReference(authentication);
 
         AdEntity adEntity = mapper.toEntity(createOrUpdateAd);
         adEntity.setUser(userEntity);
@@ -74,28 +124,33 @@ public class AdServiceImpl implements AdService {
         String imagePath = imageService.saveAdImage(image, userEntity.getId());
         adEntity.setAdImage(imagePath);
         adsRepository.save(adEntity);
+        eventPublisher.publishEvent(EntityChangedEvent.ad(adEntity.getId()));
         log.info("Ad saved. Image part: {}", imagePath);
         return mapper.toAdDto(adEntity);
 
     }
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     * <p>Результат берется из {@link AdDetailsCache}; при промахе объявление и автор
+     * загружаются одним запросом. Транзакция не открывается, чтобы попадание в кэш
+     * не занимало соединение с БД.</p>
+     */
     @Override
-    @Transactional(readOnly = true)
     public ExtendedAd getAdInfo(Long id, Authentication authentication) {
         log.debug("invoked ad service get ad info");
 
         accessService.checkAuth(authentication);
 
-        AdEntity adEntity = adsRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException(AppErrorsMessages.AD_NOT_FOUND));
-        return mapper.toExtendedAd(adEntity);
+        return adDetailsCache.get(id, key -> mapper.toExtendedAd(adsRepository.findWithUserById(key)
+                .orElseThrow(() -> new NotFoundException(AppErrorsMessages.AD_NOT_FOUND))));
     }
 
     /**
      * {@inheritDoc}
      * <p>Перед удалением проверяет права доступа (автор или админ).
-     * После удаления записи из БД удаляет связанный файл с диска.</p>
+     * Связанный файл ставится в очередь на удаление в той же транзакции
+     * и удаляется с диска после ее фиксации ({@link FileCleanupService}).</p>
      */
     @Override
     @Transactional
@@ -105,11 +160,12 @@ public class AdServiceImpl implements AdService {
         accessService.checkAuth(authentication);
         AdEntity adEntity = adsRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException(AppErrorsMessages.AD_NOT_FOUND));
-        accessService.checkEdit(authentication, adEntity.getUser().getUserName());
+        accessService.checkEdit(authentication, adEntity.getUser().getId());
 
         String filePath = adEntity.getAdImage();
         adsRepository.deleteById(id);
-        if (filePath != null) imageService.deleteImage(filePath);
+        eventPublisher.publishEvent(EntityChangedEvent.ad(id));
+        fileCleanupService.enqueue(filePath);
 
     }
 
@@ -124,10 +180,11 @@ public class AdServiceImpl implements AdService {
         AdEntity adEntity = adsRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException(AppErrorsMessages.AD_NOT_FOUND));
 
-        accessService.checkEdit(authentication, adEntity.getUser().getUserName());
+        accessService.checkEdit(authentication, adEntity.getUser().getId());
 
         mapper.updateAdEntity(ad, adEntity);
         adsRepository.save(adEntity);
+        eventPublisher.publishEvent(EntityChangedEvent.ad(id));
         return mapper.toAdDto(adEntity);
 
     }
@@ -144,12 +201,13 @@ public class AdServiceImpl implements AdService {
 
     /**
      * {@inheritDoc}
-     * <p>Обновляет путь к изображению в БД и удаляет старый файл с диска
-     * только после успешного сохранения нового.</p>
+     * <p>Обновляет путь к изображению в БД; старый файл удаляется с диска
+     * только после фиксации транзакции ({@link FileCleanupService}). Содержимое файла не возвращается:
+     * ответ содержит ссылку, размер и хэш сохраненного изображения.</p>
      */
     @Override
     @Transactional
-    public byte[] updateAdImage(MultipartFile file, Long id, Authentication authentication) {
+    public ImageInfo updateAdImage(MultipartFile file, Long id, Authentication authentication) {
         log.debug("invoked ad service update image");
 
         accessService.checkAuth(authentication);
@@ -157,7 +215,7 @@ public class AdServiceImpl implements AdService {
         AdEntity adEntity = adsRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException(AppErrorsMessages.AD_NOT_FOUND));
 
-        accessService.checkEdit(authentication, adEntity.getUser().getUserName());
+        accessService.checkEdit(authentication, adEntity.getUser().getId());
 
         Long userId = adEntity.getUser().getId();
 
@@ -165,47 +223,82 @@ public class AdServiceImpl implements AdService {
         String newImage = imageService.saveAdImage(file, userId);
         adEntity.setAdImage(newImage);
         adsRepository.save(adEntity);
-        if (!(previousImage == null || previousImage.isBlank())) {
-            imageService.deleteImage(previousImage);
-        }
-        try {
+        eventPublisher.publishEvent(EntityChangedEvent.ad(id));
+        fileCleanupService.enqueue(previousImage);
+        return mapper.toImageInfo(newImage, imageDeliveryService.findImage(newImage).orElse(null));
+    }
 
-            return file.getBytes();
-        } catch (IOException e) {
-            throw new UncheckedIOException(AppErrorsMessages.FILE_STORAGE_ERROR, e);
+    /**
+     * {@inheritDoc}
+     * <p>Поток записывается на диск вне транзакции, чтобы медленный клиент
+     * не удерживал соединение с БД. Путь к изображению заменяется после сохранения файла
+     * сравнением с обменом: запрос обновляет строку, только если в ней все еще прочитанный путь.
+     * Если путь за это время изменила параллельная загрузка, он перечитывается и замена повторяется,
+     * поэтому на удаление ставится именно замененный файл.</p>
+     */
+    @Override
+    public ImageInfo uploadAdImage(InputStream content, Long id, Authentication authentication) {
+        log.debug("invoked ad service upload image");
+
+        accessService.checkAuth(authentication);
+
+        AdEntity adEntity = adsRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException(AppErrorsMessages.AD_NOT_FOUND));
+
+        accessService.checkEdit(authentication, adEntity.getUser().getId());
+
+        String previousImage = adEntity.getAdImage();
+        String newImage = imageService.storeAdImage(content, adEntity.getUser().getId());
+        while (adsRepository.replaceAdImage(id, previousImage, newImage) == 0) {
+            Optional<AdImageView> current = adsRepository.findImageById(id);
+            if (current.isEmpty()) {
+                fileCleanupService.enqueue(newImage);
+                throw new NotFoundException(AppErrorsMessages.AD_NOT_FOUND);
+            }
+            previousImage = current.get().getImage();
         }
+        eventPublisher.publishEvent(EntityChangedEvent.ad(id));
+        fileCleanupService.enqueue(previousImage);
+        return mapper.toImageInfo(newImage, imageDeliveryService.findImage(newImage).orElse(null));
     }
 
     /**
      * {@inheritDoc}
-     * <p>Служба массовой очистки.
-     *  <ul>
-     *  <li>Собирает список всех путей к файлам контента пользователя.</li>
-     *  <li>Очищает БД от объявлений.</li>
-     *  <li>Удаляет файлы контента физически.</li>
-     *  </ul>
-     *  </p>
-     * Используется в методе мягкого удаления пользователя
-     * {@link ru.skypro.homework.service.ManagementService#softDeleteUser(Long, Authentication)}
+     * <p>Объявления удаляются порциями по {@code app.jobs.chunk-size}
+     * ({@link #deleteAdsChunkByUserId(Long, int)}), каждая порция - в отдельной транзакции,
+     * чтобы удаление не держало блокировки на все объявления пользователя сразу.</p>
+     * Кэш карточек объявлений сбрасывается событием удаления пользователя.
      */
     @Override
-    @Transactional
     public void deleteAllByUserId(Long userId) {
-        log.warn("invoked service delete ads");
-        List<AdEntity> adEntityList = adsRepository.findAllByUser_Id(userId);
-        Set<String> imageToDelete = adEntityList.stream()
-                .map(AdEntity::getAdImage)
-                .filter(i -> i != null && !i.isBlank())
-                .collect(Collectors.toSet());
-        adsRepository.deleteByUser_Id(userId);
-
-        imageToDelete.forEach(path -> {
-            try {
-                imageService.deleteImage(path);
-            } catch (UncheckedIOException e) {
-                log.error("ERROR! Can't remove image file {}", path, e);
-            }
-        });
+        int total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> deleteAdsChunkByUserId(userId, chunkSize));
+            total += deleted;
+        } while (deleted == chunkSize);
+        log.info("Deleted {} ads of user id {}", total, userId);
+    }
 
+    /**
+     * {@inheritDoc}
+     * <p>Порция выбирается проекцией в порядке id и удаляется одним запросом;
+     * комментарии к удаленным объявлениям удаляются каскадно в БД, файлы ставятся
+     * в очередь на удаление. Используется фоновыми задачами удаления пользователя
+     * ({@link ru.skypro.homework.service.JobService}); кэш карточек объявлений
+     * и индекс подсказок сбрасываются событиями удаления пользователя.</p>
+     */
+    @Override
+    @Transactional
+    public int deleteAdsChunkByUserId(Long userId, int limit) {
+        List<AdImageView> chunk = adsRepository.findChunkByUserId(userId, PageRequest.of(0, limit));
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = chunk.stream().map(AdImageView::getId).collect(Collectors.toList());
+        int deleted = adsRepository.deleteAllByIdIn(ids);
+        log.debug("Deleted {} ads of user id {}", deleted, userId);
+        fileCleanupService.enqueueAll(chunk.stream().map(AdImageView::getImage).collect(Collectors.toList()));
+        return ids.size();
     }
 }
\ No newline at end of file
@@ -0,0 +1,222 @@
+package ru.skypro.homework.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import ru.skypro.homework.constants.AppErrorsMessages;
+import ru.skypro.homework.dto.ads.Suggestions;
+import ru.skypro.homework.events.EntityChangedEvent;
+import ru.skypro.homework.exceptions.BadRequestException;
+import ru.skypro.homework.repository.AdTextView;
+import ru.skypro.homework.repository.AdsRepository;
+import ru.skypro.homework.security.AccessService;
+import ru.skypro.homework.service.AdSuggestService;
+import ru.skypro.homework.utils.AdSearchCriteria;
+import ru.skypro.homework.utils.SuggestIndex;
+
+import javax.annotation.PostConstruct;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Подсказки по индексу слов объявлений в памяти ({@link SuggestIndex}).
+ *
+ * <p>Индекс строится в фоновом потоке после запуска приложения: таблица {@code ads}
+ * читается порциями по {@code app.ads.suggest.load-batch-size} записей по возрастанию
+ * {@code id} (проекция, без загрузки сущностей). До окончания построения подсказки
+ * выдаются по прежнему индексу (при запуске - пустому).</p>
+ *
+ * <p>Изменения применяются по событиям {@link EntityChangedEvent}: объявление
+ * перечитывается по {@code id} и заменяется или удаляется, удаление пользователя
+ * удаляет из индекса его объявления. События, пришедшие во время построения,
+ * применяются к обоим индексам, а записи тех же объявлений и авторов из уже
+ * прочитанных порций пропускаются. Массовая загрузка объявлений
+ * ({@link EntityChangedEvent.Type#ADS_IMPORTED}, в том числе на других экземплярах)
+ * запускает построение заново в фоновом потоке; загрузка, зафиксированная во время
+ * построения, приводит к повторному построению после него.</p>
+ *
+ * <p>Отключается параметром {@code app.ads.suggest.enabled: false}.</p>
+ */
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdSuggestServiceImpl implements AdSuggestService {
+
+    private final AdsRepository adsRepository;
+    private final AccessService accessService;
+
+    @Value("${app.ads.suggest.enabled}")
+    private boolean enabled;
+    @Value("${app.ads.suggest.max-results}")
+    private int maxResults;
+    @Value("${app.ads.suggest.load-batch-size}")
+    private int loadBatchSize;
+
+    private volatile SuggestIndex index;
+    private SuggestIndex building;
+    private final Set<Long> touchedAds = new HashSet<>();
+    private final Set<Long> deletedUsers = new HashSet<>();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicBoolean pending = new AtomicBoolean();
+
+    @PostConstruct
+    private void init() {
+        index = newIndex();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRebuild() {
+        requestRebuild();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void requestRebuild() {
+        if (!enabled) {
+            return;
+        }
+        pending.set(true);
+        if (rebuilding.get()) {
+            return;
+        }
+        Thread thread = new Thread(this::drain, "ad-suggest-index");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Запрос выполняется только по индексу в памяти.</p>
+     */
+    @Override
+    public Suggestions suggest(String prefix, Integer limit, Authentication authentication) {
+        log.debug("invoked ad suggest service suggest");
+        accessService.checkAuth(authentication);
+        if (prefix == null || prefix.isBlank() || prefix.length() > AdSearchCriteria.MAX_QUERY_LENGTH) {
+            throw new BadRequestException(AppErrorsMessages.INVALID_SEARCH_QUERY);
+        }
+        int resolved = limit == null || limit < 1 ? maxResults : Math.min(limit, maxResults);
+        List<String> results = enabled ? index.suggest(prefix, resolved) : List.of();
+        return new Suggestions(results.size(), results);
+    }
+
+    @Override
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        switch (event.getType()) {
+            case AD_CHANGED:
+                Optional<AdTextView> ad = adsRepository.findTextById(event.getId());
+                synchronized (this) {
+                    apply(index, event.getId(), ad);
+                    if (building != null) {
+                        touchedAds.add(event.getId());
+                        apply(building, event.getId(), ad);
+                    }
+                }
+                break;
+            case ADS_IMPORTED:
+                requestRebuild();
+                break;
+            case USER_DELETED:
+                synchronized (this) {
+                    index.removeByUser(event.getId());
+                    if (building != null) {
+                        deletedUsers.add(event.getId());
+                        building.removeByUser(event.getId());
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public boolean rebuild() {
+        if (!enabled) {
+            return false;
+        }
+        pending.set(true);
+        return drain();
+    }
+
+    /**
+     * Построение, пока есть запросы: запрос, пришедший во время построения,
+     * выполняется после него тем же потоком.
+     * @return {@code true}, если индекс построен этим вызовом.
+     */
+    private boolean drain() {
+        boolean built = false;
+        while (pending.get() && rebuilding.compareAndSet(false, true)) {
+            try {
+                while (pending.getAndSet(false)) {
+                    build();
+                    built = true;
+                }
+            } finally {
+                rebuilding.set(false);
+            }
+        }
+        return built;
+    }
+
+    private void build() {
+        try {
+            long start = System.currentTimeMillis();
+            SuggestIndex fresh = newIndex();
+            fresh.beginBulkLoad();
+            synchronized (this) {
+                building = fresh;
+            }
+            long afterId = 0;
+            List<AdTextView> batch;
+            while (!(batch = adsRepository.findTextAfter(afterId, PageRequest.of(0, loadBatchSize))).isEmpty()) {
+                synchronized (this) {
+                    for (AdTextView ad : batch) {
+                        if (!touchedAds.contains(ad.getId()) && !deletedUsers.contains(ad.getUserId())) {
+                            fresh.put(ad.getId(), ad.getUserId(), ad.getTitle(), ad.getDescription());
+                        }
+                    }
+                }
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+            fresh.finishBulkLoad();
+            synchronized (this) {
+                index = fresh;
+            }
+            log.info("Ad suggest index built: {} ads, {} terms in {} ms",
+                    fresh.size(), fresh.termCount(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Failed to build ad suggest index", e);
+        } finally {
+            synchronized (this) {
+                building = null;
+                touchedAds.clear();
+                deletedUsers.clear();
+            }
+        }
+    }
+
+    private SuggestIndex newIndex() {
+        return new SuggestIndex(maxResults);
+    }
+
+    private static void apply(SuggestIndex target, Long adId, Optional<AdTextView> ad) {
+        if (ad.isPresent()) {
+            target.put(adId, ad.get().getUserId(), ad.get().getTitle(), ad.get().getDescription());
+        } else {
+            target.remove(adId);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.skypro.homework.constants.AppErrorsMessages;
 import ru.skypro.homework.dto.Register;
 import ru.skypro.homework.dto.Role;
+import ru.skypro.homework.dto.Token;
 import ru.skypro.homework.entities.AuthEntity;
 import ru.skypro.homework.entities.UserEntity;
 import ru.skypro.homework.exceptions.BadRequestException;
@@ -15,6 +16,9 @@ import ru.skypro.homework.exceptions.UnauthorizedException;
 import ru.skypro.homework.mappers.UserMapper;
 import ru.skypro.homework.repository.AuthRepository;
 import ru.skypro.homework.repository.UserRepository;
+import ru.skypro.homework.security.TokenClaims;
+import ru.skypro.homework.security.TokenProvider;
+import ru.skypro.homework.security.TokenRevocationList;
 import ru.skypro.homework.service.AuthService;
 
 /**
@@ -34,21 +38,56 @@ public class AuthServiceImpl implements AuthService {
     private final UserRepository userRepository;
     private final AuthRepository authRepository;
     private final UserMapper userMapper;
+    private final TokenProvider tokenProvider;
+    private final TokenRevocationList revocationList;
 
     /**
      * {@inheritDoc}
      * <p>Сверка пароля происходит путем сравнения входящей строки с хэшем из БД
-     * с помощью {@link PasswordEncoder}.</p>
+     * с помощью {@link PasswordEncoder}. При успехе выпускаются подписанные токены,
+     * которые клиент может использовать вместо Basic Auth.</p>
      */
     @Override
-    public void login(String userName, String password) {
+    @Transactional(readOnly = true)
+    public Token login(String userName, String password) {
         log.debug("invoked service login user");
-        authRepository.findByUser_UserName(userName)
+        AuthEntity authEntity = authRepository.findByUser_UserName(userName)
                 .filter(a -> encoder.matches(password, a.getPassword()))
                 .orElseThrow(() -> {
                     log.warn("Authentication failed for user: {}", userName);
                     return new UnauthorizedException(AppErrorsMessages.INVALID_CREDENTIALS);
                 });
+        return issueTokens(authEntity);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Помимо подписи и срока действия проверяет, что учетная запись существует
+     * и пароль не менялся после выпуска токена (отпечаток хэша пароля в токене,
+     * {@link TokenProvider#matchesCredentials}), и берет из БД актуальную роль пользователя.</p>
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Token refresh(String refreshToken) {
+        log.debug("invoked service refresh token");
+        TokenClaims claims = tokenProvider.verify(refreshToken, TokenClaims.Type.REFRESH)
+                .filter(c -> !revocationList.isRevoked(c))
+                .orElseThrow(() -> new UnauthorizedException(AppErrorsMessages.INVALID_TOKEN));
+        AuthEntity authEntity = authRepository.findById(claims.getUserId())
+                .filter(a -> tokenProvider.matchesCredentials(claims, a.getPassword()))
+                .orElseThrow(() -> new UnauthorizedException(AppErrorsMessages.INVALID_TOKEN));
+        return issueTokens(authEntity);
+    }
+
+    private Token issueTokens(AuthEntity authEntity) {
+        String userName = authEntity.getUser().getUserName();
+        return Token.builder()
+                .accessToken(tokenProvider.issueAccessToken(authEntity.getId(), userName, authEntity.getRole()))
+                .refreshToken(tokenProvider.issueRefreshToken(authEntity.getId(), userName, authEntity.getRole(),
+                        authEntity.getPassword()))
+                .tokenType("Bearer")
+                .expiresIn(tokenProvider.getAccessTtlSeconds())
+                .build();
     }
 
     /**
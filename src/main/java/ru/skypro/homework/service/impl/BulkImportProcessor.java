@@ -0,0 +1,565 @@
+package ru.skypro.homework.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.skypro.homework.constants.AppErrorsMessages;
+import ru.skypro.homework.dto.Role;
+import ru.skypro.homework.dto.bulk.AdRecord;
+import ru.skypro.homework.dto.bulk.BulkFormat;
+import ru.skypro.homework.dto.bulk.UserRecord;
+import ru.skypro.homework.dto.jobs.JobType;
+import ru.skypro.homework.entities.AdEntity;
+import ru.skypro.homework.entities.AuthEntity;
+import ru.skypro.homework.entities.JobEntity;
+import ru.skypro.homework.entities.UserEntity;
+import ru.skypro.homework.events.EntityChangedEvent;
+import ru.skypro.homework.exceptions.NotFoundException;
+import ru.skypro.homework.mappers.BulkRecordMapper;
+import ru.skypro.homework.repository.AdsRepository;
+import ru.skypro.homework.repository.AuthRepository;
+import ru.skypro.homework.repository.JobRepository;
+import ru.skypro.homework.repository.UserRepository;
+import ru.skypro.homework.utils.CsvReader;
+import ru.skypro.homework.utils.LineReader;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Выполнение загрузок массового переноса ({@link BulkTransferServiceImpl}) фоновыми задачами
+ * {@link JobType#IMPORT_ADS} и {@link JobType#IMPORT_USERS}.
+ *
+ * <p>Тело запроса хранится в файле {@code import-<id задачи>.<формат>} каталога
+ * {@code app.bulk.spool-dir}, общего для всех экземпляров (как {@code app.upload.main-dir}):
+ * задачу может продолжить любой экземпляр, в том числе после перезапуска. Файл удаляется
+ * после завершения задачи; файлы завершенных задач и брошенные недописанные файлы
+ * удаляются при запуске.</p>
+ *
+ * <p>Порция задачи - очередные записи файла: файл читается по одной записи (длина записи
+ * ограничена {@code app.bulk.max-record-length}), запись проверяется ограничениями DTO.
+ * Записи порции сохраняются в транзакции порции: связанные записи (авторы, существующие
+ * логины) выбираются одним запросом на порцию, вставки уходят пакетами JDBC
+ * ({@code hibernate.jdbc.batch_size}) с id из блока последовательности. Отклоненные записи
+ * учитываются в {@code failed} задачи, номера их строк и причины дописываются в {@code error}.
+ * Каждая порция с объявлениями публикует одно событие {@link EntityChangedEvent#adsImported()}
+ * вместо события на каждое объявление: после фиксации порции индекс подсказок этого
+ * и остальных экземпляров ({@link ru.skypro.homework.events.InvalidationTransport})
+ * строится заново в фоне.</p>
+ *
+ * <p>Открытый файл с позицией чтения хранится между порциями задачи; если позиция
+ * не совпадает с {@code processed} задачи (порция откатилась, задачу продолжил другой
+ * экземпляр), файл открывается заново и обработанные записи пропускаются.</p>
+ */
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BulkImportProcessor {
+
+    private static final String SPOOL_PREFIX = "import-";
+    private static final String UPLOAD_PREFIX = "upload-";
+    private static final Duration STALE_UPLOAD = Duration.ofDays(1);
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final AdsRepository adsRepository;
+    private final UserRepository userRepository;
+    private final AuthRepository authRepository;
+    private final JobRepository jobRepository;
+    private final BulkRecordMapper recordMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.bulk.max-record-length}")
+    private int maxRecordLength;
+    @Value("${app.bulk.spool-dir}")
+    private String spoolDir;
+
+    private final Map<Long, ImportCursor<?>> cursors = new ConcurrentHashMap<>();
+    private Path spoolPath;
+
+    @PostConstruct
+    private void init() {
+        spoolPath = Path.of(spoolDir);
+        try {
+            Files.createDirectories(spoolPath);
+        } catch (IOException e) {
+            log.error("Failed to create directory {}", spoolPath, e);
+            throw new UncheckedIOException(AppErrorsMessages.FILE_STORAGE_ERROR, e);
+        }
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        cursors.values().forEach(ImportCursor::close);
+    }
+
+    /** Удаление файлов завершенных загрузок и недописанных тел запросов. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cleanSpool() {
+        Instant staleBefore = Instant.now().minus(STALE_UPLOAD);
+        try (Stream<Path> files = Files.list(spoolPath)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.startsWith(UPLOAD_PREFIX) ? isOlder(file, staleBefore) : isFinishedImport(name)) {
+                    log.info("Stale bulk import file {} deleted", name);
+                    deleteSpool(file);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Failed to clean directory {}: {}", spoolPath, e.getMessage());
+        }
+    }
+
+    private static boolean isOlder(Path file, Instant before) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(before);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private boolean isFinishedImport(String name) {
+        int dot = name.lastIndexOf('.');
+        if (!name.startsWith(SPOOL_PREFIX) || dot < 0) {
+            return false;
+        }
+        try {
+            long jobId = Long.parseLong(name.substring(SPOOL_PREFIX.length(), dot));
+            return jobRepository.findById(jobId).map(job -> !job.getState().isActive()).orElse(true);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Загрузка очередной порции записей задачи (в транзакции порции).
+     * @param job задача загрузки; {@code processed} - число уже обработанных записей файла.
+     * @param chunkSize наибольшее число записей в порции.
+     * @return число прочитанных записей, включая отклоненные; 0 - записей не осталось.
+     */
+    public int importChunk(JobEntity job, int chunkSize) {
+        return job.getType() == JobType.IMPORT_ADS
+                ? importChunk(job, chunkSize, AdRecord.class, this::saveAds)
+                : importChunk(job, chunkSize, UserRecord.class, this::saveUsers);
+    }
+
+    /**
+     * Удаление файла завершенной загрузки (после фиксации текущей транзакции, если она есть).
+     * @param job задача загрузки.
+     */
+    public void finishImport(JobEntity job) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            releaseImport(job.getId());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                releaseImport(job.getId());
+            }
+        });
+    }
+    /**
+     * Сохранение тела запроса во временный файл до постановки задачи.
+     * @param body тело запроса.
+     * @return временный файл.
+     */
+    public Path spool(InputStream body) {
+        Path upload = null;
+        try {
+            upload = Files.createTempFile(spoolPath, UPLOAD_PREFIX, ".tmp");
+            Files.copy(body, upload, StandardCopyOption.REPLACE_EXISTING);
+            return upload;
+        } catch (IOException e) {
+            if (upload != null) {
+                deleteSpool(upload);
+            }
+            log.error("Failed to spool bulk import body", e);
+            throw new UncheckedIOException(AppErrorsMessages.FILE_STORAGE_ERROR, e);
+        }
+    }
+
+    /**
+     * Привязка временного файла к задаче загрузки (в транзакции, создавшей задачу).
+     * @param upload временный файл ({@link #spool}).
+     * @param jobId идентификатор задачи.
+     * @param format формат загрузки.
+     */
+    public void attach(Path upload, Long jobId, BulkFormat format) {
+        Path spool = spoolOf(jobId, format);
+        try {
+            Files.move(upload, spool, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Failed to move bulk import body to {}", spool, e);
+            throw new UncheckedIOException(AppErrorsMessages.FILE_STORAGE_ERROR, e);
+        }
+    }
+
+    /**
+     * Удаление временного файла загрузки, не поставленной в очередь.
+     * @param upload временный файл ({@link #spool}).
+     */
+    public void discard(Path upload) {
+        deleteSpool(upload);
+    }
+
+    private Path spoolOf(Long jobId, BulkFormat format) {
+        return spoolPath.resolve(SPOOL_PREFIX + jobId + "." + format.getExtension());
+    }
+
+    private static void deleteSpool(Path spool) {
+        try {
+            Files.deleteIfExists(spool);
+        } catch (IOException e) {
+            log.warn("Failed to delete spool file {}", spool, e);
+        }
+    }
+
+    private void releaseImport(Long jobId) {
+        ImportCursor<?> cursor = cursors.remove(jobId);
+        if (cursor != null) {
+            cursor.close();
+        }
+        for (BulkFormat format : BulkFormat.values()) {
+            deleteSpool(spoolOf(jobId, format));
+        }
+    }
+
+    private <R> int importChunk(JobEntity job, int chunkSize, Class<R> type,
+                                Function<List<Line<R>>, List<Line<R>>> saver) {
+        ImportCursor<R> cursor = cursor(job, type);
+        List<Line<R>> chunk = new ArrayList<>(chunkSize);
+        List<Line<R>> rejected = new ArrayList<>();
+        int count = 0;
+        try {
+            Line<R> line;
+            while (count < chunkSize && (line = cursor.next()) != null) {
+                count++;
+                String error = line.error != null ? line.error : validate(line.record);
+                if (error != null) {
+                    rejected.add(new Line<>(line.number, null, error));
+                } else {
+                    chunk.add(line);
+                }
+            }
+        } catch (IOException e) {
+            cursors.remove(job.getId());
+            cursor.close();
+            log.error("Bulk import job {}: failed to read records: {}", job.getId(), e.getMessage());
+            throw new UncheckedIOException(AppErrorsMessages.FILE_STORAGE_ERROR, e);
+        }
+        if (!chunk.isEmpty()) {
+            rejected.addAll(saver.apply(chunk));
+        }
+        if (!rejected.isEmpty()) {
+            reject(job.getId(), rejected);
+        }
+        return count;
+    }
+
+    /** Курсор файла задачи, установленный на первую необработанную запись. */
+    @SuppressWarnings("unchecked")
+    private <R> ImportCursor<R> cursor(JobEntity job, Class<R> type) {
+        ImportCursor<R> cursor = (ImportCursor<R>) cursors.get(job.getId());
+        if (cursor != null && cursor.position == job.getProcessed()) {
+            return cursor;
+        }
+        if (cursor != null) {
+            cursor.close();
+        }
+        cursor = openCursor(job, type);
+        cursors.put(job.getId(), cursor);
+        return cursor;
+    }
+
+    private <R> ImportCursor<R> openCursor(JobEntity job, Class<R> type) {
+        for (BulkFormat format : BulkFormat.values()) {
+            Path spool = spoolOf(job.getId(), format);
+            if (!Files.exists(spool)) {
+                continue;
+            }
+            Reader reader = null;
+            try {
+                reader = new BufferedReader(
+                        new InputStreamReader(Files.newInputStream(spool), StandardCharsets.UTF_8));
+                ImportCursor<R> cursor = new ImportCursor<>(reader, format == BulkFormat.NDJSON
+                        ? new NdjsonSource<>(reader, type)
+                        : new CsvSource<>(reader, type));
+                while (cursor.position < job.getProcessed()) {
+                    if (cursor.next() == null) {
+                        break;
+                    }
+                }
+                if (job.getProcessed() > 0) {
+                    log.info("Bulk import job {} resumed after {} records", job.getId(), cursor.position);
+                }
+                return cursor;
+            } catch (IOException e) {
+                closeQuietly(reader);
+                log.error("Bulk import job {}: failed to open {}", job.getId(), spool, e);
+                throw new UncheckedIOException(AppErrorsMessages.FILE_STORAGE_ERROR, e);
+            }
+        }
+        log.error("Bulk import job {}: file not found in {}", job.getId(), spoolPath);
+        throw new NotFoundException(AppErrorsMessages.FILE_NOT_FOUND);
+    }
+
+    private static void closeQuietly(Reader reader) {
+        if (reader == null) {
+            return;
+        }
+        try {
+            reader.close();
+        } catch (IOException e) {
+            log.debug("Failed to close bulk import file: {}", e.getMessage());
+        }
+    }
+
+    /** Учет отклоненных записей в задаче, в транзакции порции; ошибки перечисляются по порядку строк. */
+    private <R> void reject(Long jobId, List<Line<R>> rejected) {
+        rejected.sort(Comparator.comparingLong((Line<R> line) -> line.number));
+        JobEntity job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new NotFoundException(AppErrorsMessages.JOB_NOT_FOUND));
+        job.setFailed(job.getFailed() + rejected.size());
+        StringBuilder error = new StringBuilder(job.getError() == null ? "" : job.getError());
+        for (Line<R> line : rejected) {
+            if (error.length() >= MAX_ERROR_LENGTH) {
+                break;
+            }
+            error.append(error.length() == 0 ? "" : "; ").append("line ").append(line.number)
+                    .append(": ").append(line.error);
+        }
+        job.setError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error.toString());
+    }
+
+    private List<Line<AdRecord>> saveAds(List<Line<AdRecord>> chunk) {
+        Set<String> userNames = chunk.stream().map(line -> line.record.getAuthor()).collect(Collectors.toSet());
+        Map<String, UserEntity> authors = userRepository.findActiveByUserNameIn(userNames).stream()
+                .collect(Collectors.toMap(UserEntity::getUserName, Function.identity()));
+        List<Line<AdRecord>> errors = new ArrayList<>();
+        List<AdEntity> ads = new ArrayList<>(chunk.size());
+        for (Line<AdRecord> line : chunk) {
+            UserEntity author = authors.get(line.record.getAuthor());
+            if (author == null) {
+                errors.add(new Line<>(line.number, null, AppErrorsMessages.USER_NOT_FOUND));
+                continue;
+            }
+            AdEntity ad = recordMapper.toAdEntity(line.record);
+            ad.setUser(author);
+            ads.add(ad);
+        }
+        adsRepository.saveAll(ads);
+        entityManager.flush();
+        entityManager.clear();
+        if (!ads.isEmpty()) {
+            eventPublisher.publishEvent(EntityChangedEvent.adsImported());
+        }
+        return errors;
+    }
+
+    private List<Line<UserRecord>> saveUsers(List<Line<UserRecord>> chunk) {
+        Set<String> userNames = chunk.stream().map(line -> line.record.getEmail()).collect(Collectors.toSet());
+        Set<String> taken = new HashSet<>(userRepository.findExistingUserNames(userNames));
+        List<Line<UserRecord>> errors = new ArrayList<>();
+        List<UserEntity> users = new ArrayList<>(chunk.size());
+        List<AuthEntity> credentials = new ArrayList<>(chunk.size());
+        for (Line<UserRecord> line : chunk) {
+            if (!taken.add(line.record.getEmail())) {
+                errors.add(new Line<>(line.number, null, AppErrorsMessages.USER_ALREADY_EXISTS));
+                continue;
+            }
+            UserEntity user = recordMapper.toUserEntity(line.record);
+            users.add(user);
+            credentials.add(AuthEntity.builder()
+                    .user(user)
+                    .password(line.record.getPasswordHash())
+                    .role(line.record.getRole() == null ? Role.USER : line.record.getRole())
+                    .build());
+        }
+        userRepository.saveAll(users);
+        authRepository.saveAll(credentials);
+        entityManager.flush();
+        entityManager.clear();
+        return errors;
+    }
+
+    private String validate(Object record) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(record);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static String describe(Exception e) {
+        Throwable cause = e;
+        while (cause != null && !(cause instanceof JsonMappingException)) {
+            cause = cause.getCause();
+        }
+        if (cause != null) {
+            List<JsonMappingException.Reference> path = ((JsonMappingException) cause).getPath();
+            if (!path.isEmpty() && path.get(path.size() - 1).getFieldName() != null) {
+                return AppErrorsMessages.MALFORMED_RECORD + ": " + path.get(path.size() - 1).getFieldName();
+            }
+        }
+        return AppErrorsMessages.MALFORMED_RECORD;
+    }
+
+    /** Прочитанная запись или причина ее отклонения. */
+    @RequiredArgsConstructor
+    private static final class Line<R> {
+        private final long number;
+        private final R record;
+        private final String error;
+    }
+
+    private interface RecordSource<R> {
+        /** Следующая запись; {@code null} в конце потока. */
+        Line<R> next() throws IOException;
+    }
+
+    /** Записи NDJSON: один объект на строку, пустые строки пропускаются. */
+    private final class NdjsonSource<R> implements RecordSource<R> {
+        private final LineReader lines;
+        private final ObjectReader recordReader;
+
+        private NdjsonSource(Reader reader, Class<R> type) {
+            this.lines = new LineReader(reader, maxRecordLength);
+            this.recordReader = objectMapper.readerFor(type).with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        }
+
+        @Override
+        public Line<R> next() throws IOException {
+            while (true) {
+                String text;
+                try {
+                    text = lines.readLine();
+                } catch (IllegalArgumentException e) {
+                    return new Line<>(lines.getLineNumber(), null, e.getMessage());
+                }
+                if (text == null) {
+                    return null;
+                }
+                if (text.isBlank()) {
+                    continue;
+                }
+                try {
+                    R record = recordReader.readValue(text);
+                    return record == null
+                            ? new Line<>(lines.getLineNumber(), null, AppErrorsMessages.MALFORMED_RECORD)
+                            : new Line<>(lines.getLineNumber(), record, null);
+                } catch (JsonProcessingException e) {
+                    return new Line<>(lines.getLineNumber(), null, describe(e));
+                }
+            }
+        }
+    }
+
+    /** Записи CSV: первая запись - заголовок, пустые строки пропускаются. */
+    private final class CsvSource<R> implements RecordSource<R> {
+        private final CsvReader csv;
+        private final Class<R> type;
+        private List<String> header;
+
+        private CsvSource(Reader reader, Class<R> type) {
+            this.csv = new CsvReader(reader, maxRecordLength);
+            this.type = type;
+        }
+
+        @Override
+        public Line<R> next() throws IOException {
+            while (true) {
+                List<String> fields;
+                try {
+                    fields = csv.readRecord();
+                } catch (IllegalArgumentException e) {
+                    return new Line<>(csv.getRecordLine(), null, e.getMessage());
+                }
+                if (fields == null) {
+                    return null;
+                }
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                if (header == null) {
+                    header = fields.stream().map(String::trim).collect(Collectors.toList());
+                    continue;
+                }
+                if (fields.size() != header.size()) {
+                    return new Line<>(csv.getRecordLine(), null, AppErrorsMessages.MALFORMED_RECORD);
+                }
+                Map<String, String> values = new HashMap<>();
+                for (int i = 0; i < fields.size(); i++) {
+                    if (!fields.get(i).isEmpty()) {
+                        values.put(header.get(i), fields.get(i));
+                    }
+                }
+                try {
+                    return new Line<>(csv.getRecordLine(), objectMapper.convertValue(values, type), null);
+                } catch (IllegalArgumentException e) {
+                    return new Line<>(csv.getRecordLine(), null, describe(e));
+                }
+            }
+        }
+    }
+
+    /** Открытый файл задачи и число прочитанных записей. */
+    @RequiredArgsConstructor
+    private static final class ImportCursor<R> {
+        private final Reader reader;
+        private final RecordSource<R> source;
+        private long position;
+
+        private Line<R> next() throws IOException {
+            Line<R> line = source.next();
+            if (line != null) {
+                position++;
+            }
+            return line;
+        }
+
+        private void close() {
+            closeQuietly(reader);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package ru.skypro.homework.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.skypro.homework.constants.AppErrorsMessages;
+import ru.skypro.homework.dto.bulk.AdRecord;
+import ru.skypro.homework.dto.bulk.BulkFormat;
+import ru.skypro.homework.dto.bulk.UserRecord;
+import ru.skypro.homework.dto.jobs.Job;
+import ru.skypro.homework.dto.jobs.JobType;
+import ru.skypro.homework.entities.UserEntity;
+import ru.skypro.homework.exceptions.NotFoundException;
+import ru.skypro.homework.mappers.BulkRecordMapper;
+import ru.skypro.homework.repository.AdsRepository;
+import ru.skypro.homework.repository.AuthRepository;
+import ru.skypro.homework.repository.UserRepository;
+import ru.skypro.homework.security.AccessService;
+import ru.skypro.homework.service.BulkTransferService;
+import ru.skypro.homework.service.JobService;
+import ru.skypro.homework.utils.CsvWriter;
+import ru.skypro.homework.utils.JsonStreamWriter;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Реализация массового переноса записей.
+ *
+ * <p>Выгрузка выполняется через {@link ExportStreamer} (транзакция только для чтения,
+ * очистка контекста persistence каждые {@code app.export.batch-size} записей);
+ * NDJSON пишет {@link JsonStreamWriter#writeLines}, CSV - {@link CsvWriter}.</p>
+ *
+ * <p>Загрузка сохраняет тело запроса во временный файл до открытия транзакции, затем
+ * ставит задачу ({@link JobService#submit}) от имени администратора и привязывает
+ * к ней файл в той же транзакции; при откате задача завершается с ошибкой, а файл
+ * удаляется. Задача выполняется {@link BulkImportProcessor}.</p>
+ */
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkTransferServiceImpl implements BulkTransferService {
+
+    private static final TypeReference<Map<String, Object>> FIELDS = new TypeReference<>() {
+    };
+
+    private final AccessService accessService;
+    private final AdsRepository adsRepository;
+    private final UserRepository userRepository;
+    private final AuthRepository authRepository;
+    private final JobService jobService;
+    private final BulkImportProcessor importProcessor;
+    private final BulkRecordMapper recordMapper;
+    private final ObjectMapper objectMapper;
+    private final JsonStreamWriter jsonStreamWriter;
+    private final ExportStreamer exportStreamer;
+    private final PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate writeTemplate;
+
+    @PostConstruct
+    private void init() {
+        writeTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public StreamingResponseBody exportAds(BulkFormat format, Authentication authentication) {
+        log.info("invoked bulk-export-ads method");
+        accessService.checkAdmin(authentication);
+        return export("ads", format, adsRepository::streamAllWithUser, recordMapper::toAdRecord, AdRecord.class);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public StreamingResponseBody exportUsers(BulkFormat format, Authentication authentication) {
+        log.info("invoked bulk-export-users method");
+        accessService.checkAdmin(authentication);
+        return export("users", format, authRepository::streamActiveWithUser, recordMapper::toUserRecord,
+                UserRecord.class);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Job importAds(InputStream body, BulkFormat format, Authentication authentication) {
+        log.info("invoked bulk-import-ads method");
+        accessService.checkAdmin(authentication);
+        return startImport(JobType.IMPORT_ADS, format, body, authentication);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Job importUsers(InputStream body, BulkFormat format, Authentication authentication) {
+        log.info("invoked bulk-import-users method");
+        accessService.checkAdmin(authentication);
+        return startImport(JobType.IMPORT_USERS, format, body, authentication);
+    }
+
+    private <E, R> StreamingResponseBody export(String name, BulkFormat format, Supplier<Stream<E>> rows,
+                                                Function<E, R> mapper, Class<R> type) {
+        return exportStreamer.export("bulk " + name + " (" + format + ")", rows,
+                (out, stream, batchSize, afterBatch) -> format == BulkFormat.NDJSON
+                        ? jsonStreamWriter.writeLines(out, stream, mapper, type, batchSize, afterBatch)
+                        : writeCsv(out, stream, mapper, type, batchSize, afterBatch));
+    }
+
+    private <E, R> long writeCsv(OutputStream out, Stream<E> rows, Function<E, R> mapper, Class<R> type,
+                                 int batchSize, Runnable afterBatch) throws IOException {
+        List<String> columns = columnsOf(type);
+        Writer text = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        CsvWriter csv = new CsvWriter(text);
+        csv.writeRecord(columns);
+        long count = 0;
+        Iterator<E> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            Map<String, Object> values = objectMapper.convertValue(mapper.apply(iterator.next()), FIELDS);
+            List<String> fields = new ArrayList<>(columns.size());
+            for (String column : columns) {
+                Object value = values.get(column);
+                fields.add(value == null ? null : value.toString());
+            }
+            csv.writeRecord(fields);
+            if (++count % batchSize == 0) {
+                afterBatch.run();
+                text.flush();
+            }
+        }
+        text.flush();
+        return count;
+    }
+
+    /** Имена полей записи в порядке {@code @JsonPropertyOrder} - колонки CSV. */
+    private List<String> columnsOf(Class<?> type) {
+        return objectMapper.getSerializationConfig()
+                .introspect(objectMapper.constructType(type))
+                .findProperties().stream()
+                .map(BeanPropertyDefinition::getName)
+                .collect(Collectors.toList());
+    }
+
+    private Job startImport(JobType type, BulkFormat format, InputStream body, Authentication authentication) {
+        Path upload = importProcessor.spool(body);
+        try {
+            Job job = writeTemplate.execute(status -> {
+                UserEntity admin = userRepository.findByUserName(authentication.getName())
+                        .orElseThrow(() -> new NotFoundException(AppErrorsMessages.USER_NOT_FOUND));
+                Job submitted = jobService.submit(type, admin.getId(), authentication.getName());
+                importProcessor.attach(upload, submitted.getId(), format);
+                return submitted;
+            });
+            log.info("Bulk import job {} {} ({}) queued", job.getId(), type, format);
+            return job;
+        } catch (RuntimeException e) {
+            importProcessor.discard(upload);
+            throw e;
+        }
+    }
+}
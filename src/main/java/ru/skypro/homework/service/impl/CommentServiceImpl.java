@@ -2,6 +2,8 @@ package ru.skypro.homework.service.impl;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,13 +14,19 @@ import ru.skypro.homework.dto.comments.CreateOrUpdateComment;
 import ru.skypro.homework.entities.AdEntity;
 import ru.skypro.homework.entities.CommentEntity;
 import ru.skypro.homework.entities.UserEntity;
+import ru.skypro.homework.events.EntityChangedEvent;
 import ru.skypro.homework.exceptions.NotFoundException;
 import ru.skypro.homework.mappers.CommentMapper;
 import ru.skypro.homework.repository.AdsRepository;
 import ru.skypro.homework.repository.CommentRepository;
 import ru.skypro.homework.repository.UserRepository;
 import ru.skypro.homework.security.AccessService;
+import ru.skypro.homework.security.CurrentUser;
 import ru.skypro.homework.service.CommentService;
+import ru.skypro.homework.utils.CursorCodec;
+import ru.skypro.homework.utils.PageLimits;
+
+import java.util.List;
 
 /**
  * Реализация сервиса управления комментариями.
@@ -37,19 +45,51 @@ public class CommentServiceImpl implements CommentService {
     private final UserRepository userRepository;
     private final CommentMapper commentMapper;
     private final AccessService accessService;
+    private final CurrentUser currentUser;
+    private final PageLimits pageLimits;
+    private final ApplicationEventPublisher eventPublisher;
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     * <p>Выборка идет по ключу {@code (created_time, id)} (keyset pagination): запрашивается
+     * на одну запись больше размера страницы, чтобы определить наличие следующей страницы.
+     * Комментарии и их авторы загружаются одним запросом.</p>
+     * <p>Общее количество вычисляется только для первой страницы: если она последняя,
+     * количество берется из нее, иначе считается по индексу. Для страниц по курсору
+     * количество не возвращается ({@code null}). Существование объявления проверяется
+     * только при пустом результате.</p>
+     */
     @Override
     @Transactional(readOnly = true)
-    public Comments getAllCommentsAd(Long adId, Authentication authentication) {
+    public Comments getAllCommentsAd(Long adId, String cursor, Integer size, Authentication authentication) {
         log.debug("invoked comment service get all comments");
 
         accessService.checkAuth(authentication);
 
-        AdEntity adEntity = adsRepository.findById(adId)
-                .orElseThrow(() -> new NotFoundException(AppErrorsMessages.AD_NOT_FOUND));
+        int limit = pageLimits.resolve(size);
+        PageRequest window = PageRequest.of(0, limit + 1);
+        List<CommentEntity> page;
+        if (cursor == null) {
+            page = commentRepository.findPageWithUserByAdId(adId, window);
+        } else {
+            long[] keys = CursorCodec.decode(cursor, 2);
+            page = commentRepository.findPageWithUserByAdIdAfter(adId, keys[0], keys[1], window);
+        }
 
-        return commentMapper.toComments(commentRepository.findByAd_Id(adId));
+        String next = null;
+        Long total = null;
+        if (cursor == null) {
+            total = page.size() <= limit ? page.size() : commentRepository.countByAd_Id(adId);
+        }
+        if (page.isEmpty() && !adsRepository.existsById(adId)) {
+            throw new NotFoundException(AppErrorsMessages.AD_NOT_FOUND);
+        }
+        if (page.size() > limit) {
+            page = page.subList(0, limit);
+            CommentEntity last = page.get(limit - 1);
+            next = CursorCodec.encode(last.getCreatedAt(), last.getId());
+        }
+        return commentMapper.toCommentsPage(page, total, next);
     }
 
     /**
@@ -67,14 +107,14 @@ public class CommentServiceImpl implements CommentService {
         AdEntity adEntity = adsRepository.findById(adId)
                 .orElseThrow(() -> new NotFoundException(AppErrorsMessages.AD_NOT_FOUND));
 
-        UserEntity userEntity = userRepository.findByUserName(authentication.getName())
-                .orElseThrow(() -> new NotFoundException(AppErrorsMessages.USER_NOT_FOUND));
+        UserEntity userEntity = currentUser.getReference(authentication);
 
         CommentEntity commentEntity = commentMapper.toEntity(updateComment);
         commentEntity.setUser(userEntity);
         commentEntity.setAd(adEntity);
         commentEntity.setCreatedAt(System.currentTimeMillis());
         commentRepository.save(commentEntity);
+        eventPublisher.publishEvent(EntityChangedEvent.comment(adId));
         return commentMapper.toCommentDto(commentEntity);
 
     }
@@ -102,9 +142,10 @@ public class CommentServiceImpl implements CommentService {
             throw new NotFoundException(AppErrorsMessages.INVALID_RELATION);
         }
 
-        accessService.checkEdit(authentication, commentEntity.getUser().getUserName());
+        accessService.checkEdit(authentication, commentEntity.getUser().getId());
 
         commentRepository.delete(commentEntity);
+        eventPublisher.publishEvent(EntityChangedEvent.comment(adId));
     }
 
     /**
@@ -129,10 +170,11 @@ public class CommentServiceImpl implements CommentService {
             throw new NotFoundException(AppErrorsMessages.INVALID_RELATION);
         }
 
-        accessService.checkEdit(authentication, commentEntity.getUser().getUserName());
+        accessService.checkEdit(authentication, commentEntity.getUser().getId());
 
         commentMapper.updateCommentEntity(updateComment, commentEntity);
         commentRepository.save(commentEntity);
+        eventPublisher.publishEvent(EntityChangedEvent.comment(adId));
         return commentMapper.toCommentDto(commentEntity);
     }
 
@@ -0,0 +1,281 @@
+package ru.skypro.homework.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import ru.skypro.homework.constants.AppErrorsMessages;
+import ru.skypro.homework.dto.images.ImageVariant;
+import ru.skypro.homework.entities.ImageBlobEntity;
+import ru.skypro.homework.events.ImageStoredEvent;
+import ru.skypro.homework.repository.ImageBlobRepository;
+import ru.skypro.homework.service.ImageService;
+import ru.skypro.homework.utils.ContentHash;
+import ru.skypro.homework.utils.ImageStreamWriter;
+import ru.skypro.homework.utils.ImageUploadPolicy;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+
+/**
+ * Контентно-адресуемое хранилище изображений.
+ *
+ * <p>Включается параметром {@code app.upload.storage: cas}. Имя файла - SHA-256 содержимого,
+ * который вычисляется во время записи потока на диск. Файлы раскладываются по каталогам
+ * по первым байтам хэша: {@code blobs/ab/cd/abcd...ef.png}, чтобы в одном каталоге
+ * не накапливались миллионы файлов.</p>
+ *
+ * <p>Одинаковые изображения хранятся в одном экземпляре. Число ссылок на файл
+ * учитывается в таблице {@code image_blobs} ({@link ImageBlobEntity}):
+ * {@link #deleteImage(String)} удаляет файл только вместе с последней ссылкой.
+ * Счетчик изменяется в отдельной короткой транзакции; файл перемещается и удаляется,
+ * пока запись заблокирована этой транзакцией. Если транзакция вызывающего метода
+ * (сохранение объявления или профиля) затем откатывается, добавленная ссылка
+ * снимается после отката ({@link TransactionSynchronization#afterCompletion}):
+ * счетчик уменьшается, файл без ссылок удаляется.</p>
+ *
+ * <p>Пути плоской раскладки ({@link ImageServiceImpl}), еще не перенесенные
+ * {@link ImageStorageMigrationRunner}, удаляются как обычные файлы.</p>
+ */
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.upload.storage", havingValue = "cas")
+@RequiredArgsConstructor
+public class ContentAddressedImageServiceImpl implements ImageService {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImageUploadPolicy uploadPolicy;
+    private final ImageStreamWriter streamWriter;
+    private final ImageBlobRepository blobRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.upload.main-dir}")
+    private String mainDir;
+    @Value("${app.upload.blobs-dir}")
+    private String blobsDir;
+
+    private Path blobsPath;
+    private Path tempPath;
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Инициализация хранилища.
+     * <p>Создает каталог файлов и каталог временных файлов загрузки. Временные файлы
+     * находятся на том же разделе, что и хранилище, поэтому перемещаются атомарно.</p>
+     */
+    @PostConstruct
+    private void init() {
+        blobsPath = Path.of(mainDir, blobsDir);
+        tempPath = blobsPath.resolve("tmp");
+        try {
+            log.info("created dir {}", Files.createDirectories(tempPath));
+        } catch (IOException e) {
+            log.error("Failed to create directory {}", tempPath, e);
+            throw new UncheckedIOException(AppErrorsMessages.FILE_STORAGE_ERROR, e);
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String saveAdImage(MultipartFile file, Long userId) {
+        return saveImage(file);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String saveAvatarImage(MultipartFile file, Long userId) {
+        return saveImage(file);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String storeAdImage(InputStream content, Long userId) {
+        return storeImage(content);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String storeAvatarImage(InputStream content, Long userId) {
+        return storeImage(content);
+    }
+
+    private String saveImage(MultipartFile file) {
+        log.debug("invoked service save image");
+        uploadPolicy.validate(file);
+        try (InputStream is = file.getInputStream()) {
+            return storeImage(is);
+        } catch (IOException e) {
+            log.error("File read error", e);
+            throw new UncheckedIOException(AppErrorsMessages.FILE_STORAGE_ERROR, e);
+        }
+    }
+
+    private String storeImage(InputStream is) {
+        try {
+            return store(is);
+        } catch (IOException e) {
+            log.error("File save error", e);
+            throw new UncheckedIOException(AppErrorsMessages.FILE_STORAGE_ERROR, e);
+        }
+    }
+
+    /**
+     * Сохранение изображения в хранилище.
+     * <p>Поток записывается во временный файл ({@link ImageStreamWriter}) с одновременным
+     * вычислением хэша; расширение определяется по содержимому.
+     * Если такой файл уже хранится, увеличивается счетчик ссылок, а временный файл удаляется.</p>
+     * @param is содержимое изображения.
+     * @return относительный путь к файлу в хранилище.
+     */
+    public String store(InputStream is) throws IOException {
+        MessageDigest digest = ContentHash.newDigest();
+        ImageStreamWriter.Upload upload = streamWriter.write(is, tempPath, digest);
+        Path temp = upload.getTempFile();
+        try {
+            long size = upload.getSize();
+            String hash = ContentHash.toHex(digest.digest());
+            String imagePath = blobPathOf(hash, upload.getFormat().getExtension());
+            String storedPath;
+            try {
+                storedPath = addReference(hash, imagePath, size, temp);
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Concurrent upload of blob {}, retry as reference", hash);
+                storedPath = addReference(hash, imagePath, size, temp);
+            }
+            releaseOnRollback(storedPath);
+            if (storedPath.equals(imagePath) && Files.notExists(temp)) {
+                eventPublisher.publishEvent(new ImageStoredEvent(imagePath));
+                log.info("Save image path successfully: {}", imagePath);
+            } else {
+                log.info("Image deduplicated: {}", storedPath);
+            }
+            return storedPath;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Уменьшает счетчик ссылок. Файл и его уменьшенные копии удаляются,
+     * когда ссылок не остается.</p>
+     */
+    @Override
+    public void deleteImage(String filePath) {
+        log.debug("invoked service delete image");
+        log.info("Delete image by path: {}", filePath);
+        if (filePath == null || filePath.isEmpty()) {
+            return;
+        }
+        if (!isBlobPath(filePath)) {
+            deleteFiles(filePath);
+            return;
+        }
+        String hash = hashOf(filePath);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (blobRepository.decrementRefCount(hash) == 0) {
+                log.warn("Blob reference not found! {}", filePath);
+                return;
+            }
+            if (blobRepository.deleteUnreferenced(hash) > 0) {
+                deleteFiles(filePath);
+            }
+        });
+    }
+
+    /** Проверка, что путь указывает на файл контентно-адресуемого хранилища. */
+    public boolean isBlobPath(String imagePath) {
+        return imagePath.startsWith(blobsDir + "/");
+    }
+
+    private String addReference(String hash, String imagePath, long size, Path temp) {
+        return transactionTemplate.execute(status -> {
+            if (blobRepository.incrementRefCount(hash) > 0) {
+                return blobRepository.findById(hash).map(ImageBlobEntity::getPath).orElse(imagePath);
+            }
+            blobRepository.saveAndFlush(ImageBlobEntity.builder()
+                    .hash(hash)
+                    .path(imagePath)
+                    .size(size)
+                    .refCount(1)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            Path target = Path.of(mainDir).resolve(imagePath);
+            try {
+                Files.createDirectories(target.getParent());
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                log.error("File save error {}", target, e);
+                throw new UncheckedIOException(AppErrorsMessages.FILE_STORAGE_ERROR, e);
+            }
+            return imagePath;
+        });
+    }
+
+    /**
+     * Снятие добавленной ссылки при откате транзакции вызывающего метода.
+     * <p>Ссылка фиксируется в отдельной транзакции, поэтому откат вызывающего
+     * ее не отменяет.</p>
+     */
+    private void releaseOnRollback(String storedPath) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    log.info("Upload transaction rolled back, releasing image {}", storedPath);
+                    deleteImage(storedPath);
+                }
+            }
+        });
+    }
+
+    private void deleteFiles(String filePath) {
+        try {
+            Path path = Path.of(mainDir).resolve(filePath);
+            if (Files.deleteIfExists(path)) {
+                log.info("File successfully deleted {}", path);
+            } else {
+                log.warn("Filepath not found! {}", path);
+            }
+            for (ImageVariant variant : ImageVariant.values()) {
+                Files.deleteIfExists(Path.of(mainDir).resolve(variant.pathOf(filePath)));
+            }
+        } catch (IOException e) {
+            log.error("Error file delete! {}", filePath, e);
+            throw new UncheckedIOException(AppErrorsMessages.FILE_NOT_FOUND, e);
+        }
+    }
+
+    private String blobPathOf(String hash, String extension) {
+        return String.format("%s/%s/%s/%s.%s",
+                blobsDir, hash.substring(0, 2), hash.substring(2, 4), hash, extension);
+    }
+
+    private String hashOf(String imagePath) {
+        String fileName = imagePath.substring(imagePath.lastIndexOf('/') + 1);
+        int dot = fileName.indexOf('.');
+        return dot < 0 ? fileName : fileName.substring(0, dot);
+    }
+}
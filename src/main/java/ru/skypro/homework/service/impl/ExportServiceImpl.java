@@ -0,0 +1,70 @@
+package ru.skypro.homework.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.skypro.homework.constants.AppErrorsMessages;
+import ru.skypro.homework.dto.ads.Ad;
+import ru.skypro.homework.dto.comments.Comment;
+import ru.skypro.homework.exceptions.NotFoundException;
+import ru.skypro.homework.mappers.AdMapper;
+import ru.skypro.homework.mappers.CommentMapper;
+import ru.skypro.homework.repository.AdsRepository;
+import ru.skypro.homework.repository.CommentRepository;
+import ru.skypro.homework.security.AccessService;
+import ru.skypro.homework.service.ExportService;
+import ru.skypro.homework.utils.JsonStreamWriter;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Реализация выгрузки на курсорных запросах репозиториев.
+ *
+ * <p>Транзакция, очистка контекста persistence порциями и обработка обрыва соединения -
+ * в {@link ExportStreamer}; список пишется в форме {@code Ads}/{@code Comments}
+ * через {@link JsonStreamWriter}.</p>
+ */
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    private final AccessService accessService;
+    private final AdsRepository adsRepository;
+    private final CommentRepository commentRepository;
+    private final AdMapper adMapper;
+    private final CommentMapper commentMapper;
+    private final JsonStreamWriter jsonStreamWriter;
+    private final ExportStreamer exportStreamer;
+
+    /** {@inheritDoc} */
+    @Override
+    public StreamingResponseBody exportAds(Authentication authentication) {
+        log.info("invoked export-ads method");
+        accessService.checkAdmin(authentication);
+        return export("ads", adsRepository::streamAll, adMapper::toAdDto, Ad.class);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public StreamingResponseBody exportComments(Long adId, Authentication authentication) {
+        log.info("invoked export-comments method");
+        accessService.checkAdmin(authentication);
+        if (!adsRepository.existsById(adId)) {
+            throw new NotFoundException(AppErrorsMessages.AD_NOT_FOUND);
+        }
+        return export("comments of ad " + adId, () -> commentRepository.streamWithUserByAdId(adId),
+                commentMapper::toCommentDto, Comment.class);
+    }
+
+    private <E, D> StreamingResponseBody export(String name, Supplier<Stream<E>> rows,
+                                                Function<E, D> mapper, Class<D> type) {
+        return exportStreamer.export(name, rows, (out, stream, batchSize, afterBatch) ->
+                jsonStreamWriter.write(out, stream, mapper, type, batchSize, afterBatch));
+    }
+}
@@ -0,0 +1,92 @@
+package ru.skypro.homework.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Потоковая выгрузка строк курсорного запроса в тело ответа - общая часть
+ * {@link ExportServiceImpl} и {@link BulkTransferServiceImpl}.
+ *
+ * <p>Тело ответа пишется в потоке асинхронной обработки запроса внутри собственной
+ * транзакции только для чтения: поток строк ({@code Stream}) открыт, пока открыта транзакция.
+ * Каждые {@code app.export.batch-size} записей контекст persistence очищается, чтобы
+ * прочитанные сущности не накапливались в нем, а записанная часть ответа уходит клиенту.
+ * Обрыв соединения клиентом прерывает чтение и откатывает транзакцию.</p>
+ */
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExportStreamer {
+
+    private final PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.export.batch-size}")
+    private int batchSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    private void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Запись строк в формате выгрузки.
+     * @param <E> тип строки.
+     */
+    @FunctionalInterface
+    public interface RowsWriter<E> {
+
+        /**
+         * @param out выходной поток.
+         * @param rows строки; поток закрывается вызывающим.
+         * @param batchSize число записей между вызовами {@code afterBatch}.
+         * @param afterBatch действие после каждой порции записей.
+         * @return число записанных элементов.
+         */
+        long write(OutputStream out, Stream<E> rows, int batchSize, Runnable afterBatch) throws IOException;
+    }
+
+    /**
+     * Тело ответа выгрузки.
+     * @param name описание выгрузки для журнала.
+     * @param rows открытие курсорного запроса; вызывается внутри транзакции.
+     * @param writer запись строк в выходной поток.
+     */
+    public <E> StreamingResponseBody export(String name, Supplier<Stream<E>> rows, RowsWriter<E> writer) {
+        return out -> {
+            try {
+                long count = transactionTemplate.execute(status -> {
+                    try (Stream<E> stream = rows.get()) {
+                        return writer.write(out, stream, batchSize, entityManager::clear);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                log.info("Exported {} {}", count, name);
+            } catch (UncheckedIOException e) {
+                log.warn("Export of {} interrupted: {}", name, e.getCause().getMessage());
+                throw e.getCause();
+            }
+        };
+    }
+}
@@ -0,0 +1,200 @@
+package ru.skypro.homework.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.skypro.homework.dto.metric.FileCleanupMetric;
+import ru.skypro.homework.entities.FileCleanupTaskEntity;
+import ru.skypro.homework.repository.FileCleanupQueueRepository;
+import ru.skypro.homework.service.FileCleanupService;
+import ru.skypro.homework.service.ImageService;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Реализация очереди удаления файлов на таблице {@code file_cleanup_queue}.
+ *
+ * <p>После фиксации транзакции, поставившей файлы в очередь, задачи передаются
+ * ограниченному пулу потоков ({@code app.upload.cleanup.workers}). Задачи, не попавшие
+ * в пул (очередь пула заполнена, экземпляр остановлен), и повторные попытки выбираются
+ * по расписанию ({@code app.upload.cleanup.poll-interval}).</p>
+ *
+ * <p>Перед удалением задача захватывается ({@link FileCleanupQueueRepository#claim}),
+ * поэтому один файл не удаляется параллельно. После ошибки следующая попытка
+ * откладывается на {@code backoff * 2^(n-1)} секунд, но не более {@code max-backoff};
+ * после {@code max-attempts} попыток задача остается в таблице для разбора.</p>
+ */
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FileCleanupServiceImpl implements FileCleanupService {
+
+    private final FileCleanupQueueRepository queueRepository;
+    private final ImageService imageService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.upload.cleanup.workers}")
+    private int workers;
+    @Value("${app.upload.cleanup.queue-capacity}")
+    private int queueCapacity;
+    @Value("${app.upload.cleanup.batch-size}")
+    private int batchSize;
+    @Value("${app.upload.cleanup.max-attempts}")
+    private int maxAttempts;
+    @Value("${app.upload.cleanup.backoff}")
+    private long backoffSeconds;
+    @Value("${app.upload.cleanup.max-backoff}")
+    private long maxBackoffSeconds;
+    @Value("${app.upload.cleanup.lease}")
+    private long leaseSeconds;
+
+    private final AtomicLong deleted = new AtomicLong();
+    private ThreadPoolExecutor executor;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    private void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "file-cleanup-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        executor.shutdown();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Transactional
+    public void enqueue(String imagePath) {
+        enqueueAll(imagePath == null ? List.of() : List.of(imagePath));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Задачи записываются в текущей транзакции (или в новой, если ее нет)
+     * и передаются обработчикам после ее фиксации.</p>
+     */
+    @Override
+    @Transactional
+    public void enqueueAll(Collection<String> imagePaths) {
+        LocalDateTime now = LocalDateTime.now();
+        List<FileCleanupTaskEntity> tasks = imagePaths.stream()
+                .filter(path -> path != null && !path.isBlank())
+                .distinct()
+                .map(path -> FileCleanupTaskEntity.builder()
+                        .path(path)
+                        .attempts(0)
+                        .nextAttemptAt(now)
+                        .createdAt(now)
+                        .build())
+                .collect(Collectors.toList());
+        if (tasks.isEmpty()) {
+            return;
+        }
+        List<Long> ids = queueRepository.saveAll(tasks).stream()
+                .map(FileCleanupTaskEntity::getId)
+                .collect(Collectors.toList());
+        log.debug("Files queued for deletion: {}", ids.size());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ids.forEach(FileCleanupServiceImpl.this::submit);
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Scheduled(fixedDelayString = "${app.upload.cleanup.poll-interval}",
+            initialDelayString = "${app.upload.cleanup.poll-interval}")
+    public void processDue() {
+        List<FileCleanupTaskEntity> due = queueRepository.findDue(LocalDateTime.now(), maxAttempts,
+                PageRequest.of(0, batchSize));
+        due.forEach(task -> submit(task.getId()));
+    }
+
+    private void submit(Long taskId) {
+        try {
+            executor.execute(() -> {
+                try {
+                    process(taskId);
+                } catch (RuntimeException e) {
+                    log.error("File cleanup task {} failed", taskId, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("File cleanup pool is busy, task {} left for the next poll", taskId);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean process(Long taskId) {
+        Optional<FileCleanupTaskEntity> claimed = transactionTemplate.execute(status ->
+                queueRepository.findById(taskId)
+                        .filter(task -> task.getAttempts() < maxAttempts)
+                        .filter(task -> queueRepository.claim(taskId, task.getAttempts(),
+                                LocalDateTime.now().plusSeconds(leaseSeconds)) > 0));
+        if (claimed == null || claimed.isEmpty()) {
+            return false;
+        }
+        FileCleanupTaskEntity task = claimed.get();
+        int attempt = task.getAttempts() + 1;
+        try {
+            imageService.deleteImage(task.getPath());
+        } catch (RuntimeException e) {
+            if (attempt >= maxAttempts) {
+                log.error("File {} not deleted after {} attempts, task {} left in queue",
+                        task.getPath(), attempt, taskId, e);
+            } else {
+                long delay = Math.min(maxBackoffSeconds, backoffSeconds << Math.min(attempt - 1, 30));
+                log.warn("File {} not deleted (attempt {}), retry in {}s", task.getPath(), attempt, delay, e);
+                transactionTemplate.executeWithoutResult(status ->
+                        queueRepository.reschedule(taskId, LocalDateTime.now().plusSeconds(delay)));
+            }
+            return false;
+        }
+        transactionTemplate.executeWithoutResult(status -> queueRepository.complete(taskId));
+        deleted.incrementAndGet();
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public FileCleanupMetric getMetric() {
+        return FileCleanupMetric.builder()
+                .pending(queueRepository.countByAttemptsLessThan(maxAttempts))
+                .failed(queueRepository.countByAttemptsGreaterThanEqual(maxAttempts))
+                .deleted(deleted.get())
+                .build();
+    }
+}
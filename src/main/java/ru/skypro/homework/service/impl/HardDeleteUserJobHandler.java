@@ -0,0 +1,71 @@
+package ru.skypro.homework.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.skypro.homework.dto.jobs.JobType;
+import ru.skypro.homework.entities.JobEntity;
+import ru.skypro.homework.events.EntityChangedEvent;
+import ru.skypro.homework.repository.AuthRepository;
+import ru.skypro.homework.repository.CommentRepository;
+import ru.skypro.homework.repository.UserRepository;
+import ru.skypro.homework.service.AdService;
+import ru.skypro.homework.service.FileCleanupService;
+import ru.skypro.homework.service.JobHandler;
+
+import java.util.List;
+
+/**
+ * Фоновая часть полного удаления пользователя.
+ *
+ * <p>Порциями удаляются объявления пользователя (с комментариями к ним - каскадно в БД),
+ * затем его комментарии к чужим объявлениям. Последней транзакцией удаляется сам
+ * пользователь, аватар ставится в очередь на удаление. Учетные данные удаляются
+ * при постановке задачи ({@link ManagementServiceImpl#hardDeleteUser}).</p>
+ */
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HardDeleteUserJobHandler implements JobHandler {
+
+    private final AdService adService;
+    private final CommentRepository commentRepository;
+    private final AuthRepository authRepository;
+    private final UserRepository userRepository;
+    private final FileCleanupService fileCleanupService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public JobType getType() {
+        return JobType.HARD_DELETE_USER;
+    }
+
+    @Override
+    public int processChunk(JobEntity job, int chunkSize) {
+        Long targetId = job.getTargetId();
+        int deleted = adService.deleteAdsChunkByUserId(targetId, chunkSize);
+        if (deleted > 0) {
+            return deleted;
+        }
+        List<Long> commentIds = commentRepository.findIdsByUserId(targetId, PageRequest.of(0, chunkSize));
+        return commentIds.isEmpty() ? 0 : commentRepository.deleteAllByIdIn(commentIds);
+    }
+
+    @Override
+    public void complete(JobEntity job) {
+        Long targetId = job.getTargetId();
+        userRepository.findById(targetId).ifPresent(userEntity -> {
+            if (authRepository.existsById(targetId)) {
+                authRepository.deleteById(targetId);
+            }
+            userRepository.delete(userEntity);
+            eventPublisher.publishEvent(EntityChangedEvent.user(
+                    EntityChangedEvent.Type.USER_DELETED, targetId, userEntity.getUserName()));
+            fileCleanupService.enqueue(userEntity.getUserImage());
+            log.info("Hard-delete of user id {} completed", targetId);
+        });
+    }
+}
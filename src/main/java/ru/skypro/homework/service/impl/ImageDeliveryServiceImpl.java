@@ -0,0 +1,156 @@
+package ru.skypro.homework.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import ru.skypro.homework.constants.AppErrorsMessages;
+import ru.skypro.homework.dto.images.ImageVariant;
+import ru.skypro.homework.dto.images.StoredImage;
+import ru.skypro.homework.service.ImageDeliveryService;
+import ru.skypro.homework.utils.ContentHash;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Реализация сервиса поиска изображений для отдачи клиенту.
+ *
+ * <p>ETag - SHA-256 содержимого. Для файлов контентно-адресуемого хранилища
+ * ({@link ContentAddressedImageServiceImpl}) хэш берется из имени файла, такие ссылки
+ * помечаются неизменяемыми. Для остальных файлов хэш вычисляется при первом запросе
+ * и кэшируется по пути, размеру и времени изменения файла
+ * ({@code app.images.etag-cache-size} записей).</p>
+ *
+ * <p>Путь из ссылки нормализуется. Отдаются только файлы каталогов объявлений, аватаров
+ * и контентно-адресуемого хранилища (с уменьшенными копиями); карантин сборщика
+ * ({@code app.upload.gc.quarantine-dir}), недописанные файлы {@code blobs/tmp}
+ * и файлы, начинающиеся с точки, не отдаются.</p>
+ */
+
+@Slf4j
+@Service
+public class ImageDeliveryServiceImpl implements ImageDeliveryService {
+
+    private static final Pattern BLOB_NAME = Pattern.compile("^[0-9a-f]{64}\\.[a-z0-9]+$");
+
+    @Value("${app.upload.main-dir}")
+    private String mainDir;
+    @Value("${app.upload.ads-dir}")
+    private String adsDir;
+    @Value("${app.upload.avatars-dir}")
+    private String avatarsDir;
+    @Value("${app.upload.blobs-dir}")
+    private String blobsDir;
+    @Value("${app.upload.gc.quarantine-dir}")
+    private String quarantineDir;
+    @Value("${app.images.etag-cache-size}")
+    private long etagCacheSize;
+
+    private Path rootPath;
+    private List<Path> servedPaths;
+    private List<Path> hiddenPaths;
+    private Cache<String, String> etagCache;
+
+    @PostConstruct
+    private void init() {
+        rootPath = Path.of(mainDir).toAbsolutePath().normalize();
+        servedPaths = List.of(rootPath.resolve(adsDir), rootPath.resolve(avatarsDir), rootPath.resolve(blobsDir));
+        hiddenPaths = List.of(rootPath.resolve(quarantineDir), rootPath.resolve(blobsDir).resolve("tmp"));
+        etagCache = Caffeine.newBuilder()
+                .maximumSize(etagCacheSize)
+                .build();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Optional<StoredImage> findImage(String imagePath) {
+        Optional<StoredImage> image = find(imagePath);
+        if (image.isPresent()) {
+            return image;
+        }
+        return ImageVariant.originalOf(imagePath)
+                .flatMap(this::find)
+                .map(original -> StoredImage.builder()
+                        .file(original.getFile())
+                        .size(original.getSize())
+                        .lastModified(original.getLastModified())
+                        .etag(original.getEtag())
+                        .contentType(original.getContentType())
+                        .immutable(false)
+                        .build());
+    }
+
+    private Optional<StoredImage> find(String imagePath) {
+        Path file = rootPath.resolve(imagePath).normalize();
+        if (!file.startsWith(rootPath)) {
+            log.warn("Image path outside of storage rejected: {}", imagePath);
+            return Optional.empty();
+        }
+        if (!isServed(file)) {
+            log.debug("Image path outside of served directories rejected: {}", imagePath);
+            return Optional.empty();
+        }
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+        if (!attributes.isRegularFile()) {
+            return Optional.empty();
+        }
+        String fileName = file.getFileName().toString();
+        boolean blob = imagePath.startsWith(blobsDir + "/") && BLOB_NAME.matcher(fileName).matches();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = blob
+                ? fileName.substring(0, fileName.indexOf('.'))
+                : etagCache.get(file + ":" + attributes.size() + ":" + lastModified, key -> hash(file));
+        return Optional.of(StoredImage.builder()
+                .file(file)
+                .size(attributes.size())
+                .lastModified(lastModified)
+                .etag("\"" + etag + "\"")
+                .contentType(MediaTypeFactory.getMediaType(fileName)
+                        .orElse(MediaType.APPLICATION_OCTET_STREAM).toString())
+                .immutable(blob)
+                .build());
+    }
+
+    private boolean isServed(Path file) {
+        if (servedPaths.stream().noneMatch(file::startsWith) || hiddenPaths.stream().anyMatch(file::startsWith)) {
+            return false;
+        }
+        for (Path name : rootPath.relativize(file)) {
+            if (name.toString().startsWith(".")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String hash(Path file) {
+        MessageDigest digest = ContentHash.newDigest();
+        try (InputStream is = new DigestInputStream(Files.newInputStream(file), digest)) {
+            is.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            log.error("Failed to hash image {}", file, e);
+            throw new UncheckedIOException(AppErrorsMessages.FILE_STORAGE_ERROR, e);
+        }
+        return ContentHash.toHex(digest.digest());
+    }
+}
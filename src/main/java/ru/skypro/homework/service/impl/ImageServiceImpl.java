@@ -1,12 +1,20 @@
 package ru.skypro.homework.service.impl;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 import ru.skypro.homework.constants.AppErrorsMessages;
-import ru.skypro.homework.exceptions.BadRequestException;
+import ru.skypro.homework.dto.images.ImageVariant;
+import ru.skypro.homework.events.ImageStoredEvent;
 import ru.skypro.homework.service.ImageService;
+import ru.skypro.homework.utils.ImageStreamWriter;
+import ru.skypro.homework.utils.ImageUploadPolicy;
 
 import javax.annotation.PostConstruct;
 import java.io.IOException;
@@ -14,7 +22,7 @@ import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Set;
+import java.nio.file.StandardCopyOption;
 import java.util.UUID;
 
 /**
@@ -23,16 +31,27 @@ import java.util.UUID;
  * <p>Отвечает за физическое хранение изображений на диске.
  * Включает проверку MIME-типов, ограничение размера файлов и
  * автоматическое создание структуры директорий при запуске.</p>
+ *
+ * <p>После сохранения публикует {@link ImageStoredEvent}: уменьшенные копии
+ * строятся асинхронно {@link ru.skypro.homework.service.ImageVariantService}.
+ * Если транзакция вызывающего метода (сохранение объявления или профиля) откатывается,
+ * сохраненный файл удаляется после отката ({@link TransactionSynchronization#afterCompletion}),
+ * как и в {@link ContentAddressedImageServiceImpl}.</p>
+ *
+ * <p>Плоская раскладка: {@code ads_images/<userId>_<UUID>.<ext>}.
+ * Используется по умолчанию ({@code app.upload.storage: flat}),
+ * альтернатива - {@link ContentAddressedImageServiceImpl}.</p>
  */
 
 @Slf4j
 @Service
+@ConditionalOnProperty(name = "app.upload.storage", havingValue = "flat", matchIfMissing = true)
+@RequiredArgsConstructor
 public class ImageServiceImpl implements ImageService {
 
-    @Value("${app.upload.max-size}")
-    private long maxSize;
-    @Value("${app.upload.allowed-types}")
-    private Set<String> allowedImagesTypes;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImageUploadPolicy uploadPolicy;
+    private final ImageStreamWriter streamWriter;
 
     @Value("${app.upload.main-dir}")
     private String mainDir;
@@ -83,52 +102,91 @@ public class ImageServiceImpl implements ImageService {
         return saveImage(file, avatarsFilePath, avatarsDir, userId);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public String storeAdImage(InputStream content, Long userId) {
+        return storeImage(content, adsFilePath, adsDir, userId);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String storeAvatarImage(InputStream content, Long userId) {
+        return storeImage(content, avatarsFilePath, avatarsDir, userId);
+    }
+
     /**
      * Внутренний метод для сохранения файлов.
-     * <p>Проверяет размер, MIME-тип и выполняет копирование потока байтов на диск.</p>
+     * <p>Проверяет заявленные размер и MIME-тип ({@link ImageUploadPolicy}).</p>
      */
     private String saveImage(MultipartFile file, Path targetDir, String subDir, Long userId) {
         log.debug("invoked service save image");
-        String contentType = file.getContentType();
-        if (file.isEmpty()) {
-            log.error("Empty image try to load !");
-            throw new BadRequestException(AppErrorsMessages.UNSUPPORTED_FILE_TYPE);
-        }
-
-        if (file.getSize() > maxSize) {
-            log.error("File too big!");
-            throw new BadRequestException(AppErrorsMessages.FILE_TOO_BIG);
-        }
-
-        if (contentType == null) {
-            log.error("Unknown file type");
-            throw new BadRequestException(AppErrorsMessages.UNSUPPORTED_FILE_TYPE);
+        uploadPolicy.validate(file);
+        try (InputStream is = file.getInputStream()) {
+            return storeImage(is, targetDir, subDir, userId);
+        } catch (IOException e) {
+            log.error("File read error", e);
+            throw new UncheckedIOException(AppErrorsMessages.FILE_STORAGE_ERROR, e);
         }
+    }
 
-        String extension = contentType.substring(contentType.lastIndexOf("/") + 1).toLowerCase();
-        if (!allowedImagesTypes.contains(extension)) {
-            log.error("Unsupported file type");
-            throw new BadRequestException(AppErrorsMessages.UNSUPPORTED_FILE_TYPE);
+    /**
+     * Потоковое сохранение изображения.
+     * <p>Поток записывается во временный файл в каталоге назначения ({@link ImageStreamWriter})
+     * и атомарно переименовывается; расширение определяется по содержимому.</p>
+     */
+    private String storeImage(InputStream is, Path targetDir, String subDir, Long userId) {
+        ImageStreamWriter.Upload upload;
+        try {
+            upload = streamWriter.write(is, targetDir, null);
+        } catch (IOException e) {
+            log.error("File save error {}", targetDir, e);
+            throw new UncheckedIOException(AppErrorsMessages.FILE_STORAGE_ERROR, e);
         }
-
-        String fileName = String.format("%s_%s.%s", userId, UUID.randomUUID(), extension);
-
+        String fileName = String.format("%s_%s.%s", userId, UUID.randomUUID(), upload.getFormat().getExtension());
         Path filePath = targetDir.resolve(fileName);
-
-        try (InputStream is = file.getInputStream()) {
-            Files.copy(is, filePath, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        try {
+            Files.move(upload.getTempFile(), filePath, StandardCopyOption.ATOMIC_MOVE);
         } catch (IOException e) {
             log.error("File save error {}", filePath, e);
+            deleteQuietly(upload.getTempFile());
             throw new UncheckedIOException(AppErrorsMessages.FILE_STORAGE_ERROR, e);
         }
         log.info("Save image path successfully: {}", filePath);
-        return subDir + "/" + fileName;
+        String imagePath = subDir + "/" + fileName;
+        deleteOnRollback(imagePath);
+        eventPublisher.publishEvent(new ImageStoredEvent(imagePath));
+        return imagePath;
+    }
+
+    /** Удаление сохраненного файла при откате транзакции вызывающего метода. */
+    private void deleteOnRollback(String imagePath) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    log.info("Upload transaction rolled back, deleting image {}", imagePath);
+                    deleteImage(imagePath);
+                }
+            }
+        });
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete temporary file {}", path, e);
+        }
     }
 
     /**
      * {@inheritDoc}
      * <p>Выполняет физическое удаление файла с диска.
-     * Если файл отсутствует, операция завершается без исключения с логированием предупреждения.</p>
+     * Если файл отсутствует, операция завершается без исключения с логированием предупреждения.
+     * Вместе с оригиналом удаляются его уменьшенные копии.</p>
      */
     @Override
     public void deleteImage(String filePath) {
@@ -144,6 +202,9 @@ public class ImageServiceImpl implements ImageService {
             } else {
                 log.warn("Filepath not found! {}", path);
             }
+            for (ImageVariant variant : ImageVariant.values()) {
+                Files.deleteIfExists(Path.of(mainDir).resolve(variant.pathOf(filePath)));
+            }
         } catch (IOException e) {
             log.error("Error file delete! {}", filePath, e);
             throw new UncheckedIOException(AppErrorsMessages.FILE_NOT_FOUND, e);
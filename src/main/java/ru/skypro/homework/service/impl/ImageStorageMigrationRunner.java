@@ -0,0 +1,107 @@
+package ru.skypro.homework.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.skypro.homework.entities.AdEntity;
+import ru.skypro.homework.entities.UserEntity;
+import ru.skypro.homework.exceptions.BadRequestException;
+import ru.skypro.homework.repository.AdsRepository;
+import ru.skypro.homework.repository.UserRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Перенос изображений плоской раскладки в контентно-адресуемое хранилище.
+ *
+ * <p>Запускается при старте приложения, если {@code app.upload.storage: cas}
+ * и {@code app.upload.migrate-flat: true}. Объявления и пользователи обходятся
+ * порциями по возрастанию {@code id}; для каждого изображения файл копируется
+ * в хранилище, путь в БД заменяется, старый файл удаляется после фиксации.
+ * Повторный запуск продолжает с непереведенных записей.</p>
+ *
+ * <p>Отсутствующие на диске файлы пропускаются с предупреждением.</p>
+ */
+
+@Slf4j
+@Component
+@ConditionalOnExpression("'${app.upload.storage:flat}' == 'cas' and ${app.upload.migrate-flat:false}")
+@RequiredArgsConstructor
+public class ImageStorageMigrationRunner implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final ContentAddressedImageServiceImpl imageService;
+    private final AdsRepository adsRepository;
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.upload.main-dir}")
+    private String mainDir;
+    @Value("${app.upload.blobs-dir}")
+    private String blobsDir;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        String prefix = blobsDir + "/";
+        int ads = 0;
+        long afterId = 0;
+        List<AdEntity> adBatch;
+        while (!(adBatch = adsRepository.findImagesOutsidePrefix(afterId, prefix, PageRequest.of(0, BATCH_SIZE))).isEmpty()) {
+            for (AdEntity ad : adBatch) {
+                afterId = ad.getId();
+                String newPath = migrate(ad.getAdImage());
+                if (newPath != null) {
+                    Long id = ad.getId();
+                    transactionTemplate.executeWithoutResult(status ->
+                            adsRepository.findById(id).ifPresent(a -> a.setAdImage(newPath)));
+                    imageService.deleteImage(ad.getAdImage());
+                    ads++;
+                }
+            }
+        }
+        int avatars = 0;
+        afterId = 0;
+        List<UserEntity> userBatch;
+        while (!(userBatch = userRepository.findImagesOutsidePrefix(afterId, prefix, PageRequest.of(0, BATCH_SIZE))).isEmpty()) {
+            for (UserEntity user : userBatch) {
+                afterId = user.getId();
+                String newPath = migrate(user.getUserImage());
+                if (newPath != null) {
+                    Long id = user.getId();
+                    transactionTemplate.executeWithoutResult(status ->
+                            userRepository.findById(id).ifPresent(u -> u.setUserImage(newPath)));
+                    imageService.deleteImage(user.getUserImage());
+                    avatars++;
+                }
+            }
+        }
+        log.info("Flat images migrated to blob storage: ads {}, avatars {}", ads, avatars);
+    }
+
+    private String migrate(String imagePath) {
+        Path source = Path.of(mainDir).resolve(imagePath);
+        if (Files.notExists(source)) {
+            log.warn("Filepath not found, skipped! {}", source);
+            return null;
+        }
+        try (InputStream is = Files.newInputStream(source)) {
+            return imageService.store(is);
+        } catch (IOException | BadRequestException e) {
+            log.error("Failed to migrate image {}", imagePath, e);
+            return null;
+        }
+    }
+}
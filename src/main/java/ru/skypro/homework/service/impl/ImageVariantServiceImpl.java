@@ -0,0 +1,152 @@
+package ru.skypro.homework.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.skypro.homework.dto.images.ImageVariant;
+import ru.skypro.homework.events.ImageStoredEvent;
+import ru.skypro.homework.service.ImageVariantService;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Реализация сервиса построения уменьшенных копий изображений.
+ *
+ * <p>Работает на чистой Java ({@link ImageIO}, {@link Graphics2D}) без внешних утилит.
+ * Построение выполняется на ограниченном пуле потоков: загрузка не ждет масштабирования.
+ * При переполнении очереди задача отбрасывается - клиент получит оригинал
+ * (см. {@link ru.skypro.homework.service.ImageDeliveryService}).</p>
+ *
+ * <p>Форматы, которые не читает {@link ImageIO} (например, WebP), и изображения
+ * меньше размера варианта не масштабируются.</p>
+ */
+
+@Slf4j
+@Service
+public class ImageVariantServiceImpl implements ImageVariantService {
+
+    @Value("${app.upload.main-dir}")
+    private String mainDir;
+
+    @Value("${app.images.variants.workers}")
+    private int workers;
+
+    @Value("${app.images.variants.queue-capacity}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    private void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "image-variants-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Постановка построения копий в очередь после фиксации транзакции, сохранившей изображение;
+     * при откате файл удаляется сервисом хранения (в обеих раскладках), и копии для него не строятся.
+     * Вне транзакции - сразу.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onImageStored(ImageStoredEvent event) {
+        submit(event.getImagePath());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void submit(String imagePath) {
+        try {
+            executor.execute(() -> generate(imagePath));
+        } catch (RejectedExecutionException e) {
+            log.warn("Image variants queue is full, skipped {}", imagePath);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Каждый вариант записывается во временный файл и атомарно переименовывается,
+     * чтобы клиент не получил частично записанное изображение.</p>
+     */
+    @Override
+    public void generate(String imagePath) {
+        Path source = Path.of(mainDir).resolve(imagePath);
+        String format = formatOf(imagePath);
+        try {
+            BufferedImage original = format == null ? null : ImageIO.read(source.toFile());
+            if (original == null) {
+                log.debug("Image variants are not supported for {}", imagePath);
+                return;
+            }
+            for (ImageVariant variant : ImageVariant.values()) {
+                int longest = Math.max(original.getWidth(), original.getHeight());
+                if (longest <= variant.getMaxSide()) {
+                    continue;
+                }
+                BufferedImage scaled = scale(original, variant.getMaxSide() / (double) longest, format);
+                Path target = Path.of(mainDir).resolve(variant.pathOf(imagePath));
+                Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+                ImageIO.write(scaled, format, temp.toFile());
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            log.debug("Image variants created for {}", imagePath);
+        } catch (IOException e) {
+            log.error("Failed to create image variants for {}", imagePath, e);
+        }
+    }
+
+    private BufferedImage scale(BufferedImage original, double ratio, String format) {
+        int width = Math.max(1, (int) Math.round(original.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(original.getHeight() * ratio));
+        int type = "png".equals(format) ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage scaled = new BufferedImage(width, height, type);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(original, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private String formatOf(String imagePath) {
+        String extension = imagePath.substring(imagePath.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        switch (extension) {
+            case "jpg":
+            case "jpeg":
+                return "jpg";
+            case "png":
+                return "png";
+            default:
+                return null;
+        }
+    }
+}
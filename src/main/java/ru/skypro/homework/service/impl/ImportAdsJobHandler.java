@@ -0,0 +1,38 @@
+package ru.skypro.homework.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.skypro.homework.dto.jobs.JobType;
+import ru.skypro.homework.entities.JobEntity;
+import ru.skypro.homework.service.JobHandler;
+
+/**
+ * Фоновая загрузка объявлений из файла порциями ({@link BulkImportProcessor}).
+ */
+
+@Component
+@RequiredArgsConstructor
+public class ImportAdsJobHandler implements JobHandler {
+
+    private final BulkImportProcessor importProcessor;
+
+    @Override
+    public JobType getType() {
+        return JobType.IMPORT_ADS;
+    }
+
+    @Override
+    public int processChunk(JobEntity job, int chunkSize) {
+        return importProcessor.importChunk(job, chunkSize);
+    }
+
+    @Override
+    public void complete(JobEntity job) {
+        importProcessor.finishImport(job);
+    }
+
+    @Override
+    public void failed(JobEntity job) {
+        importProcessor.finishImport(job);
+    }
+}
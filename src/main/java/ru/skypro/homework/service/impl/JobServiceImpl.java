@@ -0,0 +1,364 @@
+package ru.skypro.homework.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.skypro.homework.constants.AppErrorsMessages;
+import ru.skypro.homework.dto.jobs.Job;
+import ru.skypro.homework.dto.jobs.JobState;
+import ru.skypro.homework.dto.jobs.JobType;
+import ru.skypro.homework.entities.JobEntity;
+import ru.skypro.homework.exceptions.NotFoundException;
+import ru.skypro.homework.mappers.JobMapper;
+import ru.skypro.homework.repository.JobRepository;
+import ru.skypro.homework.security.AccessService;
+import ru.skypro.homework.service.JobHandler;
+import ru.skypro.homework.service.JobService;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Реализация фоновых задач на таблице {@code management_jobs}.
+ *
+ * <p>После фиксации транзакции, создавшей задачу, задача передается ограниченному пулу
+ * потоков ({@code app.jobs.workers}). Обработчик захватывает задачу
+ * ({@link JobRepository#claim}) на {@code app.jobs.lease} секунд и выполняет ее порциями
+ * по {@code app.jobs.chunk-size} записей: каждая порция, учет прогресса и продление
+ * аренды фиксируются одной транзакцией, поэтому блокировки строк держатся не дольше
+ * одной порции, а после сбоя задача продолжается с первой незафиксированной порции.</p>
+ *
+ * <p>Задачи, не попавшие в пул, и задачи остановленных обработчиков (аренда истекла,
+ * в том числе после перезапуска) выбираются по расписанию ({@code app.jobs.poll-interval})
+ * и при запуске приложения. После ошибки следующая попытка откладывается на
+ * {@code backoff * 2^(n-1)} секунд, но не более {@code max-backoff}; после
+ * {@code max-attempts} попыток задача завершается с состоянием {@link JobState#FAILED},
+ * обработчик освобождает ее ресурсы ({@link JobHandler#failed}).</p>
+ *
+ * <p>Задача записывается отдельной транзакцией в состоянии {@link JobState#PENDING}:
+ * ограничение уникальности незавершенной задачи ({@code uq_management_jobs_active_target})
+ * срабатывает сразу, и параллельный запрос получает уже созданную задачу вместо ошибки.
+ * В {@link JobState#QUEUED} задача переводится после фиксации транзакции запроса,
+ * при ее откате - завершается с ошибкой. Задача, не переведенная за {@code app.jobs.lease}
+ * секунд (экземпляр остановлен между фиксацией запроса и переводом), завершается
+ * с ошибкой по расписанию; запрос удаления можно повторить.</p>
+ */
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JobServiceImpl implements JobService {
+
+    private static final Set<JobState> RUNNABLE = Set.of(JobState.QUEUED, JobState.RUNNING);
+    private static final Set<JobState> ACTIVE = Set.of(JobState.PENDING, JobState.QUEUED, JobState.RUNNING);
+    private static final Set<JobState> FINISHED = Set.of(JobState.COMPLETED, JobState.FAILED);
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final JobRepository jobRepository;
+    private final JobMapper jobMapper;
+    private final AccessService accessService;
+    private final List<JobHandler> jobHandlers;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.jobs.workers}")
+    private int workers;
+    @Value("${app.jobs.queue-capacity}")
+    private int queueCapacity;
+    @Value("${app.jobs.batch-size}")
+    private int batchSize;
+    @Value("${app.jobs.chunk-size}")
+    private int chunkSize;
+    @Value("${app.jobs.chunk-pause}")
+    private long chunkPause;
+    @Value("${app.jobs.lease}")
+    private long leaseSeconds;
+    @Value("${app.jobs.max-attempts}")
+    private int maxAttempts;
+    @Value("${app.jobs.backoff}")
+    private long backoffSeconds;
+    @Value("${app.jobs.max-backoff}")
+    private long maxBackoffSeconds;
+    @Value("${app.jobs.history-size}")
+    private int historySize;
+    @Value("${app.jobs.retention}")
+    private long retentionDays;
+
+    private final Map<JobType, JobHandler> handlers = new EnumMap<>(JobType.class);
+    private ThreadPoolExecutor executor;
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate newTransactionTemplate;
+
+    @PostConstruct
+    private void init() {
+        jobHandlers.forEach(handler -> handlers.put(handler.getType(), handler));
+        for (JobType type : JobType.values()) {
+            if (!handlers.containsKey(type)) {
+                throw new IllegalStateException("No handler for job type " + type);
+            }
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "management-job-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        newTransactionTemplate = new TransactionTemplate(transactionManager);
+        newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Задача записывается отдельной транзакцией в состоянии {@link JobState#PENDING};
+     * если у пользователя уже есть незавершенная задача того же исключающего вида
+     * ({@link JobType#isExclusive()}, в том числе созданная параллельным запросом),
+     * возвращается она. После фиксации текущей транзакции
+     * (или новой, если ее нет) задача становится доступной обработчикам и сразу передается
+     * пулу; при откате транзакции задача завершается с ошибкой.</p>
+     */
+    @Override
+    @Transactional
+    public Job submit(JobType type, Long targetId, String createdBy) {
+        LocalDateTime now = LocalDateTime.now();
+        JobEntity job;
+        try {
+            job = newTransactionTemplate.execute(status -> jobRepository.saveAndFlush(JobEntity.builder()
+                    .type(type)
+                    .targetId(targetId)
+                    .activeType(activeType(type))
+                    .state(JobState.PENDING)
+                    .processed(0)
+                    .failed(0)
+                    .attempts(0)
+                    .leaseUntil(now.plusSeconds(leaseSeconds))
+                    .createdBy(createdBy)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build()));
+        } catch (DataIntegrityViolationException e) {
+            Job active = findActive(type, targetId).orElseThrow(() -> e);
+            log.info("Job {} {} for id {} is already active", active.getId(), type, targetId);
+            return active;
+        }
+        Long jobId = job.getId();
+        log.info("Job {} {} for id {} created by {}", jobId, type, targetId, createdBy);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                newTransactionTemplate.executeWithoutResult(tx ->
+                        jobRepository.activate(jobId, JobState.PENDING, JobState.QUEUED, LocalDateTime.now()));
+                submit(jobId);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    log.info("Job {} request rolled back, job cancelled", jobId);
+                    LocalDateTime finishedAt = LocalDateTime.now();
+                    newTransactionTemplate.executeWithoutResult(tx -> jobRepository.changeState(jobId, 0,
+                            JobState.FAILED, null, "Request rolled back", finishedAt, finishedAt, finishedAt));
+                }
+            }
+        });
+        return jobMapper.toJob(job);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Job> findActive(JobType type, Long targetId) {
+        return jobRepository.findFirstByTargetIdAndTypeAndStateIn(targetId, type, ACTIVE).map(jobMapper::toJob);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Job> getJobs(Authentication authentication) {
+        accessService.checkAdmin(authentication);
+        return jobMapper.toJobs(jobRepository.findAllByOrderByIdDesc(PageRequest.of(0, historySize)));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Transactional(readOnly = true)
+    public Job getJob(Long id, Authentication authentication) {
+        accessService.checkAdmin(authentication);
+        return jobRepository.findById(id)
+                .map(jobMapper::toJob)
+                .orElseThrow(() -> new NotFoundException(AppErrorsMessages.JOB_NOT_FOUND));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @Scheduled(fixedDelayString = "${app.jobs.poll-interval}",
+            initialDelayString = "${app.jobs.poll-interval}")
+    public void processDue() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = transactionTemplate.execute(status ->
+                jobRepository.deleteFinishedBefore(FINISHED, now.minusDays(retentionDays)));
+        if (purged > 0) {
+            log.debug("Finished jobs purged: {}", purged);
+        }
+        int expired = transactionTemplate.execute(status ->
+                jobRepository.expirePending(JobState.PENDING, JobState.FAILED, "Request was not committed", now));
+        if (expired > 0) {
+            log.warn("Jobs of uncommitted requests expired: {}", expired);
+        }
+        jobRepository.findDue(RUNNABLE, now, PageRequest.of(0, batchSize))
+                .forEach(job -> submit(job.getId()));
+    }
+
+    /** Продолжение задач, прерванных остановкой приложения. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resume() {
+        processDue();
+    }
+
+    private void submit(Long jobId) {
+        try {
+            executor.execute(() -> {
+                try {
+                    process(jobId);
+                } catch (RuntimeException e) {
+                    log.error("Job {} failed", jobId, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Job pool is busy, job {} left for the next poll", jobId);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean process(Long jobId) {
+        Optional<JobEntity> claimed = transactionTemplate.execute(status -> claim(jobId));
+        if (claimed == null || claimed.isEmpty()) {
+            return false;
+        }
+        JobEntity job = claimed.get();
+        int attempt = job.getAttempts() + 1;
+        JobHandler handler = handlers.get(job.getType());
+        log.info("Job {} {} for id {} started, attempt {}", jobId, job.getType(), job.getTargetId(), attempt);
+        try {
+            while (true) {
+                Integer processed = transactionTemplate.execute(status -> {
+                    int count = handler.processChunk(job, chunkSize);
+                    LocalDateTime now = LocalDateTime.now();
+                    int updated = count > 0
+                            ? jobRepository.progress(jobId, attempt, count, now.plusSeconds(leaseSeconds), now)
+                            : finish(jobId, attempt, handler, job, now);
+                    if (updated == 0) {
+                        status.setRollbackOnly();
+                        return null;
+                    }
+                    return count;
+                });
+                if (processed == null) {
+                    log.warn("Job {} lease lost, attempt {} stopped", jobId, attempt);
+                    return false;
+                }
+                if (processed == 0) {
+                    log.info("Job {} completed", jobId);
+                    return true;
+                }
+                job.setProcessed(job.getProcessed() + processed);
+                if (chunkPause > 0) {
+                    Thread.sleep(chunkPause);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Job {} interrupted, resumes after lease expires", jobId);
+            return false;
+        } catch (RuntimeException e) {
+            fail(job, attempt, e);
+            return false;
+        }
+    }
+
+    private Optional<JobEntity> claim(Long jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<JobEntity> due = jobRepository.findById(jobId)
+                .filter(job -> RUNNABLE.contains(job.getState()) && !job.getLeaseUntil().isAfter(now));
+        if (due.isEmpty()) {
+            return Optional.empty();
+        }
+        JobEntity job = due.get();
+        if (job.getAttempts() >= maxAttempts) {
+            log.error("Job {} lease expired after {} attempts", jobId, job.getAttempts());
+            jobRepository.changeState(jobId, job.getAttempts(), JobState.FAILED, null, "Lease expired",
+                    now, now, now);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    handlers.get(job.getType()).failed(job);
+                }
+            });
+            return Optional.empty();
+        }
+        if (jobRepository.claim(jobId, job.getAttempts(), RUNNABLE, JobState.RUNNING,
+                now.plusSeconds(leaseSeconds), now) == 0) {
+            return Optional.empty();
+        }
+        return due;
+    }
+
+    private int finish(Long jobId, int attempt, JobHandler handler, JobEntity job, LocalDateTime now) {
+        handler.complete(job);
+        return jobRepository.complete(jobId, attempt, JobState.COMPLETED, now);
+    }
+
+    private static JobType activeType(JobType type) {
+        return type.isExclusive() ? type : null;
+    }
+
+    private void fail(JobEntity job, int attempt, RuntimeException e) {
+        String error = String.valueOf(e.getMessage());
+        String message = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        LocalDateTime now = LocalDateTime.now();
+        if (attempt >= maxAttempts) {
+            log.error("Job {} failed after {} attempts", job.getId(), attempt, e);
+            transactionTemplate.executeWithoutResult(status ->
+                    jobRepository.changeState(job.getId(), attempt, JobState.FAILED, null, message,
+                            now, now, now));
+            handlers.get(job.getType()).failed(job);
+        } else {
+            long delay = Math.min(maxBackoffSeconds, backoffSeconds << Math.min(attempt - 1, 30));
+            log.warn("Job {} failed (attempt {}), retry in {}s", job.getId(), attempt, delay, e);
+            transactionTemplate.executeWithoutResult(status ->
+                    jobRepository.changeState(job.getId(), attempt, JobState.QUEUED, activeType(job.getType()),
+                            message, now.plusSeconds(delay), now, null));
+        }
+    }
+}
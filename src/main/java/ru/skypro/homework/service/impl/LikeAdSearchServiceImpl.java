@@ -0,0 +1,91 @@
+package ru.skypro.homework.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.skypro.homework.dto.ads.Ads;
+import ru.skypro.homework.entities.AdEntity;
+import ru.skypro.homework.mappers.AdMapper;
+import ru.skypro.homework.repository.AdsRepository;
+import ru.skypro.homework.security.AccessService;
+import ru.skypro.homework.service.AdSearchService;
+import ru.skypro.homework.utils.AdSearchCriteria;
+import ru.skypro.homework.utils.CursorCodec;
+import ru.skypro.homework.utils.PageLimits;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Поиск объявлений по подстроке заголовка и описания без учета регистра.
+ *
+ * <p>Включается параметром {@code app.ads.search.engine: like} (H2 в тестах, СУБД
+ * без полнотекстового поиска). Строка запроса ищется целиком, без морфологии
+ * и ранжирования; выдача упорядочена от новых объявлений к старым, курсор
+ * содержит {@code id} последней записи страницы. Запрос не использует индексы
+ * и просматривает всю таблицу.</p>
+ */
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.ads.search.engine", havingValue = "like", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LikeAdSearchServiceImpl implements AdSearchService {
+
+    private static final char ESCAPE = '\\';
+
+    private final AdsRepository adsRepository;
+    private final AccessService accessService;
+    private final AdMapper mapper;
+    private final PageLimits pageLimits;
+
+    /**
+     * {@inheritDoc}
+     * <p>Общее количество вычисляется только для первой страницы: если она последняя,
+     * количество берется из нее, иначе считается отдельным запросом. Для страниц
+     * по курсору количество не возвращается ({@code null}).</p>
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Ads search(String query, Integer minPrice, Integer maxPrice, String cursor, Integer size,
+                      Authentication authentication) {
+        log.debug("invoked ad search service search");
+        accessService.checkAuth(authentication);
+        AdSearchCriteria criteria = AdSearchCriteria.of(query, minPrice, maxPrice);
+
+        long beforeId = cursor == null ? Long.MAX_VALUE : CursorCodec.decode(cursor, 1)[0];
+        int limit = pageLimits.resolve(size);
+        String pattern = toPattern(criteria.getQuery());
+        List<AdEntity> page = adsRepository.searchByPattern(pattern, criteria.getMinPrice(),
+                criteria.getMaxPrice(), beforeId, PageRequest.of(0, limit + 1));
+
+        Long total = null;
+        if (cursor == null) {
+            total = page.size() <= limit
+                    ? page.size()
+                    : adsRepository.countByPattern(pattern, criteria.getMinPrice(), criteria.getMaxPrice());
+        }
+        String next = null;
+        if (page.size() > limit) {
+            page = page.subList(0, limit);
+            next = CursorCodec.encode(page.get(limit - 1).getId());
+        }
+        return mapper.toAdsPage(page, total, next);
+    }
+
+    /** Шаблон {@code like}: подстрока в нижнем регистре, служебные символы экранированы. */
+    private static String toPattern(String query) {
+        StringBuilder pattern = new StringBuilder("%");
+        for (char c : query.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                pattern.append(ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+}
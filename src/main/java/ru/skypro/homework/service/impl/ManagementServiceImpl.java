@@ -2,28 +2,36 @@ package ru.skypro.homework.service.impl;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.skypro.homework.constants.AppErrorsMessages;
+import ru.skypro.homework.dto.jobs.Job;
+import ru.skypro.homework.dto.jobs.JobType;
 import ru.skypro.homework.dto.metric.BusinessMetric;
-import ru.skypro.homework.entities.AdEntity;
+import ru.skypro.homework.dto.metric.CacheMetric;
+import ru.skypro.homework.dto.metric.FileCleanupMetric;
+import ru.skypro.homework.dto.metric.ImageUploadMetric;
+import ru.skypro.homework.dto.metric.OrphanImageMetric;
 import ru.skypro.homework.entities.UserEntity;
+import ru.skypro.homework.events.EntityChangedEvent;
 import ru.skypro.homework.exceptions.ForbiddenException;
 import ru.skypro.homework.exceptions.NotFoundException;
-import ru.skypro.homework.repository.AdsRepository;
 import ru.skypro.homework.repository.AuthRepository;
 import ru.skypro.homework.repository.UserRepository;
 import ru.skypro.homework.security.AccessService;
-import ru.skypro.homework.service.AdService;
-import ru.skypro.homework.service.ImageService;
+import ru.skypro.homework.security.CurrentUser;
+import ru.skypro.homework.security.CredentialsCache;
+import ru.skypro.homework.service.FileCleanupService;
+import ru.skypro.homework.service.JobService;
 import ru.skypro.homework.service.ManagementService;
+import ru.skypro.homework.utils.AdDetailsCache;
+import ru.skypro.homework.utils.ImageUploadMetrics;
 
-import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @Slf4j
 @AllArgsConstructor
@@ -31,11 +39,16 @@ import java.util.stream.Collectors;
 public class ManagementServiceImpl implements ManagementService {
 
     private final AccessService accessService;
+    private final CurrentUser currentUser;
     private final UserRepository userRepository;
     private final AuthRepository authRepository;
-    private final AdsRepository adsRepository;
-    private final AdService adService;
-    private final ImageService imageService;
+    private final JobService jobService;
+    private final FileCleanupService fileCleanupService;
+    private final OrphanImageCollector orphanImageCollector;
+    private final CredentialsCache credentialsCache;
+    private final ImageUploadMetrics uploadMetrics;
+    private final AdDetailsCache adDetailsCache;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     /**
@@ -57,24 +70,62 @@ public class ManagementServiceImpl implements ManagementService {
                 .build();
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public List<CacheMetric> getCacheMetrics(Authentication authentication) {
+        log.info("invoked cache-metric method");
+        accessService.checkAdmin(authentication);
+        return List.of(credentialsCache.getMetric(), adDetailsCache.getMetric());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<ImageUploadMetric> getUploadMetrics(Authentication authentication) {
+        log.info("invoked upload-metric method");
+        accessService.checkAdmin(authentication);
+        return uploadMetrics.getMetrics();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public FileCleanupMetric getFileCleanupMetric(Authentication authentication) {
+        log.info("invoked file-cleanup-metric method");
+        accessService.checkAdmin(authentication);
+        return fileCleanupService.getMetric();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public OrphanImageMetric getOrphanImageMetric(Authentication authentication) {
+        log.info("invoked orphan-image-metric method");
+        accessService.checkAdmin(authentication);
+        return orphanImageCollector.getMetric();
+    }
+
 
     /**
      * {@inheritDoc}
-     * <p>Анонимизирует профиль, устанавливает {@code deletedAt} и инициирует
-     * удаление контента через {@link AdServiceImpl}.</p>
+     * <p>Анонимизирует профиль, устанавливает {@code deletedAt}, удаляет учетные данные
+     * и ставит в очередь задачу удаления объявлений ({@link SoftDeleteUserJobHandler}).</p>
      */
     @Override
     @Transactional
-    public void softDeleteUser(Long id, Authentication authentication) {
+    public Job softDeleteUser(Long id, Authentication authentication) {
         UserEntity userToDelete = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException(AppErrorsMessages.USER_NOT_FOUND));
 
         accessService.checkAdmin(authentication);
         log.warn("Admin {} initiated soft-delete for user id {}", authentication.getName(), id);
 
-        checkSelfDeletion(id, authentication.getName());
+        checkSelfDeletion(id, authentication);
 
-        adService.deleteAllByUserId(id);
+        Optional<Job> active = jobService.findActive(JobType.SOFT_DELETE_USER, id);
+        if (active.isPresent()) {
+            return active.get();
+        }
+
+        eventPublisher.publishEvent(EntityChangedEvent.user(
+                EntityChangedEvent.Type.USER_DELETED, id, userToDelete.getUserName()));
 
         String newName = "id" + id + "@deleted";
         String avatarPath = userToDelete.getUserImage();
@@ -82,56 +133,47 @@ public class ManagementServiceImpl implements ManagementService {
         userToDelete.setUserImage(null);
         userToDelete.setDeletedAt(LocalDateTime.now());
 
-        authRepository.deleteById(id);
-
-        try {
-            imageService.deleteImage(avatarPath);
-        } catch (UncheckedIOException e) {
-            log.error("ERROR! Can't remove user avatar {}", avatarPath, e);
+        if (authRepository.existsById(id)) {
+            authRepository.deleteById(id);
         }
+        fileCleanupService.enqueue(avatarPath);
+        return jobService.submit(JobType.SOFT_DELETE_USER, id, authentication.getName());
     }
 
     /**
      * {@inheritDoc}
-     * <p>Выполняет полное удаление сущности и всех связанных медиафайлов с диска.</p>
+     * <p>Удаляет учетные данные и ставит в очередь задачу удаления
+     * ({@link HardDeleteUserJobHandler}): объявления и комментарии удаляются порциями,
+     * затем удаляется пользователь; медиафайлы удаляются с диска после фиксации
+     * транзакций задачи ({@link FileCleanupService}).</p>
      */
     @Override
     @Transactional
-    public void hardDeleteUser(Long id, Authentication authentication) {
+    public Job hardDeleteUser(Long id, Authentication authentication) {
         accessService.checkAdmin(authentication);
         log.warn("Admin {} initiated hard-delete for user id {}", authentication.getName(), id);
 
         UserEntity userEntity = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException(AppErrorsMessages.USER_NOT_FOUND));
 
-        checkSelfDeletion(id, authentication.getName());
+        checkSelfDeletion(id, authentication);
+
+        Optional<Job> active = jobService.findActive(JobType.HARD_DELETE_USER, id);
+        if (active.isPresent()) {
+            return active.get();
+        }
 
-        List<AdEntity> adEntityList = adsRepository.findAllByUser_Id(id);
-        Set<String> imageToDelete = adEntityList.stream()
-                .map(AdEntity::getAdImage)
-                .filter(i -> i != null && !i.isBlank())
-                .collect(Collectors.toSet());
-        if (userEntity.getUserImage() != null && !userEntity.getUserImage().isBlank())
-            imageToDelete.add(userEntity.getUserImage());
         if (authRepository.existsById(userEntity.getId())) {
             authRepository.deleteById(userEntity.getId());
         }
-        userRepository.delete(userEntity);
-
-        imageToDelete.forEach(path -> {
-            try {
-                imageService.deleteImage(path);
-            } catch (UncheckedIOException e) {
-                log.error("ERROR! Can't remove image file {}", path, e);
-            }
-        });
+        eventPublisher.publishEvent(EntityChangedEvent.user(
+                EntityChangedEvent.Type.USER_DELETED, id, userEntity.getUserName()));
+        return jobService.submit(JobType.HARD_DELETE_USER, id, authentication.getName());
     }
 
-    private void checkSelfDeletion(Long targetId, String currentUsername) {
-        UserEntity currentUser = userRepository.findByUserName(currentUsername)
-                .orElseThrow(() -> new NotFoundException(AppErrorsMessages.USER_NOT_FOUND));
-        if (currentUser.getId().equals(targetId)) {
-            log.error("Admin {} tried to delete themselves!", currentUsername);
+    private void checkSelfDeletion(Long targetId, Authentication authentication) {
+        if (currentUser.getId(authentication).equals(targetId)) {
+            log.error("Admin {} tried to delete themselves!", authentication.getName());
             throw new ForbiddenException(AppErrorsMessages.ACCESS_DENIED);
         }
     }
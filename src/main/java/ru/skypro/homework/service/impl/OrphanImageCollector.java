@@ -0,0 +1,308 @@
+package ru.skypro.homework.service.impl;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.skypro.homework.constants.AppErrorsMessages;
+import ru.skypro.homework.dto.images.ImageVariant;
+import ru.skypro.homework.dto.metric.OrphanImageMetric;
+import ru.skypro.homework.repository.AdsRepository;
+import ru.skypro.homework.repository.ImageBlobRepository;
+import ru.skypro.homework.repository.UserRepository;
+
+import javax.annotation.PostConstruct;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Сборщик файлов изображений, на которые не ссылается ни одна запись БД.
+ *
+ * <p>Такие файлы остаются после откатов транзакций, сбоев между записью файла
+ * и сохранением записи и ошибок прошлых версий. Каталог {@code app.upload.main-dir}
+ * обходится {@link Files#walkFileTree} порциями: за запуск проверяется не более
+ * {@code app.upload.gc.max-files-per-run} файлов в порядке пути, затем путь последнего
+ * файла сохраняется в контрольную точку. Следующий запуск (в том числе после
+ * перезапуска приложения) пропускает каталоги до контрольной точки; после
+ * обхода всего дерева контрольная точка сбрасывается.</p>
+ *
+ * <p>Ссылки проверяются порциями по {@code app.upload.gc.batch-size} путей в колонках
+ * {@code ads.ad_image}, {@code users.user_image} и в таблице {@code image_blobs};
+ * уменьшенные копии проверяются по пути оригинала. Файлы моложе
+ * {@code app.upload.gc.grace-period} не проверяются: их запись в БД могла
+ * еще не зафиксироваться. Файлы без ссылок не удаляются, а переносятся в каталог
+ * карантина с сохранением относительного пути.</p>
+ */
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrphanImageCollector {
+
+    private static final String CHECKPOINT_FILE = ".checkpoint";
+
+    private final AdsRepository adsRepository;
+    private final UserRepository userRepository;
+    private final ImageBlobRepository blobRepository;
+
+    @Value("${app.upload.main-dir}")
+    private String mainDir;
+    @Value("${app.upload.blobs-dir}")
+    private String blobsDir;
+    @Value("${app.upload.gc.enabled}")
+    private boolean enabled;
+    @Value("${app.upload.gc.quarantine-dir}")
+    private String quarantineDir;
+    @Value("${app.upload.gc.grace-period}")
+    private long gracePeriodSeconds;
+    @Value("${app.upload.gc.max-files-per-run}")
+    private int maxFilesPerRun;
+    @Value("${app.upload.gc.batch-size}")
+    private int batchSize;
+    @Value("${app.upload.gc.batch-pause}")
+    private long batchPauseMillis;
+
+    private Path rootPath;
+    private Path quarantinePath;
+    private Path checkpointPath;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong quarantined = new AtomicLong();
+    private final AtomicLong reclaimedBytes = new AtomicLong();
+
+    @PostConstruct
+    private void init() {
+        rootPath = Path.of(mainDir).toAbsolutePath().normalize();
+        quarantinePath = rootPath.resolve(quarantineDir);
+        checkpointPath = quarantinePath.resolve(CHECKPOINT_FILE);
+        try {
+            Files.createDirectories(quarantinePath);
+        } catch (IOException e) {
+            log.error("Failed to create directory {}", quarantinePath, e);
+            throw new UncheckedIOException(AppErrorsMessages.FILE_STORAGE_ERROR, e);
+        }
+    }
+
+    /** Запуск по расписанию ({@code app.upload.gc.interval}), если сборщик включен. */
+    @Scheduled(fixedDelayString = "${app.upload.gc.interval}", initialDelayString = "${app.upload.gc.interval}")
+    public void scheduledCollect() {
+        if (enabled) {
+            collect();
+        }
+    }
+
+    /**
+     * Очередная порция обхода: поиск и перенос в карантин файлов без ссылок.
+     * <p>Параллельный запуск на том же экземпляре пропускается.</p>
+     * @return итоги порции.
+     */
+    public Report collect() {
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Orphan image collection is already running");
+            return new Report(0, 0, 0, false);
+        }
+        try {
+            String checkpoint = readCheckpoint();
+            NavigableMap<String, BasicFileAttributes> files = scan(checkpoint);
+            boolean completed = files.size() < maxFilesPerRun;
+
+            Instant threshold = Instant.now().minusSeconds(gracePeriodSeconds);
+            List<String> candidates = new ArrayList<>();
+            files.forEach((path, attributes) -> {
+                if (attributes.lastModifiedTime().toInstant().isBefore(threshold)) {
+                    candidates.add(path);
+                }
+            });
+            int moved = 0;
+            long bytes = 0;
+            for (int from = 0; from < candidates.size(); from += batchSize) {
+                List<String> batch = candidates.subList(from, Math.min(from + batchSize, candidates.size()));
+                for (String path : findOrphans(batch)) {
+                    long size = quarantine(path, files.get(path));
+                    if (size >= 0) {
+                        moved++;
+                        bytes += size;
+                    }
+                }
+                pause();
+            }
+            writeCheckpoint(completed ? "" : files.lastKey());
+
+            runs.incrementAndGet();
+            scanned.addAndGet(files.size());
+            quarantined.addAndGet(moved);
+            reclaimedBytes.addAndGet(bytes);
+            log.info("Orphan images: scanned {}, quarantined {}, reclaimed {} bytes{}",
+                    files.size(), moved, bytes, completed ? ", pass completed" : "");
+            return new Report(files.size(), moved, bytes, completed);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /** Счетчики сборщика с момента запуска экземпляра. */
+    public OrphanImageMetric getMetric() {
+        return OrphanImageMetric.builder()
+                .runs(runs.get())
+                .scanned(scanned.get())
+                .quarantined(quarantined.get())
+                .reclaimedBytes(reclaimedBytes.get())
+                .checkpoint(readCheckpoint())
+                .build();
+    }
+
+    /**
+     * Первые по порядку пути файлов после контрольной точки.
+     * <p>Поддерево пропускается целиком, если все его пути не больше контрольной точки
+     * или больше последнего из уже отобранных путей.</p>
+     */
+    private NavigableMap<String, BasicFileAttributes> scan(String checkpoint) {
+        TreeMap<String, BasicFileAttributes> files = new TreeMap<>();
+        Path tempPath = rootPath.resolve(blobsDir).resolve("tmp");
+        try {
+            Files.walkFileTree(rootPath, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (dir.equals(quarantinePath) || dir.equals(tempPath)) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    if (dir.equals(rootPath)) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    String prefix = relative(dir) + "/";
+                    if (prefix.compareTo(checkpoint) <= 0 && !checkpoint.startsWith(prefix)) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    if (files.size() >= maxFilesPerRun && prefix.compareTo(files.lastKey()) > 0) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    String path = relative(file);
+                    if (attrs.isRegularFile() && path.compareTo(checkpoint) > 0) {
+                        files.put(path, attrs);
+                        if (files.size() > maxFilesPerRun) {
+                            files.pollLastEntry();
+                        }
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    log.warn("Orphan image scan skipped {}: {}", file, e.getMessage());
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            log.error("Orphan image scan failed", e);
+            throw new UncheckedIOException(AppErrorsMessages.FILE_STORAGE_ERROR, e);
+        }
+        return files;
+    }
+
+    private List<String> findOrphans(List<String> paths) {
+        Set<String> originals = new HashSet<>();
+        paths.forEach(path -> originals.add(originalOf(path)));
+        Set<String> referenced = new HashSet<>(adsRepository.findReferencedImages(originals));
+        referenced.addAll(userRepository.findReferencedImages(originals));
+        referenced.addAll(blobRepository.findReferencedPaths(originals));
+        List<String> orphans = new ArrayList<>();
+        for (String path : paths) {
+            if (!referenced.contains(originalOf(path))) {
+                orphans.add(path);
+            }
+        }
+        return orphans;
+    }
+
+    private String originalOf(String path) {
+        return ImageVariant.originalOf(path).orElse(path);
+    }
+
+    /**
+     * Перенос файла в карантин.
+     * <p>Файл, измененный после обхода (например, перезаписанный загрузкой того же
+     * содержимого), не переносится.</p>
+     * @return размер перенесенного файла или {@code -1}, если файл не перенесен.
+     */
+    private long quarantine(String path, BasicFileAttributes scannedAttributes) {
+        Path source = rootPath.resolve(path);
+        Path target = quarantinePath.resolve(path);
+        try {
+            BasicFileAttributes current = Files.readAttributes(source, BasicFileAttributes.class);
+            if (!current.lastModifiedTime().equals(scannedAttributes.lastModifiedTime())) {
+                return -1;
+            }
+            Files.createDirectories(target.getParent());
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+            log.info("Orphan image quarantined: {}", path);
+            return current.size();
+        } catch (NoSuchFileException e) {
+            return -1;
+        } catch (IOException e) {
+            log.error("Failed to quarantine orphan image {}", path, e);
+            return -1;
+        }
+    }
+
+    private void pause() {
+        if (batchPauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(batchPauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String relative(Path path) {
+        return rootPath.relativize(path).toString().replace(File.separatorChar, '/');
+    }
+
+    private String readCheckpoint() {
+        try {
+            return Files.exists(checkpointPath)
+                    ? Files.readString(checkpointPath, StandardCharsets.UTF_8).trim()
+                    : "";
+        } catch (IOException e) {
+            log.warn("Failed to read orphan image checkpoint, scan restarts: {}", e.getMessage());
+            return "";
+        }
+    }
+
+    private void writeCheckpoint(String checkpoint) {
+        Path temp = checkpointPath.resolveSibling(CHECKPOINT_FILE + ".tmp");
+        try {
+            Files.writeString(temp, checkpoint, StandardCharsets.UTF_8);
+            Files.move(temp, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Failed to save orphan image checkpoint {}", checkpoint, e);
+        }
+    }
+
+    /** Итоги одной порции обхода. */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Report {
+        private final int scanned;
+        private final int quarantined;
+        private final long reclaimedBytes;
+        private final boolean completed;
+    }
+}
@@ -0,0 +1,110 @@
+package ru.skypro.homework.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.skypro.homework.dto.ads.Ads;
+import ru.skypro.homework.entities.AdEntity;
+import ru.skypro.homework.mappers.AdMapper;
+import ru.skypro.homework.repository.AdFullTextRepository;
+import ru.skypro.homework.repository.AdFullTextRepository.RankedId;
+import ru.skypro.homework.repository.AdsRepository;
+import ru.skypro.homework.security.AccessService;
+import ru.skypro.homework.service.AdSearchService;
+import ru.skypro.homework.utils.AdSearchCriteria;
+import ru.skypro.homework.utils.CursorCodec;
+import ru.skypro.homework.utils.PageLimits;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Полнотекстовый поиск объявлений в PostgreSQL.
+ *
+ * <p>Включается параметром {@code app.ads.search.engine: postgres}. Совпадения
+ * ищутся по индексу GIN колонки {@code ads.search_vector} и ранжируются
+ * {@code ts_rank}: совпадение в заголовке весит больше, чем в описании.
+ * Курсор содержит ранг и {@code id} последней записи страницы.</p>
+ *
+ * <p>Конфигурация {@code app.ads.search.ts-config} должна совпадать с конфигурацией,
+ * по которой построена колонка, иначе слова запроса и документа приводятся
+ * к разным основам.</p>
+ */
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.ads.search.engine", havingValue = "postgres")
+@RequiredArgsConstructor
+public class PostgresAdSearchServiceImpl implements AdSearchService {
+
+    private final AdFullTextRepository fullTextRepository;
+    private final AdsRepository adsRepository;
+    private final AccessService accessService;
+    private final AdMapper mapper;
+    private final PageLimits pageLimits;
+
+    @Value("${app.ads.search.ts-config}")
+    private String tsConfig;
+
+    /**
+     * {@inheritDoc}
+     * <p>Запрашивается на одну запись больше размера страницы, чтобы определить
+     * наличие следующей страницы; объявления страницы загружаются одним запросом по {@code id}.</p>
+     * <p>Общее количество вычисляется только для первой страницы: если она последняя,
+     * количество берется из нее, иначе считается по индексу. Для страниц по курсору
+     * количество не возвращается ({@code null}).</p>
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Ads search(String query, Integer minPrice, Integer maxPrice, String cursor, Integer size,
+                      Authentication authentication) {
+        log.debug("invoked ad search service search");
+        accessService.checkAuth(authentication);
+        AdSearchCriteria criteria = AdSearchCriteria.of(query, minPrice, maxPrice);
+
+        RankedId after = null;
+        if (cursor != null) {
+            long[] keys = CursorCodec.decode(cursor, 2);
+            after = new RankedId(keys[1], Float.intBitsToFloat((int) keys[0]));
+        }
+        int limit = pageLimits.resolve(size);
+        List<RankedId> ranked = fullTextRepository.search(tsConfig, criteria.getQuery(),
+                criteria.getMinPrice(), criteria.getMaxPrice(), after, limit + 1);
+
+        Long total = null;
+        if (cursor == null) {
+            total = ranked.size() <= limit
+                    ? ranked.size()
+                    : fullTextRepository.count(tsConfig, criteria.getQuery(),
+                    criteria.getMinPrice(), criteria.getMaxPrice());
+        }
+        String next = null;
+        if (ranked.size() > limit) {
+            ranked = ranked.subList(0, limit);
+            RankedId last = ranked.get(limit - 1);
+            next = CursorCodec.encode(Float.floatToIntBits(last.getRank()), last.getId());
+        }
+        return mapper.toAdsPage(load(ranked), total, next);
+    }
+
+    private List<AdEntity> load(List<RankedId> ranked) {
+        List<Long> ids = ranked.stream().map(RankedId::getId).collect(Collectors.toList());
+        Map<Long, AdEntity> byId = adsRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(AdEntity::getId, Function.identity()));
+        List<AdEntity> page = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            AdEntity ad = byId.get(id);
+            if (ad != null) {
+                page.add(ad);
+            }
+        }
+        return page;
+    }
+}
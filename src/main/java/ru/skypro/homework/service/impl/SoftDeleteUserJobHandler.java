@@ -0,0 +1,49 @@
+package ru.skypro.homework.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import ru.skypro.homework.dto.jobs.JobType;
+import ru.skypro.homework.entities.JobEntity;
+import ru.skypro.homework.events.EntityChangedEvent;
+import ru.skypro.homework.repository.UserRepository;
+import ru.skypro.homework.service.AdService;
+import ru.skypro.homework.service.JobHandler;
+
+/**
+ * Фоновая часть мягкого удаления пользователя: объявления удаляются порциями.
+ *
+ * <p>Профиль анонимизируется, а учетные данные удаляются при постановке задачи
+ * ({@link ManagementServiceImpl#softDeleteUser}). По завершении повторно публикуется
+ * событие удаления пользователя - с новым логином: карточки объявлений, прочитанные
+ * во время выполнения задачи, сбрасываются.</p>
+ */
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SoftDeleteUserJobHandler implements JobHandler {
+
+    private final AdService adService;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public JobType getType() {
+        return JobType.SOFT_DELETE_USER;
+    }
+
+    @Override
+    public int processChunk(JobEntity job, int chunkSize) {
+        return adService.deleteAdsChunkByUserId(job.getTargetId(), chunkSize);
+    }
+
+    @Override
+    public void complete(JobEntity job) {
+        Long targetId = job.getTargetId();
+        userRepository.findById(targetId).ifPresent(userEntity -> eventPublisher.publishEvent(
+                EntityChangedEvent.user(EntityChangedEvent.Type.USER_DELETED, targetId, userEntity.getUserName())));
+        log.info("Soft-delete of user id {} completed", targetId);
+    }
+}
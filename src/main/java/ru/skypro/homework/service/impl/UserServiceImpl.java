@@ -2,6 +2,7 @@ package ru.skypro.homework.service.impl;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -13,15 +14,22 @@ import ru.skypro.homework.dto.users.UpdateUser;
 import ru.skypro.homework.dto.users.User;
 import ru.skypro.homework.entities.AuthEntity;
 import ru.skypro.homework.entities.UserEntity;
+import ru.skypro.homework.events.EntityChangedEvent;
 import ru.skypro.homework.exceptions.NotFoundException;
 import ru.skypro.homework.exceptions.UnauthorizedException;
 import ru.skypro.homework.mappers.UserMapper;
 import ru.skypro.homework.repository.AdsRepository;
 import ru.skypro.homework.repository.AuthRepository;
+import ru.skypro.homework.repository.UserImageView;
 import ru.skypro.homework.repository.UserRepository;
 import ru.skypro.homework.security.AccessServiceImpl;
+import ru.skypro.homework.service.FileCleanupService;
+import ru.skypro.homework.service.ImageService;
 import ru.skypro.homework.service.UserService;
 
+import java.io.InputStream;
+import java.util.Optional;
+
 /**
  * Реализация сервиса управления пользователями.
  *
@@ -39,14 +47,17 @@ public class UserServiceImpl implements UserService {
     private final PasswordEncoder encoder;
     private final UserMapper userMapper;
 
-    private final ImageServiceImpl imageService;
+    private final ImageService imageService;
+    private final FileCleanupService fileCleanupService;
     private final AccessServiceImpl accessService;
     private final AdServiceImpl adService;
     private final AdsRepository adsRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * {@inheritDoc}
-     * <p>Проверяет текущий пароль перед хэшированием и сохранением нового.</p>
+     * <p>Проверяет текущий пароль перед хэшированием и сохранением нового.
+     * Сбрасывает кэш проверенных учетных данных и отзывает выпущенные токены пользователя.</p>
      */
     @Override
     @Transactional
@@ -65,6 +76,8 @@ public class UserServiceImpl implements UserService {
 
         authEntity.setPassword(encoder.encode(newPassword.getNewPassword()));
         authRepository.save(authEntity);
+        eventPublisher.publishEvent(EntityChangedEvent.user(
+                EntityChangedEvent.Type.USER_CREDENTIALS_CHANGED, authEntity.getId(), login));
 
     }
 
@@ -99,6 +112,8 @@ public class UserServiceImpl implements UserService {
 
         userMapper.updateUserEntity(updateUser, userEntity);
         userRepository.save(userEntity);
+        eventPublisher.publishEvent(EntityChangedEvent.user(
+                EntityChangedEvent.Type.USER_PROFILE_CHANGED, userEntity.getId(), userEntity.getUserName()));
 
         return userMapper.toDtoUpdateUser(userEntity);
     }
@@ -106,7 +121,8 @@ public class UserServiceImpl implements UserService {
 
     /**
      * {@inheritDoc}
-     * <p>Выполняет замену аватара с последующим удалением старого файла с диска.</p>
+     * <p>Выполняет замену аватара; старый файл удаляется с диска после фиксации
+     * транзакции ({@link FileCleanupService}).</p>
      */
     @Override
     @Transactional
@@ -122,9 +138,35 @@ public class UserServiceImpl implements UserService {
         String newImage = imageService.saveAvatarImage(file, userEntity.getId());
         userEntity.setUserImage(newImage);
         userRepository.save(userEntity);
-        if (!(previousImage == null || previousImage.isBlank())) {
-            imageService.deleteImage(previousImage);
-        }
+        fileCleanupService.enqueue(previousImage);
+
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Поток записывается на диск вне транзакции; путь к аватару заменяется после
+     * сохранения файла сравнением с обменом, с перечитыванием пути при параллельной загрузке
+     * (как {@link AdServiceImpl#uploadAdImage}).</p>
+     */
+    @Override
+    public void uploadAuthUserImage(InputStream content, Authentication authentication) {
+        log.debug("invoked user service upload image");
+
+        accessService.checkAuth(authentication);
+
+        UserEntity userEntity = userRepository.findByUserName(authentication.getName())
+                .orElseThrow(() -> new NotFoundException(AppErrorsMessages.USER_NOT_FOUND));
 
+        String previousImage = userEntity.getUserImage();
+        String newImage = imageService.storeAvatarImage(content, userEntity.getId());
+        while (userRepository.replaceUserImage(userEntity.getId(), previousImage, newImage) == 0) {
+            Optional<UserImageView> current = userRepository.findImageById(userEntity.getId());
+            if (current.isEmpty()) {
+                fileCleanupService.enqueue(newImage);
+                throw new NotFoundException(AppErrorsMessages.USER_NOT_FOUND);
+            }
+            previousImage = current.get().getImage();
+        }
+        fileCleanupService.enqueue(previousImage);
     }
 }
@@ -0,0 +1,107 @@
+package ru.skypro.homework.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.skypro.homework.dto.ads.ExtendedAd;
+import ru.skypro.homework.dto.metric.CacheMetric;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Кэш развернутых DTO объявлений ({@code GET /ads/{id}}).
+ *
+ * <p>Заполняется при чтении (read-through): промах загружает объявление из БД,
+ * ошибки загрузки (например, {@code 404}) не кэшируются. Кэш ограничен по размеру
+ * ({@code app.ads.details-cache.max-size}) и времени жизни записи
+ * ({@code app.ads.details-cache.ttl}).</p>
+ *
+ * <p>Записи сбрасываются при изменении и удалении объявления, а также при изменении
+ * профиля и удалении автора - его имя и телефон входят в DTO.</p>
+ */
+
+@Slf4j
+@Component
+public class AdDetailsCache {
+
+    @Value("${app.ads.details-cache.max-size}")
+    private long maxSize;
+
+    @Value("${app.ads.details-cache.ttl}")
+    private long ttlSeconds;
+
+    private Cache<Long, ExtendedAd> cache;
+
+    @PostConstruct
+    private void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        log.info("Ad details cache initialized: max-size {}, ttl {}s", maxSize, ttlSeconds);
+    }
+
+    /**
+     * Получение объявления из кэша или загрузка при промахе.
+     * @param id идентификатор объявления.
+     * @param loader загрузка объявления из БД.
+     */
+    public ExtendedAd get(Long id, Function<Long, ExtendedAd> loader) {
+        return cache.get(id, loader);
+    }
+
+    /**
+     * Сброс записи объявления.
+     * <p>Выполняется сразу и повторно после фиксации текущей транзакции, чтобы параллельный
+     * запрос не вернул в кэш данные, прочитанные до коммита изменений.</p>
+     * @param id идентификатор объявления.
+     */
+    public void evict(Long id) {
+        afterCommit(() -> cache.invalidate(id));
+    }
+
+    /**
+     * Сброс всех записей объявлений автора.
+     * @param userName логин автора (поле {@code email} DTO).
+     */
+    public void evictByAuthor(String userName) {
+        afterCommit(() -> {
+            if (cache.asMap().values().removeIf(ad -> userName.equals(ad.getEmail()))) {
+                log.debug("Ad details cache evicted for author {}", userName);
+            }
+        });
+    }
+
+    /** Статистика попаданий, промахов и вытеснений кэша. */
+    public CacheMetric getMetric() {
+        CacheStats stats = cache.stats();
+        return CacheMetric.builder()
+                .name("ad-details")
+                .size(cache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .build();
+    }
+
+    private void afterCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
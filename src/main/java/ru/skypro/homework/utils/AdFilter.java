@@ -0,0 +1,65 @@
+package ru.skypro.homework.utils;
+
+import lombok.Getter;
+import ru.skypro.homework.constants.AppErrorsMessages;
+import ru.skypro.homework.dto.ads.AdSort;
+import ru.skypro.homework.exceptions.BadRequestException;
+
+import java.util.Locale;
+
+/**
+ * Проверенные параметры фильтрации списка объявлений ({@code GET /ads}).
+ *
+ * <p>Все фильтры необязательны. Порядок задается без учета регистра
+ * ({@code newest}, {@code price_asc}, {@code price_desc}), по умолчанию - от новых
+ * к старым. Некорректные параметры приводят к {@link BadRequestException}.</p>
+ */
+
+@Getter
+public final class AdFilter {
+
+    private final Integer minPrice;
+    private final Integer maxPrice;
+    private final Long authorId;
+    private final AdSort sort;
+
+    private AdFilter(Integer minPrice, Integer maxPrice, Long authorId, AdSort sort) {
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.authorId = authorId;
+        this.sort = sort;
+    }
+
+    /** Список без фильтров, от новых к старым. */
+    public static AdFilter none() {
+        return new AdFilter(null, null, null, AdSort.NEWEST);
+    }
+
+    /**
+     * Проверка параметров запроса.
+     * @param minPrice нижняя граница цены (может отсутствовать).
+     * @param maxPrice верхняя граница цены (может отсутствовать).
+     * @param authorId идентификатор автора (может отсутствовать).
+     * @param sort порядок выдачи (может отсутствовать).
+     */
+    public static AdFilter of(Integer minPrice, Integer maxPrice, Long authorId, String sort) {
+        if ((minPrice != null && minPrice < 0) || (maxPrice != null && maxPrice < 0)
+                || (minPrice != null && maxPrice != null && minPrice > maxPrice)) {
+            throw new BadRequestException(AppErrorsMessages.INVALID_PRICE_RANGE);
+        }
+        AdSort order = AdSort.NEWEST;
+        if (sort != null && !sort.isBlank()) {
+            try {
+                order = AdSort.valueOf(sort.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException(AppErrorsMessages.INVALID_SORT);
+            }
+        }
+        return new AdFilter(minPrice, maxPrice, authorId, order);
+    }
+
+    /** {@code true}, если выборка не ограничена (порядок не учитывается). */
+    public boolean isUnrestricted() {
+        return minPrice == null && maxPrice == null && authorId == null;
+    }
+}
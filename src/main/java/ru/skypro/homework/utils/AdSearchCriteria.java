@@ -0,0 +1,49 @@
+package ru.skypro.homework.utils;
+
+import lombok.Getter;
+import ru.skypro.homework.constants.AppErrorsMessages;
+import ru.skypro.homework.exceptions.BadRequestException;
+
+/**
+ * Проверенные параметры поиска объявлений ({@code GET /ads/search}).
+ *
+ * <p>Строка запроса обрезается по краям и не может быть пустой или длиннее
+ * {@value #MAX_QUERY_LENGTH} символов. Отсутствующие границы цены заменяются
+ * на {@code 0} и {@link Integer#MAX_VALUE}. Некорректные параметры приводят
+ * к {@link BadRequestException}.</p>
+ */
+
+@Getter
+public final class AdSearchCriteria {
+
+    public static final int MAX_QUERY_LENGTH = 200;
+
+    private final String query;
+    private final int minPrice;
+    private final int maxPrice;
+
+    private AdSearchCriteria(String query, int minPrice, int maxPrice) {
+        this.query = query;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+    }
+
+    /**
+     * Проверка параметров запроса.
+     * @param query строка поиска.
+     * @param minPrice нижняя граница цены (может отсутствовать).
+     * @param maxPrice верхняя граница цены (может отсутствовать).
+     */
+    public static AdSearchCriteria of(String query, Integer minPrice, Integer maxPrice) {
+        String trimmed = query == null ? "" : query.trim();
+        if (trimmed.isEmpty() || trimmed.length() > MAX_QUERY_LENGTH) {
+            throw new BadRequestException(AppErrorsMessages.INVALID_SEARCH_QUERY);
+        }
+        int min = minPrice == null ? 0 : minPrice;
+        int max = maxPrice == null ? Integer.MAX_VALUE : maxPrice;
+        if (min < 0 || min > max) {
+            throw new BadRequestException(AppErrorsMessages.INVALID_PRICE_RANGE);
+        }
+        return new AdSearchCriteria(trimmed, min, max);
+    }
+}
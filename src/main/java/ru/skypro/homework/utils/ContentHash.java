@@ -0,0 +1,39 @@
+package ru.skypro.homework.utils;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Хэш содержимого файлов (SHA-256).
+ *
+ * <p>Используется для имен файлов контентно-адресуемого хранилища и для ETag изображений,
+ * поэтому везде представлен одинаково - строкой из 64 шестнадцатеричных символов.</p>
+ */
+
+public final class ContentHash {
+
+    private static final String ALGORITHM = "SHA-256";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private ContentHash() {
+    }
+
+    /** Новый экземпляр SHA-256. */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /** Представление хэша в шестнадцатеричном виде. */
+    public static String toHex(byte[] digest) {
+        char[] chars = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            chars[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[digest[i] & 0xF];
+        }
+        return new String(chars);
+    }
+}
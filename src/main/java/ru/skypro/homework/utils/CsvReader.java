@@ -0,0 +1,128 @@
+package ru.skypro.homework.utils;
+
+import ru.skypro.homework.constants.AppErrorsMessages;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Потоковое чтение CSV (RFC 4180) по одной записи.
+ *
+ * <p>Разделитель - запятая, поля в двойных кавычках могут содержать запятые, переводы строк
+ * и удвоенные кавычки. Строки завершаются {@code \n} или {@code \r\n}; метка порядка байт
+ * в начале потока пропускается.</p>
+ *
+ * <p>Длина записи ограничена {@code maxLength} символами: запись длиннее читается до конца,
+ * но не сохраняется, и {@link #readRecord()} бросает {@link IllegalArgumentException};
+ * следующий вызов продолжает со следующей записи. Незакрытая кавычка поглощает
+ * остаток потока и тоже приводит к {@link IllegalArgumentException}.</p>
+ */
+
+public final class CsvReader {
+
+    private static final int NONE = -2;
+    private static final char BOM = '\uFEFF';
+
+    private final Reader reader;
+    private final int maxLength;
+    private long line = 1;
+    private long recordLine;
+    private int pending = NONE;
+    private boolean started;
+
+    public CsvReader(Reader reader, int maxLength) {
+        this.reader = reader;
+        this.maxLength = maxLength;
+    }
+
+    /** Номер строки, с которой началась последняя прочитанная запись. */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    /**
+     * Чтение следующей записи.
+     * @return поля записи или {@code null} в конце потока.
+     * @throws IllegalArgumentException если запись длиннее допустимой или кавычка не закрыта.
+     */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line - (c == '\n' ? 1 : 0);
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStarted = false;
+        long length = 0;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    int next = read();
+                    if (next != '"') {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                }
+                length++;
+                if (length <= maxLength) {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && !fieldStarted) {
+                quoted = true;
+                fieldStarted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStarted = false;
+            } else if (c == '\n') {
+                break;
+            } else if (c == '\r') {
+                int next = read();
+                if (next != '\n') {
+                    pending = next;
+                }
+                break;
+            } else {
+                fieldStarted = true;
+                length++;
+                if (length <= maxLength) {
+                    field.append((char) c);
+                }
+            }
+            c = read();
+        }
+        fields.add(field.toString());
+        if (quoted) {
+            throw new IllegalArgumentException(AppErrorsMessages.UNTERMINATED_QUOTE);
+        }
+        if (length > maxLength) {
+            throw new IllegalArgumentException(AppErrorsMessages.RECORD_TOO_LONG);
+        }
+        return fields;
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (pending != NONE) {
+            c = pending;
+            pending = NONE;
+            return c;
+        }
+        c = reader.read();
+        if (!started) {
+            started = true;
+            if (c == BOM) {
+                c = reader.read();
+            }
+        }
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+}
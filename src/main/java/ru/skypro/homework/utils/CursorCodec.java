@@ -0,0 +1,62 @@
+package ru.skypro.homework.utils;
+
+import ru.skypro.homework.constants.AppErrorsMessages;
+import ru.skypro.homework.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Кодирование и декодирование курсоров постраничной выдачи (keyset pagination).
+ *
+ * <p>Курсор - непрозрачная для клиента строка (Base64 URL-safe), содержащая
+ * значения ключа сортировки последней записи страницы, например {@code (id)}
+ * или {@code (created, id)}. Клиент передает курсор обратно без изменений.</p>
+ *
+ * <p>Некорректный курсор приводит к {@link BadRequestException}.</p>
+ */
+
+public final class CursorCodec {
+
+    private static final String SEPARATOR = ":";
+
+    /**
+     * Формирование курсора из значений ключа сортировки.
+     * @param keys значения ключа в порядке сортировки.
+     * @return непрозрачный курсор.
+     */
+    public static String encode(long... keys) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) raw.append(SEPARATOR);
+            raw.append(Long.toString(keys[i], Character.MAX_RADIX));
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Разбор курсора.
+     * @param cursor курсор, полученный клиентом ранее.
+     * @param expectedKeys ожидаемое количество значений ключа.
+     * @return значения ключа сортировки.
+     */
+    public static long[] decode(String cursor, int expectedKeys) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            long[] keys = Arrays.stream(raw.split(SEPARATOR))
+                    .mapToLong(k -> Long.parseLong(k, Character.MAX_RADIX))
+                    .toArray();
+            if (keys.length != expectedKeys) {
+                throw new BadRequestException(AppErrorsMessages.INVALID_CURSOR);
+            }
+            return keys;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(AppErrorsMessages.INVALID_CURSOR);
+        }
+    }
+
+    private CursorCodec() {
+    }
+}
@@ -0,0 +1,161 @@
+package ru.skypro.homework.utils;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.skypro.homework.dto.images.ImageFormat;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Чтение размеров изображения из заголовка файла без декодирования.
+ *
+ * <p>Читаются только служебные байты: заголовок {@code IHDR} для PNG, заголовок кадра
+ * {@code VP8 }/{@code VP8L}/{@code VP8X} для WebP, маркеры сегментов до {@code SOFn} для JPEG
+ * (тела прочих сегментов пропускаются). Это позволяет отклонить изображение
+ * с чрезмерным числом пикселей до того, как его целиком разожмет ImageIO.</p>
+ */
+
+public final class ImageHeaderSniffer {
+
+    private ImageHeaderSniffer() {
+    }
+
+    /**
+     * Чтение размеров изображения.
+     * @param format формат, определенный по сигнатуре.
+     * @param is поток с начала файла.
+     * @return ширина и высота или пустой результат, если заголовок поврежден.
+     */
+    public static Optional<Dimensions> readDimensions(ImageFormat format, InputStream is) throws IOException {
+        DataInputStream in = new DataInputStream(is);
+        try {
+            switch (format) {
+                case PNG:
+                    return readPng(in);
+                case WEBP:
+                    return readWebp(in);
+                case JPEG:
+                    return readJpeg(in);
+                default:
+                    return Optional.empty();
+            }
+        } catch (EOFException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<Dimensions> readPng(DataInputStream in) throws IOException {
+        skipFully(in, 8);
+        in.readInt();
+        if (in.readInt() != 0x49484452) { // IHDR
+            return Optional.empty();
+        }
+        return dimensions(in.readInt(), in.readInt());
+    }
+
+    private static Optional<Dimensions> readWebp(DataInputStream in) throws IOException {
+        skipFully(in, 12);
+        byte[] chunk = new byte[4];
+        in.readFully(chunk);
+        String fourCc = new String(chunk, StandardCharsets.US_ASCII);
+        skipFully(in, 4);
+        byte[] data = new byte[10];
+        in.readFully(data);
+        switch (fourCc) {
+            case "VP8 ":
+                if ((data[3] & 0xFF) != 0x9D || (data[4] & 0xFF) != 0x01 || (data[5] & 0xFF) != 0x2A) {
+                    return Optional.empty();
+                }
+                return dimensions(littleEndian(data, 6, 2) & 0x3FFF, littleEndian(data, 8, 2) & 0x3FFF);
+            case "VP8L":
+                if ((data[0] & 0xFF) != 0x2F) {
+                    return Optional.empty();
+                }
+                int bits = littleEndian(data, 1, 4);
+                return dimensions((bits & 0x3FFF) + 1, ((bits >> 14) & 0x3FFF) + 1);
+            case "VP8X":
+                return dimensions(littleEndian(data, 4, 3) + 1, littleEndian(data, 7, 3) + 1);
+            default:
+                return Optional.empty();
+        }
+    }
+
+    private static Optional<Dimensions> readJpeg(DataInputStream in) throws IOException {
+        skipFully(in, 2);
+        while (true) {
+            int marker = in.readUnsignedByte();
+            if (marker != 0xFF) {
+                return Optional.empty();
+            }
+            do {
+                marker = in.readUnsignedByte();
+            } while (marker == 0xFF);
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD8)) {
+                continue;
+            }
+            if (marker == 0xD9 || marker == 0xDA) {
+                return Optional.empty();
+            }
+            int length = in.readUnsignedShort();
+            if (length < 2) {
+                return Optional.empty();
+            }
+            boolean startOfFrame = marker >= 0xC0 && marker <= 0xCF
+                    && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+            if (startOfFrame) {
+                in.readUnsignedByte();
+                int height = in.readUnsignedShort();
+                int width = in.readUnsignedShort();
+                return dimensions(width, height);
+            }
+            skipFully(in, length - 2);
+        }
+    }
+
+    private static Optional<Dimensions> dimensions(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new Dimensions(width, height));
+    }
+
+    private static int littleEndian(byte[] data, int offset, int length) {
+        int value = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            value = (value << 8) | (data[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static void skipFully(InputStream in, long count) throws IOException {
+        long remaining = count;
+        while (remaining > 0) {
+            long skipped = in.skip(remaining);
+            if (skipped <= 0) {
+                if (in.read() == -1) {
+                    throw new EOFException();
+                }
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+
+    /** Размеры изображения в пикселях. */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Dimensions {
+        private final int width;
+        private final int height;
+
+        /** Число пикселей. */
+        public long getPixels() {
+            return (long) width * height;
+        }
+    }
+}
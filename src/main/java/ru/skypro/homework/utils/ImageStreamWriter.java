@@ -0,0 +1,120 @@
+package ru.skypro.homework.utils;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.skypro.homework.constants.AppErrorsMessages;
+import ru.skypro.homework.dto.images.ImageFormat;
+import ru.skypro.homework.exceptions.BadRequestException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+
+/**
+ * Потоковая запись загружаемого изображения на диск.
+ *
+ * <p>Поток читается один раз: формат определяется по первым байтам
+ * ({@link ImageFormat}), размер ограничивается {@code app.upload.max-size} во время чтения.
+ * Файл пишется во временный файл в каталоге назначения, чтобы затем быть атомарно
+ * переименованным в итоговое имя без повторного копирования.</p>
+ *
+ * <p>После записи размеры изображения читаются из заголовка ({@link ImageHeaderSniffer})
+ * без декодирования; изображения с числом пикселей больше {@code app.upload.max-pixels}
+ * отклоняются. Результат учитывается в {@link ImageUploadMetrics}.</p>
+ */
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImageStreamWriter {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final ImageUploadPolicy uploadPolicy;
+    private final ImageUploadMetrics uploadMetrics;
+
+    /**
+     * Запись потока во временный файл.
+     * @param is содержимое изображения.
+     * @param targetDir каталог, в котором будет находиться итоговый файл.
+     * @param digest хэш, обновляемый по мере чтения ({@code null} - не вычислять).
+     * @return временный файл, формат и размер изображения.
+     * @throws BadRequestException если поток пустой, формат не распознан или не разрешен,
+     * заголовок поврежден, либо размер или число пикселей превышает допустимые.
+     * Временный файл в этом случае удаляется.
+     */
+    public Upload write(InputStream is, Path targetDir, MessageDigest digest) throws IOException {
+        byte[] header = is.readNBytes(ImageFormat.SIGNATURE_LENGTH);
+        ImageFormat format = ImageFormat.detect(header, header.length)
+                .filter(uploadPolicy::isAllowed)
+                .orElse(null);
+        if (format == null) {
+            log.error("Unsupported file type by signature");
+            uploadMetrics.rejected(null);
+            throw new BadRequestException(AppErrorsMessages.UNSUPPORTED_FILE_TYPE);
+        }
+
+        Path temp = Files.createTempFile(targetDir, ".upload-", ".tmp");
+        try {
+            long size = copy(is, header, temp, digest);
+            ImageHeaderSniffer.Dimensions dimensions;
+            try (InputStream in = Files.newInputStream(temp)) {
+                dimensions = ImageHeaderSniffer.readDimensions(format, in)
+                        .orElseThrow(() -> new BadRequestException(AppErrorsMessages.INVALID_IMAGE));
+            }
+            if (dimensions.getPixels() > uploadPolicy.getMaxPixels()) {
+                log.error("Image dimensions too large: {}x{}", dimensions.getWidth(), dimensions.getHeight());
+                throw new BadRequestException(AppErrorsMessages.IMAGE_TOO_LARGE);
+            }
+            uploadMetrics.accepted(format, size);
+            return new Upload(temp, format, size, dimensions.getWidth(), dimensions.getHeight());
+        } catch (BadRequestException e) {
+            uploadMetrics.rejected(format);
+            Files.deleteIfExists(temp);
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    private long copy(InputStream is, byte[] header, Path temp, MessageDigest digest) throws IOException {
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            long size = header.length;
+            out.write(header);
+            if (digest != null) {
+                digest.update(header);
+            }
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                size += read;
+                if (size > uploadPolicy.getMaxSize()) {
+                    log.error("File too big!");
+                    throw new BadRequestException(AppErrorsMessages.FILE_TOO_BIG);
+                }
+                out.write(buffer, 0, read);
+                if (digest != null) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+            return size;
+        }
+    }
+
+    /** Изображение, записанное во временный файл. */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Upload {
+        private final Path tempFile;
+        private final ImageFormat format;
+        private final long size;
+        private final int width;
+        private final int height;
+    }
+}
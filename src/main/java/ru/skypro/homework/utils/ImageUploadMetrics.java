@@ -0,0 +1,69 @@
+package ru.skypro.homework.utils;
+
+import org.springframework.stereotype.Component;
+import ru.skypro.homework.dto.images.ImageFormat;
+import ru.skypro.homework.dto.metric.ImageUploadMetric;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счетчики загрузок изображений по формату.
+ *
+ * <p>Заполняются {@link ImageStreamWriter}: принятые изображения и их объем,
+ * отклоненные (неизвестная сигнатура, поврежденный заголовок, превышение размера
+ * или числа пикселей).</p>
+ */
+
+@Component
+public class ImageUploadMetrics {
+
+    private static final int UNKNOWN = ImageFormat.values().length;
+
+    private final LongAdder[] accepted = newCounters();
+    private final LongAdder[] rejected = newCounters();
+    private final LongAdder[] acceptedBytes = newCounters();
+
+    /** Учет принятого изображения. */
+    public void accepted(ImageFormat format, long size) {
+        accepted[format.ordinal()].increment();
+        acceptedBytes[format.ordinal()].add(size);
+    }
+
+    /**
+     * Учет отклоненного изображения.
+     * @param format формат по сигнатуре или {@code null}, если сигнатура не распознана.
+     */
+    public void rejected(ImageFormat format) {
+        rejected[format == null ? UNKNOWN : format.ordinal()].increment();
+    }
+
+    /** Текущие значения счетчиков. */
+    public List<ImageUploadMetric> getMetrics() {
+        List<ImageUploadMetric> metrics = new ArrayList<>();
+        for (ImageFormat format : ImageFormat.values()) {
+            metrics.add(metric(format.getExtension(), format.ordinal()));
+        }
+        metrics.add(metric("unknown", UNKNOWN));
+        return metrics;
+    }
+
+    private ImageUploadMetric metric(String name, int index) {
+        return ImageUploadMetric.builder()
+                .format(name.toLowerCase(Locale.ROOT))
+                .accepted(accepted[index].sum())
+                .rejected(rejected[index].sum())
+                .acceptedBytes(acceptedBytes[index].sum())
+                .build();
+    }
+
+    private static LongAdder[] newCounters() {
+        LongAdder[] counters = new LongAdder[ImageFormat.values().length + 1];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+}
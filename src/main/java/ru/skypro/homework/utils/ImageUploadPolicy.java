@@ -0,0 +1,91 @@
+package ru.skypro.homework.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+import ru.skypro.homework.constants.AppErrorsMessages;
+import ru.skypro.homework.dto.images.ImageFormat;
+import ru.skypro.homework.exceptions.BadRequestException;
+
+import java.util.Set;
+
+/**
+ * Ограничения на загружаемые изображения.
+ *
+ * <p>Общие для всех реализаций {@link ru.skypro.homework.service.ImageService}:
+ * максимальный размер ({@code app.upload.max-size}) и допустимые типы
+ * ({@code app.upload.allowed-types}).</p>
+ *
+ * <p>Заявленные клиентом размер и тип проверяются до чтения содержимого;
+ * фактические - при записи потока ({@link ImageStreamWriter}).</p>
+ */
+
+@Slf4j
+@Component
+public class ImageUploadPolicy {
+
+    @Value("${app.upload.max-size}")
+    private long maxSize;
+    @Value("${app.upload.allowed-types}")
+    private Set<String> allowedImagesTypes;
+    @Value("${app.upload.max-pixels}")
+    private long maxPixels;
+
+    /** Максимальный размер изображения, байты. */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /** Максимальное число пикселей изображения (ширина x высота). */
+    public long getMaxPixels() {
+        return maxPixels;
+    }
+
+    /** Проверка, что формат разрешен параметром {@code app.upload.allowed-types}. */
+    public boolean isAllowed(ImageFormat format) {
+        return allowedImagesTypes.contains(format.getExtension())
+                || (format == ImageFormat.JPEG && allowedImagesTypes.contains("jpg"));
+    }
+
+    /**
+     * Проверка заявленного размера тела запроса.
+     * @param contentLength значение {@code Content-Length} ({@code -1}, если не передан).
+     * @throws BadRequestException если заявленный размер превышает допустимый.
+     */
+    public void checkDeclaredSize(long contentLength) {
+        if (contentLength > maxSize) {
+            log.error("File too big!");
+            throw new BadRequestException(AppErrorsMessages.FILE_TOO_BIG);
+        }
+    }
+
+    /**
+     * Проверка заявленных свойств загружаемого файла.
+     * @param file загружаемый файл.
+     * @throws BadRequestException если файл пустой, слишком большой или недопустимого типа.
+     */
+    public void validate(MultipartFile file) {
+        String contentType = file.getContentType();
+        if (file.isEmpty()) {
+            log.error("Empty image try to load !");
+            throw new BadRequestException(AppErrorsMessages.UNSUPPORTED_FILE_TYPE);
+        }
+
+        if (file.getSize() > maxSize) {
+            log.error("File too big!");
+            throw new BadRequestException(AppErrorsMessages.FILE_TOO_BIG);
+        }
+
+        if (contentType == null) {
+            log.error("Unknown file type");
+            throw new BadRequestException(AppErrorsMessages.UNSUPPORTED_FILE_TYPE);
+        }
+
+        String extension = contentType.substring(contentType.lastIndexOf("/") + 1).toLowerCase();
+        if (!allowedImagesTypes.contains(extension)) {
+            log.error("Unsupported file type");
+            throw new BadRequestException(AppErrorsMessages.UNSUPPORTED_FILE_TYPE);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package ru.skypro.homework.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Потоковая запись списка в JSON.
+ *
+ * <p>Строки читаются из потока по одной, преобразуются в DTO и сразу пишутся
+ * через {@link JsonGenerator}: ни список сущностей, ни список DTO, ни дерево ответа
+ * целиком в памяти не строятся. Ответ имеет форму списков {@code Ads}/{@code Comments}
+ * ({@code results}, {@code count}); число записей известно только в конце,
+ * поэтому {@code count} следует за {@code results}.</p>
+ *
+ * <p>Для массового переноса те же записи пишутся в NDJSON ({@link #writeLines}):
+ * по одному объекту в строке, без обертки и итогового числа.</p>
+ *
+ * <p>Каждые {@code batchSize} записей вызывается {@code afterBatch} (например, очистка
+ * контекста persistence) и буфер генератора сбрасывается в выходной поток.
+ * Выходной поток не закрывается.</p>
+ */
+
+@Component
+@RequiredArgsConstructor
+public class JsonStreamWriter {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Запись списка.
+     * @param out выходной поток.
+     * @param rows строки; поток не закрывается.
+     * @param mapper преобразование строки в DTO.
+     * @param type класс DTO.
+     * @param batchSize число записей между вызовами {@code afterBatch}.
+     * @param afterBatch действие после каждой порции записей.
+     * @return число записанных элементов.
+     */
+    public <E, D> long write(OutputStream out, Stream<E> rows, Function<E, D> mapper, Class<D> type,
+                             int batchSize, Runnable afterBatch) throws IOException {
+        long count;
+        try (JsonGenerator generator = createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("results");
+            count = writeValues(generator, rows, mapper, type, batchSize, afterBatch, false);
+            generator.writeEndArray();
+            generator.writeNumberField("count", count);
+            generator.writeEndObject();
+        }
+        return count;
+    }
+
+    /**
+     * Запись NDJSON: каждый DTO - отдельная строка.
+     * @param out выходной поток.
+     * @param rows строки; поток не закрывается.
+     * @param mapper преобразование строки в DTO.
+     * @param type класс DTO.
+     * @param batchSize число записей между вызовами {@code afterBatch}.
+     * @param afterBatch действие после каждой порции записей.
+     * @return число записанных строк.
+     */
+    public <E, D> long writeLines(OutputStream out, Stream<E> rows, Function<E, D> mapper, Class<D> type,
+                                  int batchSize, Runnable afterBatch) throws IOException {
+        try (JsonGenerator generator = createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            return writeValues(generator, rows, mapper, type, batchSize, afterBatch, true);
+        }
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    private <E, D> long writeValues(JsonGenerator generator, Stream<E> rows, Function<E, D> mapper, Class<D> type,
+                                    int batchSize, Runnable afterBatch, boolean lines) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+        Iterator<E> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            writer.writeValue(generator, mapper.apply(iterator.next()));
+            if (lines) {
+                generator.writeRaw('\n');
+            }
+            if (++count % batchSize == 0) {
+                afterBatch.run();
+                generator.flush();
+            }
+        }
+        return count;
+    }
+}
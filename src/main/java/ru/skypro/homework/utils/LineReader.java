@@ -0,0 +1,72 @@
+package ru.skypro.homework.utils;
+
+import ru.skypro.homework.constants.AppErrorsMessages;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Чтение текста по строкам с ограничением длины строки.
+ *
+ * <p>В отличие от {@link java.io.BufferedReader#readLine()}, строка длиннее
+ * {@code maxLength} символов не накапливается в памяти: она дочитывается до конца
+ * без сохранения, и {@link #readLine()} бросает {@link IllegalArgumentException};
+ * следующий вызов продолжает со следующей строки. Строки завершаются {@code \n}
+ * или {@code \r\n}; метка порядка байт в начале потока пропускается.</p>
+ */
+
+public final class LineReader {
+
+    private static final char BOM = '\uFEFF';
+
+    private final Reader reader;
+    private final int maxLength;
+    private long lineNumber;
+    private boolean started;
+
+    public LineReader(Reader reader, int maxLength) {
+        this.reader = reader;
+        this.maxLength = maxLength;
+    }
+
+    /** Номер последней прочитанной строки (с 1). */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Чтение следующей строки без символов конца строки.
+     * @return строка или {@code null} в конце потока.
+     * @throws IllegalArgumentException если строка длиннее допустимой.
+     */
+    public String readLine() throws IOException {
+        int c = reader.read();
+        if (!started) {
+            started = true;
+            if (c == BOM) {
+                c = reader.read();
+            }
+        }
+        if (c == -1) {
+            return null;
+        }
+        lineNumber++;
+        StringBuilder line = new StringBuilder();
+        long length = 0;
+        while (c != -1 && c != '\n') {
+            length++;
+            if (length <= maxLength) {
+                line.append((char) c);
+            }
+            c = reader.read();
+        }
+        if (length > maxLength) {
+            throw new IllegalArgumentException(AppErrorsMessages.RECORD_TOO_LONG);
+        }
+        int last = line.length() - 1;
+        if (last >= 0 && line.charAt(last) == '\r') {
+            line.setLength(last);
+        }
+        return line.toString();
+    }
+}
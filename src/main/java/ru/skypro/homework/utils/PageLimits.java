@@ -0,0 +1,33 @@
+package ru.skypro.homework.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ограничения размера страницы для постраничной выдачи.
+ *
+ * <p>Размер по умолчанию и максимальный размер задаются параметрами
+ * {@code app.pagination.default-size} и {@code app.pagination.max-size}.</p>
+ */
+
+@Component
+public class PageLimits {
+
+    @Value("${app.pagination.default-size}")
+    private int defaultSize;
+
+    @Value("${app.pagination.max-size}")
+    private int maxSize;
+
+    /**
+     * Приведение запрошенного клиентом размера страницы к допустимому диапазону.
+     * @param requested размер из запроса (может отсутствовать).
+     * @return размер страницы в пределах {@code [1, max-size]}.
+     */
+    public int resolve(Integer requested) {
+        if (requested == null || requested < 1) {
+            return defaultSize;
+        }
+        return Math.min(requested, maxSize);
+    }
+}
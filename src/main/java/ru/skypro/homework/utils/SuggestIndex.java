@@ -0,0 +1,531 @@
+package ru.skypro.homework.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс слов объявлений для автодополнения поисковой строки.
+ *
+ * <p>Текст разбивается на слова из букв и цифр, приводится к нижнему регистру,
+ * {@code ё} заменяется на {@code е}; слова короче {@value #MIN_TOKEN_LENGTH}
+ * и длиннее {@value #MAX_TOKEN_LENGTH} символов не индексируются.</p>
+ *
+ * <ul>
+ *     <li>Словарь - префиксное дерево (trie) с отсортированными массивами переходов.
+ *     Каждый узел хранит до {@code candidates} самых частых слов своего поддерева
+ *     (по числу объявлений), поэтому дополнение префикса не обходит поддерево.</li>
+ *     <li>Для каждого слова хранится отсортированный массив {@code int} внутренних
+ *     номеров объявлений (postings). Номер выдается при добавлении по возрастанию,
+ *     поэтому добавление - запись в конец массива. Изменение объявления - удаление
+ *     и добавление под новым номером; освободившиеся номера периодически уплотняются.</li>
+ * </ul>
+ *
+ * <p>Для запроса из нескольких слов последнее слово считается префиксом,
+ * предыдущие - контекстом: дополнения префикса ранжируются по числу объявлений
+ * из ограниченной выборки новых объявлений, содержащих и контекст, и дополнение. Слова объявления
+ * берутся из прямого индекса (объявление - отсортированный массив номеров слов).</p>
+ *
+ * <p>Класс потокобезопасен: чтение идет под общей блокировкой, изменения - под
+ * исключительной. Класс не зависит от Spring и БД.</p>
+ */
+
+public final class SuggestIndex {
+
+    public static final int MIN_TOKEN_LENGTH = 2;
+    public static final int MAX_TOKEN_LENGTH = 32;
+
+    private static final int[] NO_INTS = new int[0];
+    private static final int MIN_COMPACTION_HOLES = 1024;
+    private static final int CONTEXT_SCAN = 10_000;
+    private static final int CONTEXT_SAMPLE = 512;
+
+    private final int candidates;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Node root = new Node();
+    private final List<String> terms = new ArrayList<>();
+    private int[][] postings = new int[64][];
+    private int[] postingSizes = new int[64];
+
+    private long[] docAdIds = new long[64];
+    private long[] docUserIds = new long[64];
+    private int[][] docTerms = new int[64][];
+    private int docCount;
+    private int liveDocs;
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+
+    private boolean bulkLoad;
+
+    /**
+     * @param candidates число слов, хранимых в каждом узле дерева
+     *                   (максимальное число подсказок для одного слова).
+     */
+    public SuggestIndex(int candidates) {
+        if (candidates < 1) {
+            throw new IllegalArgumentException("candidates must be positive");
+        }
+        this.candidates = candidates;
+    }
+
+    /**
+     * Начало массовой загрузки: списки частых слов в узлах не пересчитываются
+     * до {@link #finishBulkLoad()}.
+     */
+    public void beginBulkLoad() {
+        lock.writeLock().lock();
+        try {
+            bulkLoad = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Окончание массовой загрузки: пересчет списков частых слов во всем дереве. */
+    public void finishBulkLoad() {
+        lock.writeLock().lock();
+        try {
+            bulkLoad = false;
+            rebuildTop(root);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Добавление или замена объявления.
+     * @param adId идентификатор объявления.
+     * @param userId идентификатор автора.
+     * @param texts индексируемые тексты (заголовок, описание); {@code null} пропускаются.
+     */
+    public void put(long adId, long userId, String... texts) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String text : texts) {
+            tokens.addAll(tokenize(text));
+        }
+        lock.writeLock().lock();
+        try {
+            List<Integer> changed = new ArrayList<>();
+            Integer previous = ordinals.get(adId);
+            if (previous != null) {
+                removeDoc(previous, changed);
+            }
+            int[] termIds = new int[tokens.size()];
+            int i = 0;
+            for (String token : tokens) {
+                termIds[i++] = termId(token);
+            }
+            Arrays.sort(termIds);
+            int ordinal = addDoc(adId, userId, termIds);
+            for (int termId : termIds) {
+                append(termId, ordinal);
+                changed.add(termId);
+            }
+            updateTop(changed);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удаление объявления.
+     * @param adId идентификатор объявления.
+     * @return {@code true}, если объявление было в индексе.
+     */
+    public boolean remove(long adId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(adId);
+            if (ordinal == null) {
+                return false;
+            }
+            List<Integer> changed = new ArrayList<>();
+            removeDoc(ordinal, changed);
+            updateTop(changed);
+            compactIfNeeded();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удаление всех объявлений автора (просмотр всех объявлений индекса).
+     * @param userId идентификатор автора.
+     * @return число удаленных объявлений.
+     */
+    public int removeByUser(long userId) {
+        lock.writeLock().lock();
+        try {
+            List<Integer> changed = new ArrayList<>();
+            int removed = 0;
+            for (int ordinal = 0; ordinal < docCount; ordinal++) {
+                if (docTerms[ordinal] != null && docUserIds[ordinal] == userId) {
+                    removeDoc(ordinal, changed);
+                    removed++;
+                }
+            }
+            updateTop(changed);
+            compactIfNeeded();
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Подсказки для строки поиска.
+     * @param query введенная строка; последнее слово - префикс.
+     * @param limit максимальное число подсказок (не больше {@code candidates}).
+     * @return подсказки по убыванию числа объявлений.
+     */
+    public List<String> suggest(String query, int limit) {
+        List<String> words = words(query);
+        if (words.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        String prefix = words.get(words.size() - 1);
+        if (prefix.length() > MAX_TOKEN_LENGTH) {
+            return List.of();
+        }
+        List<String> context = new ArrayList<>();
+        for (String word : words.subList(0, words.size() - 1)) {
+            if (word.length() >= MIN_TOKEN_LENGTH && word.length() <= MAX_TOKEN_LENGTH) {
+                context.add(word);
+            }
+        }
+        lock.readLock().lock();
+        try {
+            Node node = find(prefix);
+            if (node == null || node.top.length == 0) {
+                return List.of();
+            }
+            if (context.isEmpty()) {
+                List<String> result = new ArrayList<>(Math.min(limit, node.top.length));
+                for (int i = 0; i < node.top.length && result.size() < limit; i++) {
+                    result.add(terms.get(node.top[i]));
+                }
+                return result;
+            }
+            return suggestInContext(context, prefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Число объявлений в индексе. */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Число слов в словаре (включая слова, которых уже нет ни в одном объявлении). */
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Разбиение текста на индексируемые слова без повторов.
+     * @param text исходный текст (может быть {@code null}).
+     */
+    public static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String word : words(text)) {
+            if (word.length() >= MIN_TOKEN_LENGTH && word.length() <= MAX_TOKEN_LENGTH) {
+                tokens.add(word);
+            }
+        }
+        return tokens;
+    }
+
+    private static List<String> words(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(normalize(c));
+            } else if (word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        return words;
+    }
+
+    private static char normalize(char c) {
+        char lower = Character.toLowerCase(c);
+        return lower == 'ё' ? 'е' : lower;
+    }
+
+    /**
+     * Дополнения префикса в объявлениях, содержащих все слова контекста.
+     * <p>Просматривается выборка от новых объявлений к старым: не более {@value #CONTEXT_SCAN}
+     * объявлений самого редкого слова контекста и не более {@value #CONTEXT_SAMPLE} совпавших;
+     * слова совпавших объявлений берутся из прямого индекса. Время ответа не зависит
+     * от размера индекса; для частых слов контекста учитываются только новые объявления.</p>
+     */
+    private List<String> suggestInContext(List<String> context, String prefix, int limit) {
+        int[] contextTerms = new int[context.size()];
+        StringBuilder phrase = new StringBuilder();
+        int rarest = -1;
+        for (int i = 0; i < context.size(); i++) {
+            Node node = find(context.get(i));
+            if (node == null || node.termId < 0 || postingSizes[node.termId] == 0) {
+                return List.of();
+            }
+            contextTerms[i] = node.termId;
+            if (rarest < 0 || postingSizes[node.termId] < postingSizes[rarest]) {
+                rarest = node.termId;
+            }
+            phrase.append(context.get(i)).append(' ');
+        }
+        Arrays.sort(contextTerms);
+
+        Map<Integer, Integer> counts = new HashMap<>();
+        int[] list = postings[rarest];
+        int last = postingSizes[rarest] - 1;
+        int sampled = 0;
+        for (int i = last; i >= 0 && last - i < CONTEXT_SCAN && sampled < CONTEXT_SAMPLE; i--) {
+            int[] termIds = docTerms[list[i]];
+            if (!containsAll(termIds, contextTerms)) {
+                continue;
+            }
+            sampled++;
+            for (int termId : termIds) {
+                if (Arrays.binarySearch(contextTerms, termId) < 0 && terms.get(termId).startsWith(prefix)) {
+                    counts.merge(termId, 1, Integer::sum);
+                }
+            }
+        }
+        List<Integer> found = new ArrayList<>(counts.keySet());
+        found.sort((a, b) -> {
+            int byCount = Integer.compare(counts.get(b), counts.get(a));
+            return byCount != 0 ? byCount : better(a, b) ? -1 : 1;
+        });
+        List<String> result = new ArrayList<>(Math.min(limit, found.size()));
+        for (int i = 0; i < found.size() && result.size() < limit; i++) {
+            result.add(phrase + terms.get(found.get(i)));
+        }
+        return result;
+    }
+
+    private static boolean containsAll(int[] sorted, int[] required) {
+        for (int termId : required) {
+            if (Arrays.binarySearch(sorted, termId) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Node find(String word) {
+        Node node = root;
+        for (int i = 0; i < word.length() && node != null; i++) {
+            node = node.child(word.charAt(i));
+        }
+        return node;
+    }
+
+    private int termId(String token) {
+        Node node = root;
+        for (int i = 0; i < token.length(); i++) {
+            node = node.childOrCreate(token.charAt(i));
+        }
+        if (node.termId < 0) {
+            node.termId = terms.size();
+            terms.add(token);
+            if (node.termId == postings.length) {
+                postings = Arrays.copyOf(postings, postings.length * 2);
+                postingSizes = Arrays.copyOf(postingSizes, postingSizes.length * 2);
+            }
+            postings[node.termId] = NO_INTS;
+        }
+        return node.termId;
+    }
+
+    private int addDoc(long adId, long userId, int[] termIds) {
+        if (docCount == docAdIds.length) {
+            int capacity = docAdIds.length * 2;
+            docAdIds = Arrays.copyOf(docAdIds, capacity);
+            docUserIds = Arrays.copyOf(docUserIds, capacity);
+            docTerms = Arrays.copyOf(docTerms, capacity);
+        }
+        int ordinal = docCount++;
+        docAdIds[ordinal] = adId;
+        docUserIds[ordinal] = userId;
+        docTerms[ordinal] = termIds;
+        ordinals.put(adId, ordinal);
+        liveDocs++;
+        return ordinal;
+    }
+
+    private void removeDoc(int ordinal, List<Integer> changed) {
+        for (int termId : docTerms[ordinal]) {
+            int size = postingSizes[termId];
+            int position = Arrays.binarySearch(postings[termId], 0, size, ordinal);
+            if (position >= 0) {
+                System.arraycopy(postings[termId], position + 1, postings[termId], position, size - position - 1);
+                postingSizes[termId] = size - 1;
+                changed.add(termId);
+            }
+        }
+        ordinals.remove(docAdIds[ordinal]);
+        docTerms[ordinal] = null;
+        liveDocs--;
+    }
+
+    private void append(int termId, int ordinal) {
+        int size = postingSizes[termId];
+        int[] list = postings[termId];
+        if (size == list.length) {
+            list = Arrays.copyOf(list, Math.max(4, size + (size >> 1)));
+            postings[termId] = list;
+        }
+        list[size] = ordinal;
+        postingSizes[termId] = size + 1;
+    }
+
+    /**
+     * Уплотнение номеров объявлений, когда удаленных номеров больше, чем действующих.
+     * Новые номера сохраняют порядок, поэтому массивы postings остаются отсортированными.
+     */
+    private void compactIfNeeded() {
+        int holes = docCount - liveDocs;
+        if (holes < MIN_COMPACTION_HOLES || holes < liveDocs) {
+            return;
+        }
+        int[] remap = new int[docCount];
+        int next = 0;
+        for (int ordinal = 0; ordinal < docCount; ordinal++) {
+            if (docTerms[ordinal] != null) {
+                remap[ordinal] = next;
+                docAdIds[next] = docAdIds[ordinal];
+                docUserIds[next] = docUserIds[ordinal];
+                docTerms[next] = docTerms[ordinal];
+                ordinals.put(docAdIds[next], next);
+                next++;
+            }
+        }
+        Arrays.fill(docTerms, next, docCount, null);
+        docCount = next;
+        for (int termId = 0; termId < terms.size(); termId++) {
+            int[] list = postings[termId];
+            int size = postingSizes[termId];
+            for (int i = 0; i < size; i++) {
+                list[i] = remap[list[i]];
+            }
+            if (list.length > 16 && size < list.length / 4) {
+                postings[termId] = size == 0 ? NO_INTS : Arrays.copyOf(list, size);
+            }
+        }
+    }
+
+    private void updateTop(List<Integer> changedTerms) {
+        if (bulkLoad || changedTerms.isEmpty()) {
+            return;
+        }
+        int[] distinct = changedTerms.stream().mapToInt(Integer::intValue).distinct().toArray();
+        Node[] path = new Node[MAX_TOKEN_LENGTH + 1];
+        for (int termId : distinct) {
+            String term = terms.get(termId);
+            path[0] = root;
+            for (int i = 0; i < term.length(); i++) {
+                path[i + 1] = path[i].child(term.charAt(i));
+            }
+            for (int depth = term.length(); depth >= 0; depth--) {
+                recomputeTop(path[depth]);
+            }
+        }
+    }
+
+    private void rebuildTop(Node node) {
+        for (Node child : node.children) {
+            rebuildTop(child);
+        }
+        recomputeTop(node);
+    }
+
+    /** Список частых слов узла из собственного слова и списков дочерних узлов. */
+    private void recomputeTop(Node node) {
+        int[] best = new int[candidates];
+        int size = 0;
+        if (node.termId >= 0 && postingSizes[node.termId] > 0) {
+            best[size++] = node.termId;
+        }
+        for (Node child : node.children) {
+            for (int termId : child.top) {
+                if (size == candidates && !better(termId, best[size - 1])) {
+                    break;
+                }
+                int position = size == candidates ? size - 1 : size++;
+                while (position > 0 && better(termId, best[position - 1])) {
+                    best[position] = best[position - 1];
+                    position--;
+                }
+                best[position] = termId;
+            }
+        }
+        node.top = size == 0 ? NO_INTS : Arrays.copyOf(best, size);
+    }
+
+    private boolean better(int termId, int other) {
+        int byCount = Integer.compare(postingSizes[termId], postingSizes[other]);
+        return byCount != 0 ? byCount > 0 : terms.get(termId).compareTo(terms.get(other)) < 0;
+    }
+
+    /** Узел префиксного дерева. */
+    private static final class Node {
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private int termId = -1;
+        private int[] top = NO_INTS;
+
+        private Node child(char key) {
+            int position = Arrays.binarySearch(keys, key);
+            return position >= 0 ? children[position] : null;
+        }
+
+        private Node childOrCreate(char key) {
+            int position = Arrays.binarySearch(keys, key);
+            if (position >= 0) {
+                return children[position];
+            }
+            int insert = -position - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insert);
+            System.arraycopy(children, 0, newChildren, 0, insert);
+            System.arraycopy(keys, insert, newKeys, insert + 1, keys.length - insert);
+            System.arraycopy(children, insert, newChildren, insert + 1, children.length - insert);
+            newKeys[insert] = key;
+            Node node = new Node();
+            newChildren[insert] = node;
+            keys = newKeys;
+            children = newChildren;
+            return node;
+        }
+    }
+}
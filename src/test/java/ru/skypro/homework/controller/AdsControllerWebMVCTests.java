@@ -12,15 +12,26 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.skypro.homework.dto.ads.Ad;
 import ru.skypro.homework.dto.ads.Ads;
 import ru.skypro.homework.dto.ads.CreateOrUpdateAd;
 import ru.skypro.homework.dto.ads.ExtendedAd;
+import ru.skypro.homework.dto.ads.Suggestions;
 import ru.skypro.homework.exceptions.ForbiddenException;
 import ru.skypro.homework.exceptions.NotFoundException;
+import ru.skypro.homework.dto.images.ImageInfo;
+import ru.skypro.homework.dto.images.ImageUpdateResponse;
+import ru.skypro.homework.service.AdSearchService;
 import ru.skypro.homework.service.AdService;
+import ru.skypro.homework.service.AdSuggestService;
+import ru.skypro.homework.service.ImageDeliveryService;
 import ru.skypro.homework.test_utils.AdsTestData;
+import ru.skypro.homework.utils.ImageUploadPolicy;
+
+import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -42,9 +53,24 @@ public class AdsControllerWebMVCTests {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private AdsController adsController;
+
     @MockBean
     private AdService adService;
 
+    @MockBean
+    private AdSearchService adSearchService;
+
+    @MockBean
+    private AdSuggestService adSuggestService;
+
+    @MockBean
+    private ImageDeliveryService imageDeliveryService;
+
+    @MockBean
+    private ImageUploadPolicy uploadPolicy;
+
     @Test
     @DisplayName("Успешное получение всех объявлений авторизованным пользователем")
     @WithMockUser
@@ -52,7 +78,7 @@ public class AdsControllerWebMVCTests {
         int count = 2;
         Ads mockAds = AdsTestData.createdAds(count);
 
-        when(adService.getAds(any(Authentication.class))).thenReturn(mockAds);
+        when(adService.getAds(any(), any(), any(), any(Authentication.class))).thenReturn(mockAds);
         mockMvc.perform(get("/ads"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
@@ -62,6 +88,18 @@ public class AdsControllerWebMVCTests {
                 .andExpect(jsonPath("$.results[1].price").value(AdsTestData.DEFAULT_PRICE + 1));
     }
 
+    @Test
+    @DisplayName("Подсказки для строки поиска")
+    @WithMockUser
+    void suggestAds_StatusOk() throws Exception {
+        when(adSuggestService.suggest(eq("вел"), eq(5), any(Authentication.class)))
+                .thenReturn(new Suggestions(2, List.of("велосипед", "велосипеды")));
+        mockMvc.perform(get("/ads/suggest").param("prefix", "вел").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.results[0]").value("велосипед"));
+    }
+
     @Test
     @DisplayName("Отказ в доступе неавторизованному пользователю")
     void getAllAds_Unauthorized() throws Exception {
@@ -246,12 +284,17 @@ public class AdsControllerWebMVCTests {
     void updateImage_Success() throws Exception {
         int id = AdsTestData.AD_ID_START;
 
-        byte[] mockImage = "new image content".getBytes();
+        ImageInfo mockInfo = ImageInfo.builder()
+                .url("/images/ads_images/new.png")
+                .size(7L)
+                .hash("abc")
+                .contentType(MediaType.IMAGE_PNG_VALUE)
+                .build();
         MockMultipartFile file = new MockMultipartFile(
                 "image", "test.png", MediaType.IMAGE_PNG_VALUE, "content".getBytes());
 
         when(adService.updateAdImage(any(), eq(Long.valueOf(id)), any()))
-                .thenReturn(mockImage);
+                .thenReturn(mockInfo);
         mockMvc.perform(multipart("/ads/{id}/image", id)
                         .file(file)
                         .with(request -> {
@@ -260,12 +303,51 @@ public class AdsControllerWebMVCTests {
                         })
                         .with(csrf()))
                 .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM_VALUE))
-                .andExpect(content().bytes(mockImage));
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.url").value(mockInfo.getUrl()))
+                .andExpect(jsonPath("$.size").value(7))
+                .andExpect(jsonPath("$.hash").value("abc"));
 
         verify(adService).updateAdImage(any(), eq(Long.valueOf(id)), any());
     }
 
+    @Test
+    @DisplayName("Успешное потоковое обновление картинки (200)")
+    @WithMockUser
+    void uploadImage_Success() throws Exception {
+        int id = AdsTestData.AD_ID_START;
+        ImageInfo mockInfo = ImageInfo.builder().url("/images/ads_images/new.png").build();
 
-}
+        when(adService.uploadAdImage(any(), eq(Long.valueOf(id)), any())).thenReturn(mockInfo);
+        mockMvc.perform(put("/ads/{id}/image", id)
+                        .contentType(MediaType.IMAGE_PNG)
+                        .content("content".getBytes())
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.url").value(mockInfo.getUrl()));
 
+        verify(uploadPolicy).checkDeclaredSize("content".length());
+        verify(adService).uploadAdImage(any(), eq(Long.valueOf(id)), any());
+    }
+
+    @Test
+    @DisplayName("Формат ответа bytes: сохраненный файл не найден (404)")
+    @WithMockUser
+    void uploadImage_BytesFileMissing() throws Exception {
+        int id = AdsTestData.AD_ID_START;
+        ImageInfo mockInfo = ImageInfo.builder().url("/images/ads_images/new.png").build();
+
+        when(adService.uploadAdImage(any(), eq(Long.valueOf(id)), any())).thenReturn(mockInfo);
+        when(imageDeliveryService.findImage("ads_images/new.png")).thenReturn(Optional.empty());
+        ReflectionTestUtils.setField(adsController, "updateResponse", ImageUpdateResponse.BYTES);
+        try {
+            mockMvc.perform(put("/ads/{id}/image", id)
+                            .contentType(MediaType.IMAGE_PNG)
+                            .content("content".getBytes())
+                            .with(csrf()))
+                    .andExpect(status().isNotFound());
+        } finally {
+            ReflectionTestUtils.setField(adsController, "updateResponse", ImageUpdateResponse.METADATA);
+        }
+    }
+}
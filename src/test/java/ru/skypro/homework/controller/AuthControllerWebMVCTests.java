@@ -12,8 +12,11 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.skypro.homework.config.WebSecurityConfig;
 import ru.skypro.homework.controller.AuthController;
+import ru.skypro.homework.security.TokenProvider;
+import ru.skypro.homework.security.TokenRevocationList;
 import ru.skypro.homework.dto.Login;
 import ru.skypro.homework.dto.Register;
+import ru.skypro.homework.dto.Token;
 import ru.skypro.homework.service.AuthService;
 import ru.skypro.homework.test_utils.AuthTestsData;
 
@@ -22,11 +25,12 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
 @WebMvcTest(AuthController.class)
-@Import(WebSecurityConfig.class)
+@Import({WebSecurityConfig.class, TokenProvider.class, TokenRevocationList.class})
 @ActiveProfiles("test")
 public class AuthControllerWebMVCTests {
     @Autowired
@@ -45,13 +49,16 @@ public class AuthControllerWebMVCTests {
         login.setUsername(AuthTestsData.DEFAULT_USERNAME);
         login.setPassword(AuthTestsData.DEFAULT_PASSWORD);
 
-        doNothing().when(authService).login(anyString(), anyString());
+        when(authService.login(anyString(), anyString()))
+                .thenReturn(new Token("access", "refresh", "Bearer", 900L));
 
         mockMvc.perform(post("/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(login))
                         .with(csrf()))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").value("access"))
+                .andExpect(jsonPath("$.tokenType").value("Bearer"));
 
         verify(authService).login(eq(login.getUsername()), eq(login.getPassword()));
     }
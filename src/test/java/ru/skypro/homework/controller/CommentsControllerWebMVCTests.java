@@ -22,6 +22,7 @@ import ru.skypro.homework.test_utils.CommentsTestsData;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -52,7 +53,7 @@ public class CommentsControllerWebMVCTests {
 
         Long adId = AdsTestData.AD_ID_START.longValue();
 
-        when(commentService.getAllCommentsAd(eq(adId), any(Authentication.class)))
+        when(commentService.getAllCommentsAd(eq(adId), isNull(), isNull(), any(Authentication.class)))
                 .thenReturn(mockComments);
         mockMvc.perform(get("/ads/{id}/comments", AdsTestData.AD_ID_START))
                 .andExpect(status().isOk())
@@ -66,7 +67,7 @@ public class CommentsControllerWebMVCTests {
     void getComments_NotFound() throws Exception {
         Long adId = 999L;
 
-        when(commentService.getAllCommentsAd(eq(adId), any(Authentication.class)))
+        when(commentService.getAllCommentsAd(eq(adId), isNull(), isNull(), any(Authentication.class)))
                 .thenThrow(new NotFoundException("Ad not found"));
         mockMvc.perform(get("/ads/{id}/comments", 999))
                 .andExpect(status().isNotFound());
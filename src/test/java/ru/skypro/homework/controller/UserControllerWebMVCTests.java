@@ -17,6 +17,7 @@ import ru.skypro.homework.dto.users.User;
 import ru.skypro.homework.exceptions.ForbiddenException;
 import ru.skypro.homework.service.UserService;
 import ru.skypro.homework.test_utils.UserTestsData;
+import ru.skypro.homework.utils.ImageUploadPolicy;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -36,6 +37,9 @@ public class UserControllerWebMVCTests {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private ImageUploadPolicy uploadPolicy;
+
 
     @Test
     @DisplayName("Успешное получение профиля (200)")
@@ -184,4 +188,19 @@ public class UserControllerWebMVCTests {
         verify(userService).updateAuthUserImage(any(), any());
     }
 
+    @Test
+    @DisplayName("Успешное потоковое обновление аватара (200)")
+    @WithMockUser
+    void uploadUserImage_Success() throws Exception {
+
+        mockMvc.perform(put("/users/me/image")
+                        .contentType(MediaType.IMAGE_PNG)
+                        .content("test image content".getBytes())
+                        .with(csrf()))
+                .andExpect(status().isOk());
+
+        verify(uploadPolicy).checkDeclaredSize("test image content".length());
+        verify(userService).uploadAuthUserImage(any(), any());
+    }
+
 }
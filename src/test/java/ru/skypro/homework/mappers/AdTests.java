@@ -11,6 +11,7 @@ import ru.skypro.homework.dto.ads.Ad;
 import ru.skypro.homework.dto.ads.Ads;
 import ru.skypro.homework.dto.ads.CreateOrUpdateAd;
 import ru.skypro.homework.dto.ads.ExtendedAd;
+import ru.skypro.homework.dto.images.ImageVariant;
 import ru.skypro.homework.entities.AdEntity;
 import ru.skypro.homework.entities.UserEntity;
 import ru.skypro.homework.test_utils.TestData;
@@ -81,6 +82,9 @@ public class AdTests {
         assertThat(adDto.getPk()).isEqualTo(adEntity.getId().intValue());
         assertThat(adDto.getAuthor()).isEqualTo(userEntity.getId().intValue());
         assertThat(adDto.getImage()).isEqualTo(testBaseUrl + adEntity.getAdImage());
+        assertThat(adDto.getImageVariants()).containsOnlyKeys("thumb", "card", "full");
+        assertThat(adDto.getImageVariants().get("thumb"))
+                .isEqualTo(testBaseUrl + ImageVariant.THUMB.pathOf(adEntity.getAdImage()));
         assertThat(adDto.getPrice()).isEqualTo(adEntity.getPrice());
         assertThat(adDto.getTitle()).isEqualTo(adEntity.getTitle());
     }
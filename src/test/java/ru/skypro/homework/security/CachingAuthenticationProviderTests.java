@@ -0,0 +1,98 @@
+package ru.skypro.homework.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingAuthenticationProviderTests {
+
+    private static final String LOGIN = "user@mail.com";
+    private static final String PASSWORD = "password";
+    private static final String HASH = "hash";
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private CredentialsCache credentialsCache;
+    private CachingAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        credentialsCache = new CredentialsCache();
+        ReflectionTestUtils.setField(credentialsCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(credentialsCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.invokeMethod(credentialsCache, "init");
+        provider = new CachingAuthenticationProvider(userDetailsService, passwordEncoder, credentialsCache);
+    }
+
+    private void mockUser() {
+        when(userDetailsService.loadUserByUsername(LOGIN))
+                .thenReturn(User.withUsername(LOGIN).password(HASH).roles("USER").build());
+    }
+
+    @Test
+    @DisplayName("Повторная аутентификация обслуживается из кэша без BCrypt и БД")
+    void authenticate_SecondCallFromCache() {
+        mockUser();
+        when(passwordEncoder.matches(PASSWORD, HASH)).thenReturn(true);
+
+        Authentication first = provider.authenticate(new UsernamePasswordAuthenticationToken(LOGIN, PASSWORD));
+        Authentication second = provider.authenticate(new UsernamePasswordAuthenticationToken(LOGIN, PASSWORD));
+
+        assertThat(first.isAuthenticated()).isTrue();
+        assertThat(second.isAuthenticated()).isTrue();
+        assertThat(second.getName()).isEqualTo(LOGIN);
+        assertThat(second.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+        verify(userDetailsService, times(1)).loadUserByUsername(LOGIN);
+        verify(passwordEncoder, times(1)).matches(PASSWORD, HASH);
+        assertThat(credentialsCache.getMetric().getHitCount()).isEqualTo(1);
+        assertThat(credentialsCache.getMetric().getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Неверный пароль не кэшируется")
+    void authenticate_WrongPasswordNotCached() {
+        mockUser();
+        when(passwordEncoder.matches(anyString(), eq(HASH))).thenReturn(false);
+
+        assertThrows(BadCredentialsException.class,
+                () -> provider.authenticate(new UsernamePasswordAuthenticationToken(LOGIN, "wrong")));
+        assertThrows(BadCredentialsException.class,
+                () -> provider.authenticate(new UsernamePasswordAuthenticationToken(LOGIN, "wrong")));
+
+        verify(passwordEncoder, times(2)).matches("wrong", HASH);
+        assertThat(credentialsCache.getMetric().getSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("Сброс кэша пользователя требует повторной проверки пароля")
+    void evictUser_ForcesVerification() {
+        mockUser();
+        when(passwordEncoder.matches(PASSWORD, HASH)).thenReturn(true);
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken(LOGIN, PASSWORD));
+        credentialsCache.evictUser(LOGIN);
+        provider.authenticate(new UsernamePasswordAuthenticationToken(LOGIN, PASSWORD));
+
+        verify(passwordEncoder, times(2)).matches(PASSWORD, HASH);
+    }
+}
@@ -36,6 +36,7 @@ public class MyUserDetailsServiceTests {
     @DisplayName("Успешная загрузка UserDetails")
     void loadUser_Success() {
         UserEntity user = new UserEntity();
+        user.setId(7L);
         user.setUserName("test@mail.com");
 
         AuthEntity auth = new AuthEntity();
@@ -49,6 +50,8 @@ public class MyUserDetailsServiceTests {
 
         assertThat(result.getUsername()).isEqualTo("test@mail.com");
         assertThat(result.getPassword()).isEqualTo("hash");
+        assertThat(((AppUserPrincipal) result).getId()).isEqualTo(7L);
+        assertThat(result.getAuthorities()).extracting("authority").containsExactly(Role.USER.getRole());
     }
 
 
@@ -15,6 +15,7 @@ import ru.skypro.homework.exceptions.UnauthorizedException;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -29,10 +30,11 @@ public class SecurityServiceTests {
 
     @Mock
     private Authentication authentication;
+    @Mock
+    private CurrentUser currentUser;
 
-    private final String ADMIN_MAIL = "admin@mail.com";
-    private final String AUTHOR_MAIL = "author@mail.com";
-    private final String OUTSIDER_MAIL = "other@mail.com";
+    private final Long AUTHOR_ID = 1L;
+    private final Long OUTSIDER_ID = 2L;
 
 
     @Test
@@ -62,32 +64,30 @@ public class SecurityServiceTests {
     @DisplayName("checkEdit: ДА для автора")
     void checkEdit_SuccessForAuthor() {
         when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn(AUTHOR_MAIL);
+        when(currentUser.findId(authentication)).thenReturn(Optional.of(AUTHOR_ID));
 
-        assertDoesNotThrow(() -> accessService.checkEdit(authentication, AUTHOR_MAIL));
+        assertDoesNotThrow(() -> accessService.checkEdit(authentication, AUTHOR_ID));
     }
 
     @Test
     @DisplayName("checkEdit: ДА для админа (админ - не автор)")
     void checkEdit_SuccessForAdmin() {
         when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn(ADMIN_MAIL);
-
         when(authentication.getAuthorities()).thenReturn((List)
                 List.of(new SimpleGrantedAuthority(Role.ADMIN.getRole())));
 
-        assertDoesNotThrow(() -> accessService.checkEdit(authentication, AUTHOR_MAIL));
+        assertDoesNotThrow(() -> accessService.checkEdit(authentication, AUTHOR_ID));
     }
 
     @Test
     @DisplayName("checkEdit: НЕТ для не-автора и не-админа")
     void checkEdit_ThrowsForbidden() {
         when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn(OUTSIDER_MAIL);
+        when(currentUser.findId(authentication)).thenReturn(Optional.of(OUTSIDER_ID));
         when(authentication.getAuthorities()).thenReturn(Collections.emptyList());
 
         assertThrows(ForbiddenException.class, () -> accessService
-                .checkEdit(authentication, AUTHOR_MAIL));
+                .checkEdit(authentication, AUTHOR_ID));
     }
 
     @Test
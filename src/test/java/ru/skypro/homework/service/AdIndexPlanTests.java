@@ -0,0 +1,107 @@
+package ru.skypro.homework.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.skypro.homework.entities.AdEntity;
+import ru.skypro.homework.entities.UserEntity;
+import ru.skypro.homework.repository.AdsRepository;
+import ru.skypro.homework.repository.AuthRepository;
+import ru.skypro.homework.repository.CommentRepository;
+import ru.skypro.homework.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Планы запросов фильтров списка объявлений (H2, {@code EXPLAIN}): диапазон цены
+ * и автор выбираются по составным индексам, порядок выдачи берется из индекса.
+ *
+ * <p>Запросы повторяют SQL, который Hibernate строит по {@link ru.skypro.homework.repository.AdSpecifications}.</p>
+ */
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AdIndexPlanTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private AdsRepository adsRepository;
+    @Autowired
+    private AuthRepository authRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long authorId;
+
+    @BeforeEach
+    void setUp() {
+        commentRepository.deleteAll();
+        adsRepository.deleteAll();
+        authRepository.deleteAll();
+        userRepository.deleteAll();
+
+        List<AdEntity> ads = new ArrayList<>();
+        for (int u = 0; u < 20; u++) {
+            UserEntity user = new UserEntity();
+            user.setUserName("plan" + u + "@mail.com");
+            user.setFirstName("Ivan");
+            user.setLastName("Ivanov");
+            user.setPhone("+79991234567");
+            user = userRepository.save(user);
+            authorId = user.getId();
+            for (int i = 0; i < 50; i++) {
+                AdEntity ad = new AdEntity();
+                ad.setTitle("Ad " + i);
+                ad.setDescription("Description of ad " + i);
+                ad.setPrice(i * 100 + u);
+                ad.setUser(user);
+                ads.add(ad);
+            }
+        }
+        adsRepository.saveAll(ads);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class)).toLowerCase();
+    }
+
+    @Test
+    @DisplayName("Диапазон цены по возрастанию - индекс (price, id) без сортировки")
+    void priceRange_UsesPriceIndex() {
+        String plan = explain("select a.id from ads a where a.price >= 100 and a.price <= 500 " +
+                "order by a.price asc, a.id asc limit 21");
+
+        assertThat(plan).contains("idx_ads_price_id").contains("index sorted");
+    }
+
+    @Test
+    @DisplayName("Следующая страница по убыванию цены - диапазон индекса (price, id)")
+    void priceKeyset_UsesPriceIndex() {
+        String plan = explain("select a.id from ads a where a.price <= 3000 " +
+                "and a.price <= 2000 and (a.price < 2000 or a.id < 500) " +
+                "order by a.price desc, a.id desc limit 21");
+
+        // H2 не читает индекс в обратном порядке, PostgreSQL обходит его с конца без сортировки
+        assertThat(plan).contains("idx_ads_price_id: price <= 3000");
+    }
+
+    @Test
+    @DisplayName("Следующая страница объявлений автора - индекс (user_id, id) по обеим колонкам")
+    void authorKeyset_UsesAuthorIndex() {
+        String plan = explain("select a.id from ads a where a.user_id = " + authorId +
+                " and a.id < 100000 order by a.id desc limit 21");
+
+        assertThat(plan).containsPattern("idx_ads_user_id_id: user_id = .*\\n?\\s*and id < ");
+    }
+}
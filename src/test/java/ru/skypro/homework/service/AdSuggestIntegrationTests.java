@@ -0,0 +1,145 @@
+package ru.skypro.homework.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import ru.skypro.homework.dto.ads.CreateOrUpdateAd;
+import ru.skypro.homework.entities.AdEntity;
+import ru.skypro.homework.entities.UserEntity;
+import ru.skypro.homework.events.EntityChangedEvent;
+import ru.skypro.homework.events.InvalidationTransport;
+import ru.skypro.homework.exceptions.BadRequestException;
+import ru.skypro.homework.repository.AdsRepository;
+import ru.skypro.homework.repository.AuthRepository;
+import ru.skypro.homework.repository.CommentRepository;
+import ru.skypro.homework.repository.UserRepository;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Индекс подсказок: построение по таблице {@code ads} и обновление по событиям
+ * изменения и удаления объявлений после фиксации транзакции, повторное построение
+ * по сигналу массовой загрузки.
+ */
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AdSuggestIntegrationTests {
+
+    @Autowired
+    private AdSuggestService adSuggestService;
+    @Autowired
+    private AdService adService;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private AdsRepository adsRepository;
+    @Autowired
+    private AuthRepository authRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private InvalidationTransport transport;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @MockBean
+    private FileCleanupService fileCleanupService;
+
+    private UserEntity owner;
+    private final Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+            "suggest@mail.com", null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        commentRepository.deleteAll();
+        adsRepository.deleteAll();
+        authRepository.deleteAll();
+        userRepository.deleteAll();
+
+        UserEntity user = new UserEntity();
+        user.setUserName("suggest@mail.com");
+        user.setFirstName("Ivan");
+        user.setLastName("Ivanov");
+        user.setPhone("+79991234567");
+        owner = userRepository.save(user);
+        saveAd("Квадрокоптер складной", "Камера 4K");
+        saveAd("Квадроцикл детский", "Аккумулятор на 2 часа");
+        saveAd("Квадрокоптер гоночный", "Без камеры");
+
+        while (!adSuggestService.rebuild()) {
+            Thread.sleep(50);
+        }
+    }
+
+    private AdEntity saveAd(String title, String description) {
+        AdEntity ad = new AdEntity();
+        ad.setTitle(title);
+        ad.setDescription(description);
+        ad.setPrice(1000);
+        ad.setUser(owner);
+        return adsRepository.save(ad);
+    }
+
+    private List<String> suggest(String prefix) {
+        return adSuggestService.suggest(prefix, null, authentication).getResults();
+    }
+
+    @Test
+    @DisplayName("Индекс строится по таблице объявлений")
+    void rebuild_IndexesAds() {
+        assertThat(suggest("Квадр")).containsExactly("квадрокоптер", "квадроцикл");
+        assertThat(suggest("квадрокоптер кам")).containsExactly("квадрокоптер камера", "квадрокоптер камеры");
+        assertThat(adSuggestService.suggest("квадр", 1, authentication).getCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Изменение и удаление объявления применяются после фиксации")
+    void onEntityChanged_UpdatesIndex() {
+        AdEntity ad = saveAd("Палатка", "Четырехместная");
+        assertThat(suggest("палат")).isEmpty();
+
+        CreateOrUpdateAd update = new CreateOrUpdateAd();
+        update.setTitle("Палатка туристическая");
+        update.setDescription("Четырехместная, с тамбуром");
+        update.setPrice(5000);
+        adService.updateSingleAd(ad.getId(), update, authentication);
+        assertThat(suggest("палат")).containsExactly("палатка");
+        assertThat(suggest("тамб")).containsExactly("тамбуром");
+
+        adService.deleteSimpleAd(ad.getId(), authentication);
+        assertThat(suggest("палат")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Массовая загрузка на другом экземпляре перестраивает индекс в фоне")
+    void remoteAdsImported_RebuildsIndex() throws Exception {
+        saveAd("Палатка", "Загружена на другом экземпляре");
+        assertThat(suggest("палат")).isEmpty();
+
+        transport.send(objectMapper.writeValueAsString(
+                Map.of("node", "other-node", "event", EntityChangedEvent.adsImported())));
+
+        for (int i = 0; i < 50 && suggest("палат").isEmpty(); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(suggest("палат")).containsExactly("палатка");
+    }
+
+    @Test
+    @DisplayName("Пустая строка подсказок - 400")
+    void suggest_BlankPrefix() {
+        assertThrows(BadRequestException.class, () -> adSuggestService.suggest(" ", null, authentication));
+    }
+}
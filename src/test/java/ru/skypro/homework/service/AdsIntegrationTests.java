@@ -20,6 +20,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -31,14 +32,17 @@ import ru.skypro.homework.dto.ads.CreateOrUpdateAd;
 import ru.skypro.homework.dto.comments.CreateOrUpdateComment;
 import ru.skypro.homework.entities.AdEntity;
 import ru.skypro.homework.entities.AuthEntity;
+import ru.skypro.homework.entities.FileCleanupTaskEntity;
 import ru.skypro.homework.entities.UserEntity;
 import ru.skypro.homework.repository.AdsRepository;
 import ru.skypro.homework.repository.AuthRepository;
+import ru.skypro.homework.repository.FileCleanupQueueRepository;
 import ru.skypro.homework.repository.UserRepository;
 import ru.skypro.homework.service.impl.AdServiceImpl;
 import ru.skypro.homework.service.impl.ImageServiceImpl;
 import ru.skypro.homework.test_utils.AdsTestData;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 
 @SpringBootTest
@@ -68,6 +72,9 @@ public class AdsIntegrationTests {
     @Autowired
     private AdServiceImpl adService;
 
+    @Autowired
+    private FileCleanupQueueRepository queueRepository;
+
 
     private UserEntity testUser;
 
@@ -115,6 +122,154 @@ public class AdsIntegrationTests {
     }
 
 
+    @Test
+    @DisplayName("Интеграционный тест: постраничная выдача объявлений по курсору")
+    @WithMockUser(username = "author@mail.com")
+    void shouldPageAdsByCursor() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            AdEntity ad = new AdEntity();
+            ad.setTitle("Paged ad " + i);
+            ad.setPrice(100 + i);
+            ad.setDescription("Paged description " + i);
+            ad.setUser(testUser);
+            adsRepository.save(ad);
+        }
+
+        String firstPage = mockMvc.perform(get("/ads").param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(5))
+                .andExpect(jsonPath("$.results.length()").value(3))
+                .andExpect(jsonPath("$.results[0].title").value("Paged ad 4"))
+                .andExpect(jsonPath("$.next").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String next = objectMapper.readTree(firstPage).get("next").asText();
+
+        mockMvc.perform(get("/ads").param("size", "3").param("cursor", next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(2))
+                .andExpect(jsonPath("$.results[0].title").value("Paged ad 1"))
+                .andExpect(jsonPath("$.next").doesNotExist());
+
+        mockMvc.perform(get("/ads").param("cursor", "not a cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Интеграционный тест: фильтр по цене и автору, сортировка по цене с курсором")
+    @WithMockUser(username = "author@mail.com")
+    void shouldFilterAndSortAds() throws Exception {
+        UserEntity other = new UserEntity();
+        other.setUserName("other@mail.com");
+        other.setFirstName("Petr");
+        other.setLastName("Petrov");
+        other.setPhone("+799912345679");
+        other = userRepository.save(other);
+        int[] prices = {3000, 1000, 5000, 1000, 7000};
+        for (int i = 0; i < prices.length; i++) {
+            AdEntity ad = new AdEntity();
+            ad.setTitle("Filtered ad " + i);
+            ad.setPrice(prices[i]);
+            ad.setDescription("Filtered description " + i);
+            ad.setUser(i == 4 ? other : testUser);
+            adsRepository.save(ad);
+        }
+
+        String firstPage = mockMvc.perform(get("/ads").param("maxPrice", "5000")
+                        .param("sort", "price_asc").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(4))
+                .andExpect(jsonPath("$.results[0].title").value("Filtered ad 1"))
+                .andExpect(jsonPath("$.results[1].title").value("Filtered ad 3"))
+                .andReturn().getResponse().getContentAsString();
+        String next = objectMapper.readTree(firstPage).get("next").asText();
+
+        mockMvc.perform(get("/ads").param("maxPrice", "5000")
+                        .param("sort", "price_asc").param("size", "2").param("cursor", next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(2))
+                .andExpect(jsonPath("$.results[0].price").value(3000))
+                .andExpect(jsonPath("$.results[1].price").value(5000))
+                .andExpect(jsonPath("$.next").doesNotExist());
+
+        mockMvc.perform(get("/ads").param("minPrice", "2000").param("sort", "PRICE_DESC"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(3))
+                .andExpect(jsonPath("$.results[0].price").value(7000))
+                .andExpect(jsonPath("$.results[2].price").value(3000));
+
+        mockMvc.perform(get("/ads").param("authorId", other.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(1))
+                .andExpect(jsonPath("$.results[0].title").value("Filtered ad 4"));
+
+        mockMvc.perform(get("/ads").param("sort", "cheapest"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/ads").param("minPrice", "10").param("maxPrice", "1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/ads").param("sort", "price_asc").param("cursor", next.substring(0, 2)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Интеграционный тест: поиск объявлений по тексту и цене с курсором")
+    @WithMockUser(username = "author@mail.com")
+    void shouldSearchAdsByTextAndPrice() throws Exception {
+        String[][] ads = {
+                {"Велосипед горный", "Почти новый", "15000"},
+                {"Самокат", "Отдам вместе с велосипедом", "3000"},
+                {"Велосипед детский", "Колеса 16 дюймов", "4000"},
+                {"Диван", "Раскладной, 100% хлопок", "20000"}
+        };
+        for (String[] data : ads) {
+            AdEntity ad = new AdEntity();
+            ad.setTitle(data[0]);
+            ad.setDescription(data[1]);
+            ad.setPrice(Integer.parseInt(data[2]));
+            ad.setUser(testUser);
+            adsRepository.save(ad);
+        }
+
+        String firstPage = mockMvc.perform(get("/ads/search").param("q", "ВЕЛОСИПЕД").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(3))
+                .andExpect(jsonPath("$.results.length()").value(2))
+                .andExpect(jsonPath("$.results[0].title").value("Велосипед детский"))
+                .andExpect(jsonPath("$.next").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String next = objectMapper.readTree(firstPage).get("next").asText();
+
+        mockMvc.perform(get("/ads/search").param("q", "велосипед").param("size", "2").param("cursor", next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").doesNotExist())
+                .andExpect(jsonPath("$.results.length()").value(1))
+                .andExpect(jsonPath("$.results[0].title").value("Велосипед горный"))
+                .andExpect(jsonPath("$.next").doesNotExist());
+
+        mockMvc.perform(get("/ads/search").param("q", "велосипед")
+                        .param("minPrice", "3500").param("maxPrice", "10000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(1))
+                .andExpect(jsonPath("$.results[0].title").value("Велосипед детский"));
+
+        mockMvc.perform(get("/ads/search").param("q", "0%"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(1))
+                .andExpect(jsonPath("$.results[0].title").value("Диван"));
+    }
+
+    @Test
+    @DisplayName("Интеграционный тест: поиск с некорректными параметрами (400)")
+    @WithMockUser(username = "author@mail.com")
+    void shouldRejectInvalidSearch() throws Exception {
+        mockMvc.perform(get("/ads/search").param("q", "   "))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/ads/search").param("q", "ad")
+                        .param("minPrice", "200").param("maxPrice", "100"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/ads/search").param("q", "ad").param("cursor", "not a cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Интеграционный тест: удаление объявления (204)")
     @WithMockUser(username = "author@mail.com")
@@ -240,6 +395,31 @@ public class AdsIntegrationTests {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("AdService: параллельная загрузка картинки - на удаление ставится фактически замененный файл")
+    @WithMockUser(username = "author@mail.com")
+    void uploadAdImage_ConcurrentUploadReplacesLatest() {
+        AdEntity ad = new AdEntity();
+        ad.setTitle("Image Test Ad");
+        ad.setPrice(100);
+        ad.setDescription("Description longer than 8 chars");
+        ad.setUser(testUser);
+        ad.setAdImage("ads_images/old_image.png");
+        Long id = adsRepository.save(ad).getId();
+        when(imageService.storeAdImage(any(), anyLong())).thenAnswer(invocation -> {
+            adsRepository.replaceAdImage(id, "ads_images/old_image.png", "ads_images/concurrent_image.png");
+            return "ads_images/new_image.png";
+        });
+
+        adService.uploadAdImage(new ByteArrayInputStream("content".getBytes()), id,
+                SecurityContextHolder.getContext().getAuthentication());
+
+        assertThat(adsRepository.findImageById(id).orElseThrow().getImage()).isEqualTo("ads_images/new_image.png");
+        assertThat(queueRepository.findAll()).extracting(FileCleanupTaskEntity::getPath)
+                .contains("ads_images/concurrent_image.png")
+                .doesNotContain("ads_images/old_image.png", "ads_images/new_image.png");
+    }
+
     @Test
     @DisplayName("AdService: 404 при обновлении картинки несуществующего объявления")
     @WithMockUser
@@ -3,25 +3,37 @@ package ru.skypro.homework.service;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import ru.skypro.homework.dto.Register;
 import ru.skypro.homework.dto.Role;
+import ru.skypro.homework.dto.Token;
+import ru.skypro.homework.entities.AuthEntity;
 import ru.skypro.homework.entities.UserEntity;
 import ru.skypro.homework.exceptions.BadRequestException;
 import ru.skypro.homework.exceptions.UnauthorizedException;
 import ru.skypro.homework.repository.AuthRepository;
 import ru.skypro.homework.repository.UserRepository;
+import ru.skypro.homework.security.TokenRevocationList;
 import ru.skypro.homework.service.impl.AuthServiceImpl;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
 @SpringBootTest
+@AutoConfigureMockMvc
 @ActiveProfiles("test")
 @Transactional
 public class AuthIntegrationTests {
@@ -38,6 +50,12 @@ public class AuthIntegrationTests {
     @Autowired
     private PasswordEncoder encoder;
 
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
     @Test
     @DisplayName("Успешная регистрация и логин")
     void registerAndLogin_Success() {
@@ -92,4 +110,64 @@ public class AuthIntegrationTests {
         authService.register(register);
         assertThrows(UnauthorizedException.class, () -> authService.login("test@mail.com", "wrong_pass"));
     }
+
+    @Test
+    @DisplayName("Доступ по токену без Basic Auth, обновление и отзыв токенов")
+    void tokenAccess_RevokedAfterPasswordChange() throws Exception {
+        Register register = new Register();
+        register.setUsername("token@mail.com");
+        register.setPassword("password123");
+        register.setFirstName("Ivan");
+        register.setPhone("+79991234567");
+        register.setRole(Role.USER);
+        authService.register(register);
+
+        Token token = authService.login("token@mail.com", "password123");
+        assertThat(token.getTokenType()).isEqualTo("Bearer");
+
+        mockMvc.perform(get("/users/me")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token.getAccessToken()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("token@mail.com"));
+
+        mockMvc.perform(get("/users/me")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token.getRefreshToken()))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(post("/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + token.getRefreshToken() + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").isNotEmpty());
+
+        Long userId = userRepository.findByUserName("token@mail.com").orElseThrow().getId();
+        revocationList.revoke(userId);
+
+        mockMvc.perform(get("/users/me")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token.getAccessToken()))
+                .andExpect(status().isUnauthorized());
+        assertThrows(UnauthorizedException.class, () -> authService.refresh(token.getRefreshToken()));
+    }
+
+    @Test
+    @DisplayName("Токен обновления недействителен после смены пароля без события отзыва")
+    void refresh_RejectedAfterPasswordChangeWithoutRevocation() {
+        Register register = new Register();
+        register.setUsername("fingerprint@mail.com");
+        register.setPassword("password123");
+        register.setFirstName("Ivan");
+        register.setPhone("+79991234567");
+        register.setRole(Role.USER);
+        authService.register(register);
+        Token token = authService.login("fingerprint@mail.com", "password123");
+        assertThat(authService.refresh(token.getRefreshToken()).getRefreshToken()).isNotEmpty();
+
+        AuthEntity auth = authRepository.findByUser_UserName("fingerprint@mail.com").orElseThrow();
+        auth.setPassword(encoder.encode("changed456"));
+        authRepository.save(auth);
+
+        assertThrows(UnauthorizedException.class, () -> authService.refresh(token.getRefreshToken()));
+        assertThat(authService.refresh(authService.login("fingerprint@mail.com", "changed456").getRefreshToken())
+                .getAccessToken()).isNotEmpty();
+    }
 }
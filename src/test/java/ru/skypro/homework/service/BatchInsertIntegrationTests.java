@@ -0,0 +1,148 @@
+package ru.skypro.homework.service;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.skypro.homework.entities.AdEntity;
+import ru.skypro.homework.entities.CommentEntity;
+import ru.skypro.homework.entities.UserEntity;
+import ru.skypro.homework.repository.AdsRepository;
+import ru.skypro.homework.repository.AuthRepository;
+import ru.skypro.homework.repository.CommentRepository;
+import ru.skypro.homework.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Пакетная вставка сущностей: идентификаторы выдаются последовательностью блоками
+ * (pooled-lo), поэтому INSERT объединяются в пакеты JDBC.
+ *
+ * <p>Сравнение с построчной вставкой (как при {@code IDENTITY}) запускается
+ * с параметром {@code -Dbenchmark=true}.</p>
+ */
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BatchInsertIntegrationTests {
+
+    private static final int COMMENTS = 120;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AuthRepository authRepository;
+    @Autowired
+    private AdsRepository adsRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UserEntity user;
+    private AdEntity ad;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        commentRepository.deleteAll();
+        adsRepository.deleteAll();
+        authRepository.deleteAll();
+        userRepository.deleteAll();
+
+        user = new UserEntity();
+        user.setUserName("batch@mail.com");
+        user.setFirstName("Ivan");
+        user.setLastName("Ivanov");
+        user.setPhone("+79991234567");
+        user = userRepository.save(user);
+
+        ad = new AdEntity();
+        ad.setTitle("Ad with comments");
+        ad.setDescription("Description of ad with comments");
+        ad.setPrice(100);
+        ad.setUser(user);
+        ad = adsRepository.save(ad);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private List<CommentEntity> comments(int count) {
+        List<CommentEntity> comments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CommentEntity comment = new CommentEntity();
+            comment.setText("Comment " + i);
+            comment.setAd(ad);
+            comment.setUser(user);
+            comment.setCreatedAt(170000000000L + i);
+            comments.add(comment);
+        }
+        return comments;
+    }
+
+    private long insert(int count, Integer batchSize) {
+        List<CommentEntity> comments = comments(count);
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            commentRepository.saveAll(comments);
+        });
+        return System.nanoTime() - start;
+    }
+
+    @Test
+    @DisplayName("Вставка комментариев - пакетами, id из последовательности блоками")
+    void saveAll_Batched() {
+        insert(COMMENTS, null);
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(COMMENTS);
+        // 3 пакета INSERT по 50 и не более 3 обращений к последовательности
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+        assertThat(commentRepository.findAll()).extracting(CommentEntity::getId)
+                .doesNotHaveDuplicates()
+                .hasSize(COMMENTS);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Сравнение: пакетная и построчная вставка")
+    void saveAll_BatchedVersusSingleRow() {
+        int count = 5000;
+        int rounds = 5;
+        long batched = Long.MAX_VALUE;
+        long singleRow = Long.MAX_VALUE;
+        long batchedStatements = 0;
+        long singleRowStatements = 0;
+        for (int i = 0; i < rounds; i++) {
+            commentRepository.deleteAllInBatch();
+            statistics.clear();
+            singleRow = Math.min(singleRow, insert(count, 1));
+            singleRowStatements = statistics.getPrepareStatementCount();
+            commentRepository.deleteAllInBatch();
+            statistics.clear();
+            batched = Math.min(batched, insert(count, null));
+            batchedStatements = statistics.getPrepareStatementCount();
+        }
+        // Встроенная H2 не тратит время на сетевой обмен, выигрыш по времени виден на PostgreSQL
+        System.out.printf("Insert %d comments: single row %d ms / %d statements, batched %d ms / %d statements%n",
+                count, singleRow / 1_000_000, singleRowStatements, batched / 1_000_000, batchedStatements);
+        assertThat(batchedStatements).isLessThan(singleRowStatements / 10);
+    }
+}
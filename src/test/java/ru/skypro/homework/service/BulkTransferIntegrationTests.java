@@ -0,0 +1,289 @@
+package ru.skypro.homework.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import ru.skypro.homework.dto.Role;
+import ru.skypro.homework.dto.bulk.BulkFormat;
+import ru.skypro.homework.dto.jobs.Job;
+import ru.skypro.homework.dto.jobs.JobState;
+import ru.skypro.homework.dto.jobs.JobType;
+import ru.skypro.homework.entities.AdEntity;
+import ru.skypro.homework.entities.JobEntity;
+import ru.skypro.homework.entities.UserEntity;
+import ru.skypro.homework.events.InvalidationTransport;
+import ru.skypro.homework.exceptions.ForbiddenException;
+import ru.skypro.homework.repository.AdsRepository;
+import ru.skypro.homework.repository.AuthRepository;
+import ru.skypro.homework.repository.JobRepository;
+import ru.skypro.homework.test_utils.UserFixtures;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Массовый перенос: выгрузка и загрузка в NDJSON и CSV, загрузка фоновой задачей порциями
+ * (размер порции меньше числа записей), отклонение некорректных записей без прерывания загрузки,
+ * продолжение прерванной загрузки с первой незафиксированной порции.
+ */
+
+@SpringBootTest(properties = {"app.export.batch-size=2", "app.jobs.chunk-size=2"})
+@ActiveProfiles("test")
+public class BulkTransferIntegrationTests {
+
+    @Autowired
+    private UserFixtures userFixtures;
+    @Autowired
+    private BulkTransferService bulkTransferService;
+    @Autowired
+    private AdsRepository adsRepository;
+    @Autowired
+    private AuthRepository authRepository;
+    @Autowired
+    private JobRepository jobRepository;
+    @Autowired
+    private JobService jobService;
+    @Autowired
+    private InvalidationTransport transport;
+    @Value("${app.bulk.spool-dir}")
+    private String spoolDir;
+
+    private final Authentication admin = UsernamePasswordAuthenticationToken.authenticated(
+            "admin@mail.com", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    private final String passwordHash = new BCryptPasswordEncoder().encode("password");
+
+    private UserEntity adminUser;
+
+    @BeforeEach
+    void setUp() {
+        jobRepository.deleteAll();
+        userFixtures.deleteAll();
+        UserEntity owner = userFixtures.saveUser("owner@mail.com", Role.USER, passwordHash);
+        adminUser = userFixtures.saveUser("admin@mail.com", Role.ADMIN, passwordHash);
+        saveAd(owner, "Plain ad", "Plain description", 100);
+        saveAd(owner, "Quoted, \"ad\"", "Line one,\nline two", 200);
+        saveAd(owner, "Third ad", "Third description", 300);
+    }
+
+    private void saveAd(UserEntity owner, String title, String description, int price) {
+        AdEntity ad = new AdEntity();
+        ad.setTitle(title);
+        ad.setDescription(description);
+        ad.setPrice(price);
+        ad.setUser(owner);
+        adsRepository.save(ad);
+    }
+
+    private byte[] export(boolean ads, BulkFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        (ads ? bulkTransferService.exportAds(format, admin) : bulkTransferService.exportUsers(format, admin))
+                .writeTo(out);
+        return out.toByteArray();
+    }
+
+    private JobEntity importAds(String body, BulkFormat format) throws InterruptedException {
+        return await(bulkTransferService.importAds(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format, admin));
+    }
+
+    /** Ожидание завершения задачи загрузки. */
+    private JobEntity await(Job job) throws InterruptedException {
+        for (int i = 0; i < 100 && jobRepository.findById(job.getId()).orElseThrow().getState().isActive(); i++) {
+            Thread.sleep(50);
+        }
+        JobEntity finished = jobRepository.findById(job.getId()).orElseThrow();
+        assertThat(finished.getFinishedAt()).as("import finished").isNotNull();
+        return finished;
+    }
+
+    private List<String> adSnapshot() {
+        return adsRepository.findAll().stream()
+                .sorted(Comparator.comparing(AdEntity::getPrice))
+                .map(ad -> ad.getTitle() + "|" + ad.getDescription() + "|" + ad.getPrice())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Выгрузка и загрузка NDJSON и CSV восстанавливают пользователей и объявления")
+    void exportImport_RoundTrip() throws IOException, InterruptedException {
+        List<String> expectedAds = adSnapshot();
+        for (BulkFormat format : BulkFormat.values()) {
+            byte[] users = export(false, format);
+            byte[] ads = export(true, format);
+            userFixtures.deleteAll();
+            adminUser = userFixtures.saveUser("admin@mail.com", Role.ADMIN, passwordHash);
+
+            JobEntity usersJob = await(
+                    bulkTransferService.importUsers(new ByteArrayInputStream(users), format, admin));
+            JobEntity adsJob = await(
+                    bulkTransferService.importAds(new ByteArrayInputStream(ads), format, admin));
+
+            assertThat(usersJob.getState()).isEqualTo(JobState.COMPLETED);
+            assertThat(usersJob.getProcessed()).isEqualTo(2);
+            assertThat(usersJob.getFailed()).as("existing admin rejected").isEqualTo(1);
+            assertThat(adsJob.getState()).isEqualTo(JobState.COMPLETED);
+            assertThat(adsJob.getProcessed()).isEqualTo(3);
+            assertThat(adsJob.getFailed()).isZero();
+            assertThat(adsJob.getError()).isNull();
+            assertThat(adSnapshot()).as(format.name()).isEqualTo(expectedAds);
+            assertThat(authRepository.findByUser_UserName("owner@mail.com").orElseThrow().getPassword())
+                    .isEqualTo(passwordHash);
+        }
+    }
+
+    @Test
+    @DisplayName("Некорректные записи NDJSON отклоняются с номером строки, остальные загружаются")
+    void importAds_ReportsMalformedLines() throws InterruptedException {
+        String body = String.join("\n",
+                "{\"author\":\"owner@mail.com\",\"title\":\"Good ad 1\",\"description\":\"Good description\",\"price\":1}",
+                "{\"author\":\"owner@mail.com\",\"title\":",
+                "",
+                "{\"author\":\"owner@mail.com\",\"title\":\"No\",\"description\":\"Good description\",\"price\":1}",
+                "{\"author\":\"ghost@mail.com\",\"title\":\"Good ad 2\",\"description\":\"Good description\",\"price\":1}",
+                "{\"author\":\"owner@mail.com\",\"title\":\"Good ad 3\",\"description\":\"Good description\",\"price\":\"x\"}",
+                "{\"author\":\"owner@mail.com\",\"title\":\"Good ad 4\",\"description\":\"Good description\",\"price\":4}");
+
+        JobEntity job = importAds(body, BulkFormat.NDJSON);
+
+        assertThat(job.getState()).isEqualTo(JobState.COMPLETED);
+        assertThat(job.getProcessed()).isEqualTo(6);
+        assertThat(job.getFailed()).isEqualTo(4);
+        assertThat(job.getError())
+                .startsWith("line 2: Malformed record; line 4: title")
+                .contains("line 5: User not found")
+                .endsWith("line 6: Malformed record: price");
+        assertThat(adsRepository.count()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("CSV: колонки по заголовку, незакрытая кавычка и лишние поля отклоняются")
+    void importAds_Csv() throws InterruptedException {
+        String body = "price,title,description,author\r\n"
+                + "10,CSV ad 1,\"Text, with comma\",owner@mail.com\r\n"
+                + "20,CSV ad 2,Text,owner@mail.com,extra\r\n"
+                + "30,CSV ad 3,\"Text without end,owner@mail.com\r\n";
+
+        JobEntity job = importAds(body, BulkFormat.CSV);
+
+        assertThat(job.getProcessed()).isEqualTo(3);
+        assertThat(job.getFailed()).isEqualTo(2);
+        assertThat(job.getError()).startsWith("line 3: Malformed record; line 4: ");
+        assertThat(adSnapshot()).contains("CSV ad 1|Text, with comma|10");
+    }
+
+    @Test
+    @DisplayName("Существующие и повторяющиеся логины отклоняются")
+    void importUsers_RejectsDuplicates() throws InterruptedException {
+        String line = "{\"email\":\"%s\",\"firstName\":\"Petr\",\"phone\":\"+79997654321\",\"passwordHash\":\"%s\"}";
+        String body = String.join("\n",
+                String.format(line, "owner@mail.com", passwordHash),
+                String.format(line, "new@mail.com", passwordHash),
+                String.format(line, "new@mail.com", passwordHash),
+                String.format(line, "plain@mail.com", "password"));
+
+        JobEntity job = await(bulkTransferService.importUsers(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), BulkFormat.NDJSON, admin));
+
+        assertThat(job.getProcessed()).isEqualTo(4);
+        assertThat(job.getFailed()).isEqualTo(3);
+        assertThat(job.getError()).startsWith("line 1: User already exists; line 3: User already exists; line 4: ");
+        assertThat(authRepository.findByUser_UserName("new@mail.com").orElseThrow().getRole()).isEqualTo(Role.USER);
+    }
+
+    @Test
+    @DisplayName("Каждая сохраненная порция объявлений рассылает сигнал перестроения индекса подсказок")
+    void importAds_PublishesSignalPerChunk() throws InterruptedException {
+        List<String> received = new CopyOnWriteArrayList<>();
+        transport.subscribe(received::add);
+        String line = "{\"author\":\"owner@mail.com\",\"title\":\"Imported %d\",\"description\":\"Good description\",\"price\":1}";
+        String body = String.join("\n", String.format(line, 1), String.format(line, 2), String.format(line, 3));
+
+        importAds(body, BulkFormat.NDJSON);
+
+        assertThat(received).filteredOn(payload -> payload.contains("\"ADS_IMPORTED\"")).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Загрузка ставится фоновой задачей администратора, файл тела удаляется после выполнения")
+    void importAds_JobAndSpoolRemoved() throws IOException, InterruptedException {
+        Job job = bulkTransferService.importAds(new ByteArrayInputStream(
+                "{\"author\":\"owner@mail.com\",\"title\":\"Queued ad\",\"description\":\"Good description\",\"price\":5}"
+                        .getBytes(StandardCharsets.UTF_8)), BulkFormat.NDJSON, admin);
+
+        assertThat(job.getType()).isEqualTo(JobType.IMPORT_ADS);
+        assertThat(job.getTargetId()).isEqualTo(adminUser.getId());
+        assertThat(job.getCreatedBy()).isEqualTo("admin@mail.com");
+        JobEntity finished = await(job);
+        assertThat(finished.getState()).isEqualTo(JobState.COMPLETED);
+        assertThat(finished.getProcessed()).isEqualTo(1);
+        assertThat(jobService.getJob(job.getId(), admin).getFailed()).isZero();
+        try (Stream<Path> spooled = Files.list(Path.of(spoolDir))) {
+            assertThat(spooled).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Прерванная загрузка продолжается с первой незафиксированной порции")
+    void importAds_ResumesAfterProcessedRecords() throws IOException {
+        String line = "{\"author\":\"owner@mail.com\",\"title\":\"Resumed %d\",\"description\":\"Good description\",\"price\":%d}";
+        LocalDateTime now = LocalDateTime.now();
+        JobEntity interrupted = jobRepository.save(JobEntity.builder()
+                .type(JobType.IMPORT_ADS)
+                .targetId(adminUser.getId())
+                .state(JobState.RUNNING)
+                .processed(2)
+                .attempts(1)
+                .leaseUntil(now.minusSeconds(1))
+                .createdBy("admin@mail.com")
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        Files.writeString(Path.of(spoolDir).resolve("import-" + interrupted.getId() + ".ndjson"),
+                String.join("\n", String.format(line, 1, 1001), String.format(line, 2, 1002),
+                        String.format(line, 3, 1003), String.format(line, 4, 1004)),
+                StandardCharsets.UTF_8);
+
+        assertThat(jobService.process(interrupted.getId())).isTrue();
+
+        JobEntity finished = jobRepository.findById(interrupted.getId()).orElseThrow();
+        assertThat(finished.getState()).isEqualTo(JobState.COMPLETED);
+        assertThat(finished.getProcessed()).isEqualTo(4);
+        assertThat(adSnapshot()).filteredOn(ad -> ad.startsWith("Resumed"))
+                .containsExactly("Resumed 3|Good description|1003", "Resumed 4|Good description|1004");
+        try (Stream<Path> spooled = Files.list(Path.of(spoolDir))) {
+            assertThat(spooled).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Перенос доступен только администратору")
+    void bulk_AdminOnly() {
+        Authentication user = UsernamePasswordAuthenticationToken.authenticated(
+                "owner@mail.com", null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        assertThrows(ForbiddenException.class, () -> bulkTransferService.exportAds(BulkFormat.CSV, user));
+        assertThrows(ForbiddenException.class, () -> bulkTransferService.importAds(
+                new ByteArrayInputStream(new byte[0]), BulkFormat.NDJSON, user));
+        assertThat(jobRepository.count()).isZero();
+    }
+}
@@ -0,0 +1,142 @@
+package ru.skypro.homework.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import ru.skypro.homework.dto.Role;
+import ru.skypro.homework.dto.ads.CreateOrUpdateAd;
+import ru.skypro.homework.entities.AdEntity;
+import ru.skypro.homework.entities.UserEntity;
+import ru.skypro.homework.events.CacheInvalidationListener;
+import ru.skypro.homework.events.EntityChangedEvent;
+import ru.skypro.homework.events.InvalidationTransport;
+import ru.skypro.homework.events.LocalInvalidationTransport;
+import ru.skypro.homework.repository.AdsRepository;
+import ru.skypro.homework.repository.AuthRepository;
+import ru.skypro.homework.repository.CommentRepository;
+import ru.skypro.homework.repository.UserRepository;
+import ru.skypro.homework.security.TokenClaims;
+import ru.skypro.homework.security.TokenRevocationList;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сброс кэшей между экземплярами приложения через канал {@link InvalidationTransport}
+ * (в тестах - {@link LocalInvalidationTransport}; другой экземпляр имитируется
+ * сообщением с чужим идентификатором).
+ */
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CacheInvalidationIntegrationTests {
+
+    @Autowired
+    private AdService adService;
+    @Autowired
+    private AdsRepository adsRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private AuthRepository authRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private InvalidationTransport transport;
+    @Autowired
+    private CacheInvalidationListener invalidationListener;
+    @Autowired
+    private TokenRevocationList revocationList;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private AdEntity testAd;
+    private final Authentication owner = UsernamePasswordAuthenticationToken.authenticated(
+            "node-owner@mail.com", null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+    @BeforeEach
+    void setUp() {
+        commentRepository.deleteAll();
+        adsRepository.deleteAll();
+        authRepository.deleteAll();
+        userRepository.deleteAll();
+
+        UserEntity user = new UserEntity();
+        user.setUserName("node-owner@mail.com");
+        user.setFirstName("Ivan");
+        user.setLastName("Ivanov");
+        user.setPhone("+79991234567");
+        userRepository.save(user);
+
+        testAd = new AdEntity();
+        testAd.setTitle("Cached title");
+        testAd.setDescription("Description of cached ad");
+        testAd.setPrice(100);
+        testAd.setUser(user);
+        testAd = adsRepository.save(testAd);
+    }
+
+    private void sendFromOtherNode(EntityChangedEvent event) throws Exception {
+        transport.send(objectMapper.writeValueAsString(Map.of("node", "other-node", "event", event)));
+    }
+
+    @Test
+    @DisplayName("Изменение на другом экземпляре сбрасывает локальную запись кэша объявления")
+    void remoteAdChange_EvictsLocalCache() throws Exception {
+        adService.getAdInfo(testAd.getId(), owner);
+        testAd.setTitle("Changed elsewhere");
+        adsRepository.save(testAd);
+        assertThat(adService.getAdInfo(testAd.getId(), owner).getTitle()).isEqualTo("Cached title");
+
+        sendFromOtherNode(EntityChangedEvent.ad(testAd.getId()));
+
+        assertThat(adService.getAdInfo(testAd.getId(), owner).getTitle()).isEqualTo("Changed elsewhere");
+    }
+
+    @Test
+    @DisplayName("Изменение объявления рассылается после фиксации с идентификатором экземпляра")
+    void localAdChange_PublishedAfterCommit() throws Exception {
+        List<String> received = new CopyOnWriteArrayList<>();
+        transport.subscribe(received::add);
+
+        CreateOrUpdateAd update = new CreateOrUpdateAd();
+        update.setTitle("Updated title");
+        update.setDescription("Updated description of ad");
+        update.setPrice(200);
+        adService.updateSingleAd(testAd.getId(), update, owner);
+
+        assertThat(received).anySatisfy(payload -> {
+            Map<?, ?> message = objectMapper.readValue(payload, Map.class);
+            assertThat(message.get("node")).isEqualTo(invalidationListener.getNodeId());
+            assertThat(((Map<?, ?>) message.get("event")).get("type")).isEqualTo("AD_CHANGED");
+        });
+    }
+
+    @Test
+    @DisplayName("Смена пароля на другом экземпляре отзывает токены, выпущенные до нее")
+    void remoteCredentialsChange_RevokesTokens() throws Exception {
+        long changedAt = System.currentTimeMillis();
+        Long userId = testAd.getUser().getId();
+
+        sendFromOtherNode(EntityChangedEvent.user(
+                EntityChangedEvent.Type.USER_CREDENTIALS_CHANGED, userId, "node-owner@mail.com"));
+
+        assertThat(revocationList.isRevoked(claims(userId, changedAt - 1000))).isTrue();
+        assertThat(revocationList.isRevoked(claims(userId, changedAt + 60_000))).isFalse();
+    }
+
+    private static TokenClaims claims(Long userId, long issuedAt) {
+        return new TokenClaims(TokenClaims.Type.ACCESS, userId, "node-owner@mail.com",
+                Role.USER, issuedAt, issuedAt + 60_000, "");
+    }
+}
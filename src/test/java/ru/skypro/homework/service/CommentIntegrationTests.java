@@ -185,5 +185,51 @@ public class CommentIntegrationTests {
         assertThat(updated.getText()).isEqualTo("New Updated Comment Text");
     }
 
-}
+    @Test
+    @DisplayName("Постраничная выдача комментариев по курсору (created_time, id), включая равное время")
+    @WithMockUser(username = "commentator@mail.com")
+    void getComments_CursorPagination() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            CommentEntity comment = new CommentEntity();
+            comment.setText("Paged comment " + i);
+            comment.setUser(author);
+            comment.setAd(testAd);
+            comment.setCreatedAt(i < 3 ? 170000000000L : 170000000001L);
+            commentRepository.save(comment);
+        }
+
+        String first = mockMvc.perform(get("/ads/{id}/comments", testAd.getId()).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(5))
+                .andExpect(jsonPath("$.results.length()").value(2))
+                .andExpect(jsonPath("$.results[0].text").value("Paged comment 4"))
+                .andExpect(jsonPath("$.results[1].text").value("Paged comment 3"))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(first).get("next").asText();
 
+        String second = mockMvc.perform(get("/ads/{id}/comments", testAd.getId())
+                        .param("size", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").doesNotExist())
+                .andExpect(jsonPath("$.results[0].text").value("Paged comment 2"))
+                .andExpect(jsonPath("$.results[1].text").value("Paged comment 1"))
+                .andReturn().getResponse().getContentAsString();
+        cursor = objectMapper.readTree(second).get("next").asText();
+
+        mockMvc.perform(get("/ads/{id}/comments", testAd.getId())
+                        .param("size", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(1))
+                .andExpect(jsonPath("$.results[0].text").value("Paged comment 0"))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Некорректный курсор комментариев (400)")
+    @WithMockUser
+    void getComments_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/ads/{id}/comments", testAd.getId()).param("cursor", "%%%"))
+                .andExpect(status().isBadRequest());
+    }
+
+}
@@ -0,0 +1,116 @@
+package ru.skypro.homework.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.skypro.homework.repository.ImageBlobRepository;
+import ru.skypro.homework.service.impl.ContentAddressedImageServiceImpl;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.upload.storage=cas")
+@ActiveProfiles("test")
+public class ContentAddressedImageServiceTests {
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private ImageBlobRepository blobRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.upload.main-dir}")
+    private String mainDir;
+
+    private static byte[] png(String body) {
+        byte[] signature = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n',
+                0, 0, 0, 0x0D, 'I', 'H', 'D', 'R', 0, 0, 0, 1, 0, 0, 0, 1};
+        byte[] bytes = body.getBytes();
+        byte[] content = new byte[signature.length + bytes.length];
+        System.arraycopy(signature, 0, content, 0, signature.length);
+        System.arraycopy(bytes, 0, content, signature.length, bytes.length);
+        return content;
+    }
+
+    @BeforeEach
+    void setUp() {
+        blobRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Выбор контентно-адресуемого хранилища параметром app.upload.storage")
+    void shouldUseContentAddressedStorage() {
+        assertThat(imageService).isInstanceOf(ContentAddressedImageServiceImpl.class);
+    }
+
+    @Test
+    @DisplayName("Одинаковые изображения хранятся в одном файле с подсчетом ссылок")
+    void shouldDeduplicateAndCountReferences() {
+        MockMultipartFile file = new MockMultipartFile(
+                "image", "photo.png", "image/png", png("same-content"));
+
+        String first = imageService.saveAdImage(file, 1L);
+        String second = imageService.saveAvatarImage(file, 2L);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(first).matches("blobs/[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}\\.png");
+        Path physicalPath = Path.of(mainDir).resolve(first);
+        assertThat(Files.exists(physicalPath)).isTrue();
+        assertThat(blobRepository.findAll()).singleElement()
+                .satisfies(blob -> assertThat(blob.getRefCount()).isEqualTo(2));
+
+        imageService.deleteImage(first);
+        assertThat(Files.exists(physicalPath)).isTrue();
+
+        imageService.deleteImage(second);
+        assertThat(Files.exists(physicalPath)).isFalse();
+        assertThat(blobRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Разное содержимое сохраняется в разные файлы")
+    void shouldStoreDifferentContentSeparately() {
+        String first = imageService.saveAdImage(
+                new MockMultipartFile("image", "a.png", "image/png", png("content-a")), 1L);
+        String second = imageService.saveAdImage(
+                new MockMultipartFile("image", "b.png", "image/png", png("content-b")), 1L);
+
+        assertThat(second).isNotEqualTo(first);
+        assertThat(blobRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Откат транзакции вызывающего снимает добавленную ссылку")
+    void shouldReleaseReferenceOnCallerRollback() {
+        MockMultipartFile file = new MockMultipartFile(
+                "image", "photo.png", "image/png", png("rollback-content"));
+        String kept = imageService.saveAdImage(file, 1L);
+
+        String rolledBack = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return imageService.saveAdImage(file, 2L);
+        });
+        String unique = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return imageService.saveAdImage(
+                    new MockMultipartFile("image", "new.png", "image/png", png("rollback-unique")), 2L);
+        });
+
+        assertThat(rolledBack).isEqualTo(kept);
+        assertThat(blobRepository.findAll()).singleElement()
+                .satisfies(blob -> assertThat(blob.getRefCount()).isEqualTo(1));
+        assertThat(Files.exists(Path.of(mainDir).resolve(kept))).isTrue();
+        assertThat(Files.exists(Path.of(mainDir).resolve(unique))).isFalse();
+    }
+}
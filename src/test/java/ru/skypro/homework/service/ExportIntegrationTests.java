@@ -0,0 +1,148 @@
+package ru.skypro.homework.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.skypro.homework.entities.AdEntity;
+import ru.skypro.homework.entities.CommentEntity;
+import ru.skypro.homework.entities.UserEntity;
+import ru.skypro.homework.exceptions.ForbiddenException;
+import ru.skypro.homework.exceptions.NotFoundException;
+import ru.skypro.homework.repository.AdsRepository;
+import ru.skypro.homework.repository.CommentRepository;
+import ru.skypro.homework.test_utils.UserFixtures;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Потоковая выгрузка объявлений и комментариев: полный список одним курсорным запросом,
+ * порции меньше числа записей (контекст persistence очищается между порциями).
+ */
+
+@SpringBootTest(properties = "app.export.batch-size=3")
+@ActiveProfiles("test")
+public class ExportIntegrationTests {
+
+    private static final int ADS = 10;
+    private static final int COMMENTS = 7;
+
+    @Autowired
+    private UserFixtures userFixtures;
+    @Autowired
+    private ExportService exportService;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private AdsRepository adsRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Authentication admin = UsernamePasswordAuthenticationToken.authenticated(
+            "admin@mail.com", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    private final List<Long> adIds = new ArrayList<>();
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        userFixtures.deleteAll();
+        adIds.clear();
+
+        UserEntity owner = userFixtures.saveUser("owner@mail.com");
+        for (int i = 0; i < ADS; i++) {
+            AdEntity ad = new AdEntity();
+            ad.setTitle("Ad " + i);
+            ad.setDescription("Description of ad " + i);
+            ad.setPrice(i);
+            ad.setUser(owner);
+            adIds.add(adsRepository.save(ad).getId());
+        }
+        AdEntity commented = adsRepository.findById(adIds.get(0)).orElseThrow();
+        for (int i = 0; i < COMMENTS; i++) {
+            CommentEntity comment = new CommentEntity();
+            comment.setText("Comment " + i);
+            comment.setAd(commented);
+            comment.setUser(userFixtures.saveUser("commentator" + i + "@mail.com"));
+            comment.setCreatedAt(170000000000L + i);
+            commentRepository.save(comment);
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private JsonNode write(StreamingResponseBody body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return objectMapper.readTree(out.toByteArray());
+    }
+
+    @Test
+    @DisplayName("Выгрузка объявлений - все записи в порядке id одним запросом")
+    void exportAds_AllRowsSingleQuery() throws IOException {
+        StreamingResponseBody body = exportService.exportAds(admin);
+        statistics.clear();
+
+        JsonNode json = write(body);
+
+        assertThat(json.get("count").asInt()).isEqualTo(ADS);
+        List<Long> pks = new ArrayList<>();
+        json.get("results").forEach(ad -> pks.add(ad.get("pk").asLong()));
+        assertThat(pks).isEqualTo(adIds);
+        assertThat(json.get("results").get(0).get("title").asText()).isEqualTo("Ad 0");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Выгрузка комментариев - от новых к старым, авторы тем же запросом")
+    void exportComments_AllRowsSingleQuery() throws IOException {
+        StreamingResponseBody body = exportService.exportComments(adIds.get(0), admin);
+        statistics.clear();
+
+        JsonNode json = write(body);
+
+        assertThat(json.get("count").asInt()).isEqualTo(COMMENTS);
+        assertThat(json.get("results").get(0).get("text").asText()).isEqualTo("Comment " + (COMMENTS - 1));
+        json.get("results").forEach(c -> assertThat(c.get("authorFirstName").asText()).isEqualTo("Ivan"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Пустой список - пустой массив и нулевой count")
+    void exportComments_Empty() throws IOException {
+        JsonNode json = write(exportService.exportComments(adIds.get(1), admin));
+
+        assertThat(json.get("count").asInt()).isZero();
+        assertThat(json.get("results")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Выгрузка доступна только администратору, объявление должно существовать")
+    void export_Checks() {
+        Authentication user = UsernamePasswordAuthenticationToken.authenticated(
+                "owner@mail.com", null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+        assertThrows(ForbiddenException.class, () -> exportService.exportAds(user));
+        assertThrows(NotFoundException.class,
+                () -> exportService.exportComments(adIds.get(ADS - 1) + 1000, admin));
+    }
+}
@@ -0,0 +1,111 @@
+package ru.skypro.homework.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.skypro.homework.dto.metric.FileCleanupMetric;
+import ru.skypro.homework.entities.FileCleanupTaskEntity;
+import ru.skypro.homework.repository.FileCleanupQueueRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Очередь удаления файлов: файл удаляется только после фиксации транзакции,
+ * неудачное удаление откладывается для повторной попытки.
+ */
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class FileCleanupIntegrationTests {
+
+    @Autowired
+    private FileCleanupService fileCleanupService;
+    @Autowired
+    private FileCleanupQueueRepository queueRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.upload.main-dir}")
+    private String mainDir;
+    @Value("${app.upload.ads-dir}")
+    private String adsDir;
+
+    @BeforeEach
+    void setUp() {
+        queueRepository.deleteAllInBatch();
+    }
+
+    private String createFile(String name) throws IOException {
+        String imagePath = adsDir + "/" + name;
+        Path file = Path.of(mainDir).resolve(imagePath);
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[]{1, 2, 3});
+        return imagePath;
+    }
+
+    private void awaitEmptyQueue() throws InterruptedException {
+        for (int i = 0; i < 50 && queueRepository.count() > 0; i++) {
+            Thread.sleep(100);
+        }
+    }
+
+    @Test
+    @DisplayName("Файл удаляется после фиксации транзакции")
+    void enqueue_DeletedAfterCommit() throws Exception {
+        String imagePath = createFile("cleanup-commit.png");
+
+        transactionTemplate.executeWithoutResult(status -> fileCleanupService.enqueue(imagePath));
+        awaitEmptyQueue();
+
+        assertThat(queueRepository.count()).isZero();
+        assertThat(Files.exists(Path.of(mainDir).resolve(imagePath))).isFalse();
+    }
+
+    @Test
+    @DisplayName("При откате транзакции файл не удаляется")
+    void enqueue_KeptOnRollback() throws Exception {
+        String imagePath = createFile("cleanup-rollback.png");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            fileCleanupService.enqueue(imagePath);
+            status.setRollbackOnly();
+        });
+        Thread.sleep(300);
+
+        assertThat(queueRepository.count()).isZero();
+        assertThat(Files.exists(Path.of(mainDir).resolve(imagePath))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Ошибка удаления - попытка откладывается, задача остается в очереди")
+    void process_RescheduledOnFailure() throws Exception {
+        String directory = adsDir + "/cleanup-not-empty";
+        Files.createDirectories(Path.of(mainDir).resolve(directory));
+        createFile("cleanup-not-empty/child.png");
+        FileCleanupTaskEntity task = queueRepository.save(FileCleanupTaskEntity.builder()
+                .path(directory)
+                .attempts(0)
+                .nextAttemptAt(LocalDateTime.now().plusHours(1))
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        assertThat(fileCleanupService.process(task.getId())).isFalse();
+
+        FileCleanupTaskEntity retried = queueRepository.findById(task.getId()).orElseThrow();
+        assertThat(retried.getAttempts()).isEqualTo(1);
+        assertThat(retried.getNextAttemptAt()).isAfter(LocalDateTime.now());
+        FileCleanupMetric metric = fileCleanupService.getMetric();
+        assertThat(metric.getPending()).isEqualTo(1);
+        assertThat(metric.getFailed()).isZero();
+    }
+}
@@ -0,0 +1,134 @@
+package ru.skypro.homework.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ImageDeliveryIntegrationTests {
+
+    private static final String CONTENT = "0123456789abcdef";
+    private static final String IMAGE_PATH = "ads_images/delivery_test.png";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Value("${app.upload.main-dir}")
+    private String mainDir;
+    @Value("${app.upload.gc.quarantine-dir}")
+    private String quarantineDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path file = Path.of(mainDir).resolve(IMAGE_PATH);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, CONTENT, StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    @DisplayName("Отдача изображения со строгим ETag и поддержкой диапазонов")
+    void shouldServeImageWithEtag() throws Exception {
+        mockMvc.perform(get("/images/" + IMAGE_PATH))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, CONTENT.length()))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.ETAG, org.hamcrest.Matchers.startsWith("\"")))
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    @DisplayName("304 при совпадении If-None-Match")
+    void shouldReturnNotModified() throws Exception {
+        MvcResult first = mockMvc.perform(get("/images/" + IMAGE_PATH)).andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        MvcResult second = mockMvc.perform(get("/images/" + IMAGE_PATH).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andReturn();
+        assertThat(second.getResponse().getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("206 для одного диапазона и 416 для недопустимого")
+    void shouldServeRange() throws Exception {
+        mockMvc.perform(get("/images/" + IMAGE_PATH).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/" + CONTENT.length()))
+                .andExpect(content().string("2345"));
+
+        mockMvc.perform(get("/images/" + IMAGE_PATH).header(HttpHeaders.RANGE, "bytes=100-200"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + CONTENT.length()));
+    }
+
+    @Test
+    @DisplayName("Отсутствующая уменьшенная копия заменяется оригиналом")
+    void shouldFallbackToOriginalForMissingVariant() throws Exception {
+        mockMvc.perform(get("/images/ads_images/delivery_test_thumb.png"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    @DisplayName("404 для отсутствующего файла")
+    void shouldReturnNotFound() throws Exception {
+        mockMvc.perform(get("/images/ads_images/missing.png"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("404 для карантина сборщика, его контрольной точки и недописанных файлов")
+    void shouldNotServeHiddenFiles() throws Exception {
+        Path root = Path.of(mainDir);
+        Path quarantined = root.resolve(quarantineDir).resolve(IMAGE_PATH);
+        Files.createDirectories(quarantined.getParent());
+        Files.writeString(quarantined, CONTENT, StandardCharsets.US_ASCII);
+        Path checkpoint = root.resolve(quarantineDir).resolve(".checkpoint");
+        boolean checkpointExisted = Files.exists(checkpoint);
+        if (!checkpointExisted) {
+            Files.writeString(checkpoint, IMAGE_PATH, StandardCharsets.UTF_8);
+        }
+        Path upload = root.resolve("blobs/tmp/upload.png");
+        Files.createDirectories(upload.getParent());
+        Files.writeString(upload, CONTENT, StandardCharsets.US_ASCII);
+        Path dotfile = root.resolve("ads_images/.hidden.png");
+        Files.writeString(dotfile, CONTENT, StandardCharsets.US_ASCII);
+        try {
+            mockMvc.perform(get("/images/" + quarantineDir + "/" + IMAGE_PATH))
+                    .andExpect(status().isNotFound());
+            mockMvc.perform(get("/images/" + quarantineDir + "/.checkpoint"))
+                    .andExpect(status().isNotFound());
+            mockMvc.perform(get("/images/blobs/tmp/upload.png"))
+                    .andExpect(status().isNotFound());
+            mockMvc.perform(get("/images/ads_images/.hidden.png"))
+                    .andExpect(status().isNotFound());
+        } finally {
+            Files.delete(quarantined);
+            if (!checkpointExisted) {
+                Files.delete(checkpoint);
+            }
+            Files.delete(upload);
+            Files.delete(dotfile);
+        }
+    }
+}
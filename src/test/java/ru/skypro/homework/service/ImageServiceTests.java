@@ -10,21 +10,42 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.skypro.homework.dto.metric.ImageUploadMetric;
 import ru.skypro.homework.exceptions.BadRequestException;
 import ru.skypro.homework.service.impl.ImageServiceImpl;
+import ru.skypro.homework.utils.ImageStreamWriter;
+import ru.skypro.homework.utils.ImageUploadMetrics;
+import ru.skypro.homework.utils.ImageUploadPolicy;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
-@SpringBootTest(classes = ImageServiceImpl.class)
+@SpringBootTest(classes = {ImageServiceImpl.class, ImageUploadPolicy.class, ImageStreamWriter.class,
+        ImageUploadMetrics.class})
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
 public class ImageServiceTests {
 
+    private static final byte[] PNG_CONTENT = png(16, 16);
+
+    private static byte[] png(int width, int height) {
+        return ByteBuffer.allocate(24)
+                .put(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 0x0D})
+                .put("IHDR".getBytes())
+                .putInt(width)
+                .putInt(height)
+                .array();
+    }
+
     @Autowired
     private ImageServiceImpl imageService;
     @Value("${app.upload.ads-dir}")
@@ -36,6 +57,9 @@ public class ImageServiceTests {
     @Value("${app.upload.main-dir}")
     private String mainDir;
 
+    @Autowired
+    private ImageUploadMetrics uploadMetrics;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -43,7 +67,7 @@ public class ImageServiceTests {
     @DisplayName("Успешное сохранение и удаление изображения")
     void shouldSaveAndDeleteImage() throws IOException {
         MockMultipartFile file = new MockMultipartFile(
-                "image", "avatar.png", "image/png", "test-content".getBytes());
+                "image", "avatar.png", "image/png", PNG_CONTENT);
 
         String resultPath = imageService.saveAdImage(file, 1L);
         assertThat(resultPath).startsWith(adsDir + "/");
@@ -70,4 +94,72 @@ public class ImageServiceTests {
         assertThrows(BadRequestException.class, () -> imageService.saveAdImage(txtFile, 1L));
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Ошибка: содержимое не соответствует заявленному типу (400)")
+    void shouldThrowBadRequestWhenSignatureMismatch() {
+        MockMultipartFile file = new MockMultipartFile(
+                "image", "fake.png", "image/png", "not an image".getBytes());
+        assertThrows(BadRequestException.class, () -> imageService.saveAdImage(file, 1L));
+    }
+
+    @Test
+    @DisplayName("Ошибка: заголовок PNG без размеров изображения (400)")
+    void shouldThrowBadRequestWhenHeaderTruncated() {
+        byte[] signatureOnly = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 0x0D};
+        MockMultipartFile file = new MockMultipartFile(
+                "image", "broken.png", "image/png", signatureOnly);
+        assertThrows(BadRequestException.class, () -> imageService.saveAdImage(file, 1L));
+    }
+
+    @Test
+    @DisplayName("Ошибка: число пикселей превышает допустимое - отклоняется до декодирования (400)")
+    void shouldRejectDecompressionBomb() throws IOException {
+        long rejectedBefore = pngMetric().getRejected();
+
+        assertThrows(BadRequestException.class,
+                () -> imageService.storeAdImage(new ByteArrayInputStream(png(100_000, 100_000)), 1L));
+
+        assertThat(pngMetric().getRejected()).isEqualTo(rejectedBefore + 1);
+        try (Stream<Path> files = Files.list(Path.of(mainDir, adsDir))) {
+            assertThat(files.map(Path::toString)).noneMatch(name -> name.endsWith(".tmp"));
+        }
+    }
+
+    private ImageUploadMetric pngMetric() {
+        return uploadMetrics.getMetrics().stream()
+                .filter(m -> m.getFormat().equals("png"))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Потоковое сохранение: расширение по содержимому, без временных файлов")
+    void shouldStoreStreamWithDetectedExtension() throws IOException {
+        String resultPath = imageService.storeAvatarImage(new ByteArrayInputStream(PNG_CONTENT), 1L);
+
+        assertThat(resultPath).startsWith(avatarsDir + "/").endsWith(".png");
+        Path physicalPath = Path.of(mainDir).resolve(resultPath);
+        assertThat(Files.readAllBytes(physicalPath)).isEqualTo(PNG_CONTENT);
+        try (Stream<Path> files = Files.list(physicalPath.getParent())) {
+            assertThat(files.map(Path::toString)).noneMatch(name -> name.endsWith(".tmp"));
+        }
+        imageService.deleteImage(resultPath);
+    }
+
+    @Test
+    @DisplayName("Откат транзакции вызывающего удаляет сохраненный файл")
+    void shouldDeleteImageOnCallerRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        String resultPath;
+        try {
+            resultPath = imageService.storeAdImage(new ByteArrayInputStream(PNG_CONTENT), 1L);
+            assertThat(Files.exists(Path.of(mainDir).resolve(resultPath))).isTrue();
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(Files.exists(Path.of(mainDir).resolve(resultPath))).isFalse();
+    }
+}
@@ -0,0 +1,72 @@
+package ru.skypro.homework.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.skypro.homework.dto.images.ImageVariant;
+import ru.skypro.homework.service.impl.ImageVariantServiceImpl;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = ImageVariantServiceImpl.class)
+@ActiveProfiles("test")
+public class ImageVariantServiceTests {
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @Value("${app.upload.main-dir}")
+    private String mainDir;
+
+    private String createImage(String name, int width, int height) throws IOException {
+        String imagePath = "ads_images/" + name;
+        Path path = Path.of(mainDir).resolve(imagePath);
+        Files.createDirectories(path.getParent());
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", path.toFile());
+        return imagePath;
+    }
+
+    @Test
+    @DisplayName("Построение уменьшенных копий с сохранением пропорций")
+    void shouldGenerateVariants() throws IOException {
+        String imagePath = createImage("variants_large.png", 1600, 800);
+
+        imageVariantService.generate(imagePath);
+
+        BufferedImage thumb = ImageIO.read(Path.of(mainDir).resolve(ImageVariant.THUMB.pathOf(imagePath)).toFile());
+        BufferedImage card = ImageIO.read(Path.of(mainDir).resolve(ImageVariant.CARD.pathOf(imagePath)).toFile());
+        BufferedImage full = ImageIO.read(Path.of(mainDir).resolve(ImageVariant.FULL.pathOf(imagePath)).toFile());
+        assertThat(thumb.getWidth()).isEqualTo(200);
+        assertThat(thumb.getHeight()).isEqualTo(100);
+        assertThat(card.getWidth()).isEqualTo(480);
+        assertThat(full.getWidth()).isEqualTo(1280);
+    }
+
+    @Test
+    @DisplayName("Изображение меньше варианта не масштабируется")
+    void shouldSkipVariantsLargerThanOriginal() throws IOException {
+        String imagePath = createImage("variants_small.png", 300, 300);
+
+        imageVariantService.generate(imagePath);
+
+        assertThat(Files.exists(Path.of(mainDir).resolve(ImageVariant.THUMB.pathOf(imagePath)))).isTrue();
+        assertThat(Files.exists(Path.of(mainDir).resolve(ImageVariant.CARD.pathOf(imagePath)))).isFalse();
+        assertThat(Files.exists(Path.of(mainDir).resolve(ImageVariant.FULL.pathOf(imagePath)))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Путь к оригиналу по пути уменьшенной копии")
+    void shouldResolveOriginalOfVariant() {
+        assertThat(ImageVariant.originalOf("ads_images/1_abc_thumb.png")).contains("ads_images/1_abc.png");
+        assertThat(ImageVariant.originalOf("ads_images/1_abc.png")).isEmpty();
+    }
+}
@@ -0,0 +1,238 @@
+package ru.skypro.homework.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.skypro.homework.dto.Role;
+import ru.skypro.homework.dto.jobs.Job;
+import ru.skypro.homework.dto.jobs.JobState;
+import ru.skypro.homework.dto.jobs.JobType;
+import ru.skypro.homework.entities.AdEntity;
+import ru.skypro.homework.entities.CommentEntity;
+import ru.skypro.homework.entities.JobEntity;
+import ru.skypro.homework.entities.UserEntity;
+import ru.skypro.homework.exceptions.ForbiddenException;
+import ru.skypro.homework.exceptions.NotFoundException;
+import ru.skypro.homework.repository.AdsRepository;
+import ru.skypro.homework.repository.AuthRepository;
+import ru.skypro.homework.repository.CommentRepository;
+import ru.skypro.homework.repository.JobRepository;
+import ru.skypro.homework.repository.UserRepository;
+import ru.skypro.homework.test_utils.UserFixtures;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Фоновые задачи удаления пользователей: выполнение порциями (размер порции меньше
+ * числа записей), повторное использование незавершенной задачи (в том числе созданной
+ * параллельно), отмена задачи при откате запроса, продолжение задачи
+ * с истекшей арендой и завершение после исчерпания попыток.
+ */
+
+@SpringBootTest(properties = {"app.jobs.chunk-size=2", "app.jobs.max-attempts=3"})
+@ActiveProfiles("test")
+public class JobIntegrationTests {
+
+    @Autowired
+    private UserFixtures userFixtures;
+    @Autowired
+    private ManagementService managementService;
+    @Autowired
+    private JobService jobService;
+    @Autowired
+    private JobRepository jobRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private AdsRepository adsRepository;
+    @Autowired
+    private AuthRepository authRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Authentication admin = UsernamePasswordAuthenticationToken.authenticated(
+            "admin@mail.com", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+    private UserEntity seller;
+    private AdEntity otherAd;
+
+    @BeforeEach
+    void setUp() {
+        jobRepository.deleteAll();
+        userFixtures.deleteAll();
+
+        userFixtures.saveUser("admin@mail.com", Role.ADMIN);
+        UserEntity other = userFixtures.saveUser("other@mail.com", Role.USER);
+        seller = userFixtures.saveUser("seller@mail.com", Role.USER);
+        for (int i = 0; i < 5; i++) {
+            AdEntity ad = saveAd(seller, "Seller ad " + i);
+            saveComment(ad, other);
+        }
+        otherAd = saveAd(other, "Other ad");
+        saveComment(otherAd, seller);
+        saveComment(otherAd, seller);
+        saveComment(otherAd, other);
+    }
+
+    private AdEntity saveAd(UserEntity owner, String title) {
+        AdEntity ad = new AdEntity();
+        ad.setTitle(title);
+        ad.setDescription("Description of " + title);
+        ad.setPrice(100);
+        ad.setUser(owner);
+        return adsRepository.save(ad);
+    }
+
+    private void saveComment(AdEntity ad, UserEntity author) {
+        CommentEntity comment = new CommentEntity();
+        comment.setAd(ad);
+        comment.setUser(author);
+        comment.setText("Comment text");
+        comment.setCreatedAt(System.currentTimeMillis());
+        commentRepository.save(comment);
+    }
+
+    private JobEntity saveJob(JobType type, JobState state, int attempts, LocalDateTime leaseUntil) {
+        LocalDateTime now = LocalDateTime.now();
+        return jobRepository.save(JobEntity.builder()
+                .type(type)
+                .targetId(seller.getId())
+                .activeType(state.isActive() ? type : null)
+                .state(state)
+                .attempts(attempts)
+                .leaseUntil(leaseUntil)
+                .createdBy("admin@mail.com")
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+    }
+
+    private JobEntity awaitJob(Long jobId) throws InterruptedException {
+        for (int i = 0; i < 50 && jobRepository.findById(jobId).orElseThrow().getState().isActive(); i++) {
+            Thread.sleep(100);
+        }
+        return jobRepository.findById(jobId).orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Мягкое удаление: вход запрещен сразу, объявления удаляются задачей порциями")
+    void softDeleteUser_ChunkedJob() throws InterruptedException {
+        Job job = managementService.softDeleteUser(seller.getId(), admin);
+
+        assertThat(job.getType()).isEqualTo(JobType.SOFT_DELETE_USER);
+        assertThat(authRepository.existsById(seller.getId())).isFalse();
+        assertThat(userRepository.findById(seller.getId()).orElseThrow().getDeletedAt()).isNotNull();
+
+        JobEntity finished = awaitJob(job.getId());
+
+        assertThat(finished.getState()).isEqualTo(JobState.COMPLETED);
+        assertThat(finished.getProcessed()).isEqualTo(5);
+        assertThat(finished.getFinishedAt()).isNotNull();
+        assertThat(adsRepository.findAllByUser_Id(seller.getId())).isEmpty();
+        assertThat(commentRepository.count()).isEqualTo(3);
+        assertThat(jobService.getJob(job.getId(), admin).getState()).isEqualTo(JobState.COMPLETED);
+        assertThat(jobService.getJobs(admin).get(0).getId()).isEqualTo(job.getId());
+    }
+
+    @Test
+    @DisplayName("Повторный запрос удаления возвращает незавершенную задачу")
+    void hardDeleteUser_ReturnsActiveJob() {
+        JobEntity running = saveJob(JobType.HARD_DELETE_USER, JobState.RUNNING, 1,
+                LocalDateTime.now().plusHours(1));
+
+        Job job = managementService.hardDeleteUser(seller.getId(), admin);
+
+        assertThat(job.getId()).isEqualTo(running.getId());
+        assertThat(jobRepository.count()).isEqualTo(1);
+        assertThat(userRepository.findById(seller.getId())).isPresent();
+    }
+
+    @Test
+    @DisplayName("Две постановки задачи для одного пользователя получают одну задачу")
+    void submit_SameTargetReturnsSameJob() throws InterruptedException {
+        List<Job> jobs = transactionTemplate.execute(status -> List.of(
+                jobService.submit(JobType.SOFT_DELETE_USER, seller.getId(), "admin@mail.com"),
+                jobService.submit(JobType.SOFT_DELETE_USER, seller.getId(), "other-admin@mail.com")));
+
+        assertThat(jobs.get(1).getId()).isEqualTo(jobs.get(0).getId());
+        assertThat(jobRepository.count()).isEqualTo(1);
+        JobEntity finished = awaitJob(jobs.get(0).getId());
+        assertThat(finished.getState()).isEqualTo(JobState.COMPLETED);
+        assertThat(finished.getActiveType()).isNull();
+        assertThat(finished.getCreatedBy()).isEqualTo("admin@mail.com");
+    }
+
+    @Test
+    @DisplayName("Откат запроса, создавшего задачу, завершает ее; задачу можно создать заново")
+    void submit_RolledBackRequestCancelsJob() {
+        Job cancelled = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return jobService.submit(JobType.HARD_DELETE_USER, seller.getId(), "admin@mail.com");
+        });
+
+        JobEntity failed = jobRepository.findById(cancelled.getId()).orElseThrow();
+        assertThat(failed.getState()).isEqualTo(JobState.FAILED);
+        assertThat(failed.getActiveType()).isNull();
+        assertThat(adsRepository.findAllByUser_Id(seller.getId())).hasSize(5);
+
+        Job job = jobService.submit(JobType.HARD_DELETE_USER, seller.getId(), "admin@mail.com");
+        assertThat(job.getId()).isNotEqualTo(cancelled.getId());
+    }
+
+    @Test
+    @DisplayName("Задача с истекшей арендой продолжается: объявления, комментарии и пользователь удалены")
+    void process_ResumesExpiredLease() {
+        JobEntity interrupted = saveJob(JobType.HARD_DELETE_USER, JobState.RUNNING, 1,
+                LocalDateTime.now().minusSeconds(1));
+
+        assertThat(jobService.process(interrupted.getId())).isTrue();
+
+        JobEntity finished = jobRepository.findById(interrupted.getId()).orElseThrow();
+        assertThat(finished.getState()).isEqualTo(JobState.COMPLETED);
+        assertThat(finished.getAttempts()).isEqualTo(2);
+        assertThat(finished.getProcessed()).isEqualTo(7);
+        assertThat(userRepository.findById(seller.getId())).isEmpty();
+        assertThat(authRepository.existsById(seller.getId())).isFalse();
+        assertThat(adsRepository.findAll()).extracting(AdEntity::getId).containsExactly(otherAd.getId());
+        assertThat(commentRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Задача с действующей арендой не захватывается, после исчерпания попыток - FAILED")
+    void process_LeaseAndMaxAttempts() {
+        JobEntity leased = saveJob(JobType.SOFT_DELETE_USER, JobState.RUNNING, 1,
+                LocalDateTime.now().plusHours(1));
+        JobEntity exhausted = saveJob(JobType.HARD_DELETE_USER, JobState.RUNNING, 3,
+                LocalDateTime.now().minusSeconds(1));
+
+        assertThat(jobService.process(leased.getId())).isFalse();
+        assertThat(jobService.process(exhausted.getId())).isFalse();
+
+        assertThat(jobRepository.findById(leased.getId()).orElseThrow().getAttempts()).isEqualTo(1);
+        assertThat(jobRepository.findById(exhausted.getId()).orElseThrow().getState()).isEqualTo(JobState.FAILED);
+        assertThat(adsRepository.findAllByUser_Id(seller.getId())).hasSize(5);
+    }
+
+    @Test
+    @DisplayName("Состояние задачи доступно только администратору")
+    void getJob_Access() {
+        assertThrows(NotFoundException.class, () -> jobService.getJob(-1L, admin));
+
+        Authentication user = UsernamePasswordAuthenticationToken.authenticated(
+                "other@mail.com", null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        assertThrows(ForbiddenException.class, () -> jobService.getJobs(user));
+    }
+}
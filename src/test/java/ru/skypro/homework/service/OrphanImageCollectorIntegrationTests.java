@@ -0,0 +1,181 @@
+package ru.skypro.homework.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.skypro.homework.entities.AdEntity;
+import ru.skypro.homework.entities.UserEntity;
+import ru.skypro.homework.repository.AdsRepository;
+import ru.skypro.homework.repository.AuthRepository;
+import ru.skypro.homework.repository.CommentRepository;
+import ru.skypro.homework.repository.UserRepository;
+import ru.skypro.homework.service.impl.OrphanImageCollector;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сборщик файлов без ссылок: обход порциями с контрольной точкой (в том числе продолжение
+ * обхода новым экземпляром), перенос в карантин только старых файлов без ссылок в БД.
+ */
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class OrphanImageCollectorIntegrationTests {
+
+    @Autowired
+    private OrphanImageCollector collector;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private AdsRepository adsRepository;
+    @Autowired
+    private AuthRepository authRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.upload.main-dir}")
+    private String mainDir;
+    @Value("${app.upload.ads-dir}")
+    private String adsDir;
+    @Value("${app.upload.gc.quarantine-dir}")
+    private String quarantineDir;
+    @Value("${app.upload.blobs-dir}")
+    private String blobsDir;
+    @Value("${app.upload.gc.max-files-per-run}")
+    private int maxFilesPerRun;
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @BeforeEach
+    void setUp() {
+        commentRepository.deleteAll();
+        adsRepository.deleteAll();
+        authRepository.deleteAll();
+        userRepository.deleteAll();
+        collectPass();
+    }
+
+    private long collectPass() {
+        long reclaimed = 0;
+        for (int i = 0; i < 10_000; i++) {
+            OrphanImageCollector.Report report = collector.collect();
+            reclaimed += report.getReclaimedBytes();
+            if (report.isCompleted()) {
+                break;
+            }
+        }
+        return reclaimed;
+    }
+
+    private String createFile(String name, int size, boolean old) throws IOException {
+        String imagePath = adsDir + "/" + name;
+        Path file = Path.of(mainDir).resolve(imagePath);
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[size]);
+        if (old) {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(2, ChronoUnit.DAYS)));
+        }
+        return imagePath;
+    }
+
+    @Test
+    @DisplayName("Старые файлы без ссылок переносятся в карантин, остальные остаются")
+    void collect_QuarantinesOldOrphans() throws IOException {
+        String orphan = createFile("gc-orphan.png", 100, true);
+        String referenced = createFile("gc-referenced.png", 100, true);
+        String variant = createFile("gc-referenced_thumb.png", 10, true);
+        String fresh = createFile("gc-fresh.png", 100, false);
+
+        UserEntity user = new UserEntity();
+        user.setUserName("gc@mail.com");
+        user.setFirstName("Ivan");
+        user.setLastName("Ivanov");
+        user.setPhone("+79991234567");
+        user = userRepository.save(user);
+        AdEntity ad = new AdEntity();
+        ad.setTitle("Ad with image");
+        ad.setDescription("Description of ad with image");
+        ad.setPrice(100);
+        ad.setAdImage(referenced);
+        ad.setUser(user);
+        adsRepository.save(ad);
+
+        long reclaimed = collectPass();
+
+        Path root = Path.of(mainDir);
+        assertThat(reclaimed).isGreaterThanOrEqualTo(100);
+        assertThat(Files.exists(root.resolve(orphan))).isFalse();
+        assertThat(Files.exists(root.resolve(quarantineDir).resolve(orphan))).isTrue();
+        assertThat(Files.exists(root.resolve(referenced))).isTrue();
+        assertThat(Files.exists(root.resolve(variant))).isTrue();
+        assertThat(Files.exists(root.resolve(fresh))).isTrue();
+        assertThat(collector.getMetric().getCheckpoint()).isEmpty();
+    }
+
+    /** Пути файлов, которые обходит сборщик, в порядке обхода. */
+    private List<String> listFiles() throws IOException {
+        Path root = Path.of(mainDir).toAbsolutePath().normalize();
+        Path quarantine = root.resolve(quarantineDir);
+        Path temp = root.resolve(blobsDir).resolve("tmp");
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> !path.startsWith(quarantine) && !path.startsWith(temp))
+                    .map(path -> root.relativize(path).toString().replace('\\', '/'))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Обход, прерванный лимитом файлов, продолжается новым экземпляром с контрольной точки "
+            + "без повторов и пропусков")
+    void collect_ResumesFromCheckpoint() throws IOException {
+        List<String> orphans = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            orphans.add(createFile("gc-resume/orphan-" + i + ".png", 10, true));
+        }
+        List<String> expected = listFiles();
+        assertThat(expected).hasSizeGreaterThan(maxFilesPerRun);
+
+        OrphanImageCollector.Report first = collector.collect();
+        assertThat(first.isCompleted()).isFalse();
+        assertThat(first.getScanned()).isEqualTo(maxFilesPerRun);
+        List<String> checkpoints = new ArrayList<>(List.of(collector.getMetric().getCheckpoint()));
+
+        OrphanImageCollector restarted = beanFactory.createBean(OrphanImageCollector.class);
+        long scanned = first.getScanned();
+        OrphanImageCollector.Report report;
+        do {
+            report = restarted.collect();
+            scanned += report.getScanned();
+            checkpoints.add(restarted.getMetric().getCheckpoint());
+        } while (!report.isCompleted());
+
+        assertThat(scanned).isEqualTo(expected.size());
+        for (int run = 0; run < checkpoints.size() - 1; run++) {
+            assertThat(checkpoints.get(run)).isEqualTo(expected.get((run + 1) * maxFilesPerRun - 1));
+        }
+        assertThat(checkpoints.get(checkpoints.size() - 1)).isEmpty();
+        Path root = Path.of(mainDir);
+        for (String orphan : orphans) {
+            assertThat(Files.exists(root.resolve(orphan))).isFalse();
+            assertThat(Files.exists(root.resolve(quarantineDir).resolve(orphan))).isTrue();
+        }
+    }
+}
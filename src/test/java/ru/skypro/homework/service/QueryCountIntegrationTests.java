@@ -0,0 +1,247 @@
+package ru.skypro.homework.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import ru.skypro.homework.dto.ads.CreateOrUpdateAd;
+import ru.skypro.homework.dto.ads.ExtendedAd;
+import ru.skypro.homework.dto.comments.Comments;
+import ru.skypro.homework.dto.jobs.Job;
+import ru.skypro.homework.dto.jobs.JobState;
+import ru.skypro.homework.dto.users.UpdateUser;
+import ru.skypro.homework.entities.AdEntity;
+import ru.skypro.homework.entities.CommentEntity;
+import ru.skypro.homework.entities.JobEntity;
+import ru.skypro.homework.entities.UserEntity;
+import ru.skypro.homework.exceptions.NotFoundException;
+import ru.skypro.homework.repository.AdsRepository;
+import ru.skypro.homework.repository.CommentRepository;
+import ru.skypro.homework.repository.JobRepository;
+import ru.skypro.homework.repository.UserRepository;
+import ru.skypro.homework.test_utils.UserFixtures;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Число SQL-запросов на чтение карточки объявления и списка комментариев
+ * не зависит от числа комментариев и их авторов (статистика Hibernate).
+ * Повторное чтение карточки обслуживается кэшем до изменения объявления или автора.
+ * Удаление контента пользователя - постоянное число запросов на порцию независимо от ее размера
+ * (очередь удаления файлов заменена заглушкой).
+ */
+
+@SpringBootTest(properties = "app.jobs.chunk-size=20")
+@ActiveProfiles("test")
+public class QueryCountIntegrationTests {
+
+    private static final int COMMENTS = 10;
+
+    @Autowired
+    private UserFixtures userFixtures;
+    @Autowired
+    private AdService adService;
+    @Autowired
+    private CommentService commentService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ManagementService managementService;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private AdsRepository adsRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JobRepository jobRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @MockBean
+    private FileCleanupService fileCleanupService;
+
+    private AdEntity testAd;
+    private Statistics statistics;
+    private final Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+            "reader@mail.com", null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+    @BeforeEach
+    void setUp() {
+        userFixtures.deleteAll();
+
+        UserEntity owner = userFixtures.saveUser("owner@mail.com");
+        testAd = new AdEntity();
+        testAd.setTitle("Ad with comments");
+        testAd.setDescription("Description of ad with comments");
+        testAd.setPrice(100);
+        testAd.setUser(owner);
+        testAd = adsRepository.save(testAd);
+
+        for (int i = 0; i < COMMENTS; i++) {
+            CommentEntity comment = new CommentEntity();
+            comment.setText("Comment " + i);
+            comment.setAd(testAd);
+            comment.setUser(userFixtures.saveUser("commentator" + i + "@mail.com"));
+            comment.setCreatedAt(170000000000L + i);
+            commentRepository.save(comment);
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Карточка объявления: объявление и автор - один запрос")
+    void getAdInfo_SingleQuery() {
+        ExtendedAd ad = adService.getAdInfo(testAd.getId(), authentication);
+
+        assertThat(ad.getEmail()).isEqualTo("owner@mail.com");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Повторное чтение карточки объявления - из кэша, без запросов")
+    void getAdInfo_CachedWithoutQueries() {
+        adService.getAdInfo(testAd.getId(), authentication);
+        statistics.clear();
+
+        ExtendedAd ad = adService.getAdInfo(testAd.getId(), authentication);
+
+        assertThat(ad.getTitle()).isEqualTo("Ad with comments");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Кэш карточки сбрасывается при изменении объявления и профиля автора")
+    void getAdInfo_EvictedOnUpdates() {
+        Authentication owner = UsernamePasswordAuthenticationToken.authenticated(
+                "owner@mail.com", null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        adService.getAdInfo(testAd.getId(), authentication);
+
+        CreateOrUpdateAd update = new CreateOrUpdateAd();
+        update.setTitle("Updated title");
+        update.setDescription("Updated description of ad");
+        update.setPrice(200);
+        adService.updateSingleAd(testAd.getId(), update, owner);
+        assertThat(adService.getAdInfo(testAd.getId(), authentication).getTitle()).isEqualTo("Updated title");
+
+        UpdateUser updateUser = new UpdateUser();
+        updateUser.setFirstName("Petr");
+        updateUser.setLastName("Petrov");
+        updateUser.setPhone("+7 999 765-43-21");
+        userService.updateAuthUser(updateUser, owner);
+        assertThat(adService.getAdInfo(testAd.getId(), authentication).getAuthorFirstName()).isEqualTo("Petr");
+    }
+
+    @Test
+    @DisplayName("Список комментариев: комментарии и авторы - один запрос")
+    void getAllCommentsAd_SingleQuery() {
+        Comments comments = commentService.getAllCommentsAd(testAd.getId(), null, null, authentication);
+
+        assertThat(comments.getCount()).isEqualTo(COMMENTS);
+        assertThat(comments.getResults()).allMatch(c -> "Ivan".equals(c.getAuthorFirstName()));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Страница комментариев по курсору - один запрос, без подсчета количества")
+    void getAllCommentsAd_CursorPageNotCounted() {
+        Comments first = commentService.getAllCommentsAd(testAd.getId(), null, 4, authentication);
+        assertThat(first.getCount()).isEqualTo(COMMENTS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        statistics.clear();
+        Comments second = commentService.getAllCommentsAd(testAd.getId(), first.getNext(), 4, authentication);
+
+        assertThat(second.getCount()).isNull();
+        assertThat(second.getResults()).hasSize(4);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Удаление объявлений пользователя - порциями, проекция и один DELETE на порцию")
+    void deleteAllByUserId_Chunked() {
+        Long ownerId = testAd.getUser().getId();
+        saveAds(testAd.getUser(), 30);
+        statistics.clear();
+
+        adService.deleteAllByUserId(ownerId);
+
+        assertThat(statistics.getTransactionCount()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+        verify(fileCleanupService).enqueueAll(argThat(paths -> paths.size() == 20));
+        verify(fileCleanupService).enqueueAll(argThat(paths -> paths.size() == 11));
+        assertThat(adsRepository.findAllByUser_Id(ownerId)).isEmpty();
+        assertThat(commentRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Порция объявлений пользователя - проекция и один DELETE независимо от размера порции")
+    void deleteAdsChunkByUserId_ConstantQueries() {
+        Long ownerId = testAd.getUser().getId();
+        saveAds(testAd.getUser(), 30);
+        statistics.clear();
+
+        int deleted = adService.deleteAdsChunkByUserId(ownerId, 20);
+
+        assertThat(deleted).isEqualTo(20);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        verify(fileCleanupService).enqueueAll(argThat(paths -> paths.size() == 20));
+        assertThat(adsRepository.findAllByUser_Id(ownerId)).hasSize(11);
+    }
+
+    @Test
+    @DisplayName("Полное удаление пользователя - объявления и комментарии удаляются фоновой задачей")
+    void hardDeleteUser_ChunkedJob() throws InterruptedException {
+        UserEntity admin = userFixtures.saveUser("query-admin@mail.com");
+        Authentication adminAuth = UsernamePasswordAuthenticationToken.authenticated(
+                admin.getUserName(), null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        UserEntity owner = testAd.getUser();
+        saveAds(owner, 30);
+
+        Job job = managementService.hardDeleteUser(owner.getId(), adminAuth);
+        for (int i = 0; i < 50 && jobRepository.findById(job.getId()).orElseThrow().getState().isActive(); i++) {
+            Thread.sleep(100);
+        }
+
+        JobEntity finished = jobRepository.findById(job.getId()).orElseThrow();
+        assertThat(finished.getState()).isEqualTo(JobState.COMPLETED);
+        assertThat(finished.getProcessed()).isEqualTo(31);
+        assertThat(adsRepository.count()).isZero();
+        assertThat(commentRepository.count()).isZero();
+        assertThat(userRepository.findById(owner.getId())).isEmpty();
+    }
+
+    private void saveAds(UserEntity owner, int count) {
+        for (int i = 0; i < count; i++) {
+            AdEntity ad = new AdEntity();
+            ad.setTitle("Ad " + i);
+            ad.setDescription("Description of ad " + i);
+            ad.setPrice(i);
+            ad.setAdImage("ads_images/" + i + ".png");
+            ad.setUser(owner);
+            adsRepository.save(ad);
+        }
+    }
+
+    @Test
+    @DisplayName("Список комментариев несуществующего объявления - 404")
+    void getAllCommentsAd_AdNotFound() {
+        assertThrows(NotFoundException.class,
+                () -> commentService.getAllCommentsAd(testAd.getId() + 1000, null, null, authentication));
+    }
+}
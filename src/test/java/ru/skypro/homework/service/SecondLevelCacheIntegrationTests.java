@@ -0,0 +1,118 @@
+package ru.skypro.homework.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import ru.skypro.homework.dto.Role;
+import ru.skypro.homework.dto.jobs.Job;
+import ru.skypro.homework.dto.jobs.JobState;
+import ru.skypro.homework.entities.AuthEntity;
+import ru.skypro.homework.entities.UserEntity;
+import ru.skypro.homework.repository.AuthRepository;
+import ru.skypro.homework.repository.JobRepository;
+import ru.skypro.homework.repository.UserRepository;
+import ru.skypro.homework.test_utils.UserFixtures;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Кэш второго уровня Hibernate для пользователей (естественный ключ - логин)
+ * и учетных данных.
+ */
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SecondLevelCacheIntegrationTests {
+
+    @Autowired
+    private UserFixtures userFixtures;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AuthRepository authRepository;
+    @Autowired
+    private JobRepository jobRepository;
+    @Autowired
+    private ManagementService managementService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UserEntity user;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        userFixtures.deleteAll();
+
+        user = userFixtures.saveUser("cached@mail.com", Role.USER);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private void awaitJob(Long jobId) throws InterruptedException {
+        for (int i = 0; i < 50 && jobRepository.findById(jobId).orElseThrow().getState().isActive(); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(jobRepository.findById(jobId).orElseThrow().getState()).isEqualTo(JobState.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("Повторный поиск пользователя и учетных данных по логину - без запросов к БД")
+    void findByUserName_ServedFromSecondLevelCache() {
+        authRepository.findByUser_UserName("cached@mail.com").orElseThrow();
+        statistics.clear();
+
+        UserEntity cached = userRepository.findByUserName("cached@mail.com").orElseThrow();
+        AuthEntity auth = authRepository.findByUser_UserName("cached@mail.com").orElseThrow();
+
+        assertThat(cached.getId()).isEqualTo(user.getId());
+        assertThat(auth.getRole()).isEqualTo(Role.USER);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getNaturalIdCacheHitCount()).isPositive();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Мягкое удаление: прежний логин больше не находится, учетные данные удалены")
+    void softDelete_EvictsNaturalIdAndAuth() throws InterruptedException {
+        UserEntity admin = userFixtures.saveUser("cache-admin@mail.com");
+        userRepository.findByUserName("cached@mail.com").orElseThrow();
+        authRepository.findByUser_UserName("cached@mail.com").orElseThrow();
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+                admin.getUserName(), null, List.of(new SimpleGrantedAuthority(Role.ADMIN.getRole())));
+
+        Job job = managementService.softDeleteUser(user.getId(), authentication);
+        awaitJob(job.getId());
+
+        assertThat(userRepository.findByUserName("cached@mail.com")).isEmpty();
+        assertThat(authRepository.findByUser_UserName("cached@mail.com")).isEmpty();
+        assertThat(userRepository.findByUserName("id" + user.getId() + "@deleted")).isPresent();
+    }
+
+    @Test
+    @DisplayName("Полное удаление: пользователь и учетные данные удалены из кэша")
+    void hardDelete_EvictsUserAndAuth() throws InterruptedException {
+        UserEntity admin = userFixtures.saveUser("cache-admin@mail.com");
+        authRepository.findByUser_UserName("cached@mail.com").orElseThrow();
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+                admin.getUserName(), null, List.of(new SimpleGrantedAuthority(Role.ADMIN.getRole())));
+
+        Job job = managementService.hardDeleteUser(user.getId(), authentication);
+        awaitJob(job.getId());
+
+        assertThat(userRepository.findByUserName("cached@mail.com")).isEmpty();
+        assertThat(userRepository.findById(user.getId())).isEmpty();
+        assertThat(authRepository.findById(user.getId())).isEmpty();
+    }
+}
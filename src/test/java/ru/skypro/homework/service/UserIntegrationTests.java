@@ -9,6 +9,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
@@ -18,12 +19,19 @@ import ru.skypro.homework.dto.Role;
 import ru.skypro.homework.dto.users.NewPassword;
 import ru.skypro.homework.dto.users.UpdateUser;
 import ru.skypro.homework.entities.AuthEntity;
+import ru.skypro.homework.entities.FileCleanupTaskEntity;
 import ru.skypro.homework.entities.UserEntity;
+import ru.skypro.homework.repository.FileCleanupQueueRepository;
 import ru.skypro.homework.repository.AuthRepository;
 import ru.skypro.homework.repository.UserRepository;
 import ru.skypro.homework.service.impl.ImageServiceImpl;
 
+import java.io.ByteArrayInputStream;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -47,6 +55,11 @@ public class UserIntegrationTests {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private FileCleanupQueueRepository queueRepository;
+
     @MockBean
     private ImageServiceImpl imageService;
 
@@ -60,6 +73,7 @@ public class UserIntegrationTests {
         user.setFirstName("Ivan");
         user.setLastName("Ivanov");
         user.setPhone("+79991234567");
+        user.setUserImage("avatars/old_avatar.png");
         user = userRepository.save(user);
 
         AuthEntity auth = new AuthEntity();
@@ -127,4 +141,23 @@ public class UserIntegrationTests {
                 .andExpect(status().isNotFound());
     }
 
+
+    @Test
+    @DisplayName("UserService: параллельная загрузка аватара - на удаление ставится фактически замененный файл")
+    @WithMockUser(username = "user@mail.com")
+    void uploadAuthUserImage_ConcurrentUploadReplacesLatest() {
+        Long id = userRepository.findByUserName("user@mail.com").orElseThrow().getId();
+        when(imageService.storeAvatarImage(any(), anyLong())).thenAnswer(invocation -> {
+            userRepository.replaceUserImage(id, "avatars/old_avatar.png", "avatars/concurrent_avatar.png");
+            return "avatars/new_avatar.png";
+        });
+
+        userService.uploadAuthUserImage(new ByteArrayInputStream("content".getBytes()),
+                SecurityContextHolder.getContext().getAuthentication());
+
+        assertThat(userRepository.findImageById(id).orElseThrow().getImage()).isEqualTo("avatars/new_avatar.png");
+        assertThat(queueRepository.findAll()).extracting(FileCleanupTaskEntity::getPath)
+                .contains("avatars/concurrent_avatar.png")
+                .doesNotContain("avatars/old_avatar.png", "avatars/new_avatar.png");
+    }
 }
@@ -0,0 +1,68 @@
+package ru.skypro.homework.test_utils;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.skypro.homework.dto.Role;
+import ru.skypro.homework.entities.AuthEntity;
+import ru.skypro.homework.entities.UserEntity;
+import ru.skypro.homework.repository.AdsRepository;
+import ru.skypro.homework.repository.AuthRepository;
+import ru.skypro.homework.repository.CommentRepository;
+import ru.skypro.homework.repository.UserRepository;
+
+/**
+ * Пользователи для интеграционных тестов, сохраняющих данные вне тестовой транзакции,
+ * и очистка таблиц пользователей, объявлений и комментариев между тестами.
+ */
+
+@Component
+@RequiredArgsConstructor
+public class UserFixtures {
+
+    public static final String PASSWORD_HASH = "hash";
+
+    private final CommentRepository commentRepository;
+    private final AdsRepository adsRepository;
+    private final AuthRepository authRepository;
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    /** Несохраненный пользователь с заданным логином. */
+    public static UserEntity newUser(String userName) {
+        UserEntity user = new UserEntity();
+        user.setUserName(userName);
+        user.setFirstName("Ivan");
+        user.setLastName("Ivanov");
+        user.setPhone(AuthTestsData.VALID_PHONE);
+        return user;
+    }
+
+    /** Пользователь без учетных данных. */
+    public UserEntity saveUser(String userName) {
+        return userRepository.save(newUser(userName));
+    }
+
+    /** Пользователь с учетными данными (хэш пароля {@link #PASSWORD_HASH}). */
+    public UserEntity saveUser(String userName, Role role) {
+        return saveUser(userName, role, PASSWORD_HASH);
+    }
+
+    /** Пользователь с учетными данными; пользователь и учетные данные сохраняются в одной транзакции. */
+    public UserEntity saveUser(String userName, Role role, String passwordHash) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            UserEntity saved = userRepository.save(newUser(userName));
+            authRepository.save(AuthEntity.builder().user(saved).password(passwordHash).role(role).build());
+            return saved;
+        });
+    }
+
+    /** Удаление комментариев, объявлений, учетных данных и пользователей. */
+    public void deleteAll() {
+        commentRepository.deleteAll();
+        adsRepository.deleteAll();
+        authRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+}
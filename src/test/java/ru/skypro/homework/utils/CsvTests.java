@@ -0,0 +1,61 @@
+package ru.skypro.homework.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Чтение и запись CSV: кавычки, переводы строк внутри полей, ограничение длины записи.
+ */
+
+public class CsvTests {
+
+    @Test
+    @DisplayName("Записанные поля читаются без изменений")
+    void writeRead_RoundTrip() throws IOException {
+        List<String> fields = Arrays.asList("plain", "with, comma", "with \"quotes\"", "multi\nline", " padded ", "");
+        StringWriter out = new StringWriter();
+        CsvWriter writer = new CsvWriter(out);
+        writer.writeRecord(fields);
+        writer.writeRecord(List.of("next"));
+
+        CsvReader reader = new CsvReader(new StringReader(out.toString()), 1000);
+
+        assertThat(reader.readRecord()).isEqualTo(fields);
+        assertThat(reader.getRecordLine()).isEqualTo(1);
+        assertThat(reader.readRecord()).containsExactly("next");
+        assertThat(reader.getRecordLine()).isEqualTo(3);
+        assertThat(reader.readRecord()).isNull();
+    }
+
+    @Test
+    @DisplayName("Длинная запись отклоняется, чтение продолжается со следующей")
+    void readRecord_TooLong() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("\uFEFFa,b\n\"0123456789\n0123\",x\nc\n"), 8);
+
+        assertThat(reader.readRecord()).containsExactly("a", "b");
+        assertThrows(IllegalArgumentException.class, reader::readRecord);
+        assertThat(reader.readRecord()).containsExactly("c");
+        assertThat(reader.getRecordLine()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Строки длиннее допустимой отклоняются, номера строк сохраняются")
+    void readLine_TooLong() throws IOException {
+        LineReader reader = new LineReader(new StringReader("first\r\n0123456789\nlast"), 8);
+
+        assertThat(reader.readLine()).isEqualTo("first");
+        assertThrows(IllegalArgumentException.class, reader::readLine);
+        assertThat(reader.getLineNumber()).isEqualTo(2);
+        assertThat(reader.readLine()).isEqualTo("last");
+        assertThat(reader.readLine()).isNull();
+    }
+}
@@ -0,0 +1,151 @@
+package ru.skypro.homework.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.skypro.homework.dto.images.ImageFormat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Чтение размеров из заголовков WebP ({@code VP8 }, {@code VP8L}, {@code VP8X}) и JPEG ({@code SOFn}):
+ * обычные размеры, размеры "бомбы распаковки" (больше {@code app.upload.max-pixels})
+ * и обрезанный заголовок.
+ */
+
+public class ImageHeaderSnifferTests {
+
+    /** {@code app.upload.max-pixels} в тестовом профиле. */
+    private static final long MAX_PIXELS = 40_000_000;
+
+    private static Optional<ImageHeaderSniffer.Dimensions> read(ImageFormat format, byte[] data) throws IOException {
+        return ImageHeaderSniffer.readDimensions(format, new ByteArrayInputStream(data));
+    }
+
+    private static byte[] truncate(byte[] data) {
+        return Arrays.copyOf(data, data.length - 1);
+    }
+
+    private static void littleEndian(ByteArrayOutputStream out, int value, int length) {
+        for (int i = 0; i < length; i++) {
+            out.write(value >> (8 * i));
+        }
+    }
+
+    private static byte[] webp(String fourCc, byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes("RIFF".getBytes(StandardCharsets.US_ASCII));
+        littleEndian(out, 4 + 8 + data.length, 4);
+        out.writeBytes("WEBP".getBytes(StandardCharsets.US_ASCII));
+        out.writeBytes(fourCc.getBytes(StandardCharsets.US_ASCII));
+        littleEndian(out, data.length, 4);
+        out.writeBytes(data);
+        return out.toByteArray();
+    }
+
+    private static byte[] vp8(int width, int height) {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        data.writeBytes(new byte[]{0x10, 0x02, 0x00, (byte) 0x9D, 0x01, 0x2A});
+        littleEndian(data, width, 2);
+        littleEndian(data, height, 2);
+        return webp("VP8 ", data.toByteArray());
+    }
+
+    private static byte[] vp8l(int width, int height) {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        data.write(0x2F);
+        littleEndian(data, (width - 1) | ((height - 1) << 14), 4);
+        data.writeBytes(new byte[5]);
+        return webp("VP8L", data.toByteArray());
+    }
+
+    private static byte[] vp8x(int width, int height) {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        data.writeBytes(new byte[]{0x10, 0x00, 0x00, 0x00});
+        littleEndian(data, width - 1, 3);
+        littleEndian(data, height - 1, 3);
+        return webp("VP8X", data.toByteArray());
+    }
+
+    private static void segment(ByteArrayOutputStream out, int marker, byte[] body) {
+        out.write(0xFF);
+        out.write(marker);
+        out.write((body.length + 2) >> 8);
+        out.write(body.length + 2);
+        out.writeBytes(body);
+    }
+
+    /** SOI, APP0 и таблица Хаффмана (DHT, маркер из диапазона SOFn) перед заголовком кадра. */
+    private static byte[] jpeg(int sofMarker, int width, int height) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(new byte[]{(byte) 0xFF, (byte) 0xD8});
+        segment(out, 0xE0, "JFIF\0\1\1\0\0\1\0\1\0\0".getBytes(StandardCharsets.US_ASCII));
+        segment(out, 0xC4, new byte[]{0x00, 0x01, 0x02, 0x03});
+        segment(out, sofMarker, new byte[]{8, (byte) (height >> 8), (byte) height,
+                (byte) (width >> 8), (byte) width, 1, 1, 0x11, 0});
+        return out.toByteArray();
+    }
+
+    @Test
+    @DisplayName("WebP VP8: размеры из заголовка кадра, бомба распаковки, обрезанный заголовок")
+    void webpVp8() throws IOException {
+        ImageHeaderSniffer.Dimensions dimensions = read(ImageFormat.WEBP, vp8(640, 480)).orElseThrow();
+        assertThat(dimensions.getWidth()).isEqualTo(640);
+        assertThat(dimensions.getHeight()).isEqualTo(480);
+
+        ImageHeaderSniffer.Dimensions bomb = read(ImageFormat.WEBP, vp8(16383, 16383)).orElseThrow();
+        assertThat(bomb.getPixels()).isEqualTo(16383L * 16383).isGreaterThan(MAX_PIXELS);
+
+        assertThat(read(ImageFormat.WEBP, truncate(vp8(640, 480)))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("WebP VP8L: размеры без потерь, бомба распаковки, обрезанный заголовок")
+    void webpVp8l() throws IOException {
+        ImageHeaderSniffer.Dimensions dimensions = read(ImageFormat.WEBP, vp8l(300, 200)).orElseThrow();
+        assertThat(dimensions.getWidth()).isEqualTo(300);
+        assertThat(dimensions.getHeight()).isEqualTo(200);
+
+        ImageHeaderSniffer.Dimensions bomb = read(ImageFormat.WEBP, vp8l(16384, 16384)).orElseThrow();
+        assertThat(bomb.getPixels()).isEqualTo(16384L * 16384).isGreaterThan(MAX_PIXELS);
+
+        assertThat(read(ImageFormat.WEBP, Arrays.copyOf(vp8l(300, 200), 22))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("WebP VP8X: размеры холста, бомба распаковки (24 бита на сторону), обрезанный заголовок")
+    void webpVp8x() throws IOException {
+        ImageHeaderSniffer.Dimensions dimensions = read(ImageFormat.WEBP, vp8x(1024, 768)).orElseThrow();
+        assertThat(dimensions.getWidth()).isEqualTo(1024);
+        assertThat(dimensions.getHeight()).isEqualTo(768);
+
+        ImageHeaderSniffer.Dimensions bomb = read(ImageFormat.WEBP, vp8x(1 << 24, 1 << 24)).orElseThrow();
+        assertThat(bomb.getPixels()).isEqualTo((1L << 24) * (1L << 24)).isGreaterThan(MAX_PIXELS);
+
+        assertThat(read(ImageFormat.WEBP, truncate(vp8x(1024, 768)))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("JPEG SOF0/SOF2: размеры после пропущенных сегментов, бомба распаковки, обрезанный заголовок")
+    void jpegStartOfFrame() throws IOException {
+        ImageHeaderSniffer.Dimensions baseline = read(ImageFormat.JPEG, jpeg(0xC0, 800, 600)).orElseThrow();
+        assertThat(baseline.getWidth()).isEqualTo(800);
+        assertThat(baseline.getHeight()).isEqualTo(600);
+        ImageHeaderSniffer.Dimensions progressive = read(ImageFormat.JPEG, jpeg(0xC2, 1920, 1080)).orElseThrow();
+        assertThat(progressive.getWidth()).isEqualTo(1920);
+        assertThat(progressive.getHeight()).isEqualTo(1080);
+
+        ImageHeaderSniffer.Dimensions bomb = read(ImageFormat.JPEG, jpeg(0xC2, 65535, 65535)).orElseThrow();
+        assertThat(bomb.getPixels()).isEqualTo(65535L * 65535).isGreaterThan(MAX_PIXELS);
+
+        byte[] jpeg = jpeg(0xC0, 800, 600);
+        assertThat(read(ImageFormat.JPEG, Arrays.copyOf(jpeg, jpeg.length - 7))).isEmpty();
+        assertThat(read(ImageFormat.JPEG, Arrays.copyOf(jpeg, 10))).isEmpty();
+    }
+}
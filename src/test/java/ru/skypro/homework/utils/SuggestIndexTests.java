@@ -0,0 +1,179 @@
+package ru.skypro.homework.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Индекс подсказок: ранжирование по числу объявлений, изменения и удаления,
+ * запросы из нескольких слов.
+ *
+ * <p>Замер задержки на миллионе объявлений запускается с параметром
+ * {@code -Dbenchmark=true}.</p>
+ */
+
+public class SuggestIndexTests {
+
+    private final SuggestIndex index = new SuggestIndex(8);
+
+    @Test
+    @DisplayName("Подсказки по префиксу - по убыванию числа объявлений, без учета регистра и ё")
+    void suggest_RankedByAdCount() {
+        index.put(1, 10, "Велосипед горный", "Почти новый");
+        index.put(2, 10, "Велосипед детский", null);
+        index.put(3, 11, "Велотренажер", "Отдам вместе с велосипедом");
+        index.put(4, 11, "Ёлка искусственная", "Высота 2 м");
+
+        assertThat(index.suggest("ВЕЛ", 10)).containsExactly("велосипед", "велосипедом", "велотренажер");
+        assertThat(index.suggest("вел", 1)).containsExactly("велосипед");
+        assertThat(index.suggest("ел", 10)).containsExactly("елка");
+        assertThat(index.suggest("самокат", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Изменение и удаление объявления обновляют подсказки")
+    void putAndRemove_UpdateSuggestions() {
+        index.put(1, 10, "Диван угловой", null);
+        index.put(2, 10, "Диван прямой", null);
+        index.put(3, 11, "Дисковод", null);
+
+        index.put(2, 10, "Дисковая пила", null);
+        assertThat(index.suggest("ди", 10)).containsExactly("диван", "дисковая", "дисковод");
+
+        assertThat(index.remove(1)).isTrue();
+        assertThat(index.remove(1)).isFalse();
+        assertThat(index.suggest("ди", 10)).containsExactly("дисковая", "дисковод");
+
+        assertThat(index.removeByUser(10)).isEqualTo(1);
+        assertThat(index.suggest("ди", 10)).containsExactly("дисковод");
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Запрос из нескольких слов - кандидаты из объявлений с предыдущими словами")
+    void suggest_WithContext() {
+        index.put(1, 10, "Горный велосипед", null);
+        index.put(2, 10, "Горный велосипед", null);
+        index.put(3, 10, "Горные лыжи", null);
+        index.put(4, 11, "Городской велотренажер", null);
+        index.put(5, 11, "Детский велосипед", null);
+
+        assertThat(index.suggest("горный вел", 10)).containsExactly("горный велосипед");
+        assertThat(index.suggest("городской вел", 10)).containsExactly("городской велотренажер");
+        assertThat(index.suggest("горный лы", 10)).isEmpty();
+        assertThat(index.suggest("синий вел", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Массовая загрузка и уплотнение номеров не меняют результат")
+    void bulkLoadAndCompaction_KeepResults() {
+        index.beginBulkLoad();
+        for (int i = 0; i < 3000; i++) {
+            index.put(i, i % 7, "Товар " + (i % 3 == 0 ? "красный" : "синий"), null);
+        }
+        index.finishBulkLoad();
+        assertThat(index.suggest("товар к", 10)).containsExactly("товар красный");
+
+        for (int i = 0; i < 3000; i++) {
+            if (i % 3 != 0) {
+                index.remove(i);
+            }
+        }
+        index.put(5000, 1, "Товар синий", null);
+
+        assertThat(index.size()).isEqualTo(1001);
+        assertThat(index.suggest("кр", 10)).containsExactly("красный");
+        assertThat(index.suggest("товар с", 10)).containsExactly("товар синий");
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Задержка подсказок на миллионе объявлений")
+    void suggest_LatencyAtMillionAds() {
+        int ads = 1_000_000;
+        int queries = 200_000;
+        String[] vocabulary = vocabulary(20_000, new Random(1));
+        Random random = new Random(2);
+        SuggestIndex large = new SuggestIndex(10);
+
+        long start = System.nanoTime();
+        large.beginBulkLoad();
+        for (int i = 0; i < ads; i++) {
+            large.put(i, i % 50_000, text(vocabulary, random, 4), text(vocabulary, random, 12));
+        }
+        large.finishBulkLoad();
+        long loadMillis = (System.nanoTime() - start) / 1_000_000;
+
+        String[] prefixes = new String[queries];
+        for (int i = 0; i < queries; i++) {
+            String word = zipf(vocabulary, random);
+            String prefix = word.substring(0, 1 + random.nextInt(Math.min(4, word.length())));
+            prefixes[i] = i % 5 == 0 ? zipf(vocabulary, random) + " " + prefix : prefix;
+        }
+        for (int i = 0; i < 50_000; i++) {
+            large.suggest(prefixes[i], 10);
+        }
+        long[] latencies = new long[queries];
+        for (int i = 0; i < queries; i++) {
+            long begin = System.nanoTime();
+            large.suggest(prefixes[i], 10);
+            latencies[i] = System.nanoTime() - begin;
+        }
+        Arrays.sort(latencies);
+        long p50 = latencies[queries / 2];
+        long p99 = latencies[queries * 99 / 100];
+
+        long updateStart = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            large.put(random.nextInt(ads), 1, text(vocabulary, random, 4), text(vocabulary, random, 12));
+        }
+        long updateMicros = (System.nanoTime() - updateStart) / 10_000 / 1000;
+
+        System.out.printf("Suggest over %d ads, %d terms: load %d ms, p50 %d us, p99 %d us, update %d us%n",
+                large.size(), large.termCount(), loadMillis, p50 / 1000, p99 / 1000, updateMicros);
+        assertThat(p99).isLessThan(1_000_000);
+    }
+
+    private static String[] vocabulary(int size, Random random) {
+        String letters = "абвгдежзиклмнопрстуфхцчшэюя";
+        String[] words = new String[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 3 + random.nextInt(8);
+            for (int j = 0; j < length; j++) {
+                word.append(letters.charAt(random.nextInt(letters.length())));
+            }
+            words[i] = word.toString();
+        }
+        return words;
+    }
+
+    /** Слова с распределением, близким к закону Ципфа: частые слова встречаются чаще. */
+    private static String zipf(String[] vocabulary, Random random) {
+        double u = random.nextDouble();
+        return vocabulary[(int) (Math.pow(vocabulary.length, u)) - 1];
+    }
+
+    private static String text(String[] vocabulary, Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append(zipf(vocabulary, random)).append(' ');
+        }
+        return text.toString();
+    }
+
+    @Test
+    @DisplayName("Разбиение текста на слова")
+    void tokenize_SkipsShortWords() {
+        assertThat(SuggestIndex.tokenize("Продам iPhone 15, б/у; ЁЖ ёж")).containsExactly("продам", "iphone", "15", "еж");
+        assertThat(SuggestIndex.tokenize(null)).isEmpty();
+        assertThat(List.copyOf(SuggestIndex.tokenize("а я"))).isEmpty();
+    }
+}